@@ -14,7 +14,9 @@ package org.eclipse.wst.common.project.facet.core.internal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.IStatus;
@@ -78,6 +80,55 @@ public final class Constraint
     
     public IStatus check( final Collection<IProjectFacetVersion> facets,
                           final boolean validateSoftDeps )
+    {
+        return check( facets, indexByFacet( facets ), validateSoftDeps );
+    }
+    
+    /**
+     * Groups the facet versions by facet, keeping the order of the collection, so
+     * that the REQUIRES and CONFLICTS operators of the whole constraint tree can 
+     * find the versions of a facet without scanning the collection each time.
+     */
+    
+    private static Map<IProjectFacet,List<IProjectFacetVersion>> indexByFacet( final Collection<IProjectFacetVersion> facets )
+    {
+        final Map<IProjectFacet,List<IProjectFacetVersion>> index
+            = new HashMap<IProjectFacet,List<IProjectFacetVersion>>();
+        
+        for( IProjectFacetVersion fv : facets )
+        {
+            List<IProjectFacetVersion> versions = index.get( fv.getProjectFacet() );
+            
+            if( versions == null )
+            {
+                versions = new ArrayList<IProjectFacetVersion>( 1 );
+                index.put( fv.getProjectFacet(), versions );
+            }
+            
+            versions.add( fv );
+        }
+        
+        return index;
+    }
+    
+    private static IStatus check( final IConstraint constraint,
+                                  final Collection<IProjectFacetVersion> facets,
+                                  final Map<IProjectFacet,List<IProjectFacetVersion>> index,
+                                  final boolean validateSoftDeps )
+    {
+        if( constraint instanceof Constraint )
+        {
+            return ( (Constraint) constraint ).check( facets, index, validateSoftDeps );
+        }
+        else
+        {
+            return constraint.check( facets, validateSoftDeps );
+        }
+    }
+    
+    private IStatus check( final Collection<IProjectFacetVersion> facets,
+                           final Map<IProjectFacet,List<IProjectFacetVersion>> index,
+                           final boolean validateSoftDeps )
     {
         final MultiStatus result = createMultiStatus(); 
         
@@ -86,7 +137,7 @@ public final class Constraint
             for( Object operand : this.operands )
             {
                 final IConstraint childConstraint = (IConstraint) operand;
-                final IStatus st = childConstraint.check( facets, validateSoftDeps );
+                final IStatus st = check( childConstraint, facets, index, validateSoftDeps );
                 
                 if( st.getSeverity() != IStatus.OK )
                 {
@@ -102,7 +153,7 @@ public final class Constraint
             {
                 final IConstraint childConstraint = (IConstraint) operand;
                 
-                if( childConstraint.check( facets, validateSoftDeps ).isOK() )
+                if( check( childConstraint, facets, index, validateSoftDeps ).isOK() )
                 {
                     someBranchWorks = true;
                     break;
@@ -169,20 +220,8 @@ public final class Constraint
                     final IProjectFacet rf = (IProjectFacet) firstOperand;
                     final IVersionExpr vexpr = (IVersionExpr) this.operands.get( 1 );
                     
-                    boolean found = false;
-                    
-                    for( IProjectFacetVersion fv : facets )
-                    {
-                        if( fv.getProjectFacet() == rf )
-                        {
-                            if( vexpr.check( fv ) )
-                            {
-                                found = true;
-                            }
-                            
-                            break;
-                        }
-                    }
+                    final List<IProjectFacetVersion> versions = index.get( rf );
+                    final boolean found = ( versions != null && vexpr.check( versions.get( 0 ) ) );
                     
                     if( ! found )
                     {
@@ -208,7 +247,7 @@ public final class Constraint
                 for( IProjectFacetVersion member : group.getMembers() )
                 {
                     if( member.getProjectFacet() != this.fv.getProjectFacet() && 
-                        facets.contains( member ) )
+                        contains( index, member ) )
                     {
                         final ValidationProblem.Type t 
                             = ValidationProblem.Type.CONFLICTS;
@@ -227,9 +266,11 @@ public final class Constraint
                 final IVersionExpr vexpr
                     = this.operands.size() == 2 ? (IVersionExpr) this.operands.get( 1 ) : null;
                 
-                for( IProjectFacetVersion fver : facets )
+                final List<IProjectFacetVersion> versions = index.get( f );
+                
+                if( versions != null )
                 {
-                    if( fver.getProjectFacet() == f )
+                    for( IProjectFacetVersion fver : versions )
                     {
                         if( vexpr == null || vexpr.check( fver ) )
                         {
@@ -421,6 +462,13 @@ public final class Constraint
         return true;
     }
     
+    private static boolean contains( final Map<IProjectFacet,List<IProjectFacetVersion>> index,
+                                     final IProjectFacetVersion fv )
+    {
+        final List<IProjectFacetVersion> versions = index.get( fv.getProjectFacet() );
+        return ( versions != null && versions.contains( fv ) );
+    }
+    
     private static boolean containsAny( final Collection<? extends Object> a,
                                         final Collection<? extends Object> b )
     {
@@ -0,0 +1,66 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.wst.common.project.facet.core.internal;
+
+import static org.eclipse.wst.common.project.facet.core.util.internal.PluginUtil.instantiate;
+
+import org.eclipse.wst.common.project.facet.core.IDefaultVersionProvider;
+import org.eclipse.wst.common.project.facet.core.IProjectFacetVersion;
+
+/**
+ * This provider implementation is used to delay class loading of default version providers
+ * specified in the <code>facets</code> extension point until the default version is actually
+ * requested, so that reading the extension does not activate the contributing plugins. If
+ * the provider cannot be created, the default version falls back to the latest version.
+ */
+
+final class DelayedClassLoadingDefaultVersionProvider
+
+    implements IDefaultVersionProvider
+
+{
+    private final String pluginId;
+    private final String providerClassName;
+    private IDefaultVersionProvider provider;
+    private boolean failed;
+
+    DelayedClassLoadingDefaultVersionProvider( final String pluginId,
+                                               final String providerClassName )
+    {
+        this.pluginId = pluginId;
+        this.providerClassName = providerClassName;
+        this.provider = null;
+        this.failed = false;
+    }
+
+    public IProjectFacetVersion getDefaultVersion()
+    {
+        final IDefaultVersionProvider provider;
+
+        synchronized( this )
+        {
+            if( this.provider == null && ! this.failed )
+            {
+                this.provider
+                    = instantiate( this.pluginId, this.providerClassName,
+                                   IDefaultVersionProvider.class );
+
+                this.failed = ( this.provider == null );
+            }
+
+            provider = this.provider;
+        }
+
+        return ( provider == null ? null : provider.getDefaultVersion() );
+    }
+
+}
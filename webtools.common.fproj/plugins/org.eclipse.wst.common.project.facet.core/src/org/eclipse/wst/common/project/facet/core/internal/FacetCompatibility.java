@@ -0,0 +1,201 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.wst.common.project.facet.core.internal;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.wst.common.project.facet.core.IProjectFacet;
+import org.eclipse.wst.common.project.facet.core.IProjectFacetVersion;
+
+/**
+ * Remembers the results of facet conflict and compatibility checks, so that
+ * they only have to be computed once. Each facet version is given a bit index
+ * the first time it is seen. Conflicts between two facet versions are kept as
+ * a bit matrix, and the facet versions that are valid for a set of fixed facets
+ * are kept as a bit set for each of the recently used fixed facet sets.
+ *
+ * <p>The results are forgotten whenever facet versions, constraints or group
+ * members are added. The checks themselves are run without holding the lock,
+ * so that they can call out to other parts of the framework. A result that was
+ * computed while the registry was changing is not remembered.</p>
+ */
+
+final class FacetCompatibility
+{
+    private static final int MAX_FIXED_SETS = 32;
+
+    private static final Object lock = new Object();
+
+    private static int generation = 0;
+    private static int nextIndex = 0;
+    private static BitSet[] conflictsKnown = new BitSet[ 0 ];
+    private static BitSet[] conflicts = new BitSet[ 0 ];
+
+    private static final Map<Set<IProjectFacet>,ValidFacets> validFacets
+        = new LinkedHashMap<Set<IProjectFacet>,ValidFacets>( 16, 0.75f, true )
+    {
+        private static final long serialVersionUID = 1L;
+
+        protected boolean removeEldestEntry( final Map.Entry<Set<IProjectFacet>,ValidFacets> eldest )
+        {
+            return size() > MAX_FIXED_SETS;
+        }
+    };
+
+    private FacetCompatibility() {}
+
+    static boolean conflictsWith( final ProjectFacetVersion a,
+                                  final IProjectFacetVersion b )
+    {
+        if( ! ( b instanceof ProjectFacetVersion ) )
+        {
+            return a.computeConflictsWith( b );
+        }
+
+        final int i;
+        final int j;
+        final int gen;
+
+        synchronized( lock )
+        {
+            i = index( a );
+            j = index( (ProjectFacetVersion) b );
+
+            if( conflictsKnown[ i ].get( j ) )
+            {
+                return conflicts[ i ].get( j );
+            }
+
+            gen = generation;
+        }
+
+        final boolean result = a.computeConflictsWith( b );
+
+        synchronized( lock )
+        {
+            if( gen == generation )
+            {
+                // The conflict relation is symmetric, so fill in both rows.
+
+                conflictsKnown[ i ].set( j );
+                conflictsKnown[ j ].set( i );
+                conflicts[ i ].set( j, result );
+                conflicts[ j ].set( i, result );
+            }
+        }
+
+        return result;
+    }
+
+    static boolean isValidFor( final ProjectFacetVersion fv,
+                               final Set<IProjectFacet> fixed )
+    {
+        final int i;
+        final int gen;
+
+        synchronized( lock )
+        {
+            i = index( fv );
+
+            final ValidFacets valid = validFacets.get( fixed );
+
+            if( valid != null && valid.known.get( i ) )
+            {
+                return valid.valid.get( i );
+            }
+
+            gen = generation;
+        }
+
+        final boolean result = fv.computeIsValidFor( fixed );
+
+        synchronized( lock )
+        {
+            if( gen == generation )
+            {
+                ValidFacets valid = validFacets.get( fixed );
+
+                if( valid == null )
+                {
+                    valid = new ValidFacets();
+                    validFacets.put( new HashSet<IProjectFacet>( fixed ), valid );
+                }
+
+                valid.known.set( i );
+                valid.valid.set( i, result );
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Forgets all the results. Called whenever the facet registry changes in
+     * a way that can affect them.
+     */
+
+    static void invalidate()
+    {
+        synchronized( lock )
+        {
+            generation++;
+
+            for( int i = 0; i < nextIndex; i++ )
+            {
+                conflictsKnown[ i ].clear();
+                conflicts[ i ].clear();
+            }
+
+            validFacets.clear();
+        }
+    }
+
+    private static int index( final ProjectFacetVersion fv )
+    {
+        int index = fv.getIndex();
+
+        if( index == -1 )
+        {
+            index = nextIndex++;
+            fv.setIndex( index );
+
+            if( index == conflicts.length )
+            {
+                final int length = Math.max( 64, index * 2 );
+                final BitSet[] newConflictsKnown = new BitSet[ length ];
+                final BitSet[] newConflicts = new BitSet[ length ];
+
+                System.arraycopy( conflictsKnown, 0, newConflictsKnown, 0, index );
+                System.arraycopy( conflicts, 0, newConflicts, 0, index );
+
+                conflictsKnown = newConflictsKnown;
+                conflicts = newConflicts;
+            }
+
+            conflictsKnown[ index ] = new BitSet();
+            conflicts[ index ] = new BitSet();
+        }
+
+        return index;
+    }
+
+    private static final class ValidFacets
+    {
+        final BitSet known = new BitSet();
+        final BitSet valid = new BitSet();
+    }
+
+}
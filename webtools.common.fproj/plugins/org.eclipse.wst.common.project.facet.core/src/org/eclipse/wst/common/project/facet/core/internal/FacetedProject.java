@@ -160,13 +160,16 @@ public final class FacetedProject
     private Thread modifierThread = null;
     private Exception parsingException;
     private boolean isDeleted;
+    private final FacetedProjectIndex index;
     
-    FacetedProject( final IProject project )
+    FacetedProject( final IProject project,
+                    final FacetedProjectIndex index )
     
         throws CoreException
         
     {
         this.project = project;
+        this.index = index;
         this.facets = new CopyOnWriteArraySet<IProjectFacetVersion>();
         this.facetsReadOnly = Collections.unmodifiableSet( this.facets );
         this.fixed = new CopyOnWriteArraySet<IProjectFacet>();
@@ -1395,6 +1398,11 @@ public final class FacetedProject
     {
         synchronized( this.lock )
         {
+            if( this.index != null )
+            {
+                this.index.update( this, this.facets );
+            }
+            
             this.isBeingModified = false;
             this.modifierThread = null;
             this.lock.notifyAll();
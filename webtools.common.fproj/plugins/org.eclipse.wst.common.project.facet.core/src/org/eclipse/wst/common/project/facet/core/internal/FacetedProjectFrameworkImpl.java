@@ -16,7 +16,6 @@ import static org.eclipse.wst.common.project.facet.core.util.internal.FileUtil.v
 import static org.eclipse.wst.common.project.facet.core.util.internal.PluginUtil.findOptionalElement;
 import static org.eclipse.wst.common.project.facet.core.util.internal.PluginUtil.findRequiredAttribute;
 import static org.eclipse.wst.common.project.facet.core.util.internal.PluginUtil.getElementValue;
-import static org.eclipse.wst.common.project.facet.core.util.internal.PluginUtil.instantiate;
 import static org.eclipse.wst.common.project.facet.core.util.internal.PluginUtil.reportMissingAttribute;
 import static org.eclipse.wst.common.project.facet.core.util.internal.PluginUtil.reportMissingElement;
 
@@ -130,6 +129,8 @@ public final class FacetedProjectFrameworkImpl
     private boolean presetsInitialized = false;
     private final IndexedSet<String,IGroup> groups;
     private final Map<String,FacetedProject> projects;
+    private final FacetedProjectIndex projectIndex;
+    private final Object projectIndexInitLock = new Object();
     private final ProjectListenerRegistry projectListenerRegistry;
     private final FrameworkListenerRegistry frameworkListenerRegistry;
     
@@ -182,6 +183,7 @@ public final class FacetedProjectFrameworkImpl
         this.presetsInitialized = false;
         this.groups = new IndexedSet<String,IGroup>();
         this.projects = new HashMap<String,FacetedProject>();
+        this.projectIndex = new FacetedProjectIndex();
         this.projectListenerRegistry = new ProjectListenerRegistry();
         this.frameworkListenerRegistry = new FrameworkListenerRegistry();
         
@@ -630,18 +632,52 @@ public final class FacetedProjectFrameworkImpl
         throws CoreException
         
     {
-        final IProject[] all 
-            = ResourcesPlugin.getWorkspace().getRoot().getProjects();
+        // The first query loads every faceted project in the workspace. From then on, the
+        // resource change listener loads projects as they are added or opened, so only the 
+        // projects that the index returns need to be looked at.
+        
+        synchronized( this.projectIndexInitLock )
+        {
+            if( ! this.projectIndex.isComplete() )
+            {
+                this.projectIndex.setComplete();
+                
+                CoreException firstException = null;
+                
+                for( IProject proj : ResourcesPlugin.getWorkspace().getRoot().getProjects() )
+                {
+                    // Keep going, so that one broken project does not leave the index incomplete.
+                    
+                    try
+                    {
+                        create( proj );
+                    }
+                    catch( CoreException e )
+                    {
+                        if( firstException == null )
+                        {
+                            firstException = e;
+                        }
+                    }
+                }
+                
+                if( firstException != null )
+                {
+                    throw firstException;
+                }
+            }
+        }
         
         final Set<IFacetedProject> result = new HashSet<IFacetedProject>();
         
-        for( int i = 0; i < all.length; i++ )
+        for( FacetedProject fproj : this.projectIndex.getFacetedProjects( f, fv ) )
         {
-            final IProject proj = all[ i ];
-            final IFacetedProject fproj = create( proj );
+            final IProject proj = fproj.getProject();
             
-            if( fproj != null )
+            if( proj.isAccessible() && proj.isNatureEnabled( FacetedProjectNature.NATURE_ID ) )
             {
+                fproj.refresh();
+                
                 if( ( f != null && ! fproj.hasProjectFacet( f ) ) ||
                     ( fv != null && ! fproj.hasProjectFacet( fv ) ) )
                 {
@@ -678,7 +714,7 @@ public final class FacetedProjectFrameworkImpl
                 
                 if( fproj == null )
                 {
-                    fproj = new FacetedProject( project );
+                    fproj = new FacetedProject( project, this.projectIndex );
                     this.projects.put( project.getName(), fproj );
                 }
             }
@@ -1329,43 +1365,60 @@ public final class FacetedProjectFrameworkImpl
             throw new RuntimeException( "Extension point not found!" ); //$NON-NLS-1$
         }
         
+        // Group the elements by name in one pass, keeping their order, since each kind of
+        // element is read in a separate phase below.
+        
         final List<IConfigurationElement> cfgels = new ArrayList<IConfigurationElement>();
         
+        final Map<String,List<IConfigurationElement>> cfgelsByName
+            = new HashMap<String,List<IConfigurationElement>>();
+        
         for( IExtension extension : point.getExtensions() )
         {
             for( IConfigurationElement cfgel : extension.getConfigurationElements() )
             {
-                cfgels.add( cfgel );
+                final String name = cfgel.getName();
+                
+                if( name.equals( EL_ACTION ) || name.equals( EL_EVENT_HANDLER ) )
+                {
+                    cfgels.add( cfgel );
+                }
+                else
+                {
+                    List<IConfigurationElement> list = cfgelsByName.get( name );
+                    
+                    if( list == null )
+                    {
+                        list = new ArrayList<IConfigurationElement>();
+                        cfgelsByName.put( name, list );
+                    }
+                    
+                    list.add( cfgel );
+                }
             }
         }
         
-        for( IConfigurationElement config : cfgels )
+        for( IConfigurationElement config : getElements( cfgelsByName, EL_CATEGORY ) )
         {
-            if( config.getName().equals( EL_CATEGORY ) )
+            try
             {
-                try
-                {
-                    readCategory( config );
-                }
-                catch( InvalidExtensionException e )
-                {
-                    // Continue. The problem has been reported in the log.
-                }
+                readCategory( config );
+            }
+            catch( InvalidExtensionException e )
+            {
+                // Continue. The problem has been reported in the log.
             }
         }
         
-        for( IConfigurationElement config : cfgels )
+        for( IConfigurationElement config : getElements( cfgelsByName, EL_PROJECT_FACET ) )
         {
-            if( config.getName().equals( EL_PROJECT_FACET ) )
+            try
             {
-                try
-                {
-                    readProjectFacet( config );
-                }
-                catch( InvalidExtensionException e )
-                {
-                    // Continue. The problem has been reported in the log.
-                }
+                readProjectFacet( config );
+            }
+            catch( InvalidExtensionException e )
+            {
+                // Continue. The problem has been reported in the log.
             }
         }
         
@@ -1375,12 +1428,9 @@ public final class FacetedProjectFrameworkImpl
         final Map<ProjectFacetVersion,List<IConfigurationElement>> fvToActions 
             = new HashMap<ProjectFacetVersion,List<IConfigurationElement>>();
         
-        for( IConfigurationElement config : cfgels )
+        for( IConfigurationElement config : getElements( cfgelsByName, EL_PROJECT_FACET_VERSION ) )
         {
-            if( config.getName().equals( EL_PROJECT_FACET_VERSION ) )
-            {
-                readProjectFacetVersion( config, fvToConstraint, fvToActions );
-            }
+            readProjectFacetVersion( config, fvToConstraint, fvToActions );
         }
         
         calculateVersionComparisonTables( fvToConstraint, fvToActions );
@@ -1415,15 +1465,25 @@ public final class FacetedProjectFrameworkImpl
             }
         }
         
-        for( IConfigurationElement config : cfgels )
+        for( IConfigurationElement config : getElements( cfgelsByName, EL_PROJECT_FACET ) )
         {
-            if( config.getName().equals( EL_PROJECT_FACET ) )
-            {
-                readDefaultVersionInfo( config );
-            }
+            readDefaultVersionInfo( config );
         }
     }
     
+    private static List<IConfigurationElement> getElements( final Map<String,List<IConfigurationElement>> cfgelsByName,
+                                                            final String name )
+    {
+        final List<IConfigurationElement> list = cfgelsByName.get( name );
+        
+        if( list == null )
+        {
+            return Collections.emptyList();
+        }
+        
+        return list;
+    }
+    
     private void readCategory( final IConfigurationElement config )
     
         throws InvalidExtensionException
@@ -1754,14 +1814,13 @@ public final class FacetedProjectFrameworkImpl
                 
                 if( clname != null )
                 {
+                    // The provider class is loaded when the default version is first requested.
+                    
                     final IDefaultVersionProvider defaultVersionProvider
-                        = instantiate( f.getPluginId(), clname, IDefaultVersionProvider.class );
+                        = new DelayedClassLoadingDefaultVersionProvider( f.getPluginId(), clname );
 
-                    if( defaultVersionProvider != null )
-                    {
-                        f.setDefaultVersionProvider( defaultVersionProvider );
-                        defaultVersionSpecified = true;
-                    }
+                    f.setDefaultVersionProvider( defaultVersionProvider );
+                    defaultVersionSpecified = true;
                 }
                 else
                 {
@@ -2323,6 +2382,7 @@ public final class FacetedProjectFrameworkImpl
         {
             final IResourceDelta delta = event.getDelta();
             final List<FacetedProject> projectsToRefresh = new ArrayList<FacetedProject>();
+            final List<IProject> projectsToLoad = new ArrayList<IProject>();
             
             synchronized( FacetedProjectFrameworkImpl.this.projects )
             {
@@ -2343,6 +2403,24 @@ public final class FacetedProjectFrameworkImpl
                         {
                             FacetCorePlugin.log( e );
                         }
+                        
+                        FacetedProjectFrameworkImpl.this.projectIndex.remove( (FacetedProject) fpj );
+                    }
+                }
+                
+                // Keep the project index complete by loading the projects that may have
+                // become faceted projects.
+                
+                if( FacetedProjectFrameworkImpl.this.projectIndex.isComplete() )
+                {
+                    for( IResourceDelta subdelta 
+                         : delta.getAffectedChildren( IResourceDelta.ADDED | IResourceDelta.CHANGED ) )
+                    {
+                        if( subdelta.getKind() == IResourceDelta.ADDED ||
+                            ( subdelta.getFlags() & ( IResourceDelta.OPEN | IResourceDelta.DESCRIPTION ) ) != 0 )
+                        {
+                            projectsToLoad.add( (IProject) subdelta.getResource() );
+                        }
                     }
                 }
                 
@@ -2368,6 +2446,18 @@ public final class FacetedProjectFrameworkImpl
                     FacetCorePlugin.log( e );
                 }
             }
+            
+            for( IProject project : projectsToLoad )
+            {
+                try
+                {
+                    create( project );
+                }
+                catch( CoreException e )
+                {
+                    FacetCorePlugin.log( e );
+                }
+            }
         }
     }
 
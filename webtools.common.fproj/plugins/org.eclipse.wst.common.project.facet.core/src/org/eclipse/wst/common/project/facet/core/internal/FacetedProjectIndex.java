@@ -0,0 +1,191 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.wst.common.project.facet.core.internal;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.wst.common.project.facet.core.IProjectFacet;
+import org.eclipse.wst.common.project.facet.core.IProjectFacetVersion;
+
+/**
+ * Index of the known faceted projects by installed facet and facet version.
+ * Each {@link FacetedProject} reports its installed facets whenever it finishes
+ * a modification, so the index stays current without reading the metadata of
+ * projects that are not asked about.
+ *
+ * <p>The index only knows about projects that have been loaded. The framework
+ * loads every faceted project in the workspace the first time the index is
+ * queried and then keeps it complete by watching for added and opened projects.
+ * See {@link #isComplete()}.</p>
+ */
+
+final class FacetedProjectIndex
+{
+    private final Map<FacetedProject,Set<IProjectFacetVersion>> installed
+        = new HashMap<FacetedProject,Set<IProjectFacetVersion>>();
+
+    private final Map<IProjectFacet,Set<FacetedProject>> byFacet
+        = new HashMap<IProjectFacet,Set<FacetedProject>>();
+
+    private final Map<IProjectFacetVersion,Set<FacetedProject>> byFacetVersion
+        = new HashMap<IProjectFacetVersion,Set<FacetedProject>>();
+
+    private boolean complete = false;
+
+    /**
+     * Records the facets that are installed in the project, replacing what was
+     * recorded before.
+     */
+
+    synchronized void update( final FacetedProject fproj,
+                              final Set<IProjectFacetVersion> facets )
+    {
+        final Set<IProjectFacetVersion> previous = this.installed.get( fproj );
+
+        if( previous != null )
+        {
+            if( previous.equals( facets ) )
+            {
+                return;
+            }
+
+            unindex( fproj, previous );
+        }
+
+        final Set<IProjectFacetVersion> copy = new HashSet<IProjectFacetVersion>( facets );
+
+        this.installed.put( fproj, copy );
+
+        for( IProjectFacetVersion fv : copy )
+        {
+            add( this.byFacet, fv.getProjectFacet(), fproj );
+            add( this.byFacetVersion, fv, fproj );
+        }
+    }
+
+    synchronized void remove( final FacetedProject fproj )
+    {
+        final Set<IProjectFacetVersion> previous = this.installed.remove( fproj );
+
+        if( previous != null )
+        {
+            unindex( fproj, previous );
+        }
+    }
+
+    /**
+     * Returns whether every faceted project in the workspace has been loaded
+     * into the index.
+     */
+
+    synchronized boolean isComplete()
+    {
+        return this.complete;
+    }
+
+    synchronized void setComplete()
+    {
+        this.complete = true;
+    }
+
+    /**
+     * Returns the known projects that have the given facet and facet version
+     * installed. Either argument may be null, in which case it is not used to
+     * filter the projects.
+     */
+
+    synchronized Set<FacetedProject> getFacetedProjects( final IProjectFacet f,
+                                                         final IProjectFacetVersion fv )
+    {
+        final Set<FacetedProject> result;
+
+        if( fv != null )
+        {
+            result = get( this.byFacetVersion, fv );
+
+            if( f != null && fv.getProjectFacet() != f )
+            {
+                return Collections.emptySet();
+            }
+        }
+        else if( f != null )
+        {
+            result = get( this.byFacet, f );
+        }
+        else
+        {
+            result = this.installed.keySet();
+        }
+
+        return new HashSet<FacetedProject>( result );
+    }
+
+    private void unindex( final FacetedProject fproj,
+                          final Set<IProjectFacetVersion> facets )
+    {
+        for( IProjectFacetVersion fv : facets )
+        {
+            remove( this.byFacet, fv.getProjectFacet(), fproj );
+            remove( this.byFacetVersion, fv, fproj );
+        }
+    }
+
+    private static <K> Set<FacetedProject> get( final Map<K,Set<FacetedProject>> map,
+                                                final K key )
+    {
+        final Set<FacetedProject> projects = map.get( key );
+
+        if( projects == null )
+        {
+            return Collections.emptySet();
+        }
+
+        return projects;
+    }
+
+    private static <K> void add( final Map<K,Set<FacetedProject>> map,
+                                 final K key,
+                                 final FacetedProject fproj )
+    {
+        Set<FacetedProject> projects = map.get( key );
+
+        if( projects == null )
+        {
+            projects = new HashSet<FacetedProject>();
+            map.put( key, projects );
+        }
+
+        projects.add( fproj );
+    }
+
+    private static <K> void remove( final Map<K,Set<FacetedProject>> map,
+                                    final K key,
+                                    final FacetedProject fproj )
+    {
+        final Set<FacetedProject> projects = map.get( key );
+
+        if( projects != null )
+        {
+            projects.remove( fproj );
+
+            if( projects.isEmpty() )
+            {
+                map.remove( key );
+            }
+        }
+    }
+
+}
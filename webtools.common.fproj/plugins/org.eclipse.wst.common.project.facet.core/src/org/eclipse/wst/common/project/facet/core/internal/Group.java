@@ -86,11 +86,13 @@ public final class Group
     void addMember( final IProjectFacetVersion fv )
     {
         this.members.add( fv );
+        FacetCompatibility.invalidate();
     }
     
     void addMembers( final Collection<IProjectFacetVersion> facets )
     {
         this.members.addAll( facets );
+        FacetCompatibility.invalidate();
     }
     
     public String toString()
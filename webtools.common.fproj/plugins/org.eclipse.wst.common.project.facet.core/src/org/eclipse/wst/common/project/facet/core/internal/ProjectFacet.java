@@ -135,6 +135,8 @@ public final class ProjectFacet
             this.versions.addKey( alias, fv );
             ( (ProjectFacetVersion) fv ).addAlias( alias );
         }
+        
+        FacetCompatibility.invalidate();
     }
     
     public IProjectFacetVersion getLatestSupportedVersion( final IRuntime r )
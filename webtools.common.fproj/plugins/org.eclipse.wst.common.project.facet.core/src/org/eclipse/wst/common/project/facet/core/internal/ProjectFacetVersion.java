@@ -50,6 +50,7 @@ public final class ProjectFacetVersion
     private Map<IProjectFacetVersion,Integer> compTable = Collections.emptyMap();
     private final Map<String,Object> properties;
     private final Map<String,Object> propertiesReadOnly;
+    private int index = -1;
     
     ProjectFacetVersion() 
     {
@@ -107,6 +108,22 @@ public final class ProjectFacetVersion
     void setConstraint( final IConstraint constraint )
     {
         this.constraint = constraint;
+        FacetCompatibility.invalidate();
+    }
+    
+    /**
+     * Returns the bit index that {@link FacetCompatibility} has given this facet 
+     * version, or -1 if it has not been given one yet.
+     */
+    
+    int getIndex()
+    {
+        return this.index;
+    }
+    
+    void setIndex( final int index )
+    {
+        this.index = index;
     }
     
     public String getPluginId()
@@ -317,6 +334,11 @@ public final class ProjectFacetVersion
     }
     
     public boolean isValidFor( final Set<IProjectFacet> fixed )
+    {
+        return FacetCompatibility.isValidFor( this, fixed );
+    }
+    
+    boolean computeIsValidFor( final Set<IProjectFacet> fixed )
     {
         for( IProjectFacet f : fixed )
         {
@@ -352,6 +374,11 @@ public final class ProjectFacetVersion
     }
     
     public boolean conflictsWith( final IProjectFacetVersion fv )
+    {
+        return FacetCompatibility.conflictsWith( this, fv );
+    }
+    
+    boolean computeConflictsWith( final IProjectFacetVersion fv )
     {
         if( this == fv )
         {
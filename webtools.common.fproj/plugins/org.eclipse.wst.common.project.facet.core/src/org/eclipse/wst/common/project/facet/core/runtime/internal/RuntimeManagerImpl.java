@@ -1,5 +1,5 @@
 /******************************************************************************
- * Copyright (c) 2010 Oracle
+ * Copyright (c) 2010, 2026 Oracle
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -21,15 +21,27 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtension;
 import org.eclipse.core.runtime.IExtensionPoint;
 import org.eclipse.core.runtime.IExtensionRegistry;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.wst.common.project.facet.core.IListener;
 import org.eclipse.wst.common.project.facet.core.IProjectFacet;
@@ -78,6 +90,18 @@ public final class RuntimeManagerImpl
 
     private static final String ANY = "any"; //$NON-NLS-1$
     
+    /**
+     * The system property that sets how long, in milliseconds, a runtime validation result
+     * is considered current. A runtime whose result is older than this is validated again
+     * the next time that the runtimes are queried, which is how changes that are not
+     * notified (such as files removed from the runtime location) are noticed.
+     */
+    
+    public static final String PROP_VALIDATION_TTL 
+        = FacetCorePlugin.PLUGIN_ID + ".runtimeValidationTtl"; //$NON-NLS-1$
+    
+    private static final long DEFAULT_VALIDATION_TTL = 10000;
+    
     private static final IndexedSet<String,IRuntimeComponentType> runtimeComponentTypes;
     private static final IndexedSet<String,IRuntime> runtimes;
     private static final List<Mapping> supportedMappings;
@@ -85,7 +109,10 @@ public final class RuntimeManagerImpl
     private static final Map<String,IRuntimeBridge> bridges;
     private static final Set<IListener> listeners;
     private static final RuntimeLifecycleListenerRegistry runtimeLifecycleListenerRegistry;
-    private static RuntimeValidationThread runtimeValidationThread;
+    private static final long validationTtl;
+    private static final AtomicLong validationCount;
+    private static ExecutorService validationExecutor;
+    private static RuntimeValidationJob runtimeValidationJob;
     
     static
     {
@@ -96,7 +123,10 @@ public final class RuntimeManagerImpl
         bridges = new HashMap<String,IRuntimeBridge>();
         listeners = new HashSet<IListener>();
         runtimeLifecycleListenerRegistry = new RuntimeLifecycleListenerRegistry();
-        runtimeValidationThread = null;
+        validationTtl = parseValidationTtl( System.getProperty( PROP_VALIDATION_TTL ) );
+        validationCount = new AtomicLong();
+        validationExecutor = null;
+        runtimeValidationJob = null;
         
         readMetadata();
         readBridgesExtensions();
@@ -149,6 +179,8 @@ public final class RuntimeManagerImpl
     
     public static Set<IRuntime> getRuntimes()
     {
+        validateExpiredRuntimes();
+        
         synchronized( runtimes )
         {
             bridge();
@@ -158,6 +190,8 @@ public final class RuntimeManagerImpl
     
     public static Set<IRuntime> getRuntimes( final Set<IProjectFacetVersion> facets )
     {
+        validateExpiredRuntimes();
+        
         synchronized( runtimes )
         {
             bridge();
@@ -189,6 +223,8 @@ public final class RuntimeManagerImpl
     
     public static boolean isRuntimeDefined( final String name )
     {
+        validateExpiredRuntimes();
+        
         synchronized( runtimes )
         {
             bridge();
@@ -198,6 +234,8 @@ public final class RuntimeManagerImpl
     
     public static IRuntime getRuntime( final String name )
     {
+        validateExpiredRuntimes();
+        
         synchronized( runtimes )
         {
             bridge();
@@ -274,6 +312,8 @@ public final class RuntimeManagerImpl
     
     private static void notifyRuntimeListeners()
     {
+        scheduleRuntimeValidation();
+        
         for( IListener listener : listeners )
         {
             try
@@ -294,10 +334,10 @@ public final class RuntimeManagerImpl
         {
             runtimeLifecycleListenerRegistry.addListener( listener, types );
             
-            if( runtimeValidationThread == null )
+            if( runtimeValidationJob == null )
             {
-                runtimeValidationThread = new RuntimeValidationThread();
-                runtimeValidationThread.start();
+                runtimeValidationJob = new RuntimeValidationJob();
+                runtimeValidationJob.schedule();
             }
         }
     }
@@ -308,14 +348,119 @@ public final class RuntimeManagerImpl
         {
             runtimeLifecycleListenerRegistry.removeListener( listener );
             
-            if( runtimeValidationThread != null && runtimeLifecycleListenerRegistry.isEmpty() )
+            if( runtimeValidationJob != null && runtimeLifecycleListenerRegistry.isEmpty() )
+            {
+                runtimeValidationJob.cancel();
+                runtimeValidationJob = null;
+            }
+        }
+    }
+    
+    /**
+     * Returns the number of times that a runtime has been validated in order to report
+     * validation status changes to the lifecycle listeners. Intended for monitoring.
+     */
+    
+    public static long getValidationCount()
+    {
+        return validationCount.get();
+    }
+    
+    /**
+     * Validates the runtimes that have been added and the runtimes whose validation
+     * result has expired, if there are lifecycle listeners registered.
+     */
+    
+    private static void scheduleRuntimeValidation()
+    {
+        synchronized( runtimeLifecycleListenerRegistry )
+        {
+            if( runtimeValidationJob != null )
             {
-                runtimeValidationThread.terminate();
-                runtimeValidationThread = null;
+                runtimeValidationJob.request();
             }
         }
     }
     
+    /**
+     * Validates the runtimes again if a validation result has expired since the last
+     * validation, if there are lifecycle listeners registered. Does not wait for the
+     * validation to complete.
+     */
+    
+    private static void validateExpiredRuntimes()
+    {
+        final RuntimeValidationJob job;
+        
+        synchronized( runtimeLifecycleListenerRegistry )
+        {
+            job = runtimeValidationJob;
+        }
+        
+        if( job != null )
+        {
+            job.requestIfExpired();
+        }
+    }
+    
+    /**
+     * Parses the value of the {@link #PROP_VALIDATION_TTL} system property. An invalid 
+     * value is logged and the default time to live is used instead.
+     * 
+     * @param value the value of the property or <code>null</code> if it is not set
+     * @return the validation time to live in milliseconds
+     */
+    
+    public static long parseValidationTtl( final String value )
+    {
+        if( value != null )
+        {
+            try
+            {
+                final long ttl = Long.parseLong( value.trim() );
+                
+                if( ttl > 0 )
+                {
+                    return ttl;
+                }
+            }
+            catch( NumberFormatException e ) {}
+            
+            final String msg = NLS.bind( Resources.invalidValidationTtl, value, PROP_VALIDATION_TTL );
+            FacetCorePlugin.logWarning( msg );
+        }
+        
+        return DEFAULT_VALIDATION_TTL;
+    }
+    
+    private static synchronized ExecutorService getValidationExecutor()
+    {
+        if( validationExecutor == null )
+        {
+            // Runtime validation typically checks the file system, so at least two threads
+            // are used. Validations that don't get a thread run on the job's thread.
+            
+            final int threads = Math.max( 2, java.lang.Runtime.getRuntime().availableProcessors() );
+            
+            final ThreadFactory threadFactory = new ThreadFactory()
+            {
+                public Thread newThread( final Runnable runnable )
+                {
+                    final Thread thread = new Thread( runnable, Resources.runtimeValidationJobName );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            };
+            
+            validationExecutor
+                = new ThreadPoolExecutor( 0, threads, 30, TimeUnit.SECONDS, 
+                                          new SynchronousQueue<Runnable>(), threadFactory,
+                                          new ThreadPoolExecutor.CallerRunsPolicy() );
+        }
+        
+        return validationExecutor;
+    }
+    
     static Set<IProjectFacetVersion> getSupportedFacets( final List<IRuntimeComponent> composition )
     {
         final Set<IProjectFacetVersion> result = new HashSet<IProjectFacetVersion>();
@@ -1037,69 +1182,233 @@ public final class RuntimeManagerImpl
         }
     }
     
-    private static final class RuntimeValidationThread
+    /**
+     * Validates the runtimes and notifies the lifecycle listeners when the validation
+     * status of a runtime changes. The job runs when the first listener is added,
+     * whenever the set of runtimes changes and when the runtimes are queried after a
+     * validation result has expired. It is not scheduled to run otherwise. Only the 
+     * runtimes that are new or whose result has expired are validated, and they are 
+     * validated concurrently.
+     */
+    
+    private static final class RuntimeValidationJob
 
-        extends Thread
+        extends Job
         
     {
-        private boolean isAborted;
-        private Map<String,IStatus> validationResults;
+        private final Map<String,ValidationResult> validationResults;
+        private final Object lock;
+        private boolean requested;
+        private volatile boolean disposed;
+        private volatile long nextExpiry;
         
-        public RuntimeValidationThread()
+        public RuntimeValidationJob()
         {
-            this.isAborted = false;
-            this.validationResults = new HashMap<String,IStatus>();
+            super( Resources.runtimeValidationJobName );
+            
+            this.validationResults = new HashMap<String,ValidationResult>();
+            this.lock = new Object();
+            this.requested = false;
+            this.disposed = false;
+            this.nextExpiry = Long.MAX_VALUE;
+            
+            setSystem( true );
         }
         
-        private IStatus getValidationResult( final IRuntime runtime )
+        public void request()
         {
-            synchronized( this.validationResults )
+            synchronized( this.lock )
             {
-                return this.validationResults.get( runtime.getName() );
+                this.requested = true;
+                this.nextExpiry = Long.MAX_VALUE;
+                
+                wakeUp();
+                schedule();
             }
         }
         
-        private void setValidationResult( final IRuntime runtime,
-                                          final IStatus validationResult )
+        public void requestIfExpired()
         {
-            synchronized( this.validationResults )
+            if( System.currentTimeMillis() >= this.nextExpiry )
             {
-                this.validationResults.put( runtime.getName(), validationResult );
+                request();
             }
         }
         
         @Override
-        public void run()
+        protected void canceling()
+        {
+            // The job is only canceled when the last listener is removed, so make sure
+            // that a pending reschedule doesn't bring it back.
+            
+            this.disposed = true;
+        }
+        
+        @Override
+        protected IStatus run( final IProgressMonitor monitor )
         {
-            while( ! this.isAborted )
+            while( true )
             {
-                for( IRuntime runtime : RuntimeManager.getRuntimes() )
+                synchronized( this.lock )
                 {
-                    final IStatus oldResult = getValidationResult( runtime );
-                    final IStatus newResult = runtime.validate( new NullProgressMonitor() );
-                    
-                    if( oldResult == null || ! oldResult.getMessage().equals( newResult.getMessage() ) )
+                    this.requested = false;
+                }
+                
+                if( ! this.disposed )
+                {
+                    validate( monitor );
+                }
+                
+                if( this.disposed || monitor.isCanceled() )
+                {
+                    return Status.CANCEL_STATUS;
+                }
+                
+                synchronized( this.lock )
+                {
+                    if( ! this.requested )
+                    {
+                        return Status.OK_STATUS;
+                    }
+                }
+            }
+        }
+        
+        private void validate( final IProgressMonitor monitor )
+        {
+            final long now = System.currentTimeMillis();
+            final Set<String> names = new HashSet<String>();
+            final List<IRuntime> expired = new ArrayList<IRuntime>();
+            
+            for( IRuntime runtime : RuntimeManager.getRuntimes() )
+            {
+                names.add( runtime.getName() );
+                
+                final ValidationResult result = this.validationResults.get( runtime.getName() );
+                
+                if( result == null || result.isExpired( runtime, now ) )
+                {
+                    expired.add( runtime );
+                }
+            }
+            
+            this.validationResults.keySet().retainAll( names );
+            
+            if( ! expired.isEmpty() )
+            {
+                validate( expired, now, monitor );
+            }
+            
+            // Remember when the first of the results expires, so that a later query of
+            // the runtimes can request another validation.
+            
+            long nextExpiry = Long.MAX_VALUE;
+            
+            for( ValidationResult result : this.validationResults.values() )
+            {
+                nextExpiry = Math.min( nextExpiry, result.timestamp + validationTtl );
+            }
+            
+            synchronized( this.lock )
+            {
+                if( ! this.requested )
+                {
+                    this.nextExpiry = nextExpiry;
+                }
+            }
+        }
+        
+        private void validate( final List<IRuntime> expired,
+                               final long now,
+                               final IProgressMonitor monitor )
+        {
+            
+            final ExecutorService executor = getValidationExecutor();
+            final List<Future<IStatus>> futures = new ArrayList<Future<IStatus>>();
+            
+            for( final IRuntime runtime : expired )
+            {
+                final Callable<IStatus> validation = new Callable<IStatus>()
+                {
+                    public IStatus call()
                     {
-                        setValidationResult( runtime, newResult );
+                        if( RuntimeValidationJob.this.disposed || monitor.isCanceled() )
+                        {
+                            return null;
+                        }
                         
-                        final IRuntimeLifecycleEvent event
-                            = new ValidationStatusChangedEvent( runtime, oldResult, newResult );
+                        validationCount.incrementAndGet();
                         
-                        runtimeLifecycleListenerRegistry.notifyListeners( event );
+                        return runtime.validate( new NullProgressMonitor() );
                     }
-                }
-
+                };
+                
+                futures.add( executor.submit( validation ) );
+            }
+            
+            for( int i = 0, n = expired.size(); i < n; i++ )
+            {
+                final IRuntime runtime = expired.get( i );
+                final IStatus newResult;
+                
                 try
                 {
-                    Thread.sleep( 1000 );
+                    newResult = futures.get( i ).get();
+                }
+                catch( InterruptedException e )
+                {
+                    monitor.setCanceled( true );
+                    return;
+                }
+                catch( ExecutionException e )
+                {
+                    FacetCorePlugin.log( e );
+                    continue;
+                }
+                
+                if( newResult == null )
+                {
+                    continue;
+                }
+                
+                final ValidationResult oldResult = this.validationResults.get( runtime.getName() );
+                final IStatus oldStatus = ( oldResult == null ? null : oldResult.status );
+                
+                this.validationResults.put( runtime.getName(), 
+                                            new ValidationResult( runtime, newResult, now ) );
+                
+                if( oldStatus == null || ! oldStatus.getMessage().equals( newResult.getMessage() ) )
+                {
+                    final IRuntimeLifecycleEvent event
+                        = new ValidationStatusChangedEvent( runtime, oldStatus, newResult );
+                    
+                    runtimeLifecycleListenerRegistry.notifyListeners( event );
                 }
-                catch( InterruptedException e ) {}
             }
         }
+    }
+    
+    private static final class ValidationResult
+    {
+        private final IRuntime runtime;
+        private final IStatus status;
+        private final long timestamp;
         
-        public void terminate()
+        public ValidationResult( final IRuntime runtime,
+                                 final IStatus status,
+                                 final long timestamp )
         {
-            this.isAborted = true;
+            this.runtime = runtime;
+            this.status = status;
+            this.timestamp = timestamp;
+        }
+        
+        public boolean isExpired( final IRuntime runtime,
+                                  final long now )
+        {
+            // A runtime that was redefined under the same name has to be validated again.
+            
+            return this.runtime != runtime || now - this.timestamp >= validationTtl;
         }
     }
 
@@ -1109,6 +1418,8 @@ public final class RuntimeManagerImpl
         
     {
         public static String missingAttribute;
+        public static String invalidValidationTtl;
+        public static String runtimeValidationJobName;
         public static String runtimeComponentTypeNotDefined;
         public static String runtimeComponentVersionNotDefined;
         public static String runtimeNotDefined;
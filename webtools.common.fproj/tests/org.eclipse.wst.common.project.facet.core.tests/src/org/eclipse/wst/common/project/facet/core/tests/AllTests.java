@@ -42,6 +42,8 @@ public class AllTests
         suite.addTest( EventDeliveryTests.suite() );
         suite.addTest( AliasingSystemTests.suite() );
         suite.addTest( ProjectFacetGroupsTests.suite() );
+        suite.addTest( FacetedProjectIndexTests.suite() );
+        suite.addTest( RuntimeValidationTests.suite() );
         
         return suite;
     }
@@ -124,6 +124,7 @@ public class FacetConstraintsTests
         suite.addTest( new FacetConstraintsTests( "testIndirectConflict6" ) );
         suite.addTest( new FacetConstraintsTests( "testIndirectConflict7" ) );
         suite.addTest( new FacetConstraintsTests( "testIndirectConflict8" ) );
+        suite.addTest( new FacetConstraintsTests( "testValidForFixedFacets" ) );
         suite.addTest( new FacetConstraintsTests( "testRequiresWithNoVersion" ) );
         suite.addTest( new FacetConstraintsTests( "testRequiresWithUnknownVersion" ) );
         suite.addTest( new FacetConstraintsTests( "testGroupRequires" ) );
@@ -200,6 +201,25 @@ public class FacetConstraintsTests
         assertFalse( f5v10.conflictsWith( f4v10 ) );
     }
     
+    /*
+     * Tests whether a facet version is valid for a set of fixed facets, using
+     * the facets from the indirect conflict tests. The checks are repeated to
+     * make sure that remembered results are the same as computed ones.
+     */
+    
+    public void testValidForFixedFacets()
+    {
+        for( int i = 0; i < 2; i++ )
+        {
+            assertFalse( f1v10.isValidFor( asSet( f3 ) ) );
+            assertFalse( f3v10.isValidFor( asSet( f1 ) ) );
+            assertFalse( f4v10.isValidFor( asSet( f3, f5 ) ) );
+            assertTrue( f1v10.isValidFor( asSet( f1, f3 ) ) );
+            assertTrue( f5v10.isValidFor( asSet( f1 ) ) );
+            assertTrue( f1v10.isValidFor( asSet( f5 ) ) );
+        }
+    }
+    
     /*
      * Tests the following constraint:
      * 
@@ -0,0 +1,256 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.wst.common.project.facet.core.tests;
+
+import static org.eclipse.wst.common.project.facet.core.tests.support.TestUtils.waitForCondition;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.wst.common.project.facet.core.IFacetedProject;
+import org.eclipse.wst.common.project.facet.core.IFacetedProject.Action;
+import org.eclipse.wst.common.project.facet.core.IProjectFacet;
+import org.eclipse.wst.common.project.facet.core.IProjectFacetVersion;
+import org.eclipse.wst.common.project.facet.core.ProjectFacetsManager;
+import org.eclipse.wst.common.project.facet.core.tests.support.TestUtils.ICondition;
+
+/**
+ * Tests the queries for the faceted projects that have a given facet, which are
+ * answered from an index of the installed facets.
+ */
+
+public final class FacetedProjectIndexTests
+
+    extends AbstractTests
+
+{
+    private static IProjectFacet f1;
+    private static IProjectFacetVersion f1v12;
+    private static IProjectFacetVersion f1v20;
+    private static IProjectFacet f3a;
+    private static IProjectFacetVersion f3av10;
+    private static IProjectFacetVersion f3av20;
+
+    static
+    {
+        try
+        {
+            f1 = ProjectFacetsManager.getProjectFacet( "facet1" );
+            f1v12 = f1.getVersion( "1.2" );
+            f1v20 = f1.getVersion( "2.0" );
+
+            f3a = ProjectFacetsManager.getProjectFacet( "facet3a" );
+            f3av10 = f3a.getVersion( "1.0" );
+            f3av20 = f3a.getVersion( "2.0" );
+        }
+        catch( Exception e )
+        {
+            // Ignore failures. This api is tested explicitly.
+        }
+    }
+
+    private FacetedProjectIndexTests( final String name )
+    {
+        super( name );
+    }
+
+    public static Test suite()
+    {
+        final TestSuite suite = new TestSuite();
+
+        suite.setName( "Faceted Project Index Tests" );
+
+        suite.addTest( new FacetedProjectIndexTests( "testGetFacetedProjects" ) );
+        suite.addTest( new FacetedProjectIndexTests( "testInstallAndUninstall" ) );
+        suite.addTest( new FacetedProjectIndexTests( "testVersionChange" ) );
+        suite.addTest( new FacetedProjectIndexTests( "testProjectCreate" ) );
+        suite.addTest( new FacetedProjectIndexTests( "testProjectCloseAndOpen" ) );
+        suite.addTest( new FacetedProjectIndexTests( "testProjectDelete" ) );
+
+        return suite;
+    }
+
+    public void testGetFacetedProjects()
+
+        throws CoreException
+
+    {
+        final IFacetedProject fpj1 = createFacetedProject( "indexTestProject1" );
+        fpj1.installProjectFacet( f1v12, null, null );
+
+        final IFacetedProject fpj2 = createFacetedProject( "indexTestProject2" );
+        fpj2.installProjectFacet( f1v20, null, null );
+        fpj2.installProjectFacet( f3av10, null, null );
+
+        final IFacetedProject fpj3 = createFacetedProject( "indexTestProject3" );
+
+        final Set<IProject> all = projects( ProjectFacetsManager.getFacetedProjects() );
+        assertTrue( all.contains( fpj1.getProject() ) );
+        assertTrue( all.contains( fpj2.getProject() ) );
+        assertTrue( all.contains( fpj3.getProject() ) );
+
+        final Set<IProject> withF1 = projects( ProjectFacetsManager.getFacetedProjects( f1 ) );
+        assertTrue( withF1.contains( fpj1.getProject() ) );
+        assertTrue( withF1.contains( fpj2.getProject() ) );
+        assertFalse( withF1.contains( fpj3.getProject() ) );
+
+        final Set<IProject> withF1v12 = projects( ProjectFacetsManager.getFacetedProjects( f1v12 ) );
+        assertTrue( withF1v12.contains( fpj1.getProject() ) );
+        assertFalse( withF1v12.contains( fpj2.getProject() ) );
+        assertFalse( withF1v12.contains( fpj3.getProject() ) );
+
+        final Set<IProject> withF3a = projects( ProjectFacetsManager.getFacetedProjects( f3a ) );
+        assertFalse( withF3a.contains( fpj1.getProject() ) );
+        assertTrue( withF3a.contains( fpj2.getProject() ) );
+
+        final Set<IProject> withF3av20 = projects( ProjectFacetsManager.getFacetedProjects( f3av20 ) );
+        assertFalse( withF3av20.contains( fpj2.getProject() ) );
+    }
+
+    public void testInstallAndUninstall()
+
+        throws CoreException
+
+    {
+        final IFacetedProject fpj = createFacetedProject();
+
+        assertTrue( hasProject( ProjectFacetsManager.getFacetedProjects(), fpj ) );
+        assertFalse( hasProject( ProjectFacetsManager.getFacetedProjects( f1 ), fpj ) );
+
+        fpj.installProjectFacet( f1v12, null, null );
+
+        assertTrue( hasProject( ProjectFacetsManager.getFacetedProjects( f1 ), fpj ) );
+        assertTrue( hasProject( ProjectFacetsManager.getFacetedProjects( f1v12 ), fpj ) );
+
+        fpj.uninstallProjectFacet( f1v12, null, null );
+
+        assertFalse( hasProject( ProjectFacetsManager.getFacetedProjects( f1 ), fpj ) );
+        assertFalse( hasProject( ProjectFacetsManager.getFacetedProjects( f1v12 ), fpj ) );
+        assertTrue( hasProject( ProjectFacetsManager.getFacetedProjects(), fpj ) );
+    }
+
+    public void testVersionChange()
+
+        throws CoreException
+
+    {
+        final IFacetedProject fpj = createFacetedProject();
+        fpj.installProjectFacet( f1v12, null, null );
+
+        assertTrue( hasProject( ProjectFacetsManager.getFacetedProjects( f1v12 ), fpj ) );
+
+        final Action action = new Action( Action.Type.VERSION_CHANGE, f1v20, null );
+        fpj.modify( Collections.singleton( action ), null );
+
+        assertFalse( hasProject( ProjectFacetsManager.getFacetedProjects( f1v12 ), fpj ) );
+        assertTrue( hasProject( ProjectFacetsManager.getFacetedProjects( f1v20 ), fpj ) );
+        assertTrue( hasProject( ProjectFacetsManager.getFacetedProjects( f1 ), fpj ) );
+    }
+
+    public void testProjectCreate()
+
+        throws CoreException
+
+    {
+        // Make sure that the index has been filled before the project is created.
+
+        ProjectFacetsManager.getFacetedProjects();
+
+        final IFacetedProject fpj = createFacetedProject();
+        fpj.installProjectFacet( f1v12, null, null );
+
+        assertTrue( hasProject( ProjectFacetsManager.getFacetedProjects(), fpj ) );
+        assertTrue( hasProject( ProjectFacetsManager.getFacetedProjects( f1 ), fpj ) );
+    }
+
+    public void testProjectCloseAndOpen()
+
+        throws CoreException
+
+    {
+        final IFacetedProject fpj = createFacetedProject();
+        fpj.installProjectFacet( f1v12, null, null );
+
+        assertTrue( hasProject( ProjectFacetsManager.getFacetedProjects( f1 ), fpj ) );
+
+        fpj.getProject().close( null );
+
+        assertFalse( hasProject( ProjectFacetsManager.getFacetedProjects(), fpj ) );
+        assertFalse( hasProject( ProjectFacetsManager.getFacetedProjects( f1 ), fpj ) );
+
+        fpj.getProject().open( null );
+
+        waitForCondition( createIndexedCondition( f1, fpj.getProject() ) );
+        assertTrue( hasProject( ProjectFacetsManager.getFacetedProjects( f1v12 ), fpj ) );
+    }
+
+    public void testProjectDelete()
+
+        throws CoreException
+
+    {
+        final IFacetedProject fpj = createFacetedProject();
+        fpj.installProjectFacet( f1v12, null, null );
+
+        assertTrue( hasProject( ProjectFacetsManager.getFacetedProjects( f1 ), fpj ) );
+
+        fpj.getProject().delete( true, null );
+
+        assertFalse( hasProject( ProjectFacetsManager.getFacetedProjects(), fpj ) );
+        assertFalse( hasProject( ProjectFacetsManager.getFacetedProjects( f1 ), fpj ) );
+        assertFalse( hasProject( ProjectFacetsManager.getFacetedProjects( f1v12 ), fpj ) );
+    }
+
+    private static Set<IProject> projects( final Set<IFacetedProject> fprojects )
+    {
+        final Set<IProject> result = new HashSet<IProject>();
+
+        for( IFacetedProject fproj : fprojects )
+        {
+            result.add( fproj.getProject() );
+        }
+
+        return result;
+    }
+
+    private static boolean hasProject( final Set<IFacetedProject> fprojects,
+                                       final IFacetedProject fproj )
+    {
+        return projects( fprojects ).contains( fproj.getProject() );
+    }
+
+    private static ICondition createIndexedCondition( final IProjectFacet f,
+                                                      final IProject project )
+    {
+        return new ICondition()
+        {
+            public boolean check()
+            {
+                try
+                {
+                    return projects( ProjectFacetsManager.getFacetedProjects( f ) ).contains( project );
+                }
+                catch( CoreException e )
+                {
+                    return false;
+                }
+            }
+        };
+    }
+
+}
@@ -0,0 +1,235 @@
+/******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.wst.common.project.facet.core.tests;
+
+import static org.eclipse.wst.common.project.facet.core.tests.support.TestUtils.waitForCondition;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.wst.common.project.facet.core.runtime.IRuntime;
+import org.eclipse.wst.common.project.facet.core.runtime.IRuntimeComponent;
+import org.eclipse.wst.common.project.facet.core.runtime.RuntimeManager;
+import org.eclipse.wst.common.project.facet.core.runtime.events.IRuntimeLifecycleEvent;
+import org.eclipse.wst.common.project.facet.core.runtime.events.IRuntimeLifecycleListener;
+import org.eclipse.wst.common.project.facet.core.runtime.internal.RuntimeManagerImpl;
+import org.eclipse.wst.common.project.facet.core.tests.support.TestUtils.ICondition;
+
+/**
+ * Tests the validation of the runtimes that reports validation status changes to the
+ * runtime lifecycle listeners.
+ */
+
+public final class RuntimeValidationTests
+
+    extends AbstractTests
+
+{
+    private static final long DEFAULT_VALIDATION_TTL = 10000;
+
+    private RuntimeValidationListener listener;
+
+    private RuntimeValidationTests( final String name )
+    {
+        super( name );
+    }
+
+    public static Test suite()
+    {
+        final TestSuite suite = new TestSuite();
+
+        suite.setName( "Runtime Validation Tests" );
+
+        suite.addTest( new RuntimeValidationTests( "testValidationTtl" ) );
+        suite.addTest( new RuntimeValidationTests( "testInvalidValidationTtl" ) );
+        suite.addTest( new RuntimeValidationTests( "testValidationCount" ) );
+        suite.addTest( new RuntimeValidationTests( "testValidationOnRuntimeChange" ) );
+        suite.addTest( new RuntimeValidationTests( "testValidationOnDemand" ) );
+
+        return suite;
+    }
+
+    @Override
+    protected void tearDown()
+
+        throws CoreException
+
+    {
+        if( this.listener != null )
+        {
+            RuntimeManager.removeListener( this.listener );
+        }
+
+        for( IRuntime runtime : RuntimeManager.getRuntimes() )
+        {
+            if( runtime.getName().startsWith( "validationTestRuntime" ) )
+            {
+                RuntimeManager.deleteRuntime( runtime );
+            }
+        }
+
+        super.tearDown();
+    }
+
+    public void testValidationTtl()
+    {
+        assertEquals( DEFAULT_VALIDATION_TTL, RuntimeManagerImpl.parseValidationTtl( null ) );
+        assertEquals( 5000, RuntimeManagerImpl.parseValidationTtl( "5000" ) );
+        assertEquals( 250, RuntimeManagerImpl.parseValidationTtl( " 250 " ) );
+        assertEquals( 1, RuntimeManagerImpl.parseValidationTtl( "1" ) );
+    }
+
+    public void testInvalidValidationTtl()
+    {
+        assertEquals( DEFAULT_VALIDATION_TTL, RuntimeManagerImpl.parseValidationTtl( "" ) );
+        assertEquals( DEFAULT_VALIDATION_TTL, RuntimeManagerImpl.parseValidationTtl( "ten" ) );
+        assertEquals( DEFAULT_VALIDATION_TTL, RuntimeManagerImpl.parseValidationTtl( "1.5" ) );
+        assertEquals( DEFAULT_VALIDATION_TTL, RuntimeManagerImpl.parseValidationTtl( "0" ) );
+        assertEquals( DEFAULT_VALIDATION_TTL, RuntimeManagerImpl.parseValidationTtl( "-100" ) );
+    }
+
+    public void testValidationCount()
+    {
+        this.listener = addValidationListener();
+
+        final long count = RuntimeManagerImpl.getValidationCount();
+        final IRuntime runtime = defineRuntime( "validationTestRuntime1" );
+
+        waitForCondition( this.listener.createValidatedCondition( runtime ) );
+        assertTrue( this.listener.isValidated( runtime ) );
+        assertTrue( RuntimeManagerImpl.getValidationCount() > count );
+    }
+
+    public void testValidationOnRuntimeChange()
+    {
+        this.listener = addValidationListener();
+
+        final IRuntime r1 = defineRuntime( "validationTestRuntime1" );
+        waitForCondition( this.listener.createValidatedCondition( r1 ) );
+        assertTrue( this.listener.isValidated( r1 ) );
+
+        // Defining another runtime validates it without waiting for the other results
+        // to expire.
+
+        final IRuntime r2 = defineRuntime( "validationTestRuntime2" );
+        waitForCondition( this.listener.createValidatedCondition( r2 ) );
+        assertTrue( this.listener.isValidated( r2 ) );
+
+        // A runtime redefined under the same name is validated again.
+
+        RuntimeManager.deleteRuntime( r1 );
+        this.listener.clear();
+
+        final IRuntime r3 = defineRuntime( "validationTestRuntime1" );
+        waitForCondition( this.listener.createValidatedCondition( r3 ) );
+        assertTrue( this.listener.isValidated( r3 ) );
+    }
+
+    public void testValidationOnDemand()
+
+        throws Exception
+
+    {
+        this.listener = addValidationListener();
+
+        final IRuntime runtime = defineRuntime( "validationTestRuntime1" );
+        waitForCondition( this.listener.createValidatedCondition( runtime ) );
+        assertTrue( this.listener.isValidated( runtime ) );
+
+        // The runtimes are not validated again while nothing happens, even after the
+        // results have expired.
+
+        final long ttl
+            = RuntimeManagerImpl.parseValidationTtl( System.getProperty( RuntimeManagerImpl.PROP_VALIDATION_TTL ) );
+
+        final long count = RuntimeManagerImpl.getValidationCount();
+        Thread.sleep( ttl + 1000 );
+        assertEquals( count, RuntimeManagerImpl.getValidationCount() );
+
+        // Querying the runtimes validates the expired ones.
+
+        RuntimeManager.getRuntimes();
+
+        waitForCondition
+        (
+            new ICondition()
+            {
+                public boolean check()
+                {
+                    return RuntimeManagerImpl.getValidationCount() > count;
+                }
+            }
+        );
+
+        assertTrue( RuntimeManagerImpl.getValidationCount() > count );
+    }
+
+    private static IRuntime defineRuntime( final String name )
+    {
+        return RuntimeManager.defineRuntime( name, Collections.<IRuntimeComponent>emptyList(), null );
+    }
+
+    private static RuntimeValidationListener addValidationListener()
+    {
+        final RuntimeValidationListener listener = new RuntimeValidationListener();
+        RuntimeManager.addListener( listener, IRuntimeLifecycleEvent.Type.VALIDATION_STATUS_CHANGED );
+        return listener;
+    }
+
+    private static final class RuntimeValidationListener
+
+        implements IRuntimeLifecycleListener
+
+    {
+        private final Set<IRuntime> validated = new HashSet<IRuntime>();
+
+        public synchronized void handleEvent( final IRuntimeLifecycleEvent event )
+        {
+            this.validated.add( event.getRuntime() );
+        }
+
+        public synchronized boolean isValidated( final IRuntime runtime )
+        {
+            for( IRuntime r : this.validated )
+            {
+                if( r == runtime )
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        public synchronized void clear()
+        {
+            this.validated.clear();
+        }
+
+        public ICondition createValidatedCondition( final IRuntime runtime )
+        {
+            return new ICondition()
+            {
+                public boolean check()
+                {
+                    return isValidated( runtime );
+                }
+            };
+        }
+    }
+
+}
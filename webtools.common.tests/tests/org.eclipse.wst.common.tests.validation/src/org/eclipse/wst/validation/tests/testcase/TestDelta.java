@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.wst.validation.tests.testcase;
+
+import org.eclipse.core.resources.IMarkerDelta;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+
+/** A resource delta that is built by hand, so that the way deltas are queued and folded can be tested. */
+public class TestDelta implements IResourceDelta {
+	
+	private final IResource 		_resource;
+	private final int				_kind;
+	private final int				_flags;
+	private final IResourceDelta[]	_children;
+	
+	public TestDelta(IResource resource, int kind, int flags, IResourceDelta... children){
+		_resource = resource;
+		_kind = kind;
+		_flags = flags;
+		_children = children;
+	}
+
+	public void accept(IResourceDeltaVisitor visitor) throws CoreException {
+		if (!visitor.visit(this))return;
+		for (IResourceDelta child : _children)child.accept(visitor);
+	}
+
+	public void accept(IResourceDeltaVisitor visitor, boolean includePhantoms) throws CoreException {
+		accept(visitor);
+	}
+
+	public void accept(IResourceDeltaVisitor visitor, int memberFlags) throws CoreException {
+		accept(visitor);
+	}
+
+	public IResourceDelta findMember(IPath path) {
+		if (path.segmentCount() == 0)return this;
+		for (IResourceDelta child : _children){
+			if (child.getResource().getName().equals(path.segment(0)))return child.findMember(path.removeFirstSegments(1));
+		}
+		return null;
+	}
+
+	public IResourceDelta[] getAffectedChildren() {
+		return _children;
+	}
+
+	public IResourceDelta[] getAffectedChildren(int kindMask) {
+		return _children;
+	}
+
+	public IResourceDelta[] getAffectedChildren(int kindMask, int memberFlags) {
+		return _children;
+	}
+
+	public int getFlags() {
+		return _flags;
+	}
+
+	public IPath getFullPath() {
+		return _resource.getFullPath();
+	}
+
+	public int getKind() {
+		return _kind;
+	}
+
+	public IMarkerDelta[] getMarkerDeltas() {
+		return new IMarkerDelta[0];
+	}
+
+	public IPath getMovedFromPath() {
+		return null;
+	}
+
+	public IPath getMovedToPath() {
+		return null;
+	}
+
+	public IPath getProjectRelativePath() {
+		return _resource.getProjectRelativePath();
+	}
+
+	public IResource getResource() {
+		return _resource;
+	}
+
+	@SuppressWarnings("rawtypes")
+	public Object getAdapter(Class adapter) {
+		return null;
+	}
+}
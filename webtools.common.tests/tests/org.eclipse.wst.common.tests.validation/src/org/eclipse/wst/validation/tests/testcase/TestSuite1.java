@@ -3,6 +3,7 @@ package org.eclipse.wst.validation.tests.testcase;
 import java.io.ByteArrayInputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Set;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -26,11 +27,14 @@ import org.eclipse.wst.validation.MutableWorkspaceSettings;
 import org.eclipse.wst.validation.ValidationFramework;
 import org.eclipse.wst.validation.ValidationResults;
 import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.internal.DependencyIndex;
 import org.eclipse.wst.validation.internal.Deserializer;
 import org.eclipse.wst.validation.internal.Serializer;
 import org.eclipse.wst.validation.internal.Tracing;
 import org.eclipse.wst.validation.internal.ValConstants;
+import org.eclipse.wst.validation.internal.ContentTypeWrapper;
 import org.eclipse.wst.validation.internal.ValManager;
+import org.eclipse.wst.validation.internal.model.FilterIndex;
 import org.eclipse.wst.validation.tests.Misc;
 import org.eclipse.wst.validation.tests.TestValidator;
 import org.eclipse.wst.validation.tests.TestValidator2;
@@ -135,6 +139,51 @@ public class TestSuite1 extends TestCase {
 		assertFalse(index.isDependedOn(r));		
 	}
 	
+	/**
+	 * Make sure that the dependency index can be saved, and restored by a new index.
+	 */
+	public void testIndexPersistence() throws CoreException {
+		DependencyIndex index = (DependencyIndex)ValidationFramework.getDefault().getDependencyIndex();
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		IResource dependent = root.findMember("TestProject/source/second.test1");
+		IResource dependsOn = root.findMember("TestProject/source/first.test2");
+		String id = "org.eclipse.wst.validation.tests.persistence";
+		
+		index.set(id, dependent, new IResource[]{dependsOn});
+		index.saving(null);
+		IResource[] dependents = new DependencyIndex().get(id, dependsOn);
+		assertEquals(1, dependents.length);
+		assertEquals(dependent, dependents[0]);
+		
+		index.set(id, dependent, null);
+		index.saving(null);
+		assertEquals(0, new DependencyIndex().get(id, dependsOn).length);
+	}
+	
+	public void testTransitiveDependents() {
+		DependencyIndex index = (DependencyIndex)ValidationFramework.getDefault().getDependencyIndex();
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		IResource a = root.findMember("TestProject/source/third.test4");
+		IResource b = root.findMember("TestProject/source/fourth.test4");
+		IResource c = root.findMember("TestProject/source/fifth.test5");
+		String id = "org.eclipse.wst.validation.tests.transitive";
+		
+		index.set(id, a, new IResource[]{b});
+		index.set(id, b, new IResource[]{c});
+		try {
+			Set<IResource> dependents = index.getTransitiveDependents(c);
+			assertEquals(2, dependents.size());
+			assertTrue(dependents.contains(a));
+			assertTrue(dependents.contains(b));
+			assertEquals(1, index.getTransitiveDependents(b).size());
+			assertEquals(0, index.getTransitiveDependents(a).size());
+		}
+		finally {
+			index.set(id, a, null);
+			index.set(id, b, null);
+		}
+	}
+	
 	public void testGetValidators(){
 		ValidationFramework vf = ValidationFramework.getDefault();
 		IResource resource = _env.getWorkspace().getRoot().findMember("TestProject/source/first.test1");
@@ -219,6 +268,27 @@ public class TestSuite1 extends TestCase {
 		assertTrue(found);
 	}
 	
+	/**
+	 * The filter index must give the same answers as evaluating each validator's filters directly.
+	 */
+	public void testFilterIndex() throws CoreException {
+		Validator[] vals = ValManager.getDefault().getValidators(_testProject);
+		FilterIndex index = new FilterIndex(_testProject, vals);
+		String[] names = {"source/first.test1", "source/first.test2", "source/third.test4", "source/forFun.xml",
+			"file.specific", "source/file.specific", "full.specific", "source/full.specific"};
+		for (String name : names){
+			IResource resource = _testProject.findMember(name);
+			assertNotNull(name, resource);
+			FilterIndex.Match match = index.match(resource, new ContentTypeWrapper());
+			for (int i=0; i<vals.length; i++){
+				Boolean indexed = match.shouldValidate(i);
+				if (indexed == null)continue;
+				assertEquals(vals[i].getId() + " on " + name, vals[i].shouldValidate(resource, false, false), 
+					indexed.booleanValue());
+			}
+		}
+	}
+	
 	/**
 	 * Count the number of test validators.
 	 */
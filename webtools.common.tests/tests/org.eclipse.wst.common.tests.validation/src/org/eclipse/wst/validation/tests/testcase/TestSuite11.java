@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.wst.validation.tests.testcase;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.wst.validation.MutableWorkspaceSettings;
+import org.eclipse.wst.validation.ValidationFramework;
+import org.eclipse.wst.validation.internal.ValManager;
+import org.eclipse.wst.validation.tests.T1B;
+import org.eclipse.wst.validation.tests.T1Group;
+
+/** Test that running the validators in parallel gives the same results as running them one after another. */
+public class TestSuite11 extends TestCase {
+
+	private TestEnvironment _env;
+	private IProject		_project;
+
+	private IFile			_firstTest1;
+	private IFile			_secondTest1;
+	private IFile			_firstT1B;
+
+	public static Test suite() {
+		return new TestSuite(TestSuite11.class);
+	}
+
+	public TestSuite11(String name){
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		_env = new TestEnvironment();
+		_env.turnoffAutoBuild();
+		TestEnvironment.enableOnlyTheseValidators("T1");
+		_project = _env.createProject("TestSuite11");
+		IPath folder = _env.addFolder(_project.getFullPath(), "source");
+		_firstTest1 = _env.addFile(folder, "first.test1", "info - information\nwarning - warning\nerror - error\n\n" +
+			"t1error - extra error\nt1warning - extra warning");
+		_secondTest1 = _env.addFile(folder, "second.test1", "info - information\nwarning - warning\nerror - error");
+		_firstT1B = _env.addFile(folder, "first.t1b", "info - information\nwarning - warning\nerror - error\n\n" +
+			"t1error - extra error\nt1warning - extra warning");
+		setParallel(true);
+	}
+
+	protected void tearDown() throws Exception {
+		setParallel(false);
+		_project.delete(true, null);
+		_env.dispose();
+		super.tearDown();
+	}
+
+	private static void setParallel(boolean parallel) throws InvocationTargetException {
+		ValidationFramework vf = ValidationFramework.getDefault();
+		MutableWorkspaceSettings ws = vf.getWorkspaceSettings();
+		ws.setParallel(parallel);
+		vf.applyChanges(ws, true);
+	}
+
+	public void testParallelPreference() {
+		assertTrue("The parallel preference should have been turned on",
+			ValManager.getDefault().getGlobalPreferences().getParallel());
+	}
+
+	public void testParallelBuild() throws CoreException, InterruptedException, InvocationTargetException {
+		IProgressMonitor monitor = new NullProgressMonitor();
+
+		buildAndWait(monitor);
+		List<String> first = getMarkers(_firstTest1);
+		List<String> second = getMarkers(_secondTest1);
+		List<String> t1b = getMarkers(_firstT1B);
+		assertEquals("Number of T1B markers", 3, _firstT1B.findMarkers(T1B.MarkerId, false, IResource.DEPTH_ZERO).length);
+		assertTrue("first.test1 should have errors", _env.getErrors(_firstTest1) > 0);
+		assertTrue("The extra error on first.test1 should have been reported", 
+			_env.getErrors(_firstTest1) > _env.getErrors(_secondTest1));
+
+		T1Group group = T1Group.getGroup();
+		if (group != null){
+			assertEquals("The starting count must equal the finishing count", group.getStarting(), group.getFinishing());
+		}
+
+		// the results must not depend on how the validators were run
+		setParallel(false);
+		buildAndWait(monitor);
+		assertEquals("Markers on first.test1", first, getMarkers(_firstTest1));
+		assertEquals("Markers on second.test1", second, getMarkers(_secondTest1));
+		assertEquals("Markers on first.t1b", t1b, getMarkers(_firstT1B));
+	}
+
+	/**
+	 * Run a full build and wait for the build and the validation jobs that it started. The worker threads
+	 * are always finished before the validation job that used them ends.
+	 */
+	private void buildAndWait(IProgressMonitor monitor) throws CoreException, InterruptedException {
+		_env.fullBuild2(monitor);
+		Job.getJobManager().join(ResourcesPlugin.FAMILY_MANUAL_BUILD, monitor);
+		ValidationFramework.getDefault().join(monitor);
+	}
+
+	/**
+	 * Answer a sorted description of each of the problem markers on the resource, so that the results of two
+	 * builds can be compared.
+	 */
+	private static List<String> getMarkers(IResource resource) throws CoreException {
+		IMarker[] markers = resource.findMarkers(IMarker.PROBLEM, true, IResource.DEPTH_ZERO);
+		List<String> list = new ArrayList<String>(markers.length);
+		for (IMarker marker : markers){
+			list.add(marker.getType() + " " + marker.getAttribute(IMarker.SEVERITY, -1) + " " + 
+				marker.getAttribute(IMarker.LINE_NUMBER, -1) + " " + marker.getAttribute(IMarker.MESSAGE, ""));
+		}
+		Collections.sort(list);
+		return list;
+	}
+}
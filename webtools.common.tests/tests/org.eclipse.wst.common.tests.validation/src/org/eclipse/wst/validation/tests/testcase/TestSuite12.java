@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.wst.validation.tests.testcase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.wst.validation.internal.ValBuilderJob.DeltaMerger;
+import org.eclipse.wst.validation.internal.ValBuilderJob.NetChange;
+import org.eclipse.wst.validation.internal.ValBuilderJob.ValidationRequest;
+
+/** 
+ * Test how the build validation requests that are waiting for a project are coalesced, and how their deltas
+ * are folded into one net change for each resource.
+ */
+@SuppressWarnings("restriction")
+public class TestSuite12 extends TestCase {
+	
+	private IProject	_project;
+	private IFolder		_folder;
+	private IFile		_first;
+	private IFile		_second;
+	
+	public static Test suite() {
+		return new TestSuite(TestSuite12.class);
+	} 
+	
+	public TestSuite12(String name){
+		super(name);
+	}
+	
+	protected void setUp() throws Exception {
+		super.setUp();
+		// only resource handles are needed, the resources are never created
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		_project = root.getProject("TestSuite12");
+		_first = _project.getFile("first.test1");
+		_second = _project.getFile("second.test1");
+		_folder = _project.getFolder("source");
+	}
+	
+	public void testDeltasAreCoalesced() {
+		IResourceDelta d1 = new TestDelta(_first, IResourceDelta.CHANGED, IResourceDelta.CONTENT);
+		IResourceDelta d2 = new TestDelta(_second, IResourceDelta.CHANGED, IResourceDelta.CONTENT);
+		
+		ValidationRequest queued = new ValidationRequest(_project, d1, IncrementalProjectBuilder.INCREMENTAL_BUILD);
+		ValidationRequest later = new ValidationRequest(_project, d2, IncrementalProjectBuilder.AUTO_BUILD);
+		ValidationRequest kept = queued.coalesce(later);
+		
+		assertSame("The waiting request should be kept", queued, kept);
+		assertEquals("Number of deltas", 2, kept.getDeltas().size());
+		assertSame("The deltas should be in the order that they happened", d1, kept.getDeltas().get(0));
+		assertSame(d2, kept.getDeltas().get(1));
+		assertEquals("The build kind of the latest request should be used", 
+			IncrementalProjectBuilder.AUTO_BUILD, kept.getBuildKind());
+		
+		// the same delta is only queued once
+		kept = kept.coalesce(new ValidationRequest(_project, d2, IncrementalProjectBuilder.AUTO_BUILD));
+		assertEquals("Number of deltas", 2, kept.getDeltas().size());
+	}
+	
+	public void testFullRequestReplacesDeltas() {
+		IResourceDelta d1 = new TestDelta(_first, IResourceDelta.CHANGED, IResourceDelta.CONTENT);
+		ValidationRequest queued = new ValidationRequest(_project, d1, IncrementalProjectBuilder.INCREMENTAL_BUILD);
+		ValidationRequest full = new ValidationRequest(_project, null, IncrementalProjectBuilder.FULL_BUILD);
+		
+		ValidationRequest kept = queued.coalesce(full);
+		assertSame("A full validation should replace the waiting delta validation", full, kept);
+		assertTrue(kept.isFull());
+	}
+	
+	public void testDeltaIsAbsorbedByFullRequest() {
+		ValidationRequest full = new ValidationRequest(_project, null, IncrementalProjectBuilder.FULL_BUILD);
+		IResourceDelta d1 = new TestDelta(_first, IResourceDelta.CHANGED, IResourceDelta.CONTENT);
+		
+		ValidationRequest kept = full.coalesce(new ValidationRequest(_project, d1, IncrementalProjectBuilder.INCREMENTAL_BUILD));
+		assertSame("A waiting full validation already covers the delta", full, kept);
+		assertTrue(kept.isFull());
+		assertEquals(IncrementalProjectBuilder.FULL_BUILD, kept.getBuildKind());
+	}
+	
+	public void testAddedThenRemovedIsNoChange() throws CoreException {
+		NetChange change = fold(_first, IResourceDelta.ADDED, 0, IResourceDelta.REMOVED, 0);
+		assertEquals("Kind", IResourceDelta.NO_CHANGE, change.getKind());
+		assertEquals("Flags", 0, change.getFlags());
+	}
+	
+	public void testRemovedThenAddedIsChanged() throws CoreException {
+		NetChange change = fold(_first, IResourceDelta.REMOVED, 0, IResourceDelta.ADDED, 0);
+		assertEquals("Kind", IResourceDelta.CHANGED, change.getKind());
+		assertTrue("The content should be treated as changed", (change.getFlags() & IResourceDelta.CONTENT) != 0);
+	}
+	
+	public void testAddedThenChangedIsAdded() throws CoreException {
+		NetChange change = fold(_first, IResourceDelta.ADDED, 0, IResourceDelta.CHANGED, IResourceDelta.CONTENT);
+		assertEquals("Kind", IResourceDelta.ADDED, change.getKind());
+	}
+	
+	public void testChangedThenRemovedIsRemoved() throws CoreException {
+		NetChange change = fold(_first, IResourceDelta.CHANGED, IResourceDelta.CONTENT, IResourceDelta.REMOVED, 0);
+		assertEquals("Kind", IResourceDelta.REMOVED, change.getKind());
+		assertEquals("The flags of the earlier change should be dropped", 0, change.getFlags());
+	}
+	
+	public void testChangesAreCombined() throws CoreException {
+		NetChange change = fold(_first, IResourceDelta.CHANGED, IResourceDelta.CONTENT, 
+			IResourceDelta.CHANGED, IResourceDelta.ENCODING);
+		assertEquals("Kind", IResourceDelta.CHANGED, change.getKind());
+		assertEquals("Flags", IResourceDelta.CONTENT | IResourceDelta.ENCODING, change.getFlags());
+	}
+	
+	public void testNestedDeltas() throws CoreException {
+		IResourceDelta d1 = new TestDelta(_project, IResourceDelta.CHANGED, 0,
+			new TestDelta(_folder, IResourceDelta.CHANGED, 0, 
+				new TestDelta(_folder.getFile("a.test1"), IResourceDelta.ADDED, 0),
+				new TestDelta(_folder.getFile("b.test1"), IResourceDelta.CHANGED, IResourceDelta.CONTENT)));
+		IResourceDelta d2 = new TestDelta(_project, IResourceDelta.CHANGED, 0,
+			new TestDelta(_folder, IResourceDelta.CHANGED, 0, 
+				new TestDelta(_folder.getFile("a.test1"), IResourceDelta.REMOVED, 0),
+				new TestDelta(_folder.getFile("c.test1"), IResourceDelta.ADDED, 0)),
+			new TestDelta(_second, IResourceDelta.REMOVED, 0));
+		
+		DeltaMerger merger = new DeltaMerger();
+		d1.accept(merger);
+		d2.accept(merger);
+		List<NetChange> changes = new ArrayList<NetChange>(merger.getChanges());
+		
+		assertEquals("Number of changes", 6, changes.size());
+		assertChange(changes.get(0), _project, IResourceDelta.CHANGED);
+		assertChange(changes.get(1), _folder, IResourceDelta.CHANGED);
+		assertChange(changes.get(2), _folder.getFile("a.test1"), IResourceDelta.NO_CHANGE);
+		assertChange(changes.get(3), _folder.getFile("b.test1"), IResourceDelta.CHANGED);
+		assertChange(changes.get(4), _folder.getFile("c.test1"), IResourceDelta.ADDED);
+		assertChange(changes.get(5), _second, IResourceDelta.REMOVED);
+		assertSame("The most recent delta should be kept", d2, changes.get(0).getDelta());
+	}
+	
+	/**
+	 * Answer the net change of two deltas for the resource.
+	 */
+	private static NetChange fold(IResource resource, int kind1, int flags1, int kind2, int flags2) throws CoreException {
+		DeltaMerger merger = new DeltaMerger();
+		new TestDelta(resource, kind1, flags1).accept(merger);
+		new TestDelta(resource, kind2, flags2).accept(merger);
+		assertEquals("Number of changes", 1, merger.getChanges().size());
+		return merger.getChanges().iterator().next();
+	}
+	
+	private static void assertChange(NetChange change, IResource resource, int kind){
+		assertEquals("Resource", resource, change.getResource());
+		assertEquals("Kind of change for " + resource.getName(), kind, change.getKind());
+	}
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.wst.validation.tests.testcase;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.InvocationTargetException;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.wst.validation.MutableWorkspaceSettings;
+import org.eclipse.wst.validation.ValidationFramework;
+import org.eclipse.wst.validation.ValidationResult;
+import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.ValidatorMessage;
+import org.eclipse.wst.validation.internal.ResultCache;
+import org.eclipse.wst.validation.internal.ValManager;
+
+/** Test that the results of validating unchanged files are reused, and only while they are still valid. */
+public class TestSuite13 extends TestCase {
+
+	private TestEnvironment _env;
+	private IProject		_project;
+	private IFile			_file;
+	private Validator		_validator;
+
+	public static Test suite() {
+		return new TestSuite(TestSuite13.class);
+	}
+
+	public TestSuite13(String name){
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		_env = new TestEnvironment();
+		_env.turnoffAutoBuild();
+		TestEnvironment.enableOnlyTheseValidators("T1");
+		_project = _env.createProject("TestSuite13");
+		IPath folder = _env.addFolder(_project.getFullPath(), "source");
+		_file = _env.addFile(folder, "first.test1", "error - error");
+		_validator = ValManager.getDefault().getValidatorWithId("T1", _project);
+		assertNotNull("The T1 validator is needed by these tests", _validator);
+		setCacheResults(true);
+		ResultCache.getDefault().clear();
+	}
+
+	protected void tearDown() throws Exception {
+		setCacheResults(false);
+		_project.delete(true, null);
+		_env.dispose();
+		super.tearDown();
+	}
+
+	private static void setCacheResults(boolean cacheResults) throws InvocationTargetException {
+		ValidationFramework vf = ValidationFramework.getDefault();
+		MutableWorkspaceSettings ws = vf.getWorkspaceSettings();
+		ws.setCacheResults(cacheResults);
+		vf.applyChanges(ws, true);
+	}
+
+	public void testHit() {
+		ResultCache cache = ResultCache.getDefault();
+		ResultCache.Key key = cache.createKey(_validator, _file);
+		assertNotNull("A file can be cached", key);
+		cache.put(key, _file, createValidationResult());
+
+		ValidationResult vr = cache.get(cache.createKey(_validator, _file), _file);
+		assertNotNull("The unchanged file should have been found in the cache", vr);
+		ValidatorMessage[] msgs = vr.getMessages();
+		assertEquals("Number of restored messages", 1, msgs.length);
+		assertEquals("Restored message", "an error", msgs[0].getAttribute(IMarker.MESSAGE));
+		assertEquals("Restored severity", IMarker.SEVERITY_ERROR, msgs[0].getAttribute(IMarker.SEVERITY, -1));
+		assertEquals("Restored error count", 1, vr.getSeverityError());
+	}
+
+	public void testMissAfterContentChange() throws CoreException {
+		ResultCache cache = ResultCache.getDefault();
+		ResultCache.Key key = cache.createKey(_validator, _file);
+		cache.put(key, _file, createValidationResult());
+
+		_file.setContents(new ByteArrayInputStream("warning - warning".getBytes()), true, false, null);
+		assertNull("A changed file must be validated again", cache.get(cache.createKey(_validator, _file), _file));
+	}
+
+	public void testMissAfterConfigChange() {
+		ResultCache cache = ResultCache.getDefault();
+		ResultCache.Key key = cache.createKey(_validator, _file);
+		cache.put(key, _file, createValidationResult());
+
+		Validator changed = _validator.copy();
+		changed.setBuildValidation(!_validator.isBuildValidation());
+		assertNull("A validator with a different configuration must validate the file again",
+			cache.get(cache.createKey(changed, _file), _file));
+	}
+
+	public void testClearedWhenProjectSettingsChange() {
+		ResultCache cache = ResultCache.getDefault();
+		cache.put(cache.createKey(_validator, _file), _file, createValidationResult());
+		assertEquals("Number of cached results", 1, cache.size());
+
+		ValManager.getDefault().validatorsForProjectChanged(_project, true);
+		assertEquals("Number of cached results", 0, cache.size());
+		assertNull("The results are forgotten when the settings change",
+			cache.get(cache.createKey(_validator, _file), _file));
+	}
+
+	public void testClearedWhenPreferenceToggled() throws InvocationTargetException {
+		ResultCache cache = ResultCache.getDefault();
+		cache.put(cache.createKey(_validator, _file), _file, createValidationResult());
+		assertEquals("Number of cached results", 1, cache.size());
+
+		setCacheResults(false);
+		setCacheResults(true);
+		assertEquals("Number of cached results", 0, cache.size());
+	}
+
+	private ValidationResult createValidationResult(){
+		ValidationResult vr = new ValidationResult();
+		ValidatorMessage vm = ValidatorMessage.create("an error", _file);
+		vm.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+		vr.add(vm);
+		vr.incrementError(1);
+		return vr;
+	}
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.wst.validation.tests.testcase;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.ValidatorMessage;
+import org.eclipse.wst.validation.internal.MarkerManager;
+import org.eclipse.wst.validation.internal.ValConstants;
+import org.eclipse.wst.validation.internal.ValManager;
+import org.eclipse.wst.validation.internal.ValOperation;
+
+/** Test that the markers that are collected while a resource is validated are applied correctly. */
+public class TestSuite14 extends TestCase {
+
+	private TestEnvironment _env;
+	private IProject		_project;
+	private IFile			_file;
+	private Validator		_validator;
+	private final MarkerManager _mm = MarkerManager.getDefault();
+
+	public static Test suite() {
+		return new TestSuite(TestSuite14.class);
+	}
+
+	public TestSuite14(String name){
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		_env = new TestEnvironment();
+		_env.turnoffAutoBuild();
+		TestEnvironment.enableOnlyTheseValidators("T1");
+		_project = _env.createProject("TestSuite14");
+		IPath folder = _env.addFolder(_project.getFullPath(), "source");
+		_file = _env.addFile(folder, "first.test1", "error - error");
+		_validator = ValManager.getDefault().getValidatorWithId("T1", _project);
+		assertNotNull("The T1 validator is needed by these tests", _validator);
+	}
+
+	protected void tearDown() throws Exception {
+		_project.delete(true, null);
+		_env.dispose();
+		super.tearDown();
+	}
+
+	public void testBatchBelongsToOperation() throws CoreException {
+		ValOperation batched = new ValOperation();
+		ValOperation other = new ValOperation();
+		assertTrue("The batch should have started", _mm.beginBatch(_file, batched));
+		assertFalse("A second batch for the same operation must not start", _mm.beginBatch(_file, batched));
+
+		_mm.createMarker(ValidatorMessage.create("collected", _file), _validator.getId(), batched);
+		assertEquals("Collected markers are not created until the batch ends", 0, getMarkers().length);
+
+		_mm.createMarker(ValidatorMessage.create("other", _file), _validator.getId(), other);
+		assertEquals("Markers of other operations are not collected", 1, getMarkers().length);
+
+		_mm.endBatch(_file, batched);
+		assertEquals("Number of markers after the batch", 2, getMarkers().length);
+	}
+
+	public void testClearIsDeferred() throws CoreException, InterruptedException {
+		_mm.createMarker(ValidatorMessage.create("old", _file), _validator.getId());
+		ValOperation operation = newOperation();
+		_mm.beginBatch(_file, operation);
+
+		_mm.clearMarker(_file, _validator, operation);
+		assertEquals("Markers are not cleared until the batch ends", 1, getMarkers().length);
+
+		_mm.createMarker(ValidatorMessage.create("new", _file), _validator.getId(), operation);
+		_mm.endBatch(_file, operation);
+		IMarker[] markers = getMarkers();
+		assertEquals("Number of markers after the batch", 1, markers.length);
+		assertEquals("Remaining marker", "new", markers[0].getAttribute(IMarker.MESSAGE));
+	}
+
+	public void testClearForgetsCollectedMarkers() throws CoreException {
+		ValOperation operation = new ValOperation();
+		_mm.beginBatch(_file, operation);
+		_mm.createMarker(ValidatorMessage.create("cleared", _file), _validator.getId(), operation);
+		_mm.clearMarker(_file, _validator, operation);
+		_mm.endBatch(_file, operation);
+		assertEquals("Cleared markers are not created", 0, getMarkers().length);
+	}
+
+	public void testUnchangedMarkerIsKept() throws CoreException, InterruptedException {
+		_mm.createMarker(ValidatorMessage.create("same", _file), _validator.getId());
+		long id = getMarkers()[0].getId();
+		ValOperation operation = newOperation();
+
+		_mm.beginBatch(_file, operation);
+		_mm.createMarker(ValidatorMessage.create("same", _file), _validator.getId(), operation);
+		_mm.endBatch(_file, operation);
+		IMarker[] markers = getMarkers();
+		assertEquals("Number of markers after the batch", 1, markers.length);
+		assertEquals("The unchanged marker should not have been recreated", id, markers[0].getId());
+		assertTrue("The unchanged marker should be remembered", operation.isKeptMarker(id));
+
+		// a later pass in the same operation must treat the kept marker as if it had just been created
+		_mm.deleteMarkers(_file, operation, IResource.DEPTH_ZERO);
+		assertEquals("Kept markers are not deleted", 1, getMarkers().length);
+	}
+
+	public void testStaleMarkersAreDeleted() throws CoreException, InterruptedException {
+		_mm.createMarker(ValidatorMessage.create("stale", _file), _validator.getId());
+		ValOperation operation = newOperation();
+		_mm.deleteMarkers(_file, operation, IResource.DEPTH_ZERO);
+		assertEquals("Markers from before the operation are deleted", 0, getMarkers().length);
+	}
+
+	private IMarker[] getMarkers() throws CoreException {
+		return _file.findMarkers(ValConstants.ProblemMarker, true, IResource.DEPTH_ZERO);
+	}
+
+	/**
+	 * Answer an operation that started after all of the existing markers were created.
+	 */
+	private ValOperation newOperation() throws CoreException, InterruptedException {
+		long created = 0;
+		for (IMarker marker : getMarkers())created = Math.max(created, marker.getCreationTime());
+		while (System.currentTimeMillis() <= created)Thread.sleep(1);
+		return new ValOperation();
+	}
+}
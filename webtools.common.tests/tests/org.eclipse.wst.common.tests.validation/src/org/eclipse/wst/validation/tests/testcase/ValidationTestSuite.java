@@ -25,6 +25,10 @@ public class ValidationTestSuite extends TestSuite {
 		suite.addTest(TestSuite8.suite());
         suite.addTest(TestSuite9.suite());
         suite.addTest(TestSuite10.suite());
+        suite.addTest(TestSuite11.suite());
+        suite.addTest(TestSuite12.suite());
+        suite.addTest(TestSuite13.suite());
+        suite.addTest(TestSuite14.suite());
         return suite;
     }
 
@@ -22,9 +22,14 @@ public class AllTests extends TestCase {
 		
 		suite.addTestSuite(IVirtualFolderAPITest.class);
 		suite.addTestSuite(ModuleCoreAPIFVTTest.class);
+		suite.addTestSuite(ComponentModelCacheTest.class);
+		suite.addTestSuite(DependencyGraphTest.class);
+		suite.addTestSuite(FlatComponentCacheTest.class);
 		suite.addTestSuite(ModuleCoreURIConverterUnitTest.class);
+		suite.addTestSuite(ParallelZipFileExporterTest.class);
 		//suite.addTestSuite(StructureEditAPITest.class);
 		suite.addTestSuite(StructureEditStressTest.class);
+		suite.addTestSuite(VirtualComponentFlattenUtilityTest.class);
 		
 		
 		return suite;
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.componentcore.tests;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.common.componentcore.ComponentCore;
+import org.eclipse.wst.common.componentcore.ModuleCoreNature;
+import org.eclipse.wst.common.componentcore.internal.ReferencedComponent;
+import org.eclipse.wst.common.componentcore.internal.WorkbenchComponent;
+import org.eclipse.wst.common.componentcore.internal.resources.ComponentModelCache;
+import org.eclipse.wst.common.componentcore.resources.IVirtualComponent;
+import org.eclipse.wst.common.componentcore.resources.IVirtualFile;
+import org.eclipse.wst.common.componentcore.resources.IVirtualFolder;
+import org.eclipse.wst.common.componentcore.resources.IVirtualReference;
+import org.eclipse.wst.common.componentcore.resources.IVirtualResource;
+
+public class ComponentModelCacheTest extends TestCase {
+
+	private IProject project;
+	private IProject other;
+
+	public ComponentModelCacheTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		project = createComponentProject("ComponentModelCacheA");
+		other = createComponentProject("ComponentModelCacheB");
+	}
+
+	protected void tearDown() throws Exception {
+		project.delete(true, null);
+		if (other.exists())
+			other.delete(true, null);
+	}
+
+	public void testModelIsShared() {
+		ComponentModelCache.ComponentModel model = ComponentModelCache.getModel(project);
+		assertNotNull(model.getComponent());
+		assertSame("An unchanged model should be read once", model, ComponentModelCache.getModel(project));
+	}
+
+	public void testChangesAreSeen() {
+		IVirtualComponent component = ComponentCore.createComponent(project);
+		component.setMetaProperty("cached", "first");
+		assertEquals("first", ComponentCore.createComponent(project).getMetaProperties().getProperty("cached"));
+		component.setMetaProperty("cached", "second");
+		assertEquals("second", ComponentCore.createComponent(project).getMetaProperties().getProperty("cached"));
+
+		setReference(project, other);
+		IVirtualReference[] references = ComponentCore.createComponent(project).getReferences();
+		assertEquals(1, references.length);
+		assertEquals(other, references[0].getReferencedComponent().getProject());
+	}
+
+	public void testReferencesBelongToTheModel() {
+		setReference(project, other);
+		List<ReferencedComponent> references = ComponentModelCache.getModel(project).getReferencedComponents();
+		assertEquals(1, references.size());
+		ReferencedComponent reference = references.get(0);
+		assertTrue("Resolvers must be able to find the component of a reference",
+				reference.eContainer() instanceof WorkbenchComponent);
+		assertNotNull("Resolvers must be able to find the resource of a reference", reference.eResource());
+	}
+
+	public void testClosedProjectIsForgotten() throws Exception {
+		ComponentModelCache.getModel(project);
+		assertTrue(ComponentModelCache.isCached(project));
+		project.close(null);
+		assertFalse("The model of a closed project must be forgotten", ComponentModelCache.isCached(project));
+		ComponentModelCache.getModel(project);
+		assertFalse("Models of closed projects are not cached", ComponentModelCache.isCached(project));
+		project.open(null);
+	}
+
+	public void testDeletedProjectIsForgotten() throws Exception {
+		ComponentModelCache.getModel(other);
+		assertTrue(ComponentModelCache.isCached(other));
+		other.delete(true, null);
+		assertFalse("The model of a deleted project must be forgotten", ComponentModelCache.isCached(other));
+	}
+
+	public void testFoldersFollowMappings() throws Exception {
+		IFolder content = project.getFolder("WebContent");
+		content.create(true, true, null);
+		IFile index = content.getFile("index.html");
+		index.create(new ByteArrayInputStream(new byte[0]), true, null);
+
+		IVirtualComponent component = ComponentCore.createComponent(project);
+		assertNull("The folder is not mapped yet", component.getRootFolder().findMember("index.html"));
+		component.getRootFolder().createLink(new Path("/WebContent"), 0, null);
+
+		IVirtualFolder root = ComponentCore.createComponent(project).getRootFolder();
+		IContainer[] folders = root.getUnderlyingFolders();
+		assertEquals(1, folders.length);
+		assertEquals(content, folders[0]);
+		IVirtualResource member = root.findMember("index.html");
+		assertTrue(member instanceof IVirtualFile);
+		assertEquals(index, ((IVirtualFile) member).getUnderlyingFile());
+		assertEquals(index, member.getUnderlyingResource());
+	}
+
+	private static IProject createComponentProject(String name) throws Exception {
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(name);
+		if (project.exists())
+			project.delete(true, null);
+		project.create(null);
+		project.open(null);
+		ModuleCoreNature.addModuleCoreNatureIfNecessary(project, null);
+		ComponentCore.createComponent(project).create(0, null);
+		return project;
+	}
+
+	private static void setReference(IProject source, IProject target) {
+		IVirtualComponent component = ComponentCore.createComponent(source);
+		component.setReferences(new IVirtualReference[] { ComponentCore.createReference(component, ComponentCore.createComponent(target)) });
+	}
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.componentcore.tests;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.wst.common.componentcore.ComponentCore;
+import org.eclipse.wst.common.componentcore.ModuleCoreNature;
+import org.eclipse.wst.common.componentcore.internal.builder.IDependencyGraph;
+import org.eclipse.wst.common.componentcore.internal.builder.IDependencyGraphSnapshot;
+import org.eclipse.wst.common.componentcore.resources.IVirtualComponent;
+import org.eclipse.wst.common.componentcore.resources.IVirtualReference;
+
+public class DependencyGraphTest extends TestCase {
+
+	private IProject a;
+	private IProject b;
+	private IProject c;
+
+	public DependencyGraphTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		a = createComponentProject("DependencyGraphA");
+		b = createComponentProject("DependencyGraphB");
+		c = createComponentProject("DependencyGraphC");
+	}
+
+	protected void tearDown() throws Exception {
+		a.delete(true, null);
+		b.delete(true, null);
+		c.delete(true, null);
+	}
+
+	public void testReferencingComponentsIsACopy() {
+		setReferences(a, new IProject[] { c });
+		setReferences(b, new IProject[] { c });
+		Set<IProject> referencing = IDependencyGraph.INSTANCE.getReferencingComponents(c);
+		assertEquals(set(new IProject[] { a, b }), referencing);
+		referencing.clear();
+		assertEquals("Changing the answer must not change the graph", set(new IProject[] { a, b }),
+				IDependencyGraph.INSTANCE.getReferencingComponents(c));
+	}
+
+	public void testSnapshotDoesNotChange() {
+		setReferences(a, new IProject[] { b });
+		IDependencyGraphSnapshot first = IDependencyGraph.INSTANCE.getSnapshot(true);
+		setReferences(b, new IProject[] { c });
+		IDependencyGraphSnapshot second = IDependencyGraph.INSTANCE.getSnapshot(true);
+
+		assertTrue(second.getModStamp() > first.getModStamp());
+		assertTrue("The earlier snapshot must not see the new reference", first.getReferencedComponents(b).isEmpty());
+		assertTrue(first.getReferencingComponents(c).isEmpty());
+		assertEquals(set(new IProject[] { c }), second.getReferencedComponents(b));
+		assertEquals(set(new IProject[] { b }), second.getReferencingComponents(c));
+		assertEquals("Unchanged references are carried over", set(new IProject[] { a }), second.getReferencingComponents(b));
+		try {
+			second.getReferencingComponents(c).add(a);
+			fail("Snapshots must not be modifiable");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	public void testSnapshotAfterRemove() {
+		setReferences(a, new IProject[] { b, c });
+		setReferences(a, new IProject[] { c });
+		IDependencyGraphSnapshot snapshot = IDependencyGraph.INSTANCE.getSnapshot(true);
+		assertTrue(snapshot.getReferencingComponents(b).isEmpty());
+		assertEquals(set(new IProject[] { c }), snapshot.getReferencedComponents(a));
+		assertEquals(set(new IProject[] { a }), snapshot.getReferencingComponents(c));
+	}
+
+	public void testTransitiveComponents() {
+		setReferences(a, new IProject[] { b });
+		setReferences(b, new IProject[] { c });
+		IDependencyGraphSnapshot snapshot = IDependencyGraph.INSTANCE.getSnapshot(true);
+		assertEquals(set(new IProject[] { a, b }), snapshot.getTransitiveReferencingComponents(c));
+		assertEquals(set(new IProject[] { b, c }), snapshot.getTransitiveReferencedComponents(a));
+		assertTrue(snapshot.getTransitiveReferencingComponents(a).isEmpty());
+		assertTrue(snapshot.getTransitiveReferencedComponents(c).isEmpty());
+	}
+
+	public void testTransitiveComponentsWithCycle() {
+		setReferences(a, new IProject[] { b });
+		setReferences(b, new IProject[] { c });
+		setReferences(c, new IProject[] { a });
+		IDependencyGraphSnapshot snapshot = IDependencyGraph.INSTANCE.getSnapshot(true);
+		assertEquals("The project itself is never included", set(new IProject[] { b, c }),
+				snapshot.getTransitiveReferencedComponents(a));
+		assertEquals(set(new IProject[] { a, b }), snapshot.getTransitiveReferencingComponents(c));
+	}
+
+	public void testIncrementalUpdate() {
+		setReferences(a, new IProject[] { b });
+		setReferences(b, new IProject[] { c });
+		setReferences(a, new IProject[] { c });
+		IDependencyGraphSnapshot snapshot = IDependencyGraph.INSTANCE.getSnapshot(true);
+		assertEquals(set(new IProject[] { c }), snapshot.getReferencedComponents(a));
+		assertTrue(snapshot.getReferencingComponents(b).isEmpty());
+		assertEquals(set(new IProject[] { a, b }), snapshot.getReferencingComponents(c));
+
+		setReferences(b, new IProject[0]);
+		snapshot = IDependencyGraph.INSTANCE.getSnapshot(true);
+		assertTrue(snapshot.getReferencedComponents(b).isEmpty());
+		assertEquals("Only the references of the updated project change", set(new IProject[] { a }),
+				snapshot.getReferencingComponents(c));
+	}
+
+	public void testReferenceIsResolvedAgainWhenProjectIsOpened() throws Exception {
+		setReferences(a, new IProject[] { c });
+		setReferences(b, new IProject[] { c });
+		assertEquals(set(new IProject[] { a, b }), IDependencyGraph.INSTANCE.getReferencingComponents(c));
+
+		c.close(null);
+		IDependencyGraphSnapshot snapshot = IDependencyGraph.INSTANCE.getSnapshot(true);
+		assertTrue(snapshot.getReferencingComponents(c).isEmpty());
+		assertTrue(snapshot.getReferencedComponents(a).isEmpty());
+
+		c.open(null);
+		snapshot = IDependencyGraph.INSTANCE.getSnapshot(true);
+		assertEquals("The references that were waiting for the project are resolved again",
+				set(new IProject[] { a, b }), snapshot.getReferencingComponents(c));
+	}
+
+	public void testReferenceIsResolvedAgainWhenProjectIsRecreated() throws Exception {
+		setReferences(a, new IProject[] { b, c });
+		c.delete(true, null);
+		IDependencyGraphSnapshot snapshot = IDependencyGraph.INSTANCE.getSnapshot(true);
+		assertEquals(set(new IProject[] { b }), snapshot.getReferencedComponents(a));
+		assertTrue(snapshot.getReferencingComponents(c).isEmpty());
+
+		c = createComponentProject("DependencyGraphC");
+		snapshot = IDependencyGraph.INSTANCE.getSnapshot(true);
+		assertEquals(set(new IProject[] { b, c }), snapshot.getReferencedComponents(a));
+		assertEquals(set(new IProject[] { a }), snapshot.getReferencingComponents(c));
+	}
+
+	private static IProject createComponentProject(String name) throws Exception {
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(name);
+		if (project.exists())
+			project.delete(true, null);
+		project.create(null);
+		project.open(null);
+		ModuleCoreNature.addModuleCoreNatureIfNecessary(project, null);
+		ComponentCore.createComponent(project).create(0, null);
+		return project;
+	}
+
+	private static void setReferences(IProject source, IProject[] targets) {
+		IVirtualComponent component = ComponentCore.createComponent(source);
+		IVirtualReference[] references = new IVirtualReference[targets.length];
+		for (int i = 0; i < targets.length; i++)
+			references[i] = ComponentCore.createReference(component, ComponentCore.createComponent(targets[i]));
+		component.setReferences(references);
+	}
+
+	private static Set<IProject> set(IProject[] projects) {
+		return new HashSet<IProject>(Arrays.asList(projects));
+	}
+}
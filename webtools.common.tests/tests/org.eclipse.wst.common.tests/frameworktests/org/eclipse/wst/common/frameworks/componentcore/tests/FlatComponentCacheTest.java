@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.componentcore.tests;
+
+import java.io.ByteArrayInputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.common.componentcore.ComponentCore;
+import org.eclipse.wst.common.componentcore.ModuleCoreNature;
+import org.eclipse.wst.common.componentcore.internal.builder.IDependencyGraph;
+import org.eclipse.wst.common.componentcore.internal.flat.FlatComponentCache;
+import org.eclipse.wst.common.componentcore.internal.flat.FlatVirtualComponent;
+import org.eclipse.wst.common.componentcore.internal.flat.FlatVirtualComponent.FlatComponentTaskModel;
+import org.eclipse.wst.common.componentcore.internal.flat.IFlatFolder;
+import org.eclipse.wst.common.componentcore.internal.flat.IFlatResource;
+import org.eclipse.wst.common.componentcore.internal.flat.IFlatVirtualComponent;
+import org.eclipse.wst.common.componentcore.resources.IVirtualComponent;
+
+public class FlatComponentCacheTest extends TestCase {
+
+	private IProject project;
+	private IVirtualComponent component;
+
+	public FlatComponentCacheTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject("FlatComponentCache");
+		if (project.exists())
+			project.delete(true, null);
+		project.create(null);
+		project.open(null);
+		ModuleCoreNature.addModuleCoreNatureIfNecessary(project, null);
+		component = ComponentCore.createComponent(project);
+		component.create(0, null);
+		IFolder content = project.getFolder("WebContent");
+		content.create(true, true, null);
+		component.getRootFolder().createLink(new Path("/WebContent"), 0, null);
+		content.getFolder("WEB-INF").create(true, true, null);
+		createFile(content.getFile("index.html"));
+		createFile(content.getFolder("WEB-INF").getFile("web.xml"));
+		project.getFolder("bin").create(true, true, null);
+		IDependencyGraph.INSTANCE.getSnapshot(true);
+	}
+
+	protected void tearDown() throws Exception {
+		FlatComponentCache.dispose();
+		project.delete(true, null);
+	}
+
+	public void testHit() throws CoreException {
+		IFlatResource[] first = fetch();
+		IFlatResource[] second = fetch();
+		assertEquals(2, first.length);
+		assertEquals(first.length, second.length);
+		for (int i = 0; i < first.length; i++)
+			assertSame("The cached model should have been shared", first[i], second[i]);
+	}
+
+	public void testWithoutCacheKey() throws CoreException {
+		IFlatResource[] first = new FlatVirtualComponent(component).fetchResources();
+		IFlatResource[] second = new FlatVirtualComponent(component).fetchResources();
+		assertNotSame("Without a key nothing is shared", first[0], second[0]);
+	}
+
+	public void testFileAddedToMappedFolder() throws CoreException {
+		IFlatResource[] first = fetch();
+		createFile(project.getFile(new Path("WebContent/WEB-INF/added.xml")));
+		IFlatResource[] second = fetch();
+		IFlatFolder webInf = (IFlatFolder) find(second, "WEB-INF");
+		assertEquals("The added file should be in the model", 2, webInf.members().length);
+		assertNotSame(find(first, "WEB-INF"), webInf);
+	}
+
+	public void testFolderAddedToMappedFolder() throws CoreException {
+		fetch();
+		project.getFolder(new Path("WebContent/images")).create(true, true, null);
+		assertNotNull("The added folder should be in the model", find(fetch(), "images"));
+	}
+
+	public void testFileRemovedFromMappedFolder() throws CoreException {
+		fetch();
+		project.getFile(new Path("WebContent/index.html")).delete(true, null);
+		IFlatResource[] second = fetch();
+		assertEquals(1, second.length);
+		assertNull(find(second, "index.html"));
+	}
+
+	public void testComponentChange() throws CoreException {
+		fetch();
+		IFolder more = project.getFolder("more");
+		more.create(true, true, null);
+		createFile(more.getFile("more.html"));
+		assertNull("The folder is not part of the component yet", find(fetch(), "more.html"));
+		component.getRootFolder().createLink(new Path("/more"), 0, null);
+		IDependencyGraph.INSTANCE.getSnapshot(true);
+		assertNotNull("The newly mapped folder should be in the model", find(fetch(), "more.html"));
+	}
+
+	public void testBuildOutputIsIgnored() throws CoreException {
+		IFlatResource[] first = fetch();
+		IFolder output = project.getFolder(new Path("bin/org"));
+		output.create(true, true, null);
+		IFile classFile = output.getFile("Example.class");
+		createFile(classFile);
+		classFile.setDerived(true, null);
+		IFlatResource[] second = fetch();
+		assertEquals(first.length, second.length);
+		for (int i = 0; i < first.length; i++)
+			assertSame("Build output outside the component must not drop the model", first[i], second[i]);
+	}
+
+	public void testContentChangeIsPatched() throws CoreException {
+		IFlatResource[] first = fetch();
+		IFile index = project.getFile(new Path("WebContent/index.html"));
+		index.setContents(new ByteArrayInputStream("changed".getBytes()), true, false, null);
+		IFlatResource[] second = fetch();
+		assertNotSame("The changed file should have been replaced", find(first, "index.html"), find(second, "index.html"));
+		assertSame("Unchanged folders are shared", find(first, "WEB-INF"), find(second, "WEB-INF"));
+	}
+
+	private IFlatResource[] fetch() throws CoreException {
+		FlatComponentTaskModel options = new FlatComponentTaskModel();
+		options.put(IFlatVirtualComponent.CACHE_KEY, getName());
+		return new FlatVirtualComponent(component, options).fetchResources();
+	}
+
+	private static IFlatResource find(IFlatResource[] resources, String name) {
+		for (int i = 0; i < resources.length; i++) {
+			if (resources[i].getName().equals(name))
+				return resources[i];
+		}
+		return null;
+	}
+
+	private static void createFile(IFile file) throws CoreException {
+		file.create(new ByteArrayInputStream(file.getName().getBytes()), true, null);
+	}
+}
@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/ 
+package org.eclipse.wst.common.frameworks.componentcore.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+import junit.framework.TestCase;
+
+import org.eclipse.wst.common.componentcore.internal.util.ParallelZipFileExporter;
+
+public class ParallelZipFileExporterTest extends TestCase {
+
+	private File dir;
+
+	public ParallelZipFileExporterTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		dir = File.createTempFile("exporter", "");
+		dir.delete();
+		dir.mkdirs();
+	}
+
+	protected void tearDown() throws Exception {
+		File[] files = dir.listFiles();
+		for (int i = 0; i < files.length; i++)
+			files[i].delete();
+		dir.delete();
+	}
+
+	public void testWrite() throws Exception {
+		byte[] large = new byte[3 * 1024 * 1024];
+		for (int i = 0; i < large.length; i++)
+			large[i] = (byte) (i % 251);
+		File largeFile = createFile("large.bin", large);
+		File jar = createFile("nested.jar", "not really a jar".getBytes("UTF-8"));
+
+		String archive = new File(dir, "test.ear").getPath();
+		ParallelZipFileExporter exporter = new ParallelZipFileExporter(archive, true);
+		try {
+			exporter.writeFolder("lib");
+			exporter.write(jar, "lib/nested.jar");
+			exporter.write(largeFile, "large.bin");
+			for (int i = 0; i < 50; i++)
+				exporter.write(createFile("file" + i + ".txt", ("contents " + i).getBytes("UTF-8")), "files/file" + i + ".txt");
+			exporter.write(new ByteArrayInputStream("from a stream".getBytes("UTF-8")), "stream.txt");
+		} finally {
+			exporter.finished();
+		}
+
+		ZipFile zip = new ZipFile(archive);
+		try {
+			assertEquals(54, zip.size());
+			assertTrue(zip.getEntry("lib/").isDirectory());
+			ZipEntry nested = zip.getEntry("lib/nested.jar");
+			assertEquals("Archives should not be compressed again", ZipEntry.STORED, nested.getMethod());
+			assertEquals("not really a jar", read(zip, "lib/nested.jar"));
+			ZipEntry largeEntry = zip.getEntry("large.bin");
+			assertEquals(ZipEntry.DEFLATED, largeEntry.getMethod());
+			assertTrue(java.util.Arrays.equals(large, readBytes(zip, "large.bin")));
+			for (int i = 0; i < 50; i++)
+				assertEquals("contents " + i, read(zip, "files/file" + i + ".txt"));
+			assertEquals("from a stream", read(zip, "stream.txt"));
+		} finally {
+			zip.close();
+		}
+	}
+
+	public void testReusePreviousArchive() throws Exception {
+		byte[] compressible = new byte[64 * 1024];
+		java.util.Arrays.fill(compressible, (byte) 'a');
+		File unchanged = createFile("unchanged.txt", compressible);
+		File sameSize = createFile("samesize.txt", "old contents".getBytes("UTF-8"));
+		File changed = createFile("changed.txt", "old contents".getBytes("UTF-8"));
+		String archive = new File(dir, "test.war").getPath();
+		ParallelZipFileExporter exporter = new ParallelZipFileExporter(archive, true);
+		exporter.setLevel(Deflater.NO_COMPRESSION);
+		try {
+			exporter.write(unchanged, "unchanged.txt");
+			exporter.write(sameSize, "samesize.txt");
+			exporter.write(changed, "changed.txt");
+		} finally {
+			exporter.finished();
+		}
+		long storedSize = getCompressedSize(archive, "unchanged.txt");
+
+		// Same size and time, but the contents differ
+		long time = sameSize.lastModified();
+		writeFile(sameSize, "new contents".getBytes("UTF-8"));
+		sameSize.setLastModified(time);
+		writeFile(changed, "changed contents".getBytes("UTF-8"));
+
+		exporter = new ParallelZipFileExporter(archive, true, new File(archive));
+		try {
+			exporter.write(unchanged, "unchanged.txt");
+			exporter.write(sameSize, "samesize.txt");
+			exporter.write(changed, "changed.txt");
+		} finally {
+			exporter.finished();
+		}
+
+		ZipFile zip = new ZipFile(archive);
+		try {
+			assertEquals("The unchanged entry should have been copied rather than compressed again", storedSize,
+					zip.getEntry("unchanged.txt").getCompressedSize());
+			assertTrue(java.util.Arrays.equals(compressible, readBytes(zip, "unchanged.txt")));
+			assertEquals("new contents", read(zip, "samesize.txt"));
+			assertEquals("changed contents", read(zip, "changed.txt"));
+		} finally {
+			zip.close();
+		}
+		assertFalse(new File(archive + ".previous").exists());
+	}
+
+	public void testFailedExportRestoresPrevious() throws Exception {
+		File file = createFile("file.txt", "contents".getBytes("UTF-8"));
+		String archive = new File(dir, "test.jar").getPath();
+		ParallelZipFileExporter exporter = new ParallelZipFileExporter(archive, true);
+		try {
+			exporter.write(file, "file.txt");
+		} finally {
+			exporter.finished();
+		}
+
+		exporter = new ParallelZipFileExporter(archive, true, new File(archive));
+		try {
+			exporter.write(file, "file.txt");
+			exporter.write(new File(dir, "missing.txt"), "missing.txt");
+			exporter.finished();
+			fail("The missing file cannot be written");
+		} catch (IOException e) {
+			exporter.finished();
+		}
+
+		ZipFile zip = new ZipFile(archive);
+		try {
+			assertEquals("The previous archive should have been put back", 1, zip.size());
+			assertEquals("contents", read(zip, "file.txt"));
+		} finally {
+			zip.close();
+		}
+		assertFalse(new File(archive + ".previous").exists());
+	}
+
+	public void testFailedExportIsDeleted() throws Exception {
+		String archive = new File(dir, "test.jar").getPath();
+		ParallelZipFileExporter exporter = new ParallelZipFileExporter(archive, true);
+		try {
+			exporter.write(new File(dir, "missing.txt"), "missing.txt");
+			exporter.finished();
+			fail("The missing file cannot be written");
+		} catch (IOException e) {
+			exporter.finished();
+		}
+		assertFalse("An incomplete archive must not be left behind", new File(archive).exists());
+	}
+
+	public void testDuplicateEntry() throws Exception {
+		File file = createFile("file.txt", "contents".getBytes("UTF-8"));
+		String archive = new File(dir, "test.jar").getPath();
+		ParallelZipFileExporter exporter = new ParallelZipFileExporter(archive, true);
+		try {
+			exporter.write(file, "file.txt");
+			try {
+				exporter.write(file, "file.txt");
+				fail("Duplicate entries are not allowed");
+			} catch (ZipException e) {
+				// expected, and the archive can still be completed
+			}
+		} finally {
+			exporter.finished();
+		}
+		ZipFile zip = new ZipFile(archive);
+		try {
+			assertEquals(1, zip.size());
+		} finally {
+			zip.close();
+		}
+	}
+
+	private long getCompressedSize(String archive, String name) throws IOException {
+		ZipFile zip = new ZipFile(archive);
+		try {
+			return zip.getEntry(name).getCompressedSize();
+		} finally {
+			zip.close();
+		}
+	}
+
+	private File createFile(String name, byte[] contents) throws IOException {
+		File file = new File(dir, name);
+		writeFile(file, contents);
+		return file;
+	}
+
+	private void writeFile(File file, byte[] contents) throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(contents);
+		} finally {
+			out.close();
+		}
+	}
+
+	private String read(ZipFile zip, String name) throws IOException {
+		return new String(readBytes(zip, name), "UTF-8");
+	}
+
+	private byte[] readBytes(ZipFile zip, String name) throws IOException {
+		InputStream in = zip.getInputStream(zip.getEntry(name));
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int n;
+			while ((n = in.read(buffer)) != -1)
+				out.write(buffer, 0, n);
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+}
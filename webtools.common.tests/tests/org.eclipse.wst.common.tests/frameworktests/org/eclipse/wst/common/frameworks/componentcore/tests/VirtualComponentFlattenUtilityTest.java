@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.componentcore.tests;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.common.componentcore.internal.flat.FlatFile;
+import org.eclipse.wst.common.componentcore.internal.flat.FlatFolder;
+import org.eclipse.wst.common.componentcore.internal.flat.IFlatFolder;
+import org.eclipse.wst.common.componentcore.internal.flat.IFlatResource;
+import org.eclipse.wst.common.componentcore.internal.flat.VirtualComponentFlattenUtility;
+
+public class VirtualComponentFlattenUtilityTest extends TestCase {
+
+	private List<IFlatResource> members;
+	private VirtualComponentFlattenUtility util;
+
+	public VirtualComponentFlattenUtilityTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		members = new ArrayList<IFlatResource>();
+		util = new VirtualComponentFlattenUtility(members, null);
+	}
+
+	public void testMembersKeepTheirOrder() {
+		for (int i = 0; i < 20; i++)
+			util.addFile(null, new Path("WEB-INF/lib"), file("lib" + i + ".jar"));
+		assertEquals(1, members.size());
+		IFlatFolder lib = (IFlatFolder) VirtualComponentFlattenUtility.getExistingModuleResource(members, new Path("WEB-INF/lib"));
+		IFlatResource[] jars = lib.members();
+		assertEquals(20, jars.length);
+		for (int i = 0; i < jars.length; i++)
+			assertEquals("lib" + i + ".jar", jars[i].getName());
+	}
+
+	public void testAddMembersKeepsDuplicates() {
+		FlatFolder folder = new FlatFolder(null, "lib", Path.EMPTY);
+		FlatFile jar = new FlatFile(new File("a.jar"), "a.jar", new Path("lib"));
+		VirtualComponentFlattenUtility.addMembersToModuleFolder(folder, new IFlatResource[] { jar });
+		VirtualComponentFlattenUtility.addMembersToModuleFolder(folder, new IFlatResource[] { jar });
+		assertEquals("Members are added as they are given, as they always have been", 2, folder.members().length);
+	}
+
+	public void testAddFileReplacesEqualFile() {
+		util.addFile(null, new Path("WEB-INF"), file("web.xml"));
+		util.addFile(null, new Path("WEB-INF"), file("other.xml"));
+		File replacement = new File("replacement", "web.xml");
+		util.addFile(null, new Path("WEB-INF"), adaptable(replacement));
+
+		IFlatFolder webInf = (IFlatFolder) VirtualComponentFlattenUtility.getExistingModuleResource(members, new Path("WEB-INF"));
+		IFlatResource[] files = webInf.members();
+		assertEquals(2, files.length);
+		assertEquals("other.xml", files[0].getName());
+		assertEquals("A replaced file is moved to the end", "web.xml", files[1].getName());
+		assertEquals(replacement, files[1].getAdapter(File.class));
+	}
+
+	public void testFileDoesNotHideFolder() {
+		FlatFolder webInf = new FlatFolder(null, "WEB-INF", Path.EMPTY);
+		FlatFile libFile = new FlatFile(new File("lib"), "lib", new Path("WEB-INF"));
+		FlatFolder libFolder = new FlatFolder(null, "lib", new Path("WEB-INF"));
+		webInf.setMembers(new IFlatResource[] { libFile, libFolder });
+		members.add(webInf);
+
+		util.addFile(null, new Path("WEB-INF/lib"), file("a.jar"));
+		assertEquals("No new folder should have been created", 2, webInf.members().length);
+		assertEquals(1, libFolder.members().length);
+		IPath jarPath = new Path("WEB-INF/lib/a.jar");
+		assertEquals("a.jar", VirtualComponentFlattenUtility.getExistingModuleResource(members, jarPath).getName());
+		assertSame("The first member with the name is found", libFile,
+				VirtualComponentFlattenUtility.getExistingModuleResource(members, new Path("WEB-INF/lib")));
+	}
+
+	public void testMembersAddedDirectlyAreFound() {
+		FlatFolder meta = new FlatFolder(null, "META-INF", Path.EMPTY);
+		members.add(meta);
+		util.addFile(null, new Path("META-INF"), file("MANIFEST.MF"));
+		assertEquals(1, members.size());
+		assertEquals(1, meta.members().length);
+	}
+
+	private static IAdaptable file(String name) {
+		return adaptable(new File(name));
+	}
+
+	private static IAdaptable adaptable(final File file) {
+		return new IAdaptable() {
+			public Object getAdapter(Class adapter) {
+				return File.class.equals(adapter) ? file : null;
+			}
+		};
+	}
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.emf.tests;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.jem.internal.util.emf.workbench.ProjectResourceSetImpl;
+
+public class ProjectResourceSetTest extends TestCase {
+
+	private static final URI ALIAS = URI.createURI("alias/");
+	private static final URI REAL = URI.createURI("real/");
+	private static final URI OTHER = URI.createURI("other/");
+
+	private TestResourceSet resourceSet;
+
+	public ProjectResourceSetTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		resourceSet = new TestResourceSet();
+		resourceSet.getURIConverter().getURIMap().put(ALIAS, REAL);
+	}
+
+	public void testNormalizedLookup() {
+		Resource resource = addResource("real/a.xml");
+		assertSame("The resource should be found by a URI that normalizes to its own", resource,
+				resourceSet.getResource(URI.createURI("alias/a.xml"), false));
+		assertSame(resource, resourceSet.getResource(URI.createURI("real/a.xml"), false));
+		assertNull(resourceSet.getResource(URI.createURI("alias/b.xml"), false));
+	}
+
+	public void testFirstResourceIsFound() {
+		Resource first = addResource("real/a.xml");
+		addResource("alias/a.xml");
+		assertSame("Resources with the same normalized URI are found in the order they were added", first,
+				resourceSet.getResource(URI.createURI("alias/a.xml"), false));
+	}
+
+	public void testURIChange() {
+		Resource resource = addResource("real/a.xml");
+		resource.setURI(URI.createURI("real/b.xml"));
+		assertNull("The old URI must not be found", resourceSet.getResource(URI.createURI("alias/a.xml"), false));
+		assertSame(resource, resourceSet.getResource(URI.createURI("alias/b.xml"), false));
+	}
+
+	public void testRemovedResource() {
+		Resource resource = addResource("real/a.xml");
+		resourceSet.getResources().remove(resource);
+		assertNull(resourceSet.getResource(URI.createURI("alias/a.xml"), false));
+	}
+
+	public void testResetAfterMappingChange() {
+		Resource resource = addResource("other/a.xml");
+		assertNull(resourceSet.getResource(URI.createURI("alias/a.xml"), false));
+		resourceSet.getURIConverter().getURIMap().put(ALIAS, OTHER);
+		resourceSet.resetNormalizedURICache();
+		assertSame("The resources are normalized again after a reset", resource,
+				resourceSet.getResource(URI.createURI("alias/a.xml"), false));
+	}
+
+	public void testRemoveThroughViews() {
+		Resource a = addResource("real/a.xml");
+		Resource b = addResource("real/b.xml");
+		Resource c = addResource("real/c.xml");
+		Map<URI, Resource> map = resourceSet.getURIResourceMap();
+		map.put(URI.createURI("alias/a.xml"), a);
+		map.put(URI.createURI("alias/b.xml"), b);
+		map.put(URI.createURI("alias/c.xml"), c);
+
+		assertTrue(map.keySet().remove(URI.createURI("alias/a.xml")));
+		assertFalse("The resource has no URIs left in the map", map.containsValue(a));
+
+		for (Iterator<Resource> it = map.values().iterator(); it.hasNext();) {
+			if (it.next() == b)
+				it.remove();
+		}
+		assertFalse(map.containsValue(b));
+		assertEquals(1, map.size());
+
+		Map.Entry<URI, Resource> entry = map.entrySet().iterator().next();
+		entry.setValue(a);
+		assertTrue(map.containsValue(a));
+		assertFalse("A replaced resource has no URIs left in the map", map.containsValue(c));
+
+		map.entrySet().clear();
+		assertTrue(map.isEmpty());
+		assertFalse(map.containsValue(a));
+	}
+
+	private Resource addResource(String uri) {
+		Resource resource = new ResourceImpl(URI.createURI(uri));
+		resourceSet.getResources().add(resource);
+		return resource;
+	}
+
+	/**
+	 * A resource set that is not tied to a project.
+	 */
+	private static class TestResourceSet extends ProjectResourceSetImpl {
+		TestResourceSet() {
+			super();
+		}
+	}
+}
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.emf.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.jem.util.emf.workbench.WorkbenchResourceHelperBase;
+import org.eclipse.wst.common.internal.emfworkbench.integration.ResourceSetWorkbenchEditSynchronizer;
+
+/**
+ * Checks that the resources the synchronizer finds for a file through its index are the
+ * resources that a scan of the whole resource set finds.
+ */
+public class ResourcePathIndexTest extends TestCase {
+
+	private static final String PROJECT = "indexProject";
+
+	private ResourceSet resourceSet;
+	private TestSynchronizer synchronizer;
+	private IFile[] files;
+
+	public ResourcePathIndexTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		resourceSet = new ResourceSetImpl();
+		synchronizer = new TestSynchronizer(resourceSet);
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		files = new IFile[] { root.getFile(new Path(PROJECT + "/a.xml")), root.getFile(new Path(PROJECT + "/b.xml")),
+				root.getFile(new Path(PROJECT + "/META-INF/c.xml")), root.getFile(new Path(PROJECT + "/with space.xml")) };
+	}
+
+	protected void tearDown() throws Exception {
+		synchronizer.dispose();
+	}
+
+	public void testAdd() {
+		addResource("platform:/resource/" + PROJECT + "/a.xml");
+		assertMatchesScan();
+		addResource("platform:/resource/" + PROJECT + "/b.xml");
+		addResource("platform:/resource/" + PROJECT + "/META-INF/c.xml");
+		addResource("platform:/resource/" + PROJECT + "/with%20space.xml");
+		assertMatchesScan();
+		assertEquals(1, synchronizer.getResources(files[3]).size());
+	}
+
+	public void testAddMany() {
+		assertMatchesScan();
+		resourceSet.getResources().addAll(
+				Arrays.asList(new Resource[] { createResource("platform:/resource/" + PROJECT + "/a.xml"),
+						createResource("platform:/resource/" + PROJECT + "/META-INF/c.xml") }));
+		assertMatchesScan();
+	}
+
+	public void testSameFile() {
+		addResource("platform:/resource/" + PROJECT + "/a.xml");
+		addResource("platform:/resource/" + PROJECT + "/a.xml");
+		addResource("archive/a.xml");
+		assertMatchesScan();
+		assertEquals("Every resource of a file should be found", 3, synchronizer.getResources(files[0]).size());
+	}
+
+	public void testRemove() {
+		Resource a = addResource("platform:/resource/" + PROJECT + "/a.xml");
+		Resource b = addResource("platform:/resource/" + PROJECT + "/b.xml");
+		Resource c = addResource("platform:/resource/" + PROJECT + "/META-INF/c.xml");
+		assertMatchesScan();
+		resourceSet.getResources().remove(a);
+		assertMatchesScan();
+		assertTrue(synchronizer.getResources(files[0]).isEmpty());
+		resourceSet.getResources().removeAll(Arrays.asList(new Resource[] { b, c }));
+		assertMatchesScan();
+		assertTrue(resourceSet.getResources().isEmpty());
+	}
+
+	public void testReplace() {
+		addResource("platform:/resource/" + PROJECT + "/a.xml");
+		assertMatchesScan();
+		resourceSet.getResources().set(0, createResource("platform:/resource/" + PROJECT + "/b.xml"));
+		assertMatchesScan();
+		assertTrue(synchronizer.getResources(files[0]).isEmpty());
+	}
+
+	public void testSetURI() {
+		Resource resource = addResource("platform:/resource/" + PROJECT + "/a.xml");
+		assertMatchesScan();
+		resource.setURI(URI.createURI("platform:/resource/" + PROJECT + "/META-INF/c.xml"));
+		assertMatchesScan();
+		assertTrue("The old path must not be found", synchronizer.getResources(files[0]).isEmpty());
+		assertEquals(1, synchronizer.getResources(files[2]).size());
+		resource.setURI(null);
+		assertMatchesScan();
+	}
+
+	public void testDispose() {
+		Resource a = addResource("platform:/resource/" + PROJECT + "/a.xml");
+		assertMatchesScan();
+		synchronizer.dispose();
+		assertTrue("The index should not be left on the resources", a.eAdapters().isEmpty());
+		assertTrue("The index should not be left on the resource set", resourceSet.eAdapters().isEmpty());
+
+		// The resources are still found if the synchronizer is used after being disposed
+		addResource("platform:/resource/" + PROJECT + "/b.xml");
+		assertMatchesScan();
+		addResource("platform:/resource/" + PROJECT + "/META-INF/c.xml");
+		a.setURI(URI.createURI("platform:/resource/" + PROJECT + "/with%20space.xml"));
+		assertMatchesScan();
+	}
+
+	private Resource addResource(String uri) {
+		Resource resource = createResource(uri);
+		resourceSet.getResources().add(resource);
+		return resource;
+	}
+
+	private static Resource createResource(String uri) {
+		return new ResourceImpl(URI.createURI(uri));
+	}
+
+	private void assertMatchesScan() {
+		for (int i = 0; i < files.length; i++) {
+			List expected = scan(files[i]);
+			List actual = synchronizer.getResources(files[i]);
+			assertEquals(files[i].getFullPath().toString(), expected.size(), actual.size());
+			assertEquals(files[i].getFullPath().toString(), new HashSet(expected), new HashSet(actual));
+		}
+	}
+
+	/**
+	 * Finds the resources of the file by going through the whole resource set, the way the
+	 * synchronizer did before it kept an index.
+	 */
+	private List scan(IFile file) {
+		List resources = new ArrayList();
+		String fileString = URI.decode(file.getFullPath().toString());
+		IPath filePath = new Path(fileString).removeFirstSegments(1);
+		if (!filePath.isEmpty())
+			fileString = filePath.toString();
+		for (Iterator iterator = resourceSet.getResources().iterator(); iterator.hasNext();) {
+			Resource res = (Resource) iterator.next();
+			URI resURI = res.getURI();
+			String resURIString = ""; //$NON-NLS-1$
+			if (resURI != null && resURI.path() != null) {
+				IPath resURIPath;
+				if (WorkbenchResourceHelperBase.isPlatformResourceURI(resURI))
+					resURIPath = new Path(URI.decode(resURI.path())).removeFirstSegments(2);
+				else
+					resURIPath = new Path(URI.decode(resURI.path())).removeFirstSegments(1);
+				resURIString = resURIPath.toString();
+			}
+			if (resURIString.length() > 0 && fileString.equals(resURIString))
+				resources.add(res);
+		}
+		return resources;
+	}
+
+	/**
+	 * A synchronizer that is not registered with the workspace, so that the test controls
+	 * what it sees.
+	 */
+	private static class TestSynchronizer extends ResourceSetWorkbenchEditSynchronizer {
+
+		TestSynchronizer(ResourceSet resourceSet) {
+			super(resourceSet, null);
+		}
+
+		protected void initialize() {
+			// Not listening to the workspace
+		}
+
+		public List getResources(IFile aFile) {
+			return super.getResources(aFile);
+		}
+	}
+}
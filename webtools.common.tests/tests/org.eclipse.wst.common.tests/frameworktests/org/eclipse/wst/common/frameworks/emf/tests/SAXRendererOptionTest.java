@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.emf.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.wst.common.internal.emf.resource.AbstractRendererImpl;
+import org.eclipse.wst.common.internal.emf.resource.EMF2DOMAdapter;
+import org.eclipse.wst.common.internal.emf.resource.EMF2DOMRenderer;
+import org.eclipse.wst.common.internal.emf.resource.EMF2DOMRendererFactory;
+import org.eclipse.wst.common.internal.emf.resource.EMF2SAXRenderer;
+import org.eclipse.wst.common.internal.emf.resource.GenericTranslator;
+import org.eclipse.wst.common.internal.emf.resource.Renderer;
+import org.eclipse.wst.common.internal.emf.resource.RootTranslator;
+import org.eclipse.wst.common.internal.emf.resource.Translator;
+import org.eclipse.wst.common.internal.emf.resource.TranslatorResource;
+import org.eclipse.wst.common.internal.emf.resource.TranslatorResourceImpl;
+
+public class SAXRendererOptionTest extends TestCase {
+
+	private static final String DOCUMENT = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" //
+			+ "<catalog>\n" //
+			+ "\t<name>parts</name>\n" //
+			+ "\t<item><value>first</value></item>\n" //
+			+ "\t<item><value>second</value></item>\n" //
+			+ "</catalog>\n";
+
+	private static final Map SAX_OPTIONS = Collections.singletonMap(TranslatorResource.OPTION_USE_SAX_RENDERER, Boolean.TRUE);
+
+	private static final EClass CATALOG;
+	private static final EClass ITEM;
+	private static final EAttribute NAME;
+	private static final EReference ITEMS;
+	private static final EAttribute VALUE;
+	private static final Translator ROOT_TRANSLATOR;
+
+	static {
+		EcoreFactory factory = EcoreFactory.eINSTANCE;
+		EPackage ePackage = factory.createEPackage();
+		ePackage.setName("catalog");
+		ePackage.setNsURI("http:///org/eclipse/wst/common/frameworks/emf/tests/catalog");
+		ePackage.setEFactoryInstance(factory.createEFactory());
+
+		ITEM = factory.createEClass();
+		ITEM.setName("Item");
+		VALUE = factory.createEAttribute();
+		VALUE.setName("value");
+		VALUE.setEType(EcorePackage.eINSTANCE.getEString());
+		ITEM.getEStructuralFeatures().add(VALUE);
+
+		CATALOG = factory.createEClass();
+		CATALOG.setName("Catalog");
+		NAME = factory.createEAttribute();
+		NAME.setName("name");
+		NAME.setEType(EcorePackage.eINSTANCE.getEString());
+		ITEMS = factory.createEReference();
+		ITEMS.setName("items");
+		ITEMS.setEType(ITEM);
+		ITEMS.setContainment(true);
+		ITEMS.setUpperBound(-1);
+		CATALOG.getEStructuralFeatures().add(NAME);
+		CATALOG.getEStructuralFeatures().add(ITEMS);
+
+		ePackage.getEClassifiers().add(CATALOG);
+		ePackage.getEClassifiers().add(ITEM);
+
+		GenericTranslator item = new GenericTranslator("item", ITEMS);
+		item.setChildren(new Translator[] { new Translator("value", VALUE) });
+		final Translator[] children = new Translator[] { new Translator("name", NAME), item };
+		ROOT_TRANSLATOR = new RootTranslator("catalog", CATALOG) {
+			public Translator[] getChildren(Object target, int versionID) {
+				return children;
+			}
+		};
+	}
+
+	private File file;
+
+	public SAXRendererOptionTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		file = File.createTempFile("catalog", ".xml");
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(DOCUMENT.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+	}
+
+	protected void tearDown() throws Exception {
+		file.delete();
+	}
+
+	public void testLoadFromStreamWithOption() throws IOException {
+		CatalogResource resource = createResource();
+		resource.load(new ByteArrayInputStream(DOCUMENT.getBytes("UTF-8")), SAX_OPTIONS);
+		assertTrue("The option must be honored when a stream is given", resource.getRenderer() instanceof EMF2SAXRenderer);
+		assertCatalog(resource);
+		assertNoDOM(resource);
+	}
+
+	public void testLoadWithOption() throws IOException {
+		CatalogResource resource = createResource();
+		resource.load(SAX_OPTIONS);
+		assertTrue(resource.getRenderer() instanceof EMF2SAXRenderer);
+		assertCatalog(resource);
+		assertNoDOM(resource);
+	}
+
+	public void testLoadWithoutOption() throws IOException {
+		CatalogResource resource = createResource();
+		resource.load(new ByteArrayInputStream(DOCUMENT.getBytes("UTF-8")), Collections.EMPTY_MAP);
+		assertTrue("Without the option the resource keeps its renderer", resource.getRenderer() instanceof EMF2DOMRenderer);
+		assertCatalog(resource);
+		assertTrue("The DOM renderer adapts the model to the document", isAdaptedToDOM(resource.getRootObject()));
+	}
+
+	public void testOptionIsIgnoredOnceLoaded() throws IOException {
+		CatalogResource resource = createResource();
+		resource.load(new ByteArrayInputStream(DOCUMENT.getBytes("UTF-8")), Collections.EMPTY_MAP);
+		Renderer renderer = resource.getRenderer();
+		resource.load(SAX_OPTIONS);
+		assertSame(renderer, resource.getRenderer());
+	}
+
+	public void testRoundTrip() throws IOException {
+		CatalogResource resource = createResource();
+		resource.load(SAX_OPTIONS);
+		EObject catalog = resource.getRootObject();
+		EObject third = ITEM.getEPackage().getEFactoryInstance().create(ITEM);
+		third.eSet(VALUE, "third");
+		((List) catalog.eGet(ITEMS)).add(third);
+		assertNoDOM(resource);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		resource.save(out, null);
+		assertNoDOM(resource);
+
+		CatalogResource reloaded = createResource();
+		reloaded.load(new ByteArrayInputStream(out.toByteArray()), SAX_OPTIONS);
+		EObject copy = reloaded.getRootObject();
+		assertEquals("parts", copy.eGet(NAME));
+		List items = (List) copy.eGet(ITEMS);
+		assertEquals(3, items.size());
+		assertEquals("first", ((EObject) items.get(0)).eGet(VALUE));
+		assertEquals("second", ((EObject) items.get(1)).eGet(VALUE));
+		assertEquals("third", ((EObject) items.get(2)).eGet(VALUE));
+	}
+
+	private CatalogResource createResource() {
+		// The catalog has no grammar, and the SAX renderer has to keep the setting
+		AbstractRendererImpl renderer = (AbstractRendererImpl) new EMF2DOMRendererFactory().createRenderer();
+		renderer.setValidating(false);
+		return new CatalogResource(URI.createFileURI(file.getAbsolutePath()), renderer);
+	}
+
+	private static void assertCatalog(TranslatorResource resource) {
+		EObject catalog = resource.getRootObject();
+		assertNotNull(catalog);
+		assertEquals("parts", catalog.eGet(NAME));
+		List items = (List) catalog.eGet(ITEMS);
+		assertEquals(2, items.size());
+		assertEquals("first", ((EObject) items.get(0)).eGet(VALUE));
+		assertEquals("second", ((EObject) items.get(1)).eGet(VALUE));
+	}
+
+	private static void assertNoDOM(TranslatorResource resource) {
+		for (TreeIterator iterator = resource.getAllContents(); iterator.hasNext();)
+			assertFalse("No object should be adapted to a DOM node", isAdaptedToDOM((EObject) iterator.next()));
+	}
+
+	private static boolean isAdaptedToDOM(EObject eObject) {
+		for (Iterator adapters = eObject.eAdapters().iterator(); adapters.hasNext();) {
+			if (adapters.next() instanceof EMF2DOMAdapter)
+				return true;
+		}
+		return false;
+	}
+
+	private static class CatalogResource extends TranslatorResourceImpl {
+
+		CatalogResource(URI uri, Renderer renderer) {
+			super(uri, renderer);
+		}
+
+		protected String getDefaultPublicId() {
+			return null;
+		}
+
+		protected String getDefaultSystemId() {
+			return null;
+		}
+
+		protected int getDefaultVersionID() {
+			return 0;
+		}
+
+		public String getDoctype() {
+			return null;
+		}
+
+		public Translator getRootTranslator() {
+			return ROOT_TRANSLATOR;
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.emf.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.wst.common.internal.emf.resource.Translator;
+import org.eclipse.wst.common.internal.emf.resource.TranslatorChildIndex;
+
+public class TranslatorChildIndexTest extends TestCase {
+
+	private static final int CHILD_COUNT = 8;
+
+	private EClass eClass;
+	private EAttribute[] features;
+	private TestTranslator[] children;
+	private ParentTranslator parent;
+
+	public TranslatorChildIndexTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		eClass = EcoreFactory.eINSTANCE.createEClass();
+		eClass.setName("Parent");
+		features = new EAttribute[CHILD_COUNT + 1];
+		for (int i = 0; i < features.length; i++) {
+			features[i] = EcoreFactory.eINSTANCE.createEAttribute();
+			features[i].setName("feature" + i);
+			features[i].setEType(EcorePackage.eINSTANCE.getEString());
+			eClass.getEStructuralFeatures().add(features[i]);
+		}
+		children = new TestTranslator[CHILD_COUNT];
+		for (int i = 0; i < CHILD_COUNT; i++)
+			children[i] = new TestTranslator("child" + i + ",alias" + i, features[i]);
+		parent = new ParentTranslator(children);
+	}
+
+	public void testFindByDOMName() {
+		assertNotNull("Arrays of this size should be indexed", parent.getChildIndex(children));
+		for (int i = 0; i < CHILD_COUNT; i++) {
+			assertSame(children[i], parent.findChild("child" + i, null, 0));
+			assertSame("Every DOM name should be found", children[i], parent.findChild("alias" + i, null, 0));
+		}
+		assertNull(parent.findChild("unknown", null, 0));
+	}
+
+	public void testFirstChildWins() {
+		Translator[] duplicates = copyWith(3, new TestTranslator("child5", features[CHILD_COUNT]));
+		ParentTranslator duplicateParent = new ParentTranslator(duplicates);
+		assertSame("The first child that maps a name is found", duplicates[3], duplicateParent.findChild("child5", null, 0));
+		TranslatorChildIndex index = duplicateParent.getChildIndex(duplicates);
+		assertSame(duplicates[3], index.findChild("child5", false));
+		assertSame(duplicates[3], index.findChild(features[CHILD_COUNT], null, null));
+		assertSame(children[5], index.findChild(features[5], null, null));
+	}
+
+	public void testFindByFeature() {
+		TranslatorChildIndex index = parent.getChildIndex(children);
+		for (int i = 0; i < CHILD_COUNT; i++)
+			assertSame(children[i], index.findChild(features[i], null, null));
+		assertNull(index.findChild(features[CHILD_COUNT], null, null));
+	}
+
+	public void testIndexIsShared() {
+		assertSame("An array should be indexed once", parent.getChildIndex(children), parent.getChildIndex(children));
+		assertNull("Short arrays are searched directly", parent.getChildIndex(new Translator[] { children[0] }));
+	}
+
+	public void testCustomDOMNameMatch() {
+		Translator custom = new TestTranslator("custom", features[CHILD_COUNT]) {
+			public boolean isMapFor(String domName) {
+				return domName.startsWith("child");
+			}
+		};
+		Translator[] overridden = copyWith(4, custom);
+		ParentTranslator overriddenParent = new ParentTranslator(overridden);
+		assertSame("Children before the override are still found first", children[2], overriddenParent.findChild("child2", null, 0));
+		assertSame("The override is asked in order", custom, overriddenParent.findChild("child6", null, 0));
+		assertSame(children[6], overriddenParent.findChild("alias6", null, 0));
+	}
+
+	public void testCustomFeatureMatch() {
+		Translator custom = new TestTranslator("custom", features[CHILD_COUNT]) {
+			public boolean isMapFor(Object aFeature, Object oldValue, Object newValue) {
+				return "match".equals(newValue);
+			}
+		};
+		Translator[] overridden = copyWith(4, custom);
+		TranslatorChildIndex index = new ParentTranslator(overridden).getChildIndex(overridden);
+		assertSame(children[2], index.findChild(features[2], null, "match"));
+		assertSame("The override is asked in order", custom, index.findChild(features[6], null, "match"));
+		assertSame(children[6], index.findChild(features[6], null, "other"));
+		assertSame("The override is asked for features that aren't in the table", custom,
+				index.findChild(features[CHILD_COUNT], null, "match"));
+	}
+
+	public void testChangedFeatureIsFound() {
+		TranslatorChildIndex index = parent.getChildIndex(children);
+		children[3].changeFeature(features[CHILD_COUNT]);
+		assertTrue("Changing the feature of a child must make the index stale", index.isStale());
+		TranslatorChildIndex rebuilt = parent.getChildIndex(children);
+		assertNotSame(index, rebuilt);
+		assertSame(children[3], rebuilt.findChild(features[CHILD_COUNT], null, null));
+		assertNull(rebuilt.findChild(features[3], null, null));
+		assertSame(rebuilt, parent.getChildIndex(children));
+	}
+
+	public void testChangedDOMNameIsFound() {
+		parent.getChildIndex(children);
+		children[3].changeDOMName("renamed");
+		assertSame(children[3], parent.findChild("renamed", null, 0));
+		assertNull(parent.findChild("child3", null, 0));
+	}
+
+	private Translator[] copyWith(int position, Translator translator) {
+		Translator[] result = new Translator[CHILD_COUNT + 1];
+		System.arraycopy(children, 0, result, 0, position);
+		result[position] = translator;
+		System.arraycopy(children, position, result, position + 1, CHILD_COUNT - position);
+		return result;
+	}
+
+	private static class TestTranslator extends Translator {
+
+		TestTranslator(String domNameAndPath, EStructuralFeature feature) {
+			super(domNameAndPath, feature);
+		}
+
+		void changeFeature(EStructuralFeature feature) {
+			setFeature(feature);
+		}
+
+		void changeDOMName(String domName) {
+			initializeDOMNameAndPath(domName);
+		}
+	}
+
+	private static class ParentTranslator extends Translator {
+
+		private final Translator[] children;
+
+		ParentTranslator(Translator[] children) {
+			super("parent", (EStructuralFeature) null);
+			this.children = children;
+		}
+
+		public Translator[] getChildren(Object target, int versionID) {
+			return children;
+		}
+	}
+}
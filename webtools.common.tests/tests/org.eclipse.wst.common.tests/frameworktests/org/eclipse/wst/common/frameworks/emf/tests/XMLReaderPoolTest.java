@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.frameworks.emf.tests;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import junit.framework.TestCase;
+
+import org.eclipse.wst.common.internal.emf.resource.XMLReaderPool;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+public class XMLReaderPoolTest extends TestCase {
+
+	private static final String VALIDATION = "http://xml.org/sax/features/validation"; //$NON-NLS-1$
+
+	private static final String DOCUMENT = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" //
+			+ "<catalog><item/><item/><item/></catalog>\n";
+
+	private XMLReaderPool pool;
+
+	public XMLReaderPoolTest(String name) {
+		super(name);
+	}
+
+	protected void setUp() throws Exception {
+		pool = new XMLReaderPool(2);
+	}
+
+	public void testReleasedReaderIsReused() throws Exception {
+		XMLReader reader = pool.getReader(false);
+		assertNotSame("A reader that is in use must not be handed out again", reader, pool.getReader(false));
+		pool.releaseReader(reader, false);
+		assertSame(reader, pool.getReader(false));
+	}
+
+	public void testValidationModesAreKeptApart() throws Exception {
+		XMLReader nonValidating = pool.getReader(false);
+		XMLReader validating = pool.getReader(true);
+		assertFalse(nonValidating.getFeature(VALIDATION));
+		assertTrue(validating.getFeature(VALIDATION));
+		pool.releaseReader(nonValidating, false);
+		pool.releaseReader(validating, true);
+
+		XMLReader reader = pool.getReader(true);
+		assertSame(validating, reader);
+		assertTrue("The reader should still validate after being reused", reader.getFeature(VALIDATION));
+		reader = pool.getReader(false);
+		assertSame(nonValidating, reader);
+		assertFalse("The reader should still not validate after being reused", reader.getFeature(VALIDATION));
+	}
+
+	public void testHandlersAreReset() throws Exception {
+		XMLReader reader = pool.getReader(false);
+		CountingHandler handler = new CountingHandler();
+		setHandler(reader, handler);
+		reader.parse(new InputSource(new StringReader(DOCUMENT)));
+		assertEquals(4, handler.elements);
+		pool.releaseReader(reader, false);
+
+		assertNotSame(handler, reader.getContentHandler());
+		assertNotSame(handler, reader.getErrorHandler());
+		assertNotSame(handler, reader.getEntityResolver());
+		assertNotSame(handler, reader.getDTDHandler());
+
+		// A parse with the released reader doesn't reach the previous handler
+		XMLReader reused = pool.getReader(false);
+		assertSame(reader, reused);
+		reused.parse(new InputSource(new StringReader(DOCUMENT)));
+		assertEquals(4, handler.elements);
+	}
+
+	public void testValidatingReaderReportsErrors() throws Exception {
+		XMLReader reader = pool.getReader(true);
+		CountingHandler handler = new CountingHandler();
+		setHandler(reader, handler);
+		reader.parse(new InputSource(new StringReader(DOCUMENT)));
+		assertTrue("A document without a grammar is not valid", handler.errors > 0);
+		pool.releaseReader(reader, true);
+
+		reader = pool.getReader(false);
+		handler = new CountingHandler();
+		setHandler(reader, handler);
+		reader.parse(new InputSource(new StringReader(DOCUMENT)));
+		assertEquals(0, handler.errors);
+	}
+
+	public void testCapacity() throws Exception {
+		XMLReader first = pool.getReader(false);
+		XMLReader second = pool.getReader(false);
+		XMLReader third = pool.getReader(false);
+		pool.releaseReader(first, false);
+		pool.releaseReader(second, false);
+		pool.releaseReader(third, false);
+
+		Map<XMLReader, Boolean> released = new IdentityHashMap<XMLReader, Boolean>();
+		released.put(first, Boolean.TRUE);
+		released.put(second, Boolean.TRUE);
+		assertNotNull(released.remove(pool.getReader(false)));
+		assertNotNull(released.remove(pool.getReader(false)));
+		XMLReader created = pool.getReader(false);
+		assertNotSame("Only as many readers as the capacity should be kept", third, created);
+	}
+
+	public void testConcurrentUse() throws Throwable {
+		final int threadCount = 8;
+		final int parses = 50;
+		final Map<XMLReader, Boolean> inUse = Collections.synchronizedMap(new IdentityHashMap<XMLReader, Boolean>());
+		final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			final boolean validating = (i % 2) == 0;
+			threads[i] = new Thread() {
+				public void run() {
+					try {
+						start.await();
+						for (int j = 0; j < parses; j++) {
+							XMLReader reader = pool.getReader(validating);
+							assertTrue("A reader must only be used by one thread at a time", inUse.put(reader, Boolean.TRUE) == null);
+							assertEquals(validating, reader.getFeature(VALIDATION));
+							CountingHandler handler = new CountingHandler();
+							setHandler(reader, handler);
+							reader.parse(new InputSource(new StringReader(DOCUMENT)));
+							assertEquals(4, handler.elements);
+							assertNotNull(inUse.remove(reader));
+							pool.releaseReader(reader, validating);
+						}
+					} catch (Throwable t) {
+						failures.add(t);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		start.countDown();
+		for (int i = 0; i < threadCount; i++)
+			threads[i].join();
+		if (!failures.isEmpty())
+			throw failures.get(0);
+	}
+
+	private static void setHandler(XMLReader reader, DefaultHandler handler) {
+		reader.setContentHandler(handler);
+		reader.setErrorHandler(handler);
+		reader.setEntityResolver(handler);
+		reader.setDTDHandler(handler);
+	}
+
+	private static class CountingHandler extends DefaultHandler {
+		int elements;
+		int errors;
+
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			elements++;
+		}
+
+		public void error(SAXParseException e) {
+			errors++;
+		}
+	}
+}
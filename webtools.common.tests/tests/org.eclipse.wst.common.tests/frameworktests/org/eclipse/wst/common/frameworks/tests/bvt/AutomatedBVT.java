@@ -62,6 +62,7 @@ public class AutomatedBVT extends TestSuite {
 		suite.addTest(AllTests.suite());
 		suite.addTest(DataModelAPITests.suite());
 		suite.addTest(ArtifactEditAPITests.suite());
+		suite.addTest(org.eclipse.wst.common.frameworks.emf.tests.AllTests.suite());
 		suite.addTest(EnvironmentTests.suite());
 		return suite;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2004 IBM Corporation and others.
+ * Copyright (c) 2001, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -206,6 +206,89 @@ public class CacheTest extends TestCase
 		
 	}
 	
+	/**
+	 * Test to ensure that threads asking for the same resource at the same
+	 * time share a single download.
+	 */
+	public void testConcurrentRequestsShareDownload() throws Exception
+	{
+		LocalServer server = new LocalServer();
+		try
+		{
+			server.setDelay(500);
+			final String resource = server.getURI("/shared.xsd");
+			final String[] results = new String[5];
+			Thread[] threads = new Thread[results.length];
+			for(int i = 0; i < threads.length; i++)
+			{
+				final int index = i;
+				threads[i] = new Thread()
+				{
+					public void run()
+					{
+						results[index] = cache.getResource(resource);
+					}
+				};
+				threads[i].start();
+			}
+			for(int i = 0; i < threads.length; i++)
+			{
+				threads[i].join();
+			}
+			assertEquals("The resource was not downloaded exactly once.", 1, server.getRequestCount());
+			for(int i = 0; i < results.length; i++)
+			{
+				assertNotNull("The result for thread " + i + " is null.", results[i]);
+				assertEquals("The threads got different results.", results[0], results[i]);
+			}
+		}
+		finally
+		{
+			server.stop();
+			cache.clear();
+		}
+	}
+	
+	/**
+	 * Test to ensure that an expired entry is returned right away, and is
+	 * revalidated in the background with a conditional request.
+	 */
+	public void testExpiredEntryIsRevalidated() throws Exception
+	{
+		LocalServer server = new LocalServer();
+		try
+		{
+			server.setHeader("ETag", "\"v1\"");
+			String resource = server.getURI("/revalidate.xsd");
+			String result1 = cache.getResource(resource);
+			assertNotNull("The local cache file is null.", result1);
+			assertEquals("The resource was not downloaded exactly once.", 1, server.getRequestCount());
+			
+			CacheEntry entry = cache.getEntry(resource);
+			assertEquals("The entity tag was not remembered.", "\"v1\"", entry.getETag());
+			entry.setExpiration(1);
+			server.setResponse("304 Not Modified", null);
+			
+			String result2 = cache.getResource(resource);
+			assertEquals("The expired copy was not returned.", result1, result2);
+			
+			long end = System.currentTimeMillis() + 10000;
+			while(entry.hasExpired() && System.currentTimeMillis() < end)
+			{
+				Thread.sleep(50);
+			}
+			assertFalse("The expired entry was not revalidated.", entry.hasExpired());
+			assertEquals("The resource was not revalidated exactly once.", 2, server.getRequestCount());
+			assertEquals("The revalidation was not conditional.", "\"v1\"", server.getRequestHeaders(1).get("if-none-match"));
+			assertTrue("The cache file was deleted.", new File(result1.substring(8)).exists());
+		}
+		finally
+		{
+			server.stop();
+			cache.clear();
+		}
+	}
+	
 	
 	
 	
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.internet.cache.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal HTTP server that runs on the local machine, so that the cache
+ * can be tested without depending on a remote server. Every request is
+ * answered with the same response, and the headers of the requests are
+ * remembered so that tests can check what the cache asked for.
+ */
+public class LocalServer implements Runnable
+{
+  private final ServerSocket socket;
+  private final List requests = new ArrayList();
+  private String status = "200 OK";
+  private String body = "<schema/>";
+  private Map headers = new HashMap();
+  private long delay;
+  private boolean running = true;
+
+  /**
+   * Start a server on a free port.
+   */
+  public LocalServer() throws IOException
+  {
+	socket = new ServerSocket(0);
+	Thread thread = new Thread(this, "LocalServer");
+	thread.setDaemon(true);
+	thread.start();
+  }
+
+  /**
+   * Get the URI of a resource on this server.
+   *
+   * @param path The path of the resource, for example "/schema.xsd".
+   */
+  public String getURI(String path)
+  {
+	return "http://localhost:" + socket.getLocalPort() + path;
+  }
+
+  /**
+   * Set the response that is sent for every request.
+   *
+   * @param status The status, for example "200 OK".
+   * @param body The body, or null if no body is sent.
+   */
+  public synchronized void setResponse(String status, String body)
+  {
+	this.status = status;
+	this.body = body;
+  }
+
+  /**
+   * Add a header to the response.
+   */
+  public synchronized void setHeader(String name, String value)
+  {
+	headers.put(name, value);
+  }
+
+  /**
+   * Wait before answering a request.
+   *
+   * @param delay The time to wait in milliseconds.
+   */
+  public synchronized void setDelay(long delay)
+  {
+	this.delay = delay;
+  }
+
+  /**
+   * Get the number of requests that have been received.
+   */
+  public synchronized int getRequestCount()
+  {
+	return requests.size();
+  }
+
+  /**
+   * Get the headers of a request.
+   *
+   * @param index The index of the request.
+   * @return A map from the lower case header name to the header value.
+   */
+  public synchronized Map getRequestHeaders(int index)
+  {
+	return (Map)requests.get(index);
+  }
+
+  /**
+   * Stop the server.
+   */
+  public void stop()
+  {
+	synchronized(this)
+	{
+	  running = false;
+	}
+	try
+	{
+	  socket.close();
+	}
+	catch(IOException e)
+	{
+	  // The server is being stopped anyway.
+	}
+  }
+
+  public void run()
+  {
+	while(true)
+	{
+	  synchronized(this)
+	  {
+		if(!running)
+		{
+		  return;
+		}
+	  }
+	  try
+	  {
+		final Socket client = socket.accept();
+		Thread thread = new Thread("LocalServer request")
+		{
+		  public void run()
+		  {
+			answer(client);
+		  }
+		};
+		thread.setDaemon(true);
+		thread.start();
+	  }
+	  catch(IOException e)
+	  {
+		return;
+	  }
+	}
+  }
+
+  private void answer(Socket client)
+  {
+	try
+	{
+	  BufferedReader reader = new BufferedReader(new InputStreamReader(client.getInputStream(), "ISO-8859-1"));
+	  Map requestHeaders = new HashMap();
+	  String line = reader.readLine();
+	  while((line = reader.readLine()) != null && line.length() > 0)
+	  {
+		int colon = line.indexOf(':');
+		if(colon > 0)
+		{
+		  requestHeaders.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+		}
+	  }
+	  String responseStatus;
+	  String responseBody;
+	  Map responseHeaders;
+	  long wait;
+	  synchronized(this)
+	  {
+		requests.add(requestHeaders);
+		responseStatus = status;
+		responseBody = body;
+		responseHeaders = new HashMap(headers);
+		wait = delay;
+	  }
+	  if(wait > 0)
+	  {
+		Thread.sleep(wait);
+	  }
+	  byte[] bytes = responseBody == null ? new byte[0] : responseBody.getBytes("UTF-8");
+	  StringBuffer response = new StringBuffer();
+	  response.append("HTTP/1.0 ").append(responseStatus).append("\r\n");
+	  response.append("Content-Length: ").append(bytes.length).append("\r\n");
+	  response.append("Connection: close\r\n");
+	  Object[] names = responseHeaders.keySet().toArray();
+	  for(int i = 0; i < names.length; i++)
+	  {
+		response.append(names[i]).append(": ").append(responseHeaders.get(names[i])).append("\r\n");
+	  }
+	  response.append("\r\n");
+	  OutputStream os = client.getOutputStream();
+	  os.write(response.toString().getBytes("ISO-8859-1"));
+	  os.write(bytes);
+	  os.flush();
+	}
+	catch(Exception e)
+	{
+	  // The client has gone away.
+	}
+	finally
+	{
+	  try
+	  {
+		client.close();
+	  }
+	  catch(IOException e)
+	  {
+		// Nothing more can be done.
+	  }
+	}
+  }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials 
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -19,6 +19,7 @@ import org.eclipse.core.runtime.content.IContentDescription;
 import org.eclipse.core.runtime.jobs.ILock;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.emf.common.notify.*;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.common.notify.impl.NotificationImpl;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.URI;
@@ -570,6 +571,22 @@ public class ProjectResourceSetImpl extends ResourceSetImpl implements FlexibleP
 			}
 		}
 
+		protected void didAdd(int index, E newObject) {
+			super.didAdd(index, newObject);
+			normalizedURIIndex.add(newObject);
+		}
+
+		protected void didSet(int index, E newObject, E oldObject) {
+			super.didSet(index, newObject, oldObject);
+			normalizedURIIndex.remove(oldObject);
+			normalizedURIIndex.add(newObject);
+		}
+
+		protected void didRemove(int index, E oldObject) {
+			super.didRemove(index, oldObject);
+			normalizedURIIndex.remove(oldObject);
+		}
+
 		// release lock during notifications
 		protected void dispatchNotification(Notification notification) {
 
@@ -660,13 +677,352 @@ public class ProjectResourceSetImpl extends ResourceSetImpl implements FlexibleP
 		}
 	}
 
+	/**
+	 * The resources of the set, indexed by their normalized URI, so that a
+	 * resource can be found without normalizing the URI of every resource in
+	 * the set. Resources are normalized lazily, the first time the index is
+	 * used after they are added or their URI changes, and the index has its own
+	 * lock so that lookups don't wait for the resources list.
+	 */
+	private class NormalizedURIIndex extends AdapterImpl {
+		private final Map<URI, List<Resource>> resourcesByURI = new HashMap<URI, List<Resource>>();
+		private final Map<Resource, URI> normalizedURIs = new HashMap<Resource, URI>();
+		private final Set<Resource> unindexed = new LinkedHashSet<Resource>();
+
+		synchronized void add(Resource resource) {
+			unindexed.add(resource);
+			if (!resource.eAdapters().contains(this))
+				resource.eAdapters().add(this);
+		}
+
+		synchronized void remove(Resource resource) {
+			unindexed.remove(resource);
+			unindex(resource);
+			resource.eAdapters().remove(this);
+		}
+
+		/**
+		 * Normalize all the resources again, the next time the index is used.
+		 */
+		synchronized void reset() {
+			unindexed.addAll(normalizedURIs.keySet());
+			resourcesByURI.clear();
+			normalizedURIs.clear();
+		}
+
+		/**
+		 * Returns the resources whose URI normalizes to <code>normalizedURI</code>,
+		 * in the order they were added.
+		 */
+		List<Resource> get(URI normalizedURI) {
+			List<Resource> pending;
+			synchronized (this) {
+				pending = unindexed.isEmpty() ? null : new ArrayList<Resource>(unindexed);
+			}
+			if (pending != null) {
+				// Normalize outside of the lock, the converter may need to look at the workspace
+				URIConverter converter = getURIConverter();
+				int size = pending.size();
+				URI[] uris = new URI[size];
+				URI[] normalized = new URI[size];
+				for (int i = 0; i < size; i++) {
+					uris[i] = pending.get(i).getURI();
+					if (uris[i] != null)
+						normalized[i] = converter.normalize(uris[i]);
+				}
+				synchronized (this) {
+					for (int i = 0; i < size; i++) {
+						Resource resource = pending.get(i);
+						// Leave the resource for the next lookup if its URI changed meanwhile
+						if (resource.getURI() == uris[i] && unindexed.remove(resource) && normalized[i] != null)
+							index(resource, normalized[i]);
+					}
+				}
+			}
+			synchronized (this) {
+				List<Resource> resources = resourcesByURI.get(normalizedURI);
+				if (resources == null)
+					return Collections.emptyList();
+				return new ArrayList<Resource>(resources);
+			}
+		}
+
+		private void index(Resource resource, URI normalizedURI) {
+			normalizedURIs.put(resource, normalizedURI);
+			List<Resource> resources = resourcesByURI.get(normalizedURI);
+			if (resources == null) {
+				resources = new ArrayList<Resource>(1);
+				resourcesByURI.put(normalizedURI, resources);
+			}
+			resources.add(resource);
+		}
+
+		private void unindex(Resource resource) {
+			URI normalizedURI = normalizedURIs.remove(resource);
+			if (normalizedURI == null)
+				return;
+			List<Resource> resources = resourcesByURI.get(normalizedURI);
+			if (resources != null) {
+				resources.remove(resource);
+				if (resources.isEmpty())
+					resourcesByURI.remove(normalizedURI);
+			}
+		}
+
+		public void notifyChanged(Notification msg) {
+			if (msg.getFeatureID(null) == Resource.RESOURCE__URI) {
+				synchronized (this) {
+					Resource resource = (Resource) msg.getNotifier();
+					unindex(resource);
+					unindexed.add(resource);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The URI to resource map of the set. It also keeps the URIs that each
+	 * resource is mapped from, so that finding them doesn't require going
+	 * through the whole map. Entries can be removed or changed through the
+	 * views of the map as well, and the URIs of each resource are kept up to
+	 * date. Like those of a HashMap, the views must not be used while the map
+	 * is being changed by another thread.
+	 */
+	protected static class URIResourceMap extends HashMap<URI, Resource> {
+		private static final long serialVersionUID = 1L;
+		private final Map<Resource, Set<URI>> keysByResource = new HashMap<Resource, Set<URI>>();
+
+		public URIResourceMap(int initialCapacity) {
+			super(initialCapacity);
+		}
+
+		public synchronized Resource get(Object key) {
+			return super.get(key);
+		}
+
+		public synchronized boolean containsKey(Object key) {
+			return super.containsKey(key);
+		}
+
+		public synchronized boolean containsValue(Object value) {
+			return keysByResource.containsKey(value);
+		}
+
+		public synchronized Resource put(URI key, Resource value) {
+			Resource previous = super.put(key, value);
+			removeKey(previous, key);
+			if (value != null) {
+				Set<URI> keys = keysByResource.get(value);
+				if (keys == null) {
+					keys = new LinkedHashSet<URI>(2);
+					keysByResource.put(value, keys);
+				}
+				keys.add(key);
+			}
+			return previous;
+		}
+
+		public synchronized void putAll(Map<? extends URI, ? extends Resource> map) {
+			for (Iterator<? extends Map.Entry<? extends URI, ? extends Resource>> it = map.entrySet().iterator(); it.hasNext();) {
+				Map.Entry<? extends URI, ? extends Resource> entry = it.next();
+				put(entry.getKey(), entry.getValue());
+			}
+		}
+
+		public synchronized Resource remove(Object key) {
+			Resource previous = super.remove(key);
+			removeKey(previous, key);
+			return previous;
+		}
+
+		public synchronized void clear() {
+			super.clear();
+			keysByResource.clear();
+		}
+
+		public Set<URI> keySet() {
+			return new AbstractSet<URI>() {
+				public Iterator<URI> iterator() {
+					return new ViewIterator<URI>() {
+						URI element(Map.Entry<URI, Resource> entry) {
+							return entry.getKey();
+						}
+					};
+				}
+
+				public int size() {
+					return URIResourceMap.this.size();
+				}
+
+				public boolean contains(Object o) {
+					return containsKey(o);
+				}
+
+				public boolean remove(Object o) {
+					synchronized (URIResourceMap.this) {
+						if (!containsKey(o))
+							return false;
+						URIResourceMap.this.remove(o);
+						return true;
+					}
+				}
+
+				public void clear() {
+					URIResourceMap.this.clear();
+				}
+			};
+		}
+
+		public Collection<Resource> values() {
+			return new AbstractCollection<Resource>() {
+				public Iterator<Resource> iterator() {
+					return new ViewIterator<Resource>() {
+						Resource element(Map.Entry<URI, Resource> entry) {
+							return entry.getValue();
+						}
+					};
+				}
+
+				public int size() {
+					return URIResourceMap.this.size();
+				}
+
+				public boolean contains(Object o) {
+					return containsValue(o);
+				}
+
+				public void clear() {
+					URIResourceMap.this.clear();
+				}
+			};
+		}
+
+		public Set<Map.Entry<URI, Resource>> entrySet() {
+			return new AbstractSet<Map.Entry<URI, Resource>>() {
+				public Iterator<Map.Entry<URI, Resource>> iterator() {
+					return new ViewIterator<Map.Entry<URI, Resource>>() {
+						Map.Entry<URI, Resource> element(final Map.Entry<URI, Resource> entry) {
+							return new Map.Entry<URI, Resource>() {
+								public URI getKey() {
+									return entry.getKey();
+								}
+
+								public Resource getValue() {
+									return entry.getValue();
+								}
+
+								public Resource setValue(Resource value) {
+									// The key is already mapped, so this doesn't disturb the iteration
+									return put(entry.getKey(), value);
+								}
+
+								public boolean equals(Object o) {
+									return entry.equals(o);
+								}
+
+								public int hashCode() {
+									return entry.hashCode();
+								}
+
+								public String toString() {
+									return entry.toString();
+								}
+							};
+						}
+					};
+				}
+
+				public int size() {
+					return URIResourceMap.this.size();
+				}
+
+				public boolean contains(Object o) {
+					if (!(o instanceof Map.Entry))
+						return false;
+					Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+					synchronized (URIResourceMap.this) {
+						return containsKey(entry.getKey()) && eq(get(entry.getKey()), entry.getValue());
+					}
+				}
+
+				public boolean remove(Object o) {
+					synchronized (URIResourceMap.this) {
+						if (!contains(o))
+							return false;
+						URIResourceMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+						return true;
+					}
+				}
+
+				public void clear() {
+					URIResourceMap.this.clear();
+				}
+			};
+		}
+
+		private static boolean eq(Object a, Object b) {
+			return a == null ? b == null : a.equals(b);
+		}
+
+		/**
+		 * Iterates over the entries of the map, and forgets the URI of the
+		 * resource when an entry is removed.
+		 */
+		private abstract class ViewIterator<E> implements Iterator<E> {
+			private final Iterator<Map.Entry<URI, Resource>> entries = URIResourceMap.super.entrySet().iterator();
+			private Map.Entry<URI, Resource> current;
+
+			abstract E element(Map.Entry<URI, Resource> entry);
+
+			public boolean hasNext() {
+				return entries.hasNext();
+			}
+
+			public E next() {
+				current = entries.next();
+				return element(current);
+			}
+
+			public void remove() {
+				if (current == null)
+					throw new IllegalStateException();
+				synchronized (URIResourceMap.this) {
+					entries.remove();
+					removeKey(current.getValue(), current.getKey());
+					current = null;
+				}
+			}
+		}
+
+		/**
+		 * Returns one of the URIs that map to <code>resource</code>, or
+		 * <code>null</code> if there are none.
+		 */
+		public synchronized URI findKey(Resource resource) {
+			Set<URI> keys = keysByResource.get(resource);
+			return keys == null ? null : keys.iterator().next();
+		}
+
+		private void removeKey(Resource resource, Object key) {
+			if (resource == null)
+				return;
+			Set<URI> keys = keysByResource.get(resource);
+			if (keys != null) {
+				keys.remove(key);
+				if (keys.isEmpty())
+					keysByResource.remove(resource);
+			}
+		}
+	}
+
 	private boolean isReleasing = false;
 	private IProject project;
 	protected List resourceHandlers = new ArrayList();
 	private Object resourcesLock = new Object();
+	private final NormalizedURIIndex normalizedURIIndex = new NormalizedURIIndex();
 	protected ResourceSetWorkbenchSynchronizer synchronizer;
 	protected ProjectResourceSetImpl() {
-		setURIResourceMap(new HashMap(10));	// Tell it to cache uri->resource access.
+		setURIResourceMap(new URIResourceMap(10));	// Tell it to cache uri->resource access.
 		getLoadOptions().put(XMLResource.OPTION_USE_PARSER_POOL, EMFNature.SHARED_PARSER_POOL);
 	}
 	public ProjectResourceSetImpl(IProject aProject) {
@@ -1006,37 +1362,29 @@ public class ProjectResourceSetImpl extends ResourceSetImpl implements FlexibleP
 	      }
 	    }
 	    
-	    URIConverter theURIConverter = getURIConverter();
-	    URI normalizedURI = theURIConverter.normalize(uri);
+	    URI normalizedURI = getURIConverter().normalize(uri);
 	    List resourcesToRemove = new ArrayList();
-	    synchronized (resourcesLock) {
-	    	List<Resource> c = getImmutableResources();
-	        
-	        synchronized(c) {
-				for (Resource resource : c) {
-					if (theURIConverter.normalize(resource.getURI()).equals(normalizedURI)) {
-	
-						if (getContentTypeName(uri) == null) { // loading from legacy archive api or non-typed resource
-							if (loadOnDemand && !resource.isLoaded()) {
-								demandLoadHelper(resource);
-							}
-	
-							if (map != null) {
-								map.put(uri, resource);
-							}
-							return resource;
-						} else {
-							Resource loadedRes = loadWithContentType(resource, uri, map, loadOnDemand, resourcesToRemove);
-							if (loadedRes != null)
-								return loadedRes;
-						}
-					}
-				}
-	        }
-		}
-	    synchronized (resourcesLock) {
-	    // Cleanup invalid resources
-	    	getResources().removeAll(resourcesToRemove);
+	    for (Resource resource : normalizedURIIndex.get(normalizedURI)) {
+	    	if (getContentTypeName(uri) == null) { // loading from legacy archive api or non-typed resource
+	    		if (loadOnDemand && !resource.isLoaded()) {
+	    			demandLoadHelper(resource);
+	    		}
+
+	    		if (map != null) {
+	    			map.put(uri, resource);
+	    		}
+	    		return resource;
+	    	} else {
+	    		Resource loadedRes = loadWithContentType(resource, uri, map, loadOnDemand, resourcesToRemove);
+	    		if (loadedRes != null)
+	    			return loadedRes;
+	    	}
+	    }
+	    if (!resourcesToRemove.isEmpty()) {
+	    	synchronized (resourcesLock) {
+	    		// Cleanup invalid resources
+	    		getResources().removeAll(resourcesToRemove);
+	    	}
 	    }
 	    Resource delegatedResource = delegatedGetResource(uri, loadOnDemand);
 	    if (delegatedResource != null)
@@ -1078,7 +1426,8 @@ public class ProjectResourceSetImpl extends ResourceSetImpl implements FlexibleP
 			resourceExists = file.exists();
 		String resourceContentTypeID = getContentTypeID(resource);
 		String uriContentTypeID = getContentTypeName(uri);
-		String existingMapKeyType = (findKey(resource) != null) ? getContentTypeName(findKey(resource)) : null;
+		URI existingMapKey = findKey(resource);
+		String existingMapKeyType = (existingMapKey != null) ? getContentTypeName(existingMapKey) : null;
 		if((!map.containsValue(resource) || ((map.get(uri) != null) && map.get(uri).equals(resource))) // existing resource  with alternate mapping doesn't exist in map
 			||  ((resourceContentTypeID != null && resourceContentTypeID.equals(uriContentTypeID)))) {
 				if (loadOnDemand && !resource.isLoaded()) {
@@ -1133,6 +1482,8 @@ public class ProjectResourceSetImpl extends ResourceSetImpl implements FlexibleP
 	
 	private URI findKey(Resource resource) {
 		Map aMap = getURIResourceMap();
+		if (aMap instanceof URIResourceMap)
+			return ((URIResourceMap) aMap).findKey(resource);
 		Set keys = aMap.keySet();
 		for (Iterator iterator = keys.iterator(); iterator.hasNext();) {
 			URI name = (URI) iterator.next();
@@ -1178,27 +1529,19 @@ public class ProjectResourceSetImpl extends ResourceSetImpl implements FlexibleP
 	      }
 	    }
 	    
-	    URIConverter theURIConverter = getURIConverter();
-	    URI normalizedURI = theURIConverter.normalize(uri);
-	    synchronized (resourcesLock) {
-	    	List<Resource> c = getImmutableResources();
-	        
-	        synchronized(c) {
-	        	
-				for (Resource resource : c) {
-					if (theURIConverter.normalize(resource.getURI()).equals(normalizedURI)) {
-						if (loadOnDemand && !resource.isLoaded()) {
-							demandLoadHelper(resource);
-						}
-	
-						if (map != null) {
-							map.put(uri, resource);
-						}
-						return resource;
-					}
-				}
-	        }
-		}
+	    URI normalizedURI = getURIConverter().normalize(uri);
+	    List<Resource> indexed = normalizedURIIndex.get(normalizedURI);
+	    if (!indexed.isEmpty()) {
+	    	Resource resource = indexed.get(0);
+	    	if (loadOnDemand && !resource.isLoaded()) {
+	    		demandLoadHelper(resource);
+	    	}
+
+	    	if (map != null) {
+	    		map.put(uri, resource);
+	    	}
+	    	return resource;
+	    }
 	    
 	    Resource delegatedResource = delegatedGetResource(uri, loadOnDemand);
 	    if (delegatedResource != null)
@@ -1238,6 +1581,12 @@ public class ProjectResourceSetImpl extends ResourceSetImpl implements FlexibleP
 	public void resetNormalizedURICache() {
 		if (getURIResourceMap() != null)
 			getURIResourceMap().clear();
+		normalizedURIIndex.reset();
+	}
+
+	public void setURIConverter(URIConverter converter) {
+		super.setURIConverter(converter);
+		normalizedURIIndex.reset();
 	}
 	
 	protected Resource demandCreateResource(URI uri, Factory resourceFactory) {
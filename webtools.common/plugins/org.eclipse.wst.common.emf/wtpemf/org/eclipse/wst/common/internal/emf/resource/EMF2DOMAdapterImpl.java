@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2011 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -64,6 +64,15 @@ public class EMF2DOMAdapterImpl extends AdapterImpl implements EMF2DOMAdapter {
 
 	protected Translator[] childTranslators;
 
+	/**
+	 * The children of fTranslator, which start at sharedChildStart in indexedChildTranslators,
+	 * so that they can be looked up through the index fTranslator keeps for them instead of one
+	 * by one. Only used while childTranslators is indexedChildTranslators.
+	 */
+	private Translator[] sharedChildTranslators;
+	private int sharedChildStart;
+	private Translator[] indexedChildTranslators;
+
 	protected boolean isRoot = false;
 	
 	private static final String PLATFORM = "org.eclipse.core.runtime.Platform"; //$NON-NLS-1$
@@ -164,7 +173,9 @@ public class EMF2DOMAdapterImpl extends AdapterImpl implements EMF2DOMAdapter {
 		}
 		
 		
-		children.addAll(Arrays.asList(fTranslator.getChildren(getTarget(), fRenderer.getVersionID())));
+		Translator[] sharedChildren = fTranslator.getChildren(getTarget(), fRenderer.getVersionID());
+		int sharedStart = children.size();
+		children.addAll(Arrays.asList(sharedChildren));
 
 		VariableTranslatorFactory factory = fTranslator.getVariableTranslatorFactory();
 		if (factory != null) {
@@ -188,6 +199,9 @@ public class EMF2DOMAdapterImpl extends AdapterImpl implements EMF2DOMAdapter {
 		}
 
 		childTranslators = (Translator[]) children.toArray(new Translator[children.size()]);
+		sharedChildTranslators = sharedChildren;
+		sharedChildStart = sharedStart;
+		indexedChildTranslators = childTranslators;
 	}
 
 	/**
@@ -286,12 +300,34 @@ public class EMF2DOMAdapterImpl extends AdapterImpl implements EMF2DOMAdapter {
 		if (not.getFeature() == null)
 			return null;
 		Translator[] maps = getChildTranslators();
-		for (int i = 0; i < maps.length; i++) {
+		TranslatorChildIndex index = getSharedChildIndex(maps);
+		if (index == null)
+			return findTranslator(maps, 0, maps.length, not);
+		Translator result = findTranslator(maps, 0, sharedChildStart, not);
+		if (result == null)
+			result = index.findChild(not.getFeature(), not.getOldValue(), not.getNewValue());
+		if (result == null)
+			result = findTranslator(maps, sharedChildStart + sharedChildTranslators.length, maps.length, not);
+		return result;
+	}
+
+	private Translator findTranslator(Translator[] maps, int start, int end, Notification not) {
+		for (int i = start; i < end; i++) {
 			if (maps[i].isMapFor(not.getFeature(), not.getOldValue(), not.getNewValue()))
 				return maps[i];
 		}
 		return null;
 	}
+
+	/**
+	 * Return the index of the children of fTranslator within <code>maps</code>, or null if
+	 * <code>maps</code> has to be searched one by one.
+	 */
+	private TranslatorChildIndex getSharedChildIndex(Translator[] maps) {
+		if (maps == null || maps != indexedChildTranslators)
+			return null;
+		return fTranslator.getChildIndex(sharedChildTranslators);
+	}
 	
 	/**
 	 * Checks to ensure that only one MOF node has been removed and will remove the dom equivalent.
@@ -1159,8 +1195,13 @@ public class EMF2DOMAdapterImpl extends AdapterImpl implements EMF2DOMAdapter {
 		Translator trans = null;
 		if (fact != null && fact.accepts(msg)) {
 			trans = fact.create(msg);
-			if (trans != null)
+			if (trans != null) {
+				boolean indexed = childTranslators == indexedChildTranslators;
 				childTranslators = (Translator[]) Translator.concat(childTranslators, trans);
+				// The translator is added at the end, so the shared children haven't moved
+				if (indexed)
+					indexedChildTranslators = childTranslators;
+			}
 		}
 		return trans;
 	}
@@ -1305,7 +1346,19 @@ public class EMF2DOMAdapterImpl extends AdapterImpl implements EMF2DOMAdapter {
 
 	protected Translator findTranslator(String tagName, boolean attributeMap) {
 		Translator[] maps = getChildTranslators();
-		for (int i = 0; i < maps.length; i++) {
+		TranslatorChildIndex index = getSharedChildIndex(maps);
+		if (index == null)
+			return findTranslator(maps, 0, maps.length, tagName, attributeMap);
+		Translator result = findTranslator(maps, 0, sharedChildStart, tagName, attributeMap);
+		if (result == null)
+			result = index.findChild(tagName, attributeMap);
+		if (result == null)
+			result = findTranslator(maps, sharedChildStart + sharedChildTranslators.length, maps.length, tagName, attributeMap);
+		return result;
+	}
+
+	private Translator findTranslator(Translator[] maps, int start, int end, String tagName, boolean attributeMap) {
+		for (int i = start; i < end; i++) {
 			Translator map = maps[i];
 			if (map.isMapFor(tagName) && attributeMap == map.isDOMAttribute())
 				return maps[i];
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2005 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,8 +16,6 @@ import java.io.OutputStream;
 import java.util.Map;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
@@ -31,7 +29,6 @@ import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.wst.common.internal.emf.plugin.EcoreUtilitiesPlugin;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.SAXNotRecognizedException;
 import org.xml.sax.XMLReader;
 
 /**
@@ -39,6 +36,11 @@ import org.xml.sax.XMLReader;
  */
 public class EMF2SAXRenderer extends AbstractRendererImpl {
 
+	/**
+	 * The readers used by all loads, so that parsers are not created and configured for each one
+	 */
+	private static final XMLReaderPool READER_POOL = new XMLReaderPool();
+
 	/**
 	 *  
 	 */
@@ -52,38 +54,12 @@ public class EMF2SAXRenderer extends AbstractRendererImpl {
 	 * @see com.ibm.etools.emf2xml.Renderer#doLoad(java.io.InputStream, java.util.Map)
 	 */
 	public void doLoad(InputStream in, Map options) throws IOException {
+		boolean validating = isValidating();
+		XMLReader reader = null;
+		boolean parsed = false;
 		try {
-			SAXParserFactory factory = SAXParserFactory.newInstance();
-			factory.setValidating(isValidating());
-			factory.setNamespaceAware(true);
-			/*
-			 * Causes errors in IBM JDK try { factory.setAttribute(JAXP_SCHEMA_LANGUAGE,
-			 * W3C_XML_SCHEMA); } catch (IllegalArgumentException x) { }
-			 */
-			SAXParser parser = factory.newSAXParser();
-			XMLReader reader = parser.getXMLReader();
+			reader = READER_POOL.getReader(validating);
 			EMF2SAXDocumentHandler handler = new EMF2SAXDocumentHandler(this.getResource());
-			try {
-				reader.setFeature("http://xml.org/sax/features/validation", isValidating()); //$NON-NLS-1$
-			} catch (SAXNotRecognizedException snre) {
-                // ignore exception
-			}
-			try {
-				reader.setFeature("http://xml.org/sax/features/namespace-prefixes", true); //$NON-NLS-1$
-			} catch (SAXNotRecognizedException snre) {
-                // ignore exception
-            }
-			try {
-				reader.setFeature("http://apache.org/xml/features/validation/schema", isValidating()); //$NON-NLS-1$
-			} catch (SAXNotRecognizedException e) {
-				reader.setFeature("http://xml.org/sax/features/validation", false); //$NON-NLS-1$
-				EcoreUtilitiesPlugin.logWarning("Warning: Parser does not support \"http://apache.org/xml/features/validation/schema\". Validation will be disabled."); //$NON-NLS-1$
-			}
-			try {
-				reader.setFeature("http://apache.org/xml/features/allow-java-encodings", true); //$NON-NLS-1$
-			} catch (SAXNotRecognizedException e) {
-				EcoreUtilitiesPlugin.logWarning("Warning: Parser does not support \"http://apache.org/xml/features/allow-java-encodings\"."); //$NON-NLS-1$
-			}
 			/*
 			 * try { reader.setProperty("http://xml.org/sax/properties/lexical-handler", handler); }
 			 * catch (SAXNotRecognizedException e) { }
@@ -94,12 +70,17 @@ public class EMF2SAXRenderer extends AbstractRendererImpl {
 			reader.setEntityResolver(handler);
 			InputSource testsource = new InputSource(in);
 			reader.parse(testsource);
+			parsed = true;
 		} catch (RuntimeException t_rex) {
 			throw t_rex;
 		} catch (SAXException se) {
 		    throw new WrappedException(se);
         } catch (ParserConfigurationException e) {
             throw new WrappedException(e);
+        } finally {
+        	// A reader that failed may be left in any state, so only reuse readers that succeeded
+        	if (parsed)
+        		READER_POOL.releaseReader(reader, validating);
         }
 	}
 
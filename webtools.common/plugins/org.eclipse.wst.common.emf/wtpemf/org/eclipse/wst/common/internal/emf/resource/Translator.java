@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2006 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -102,6 +102,28 @@ public class Translator {
 	protected EStructuralFeature dependencyFeature;
 	protected static EcorePackage ECORE_PACKAGE = EcorePackage.eINSTANCE;
 
+	/**
+	 * Arrays of children with fewer entries are searched directly.
+	 */
+	private static final int MIN_INDEXED_CHILDREN = 6;
+	private static final int MAX_CHILD_INDEXES = 8;
+	private static final TranslatorChildIndex[] NO_CHILD_INDEXES = new TranslatorChildIndex[0];
+
+	/**
+	 * The indexes of the arrays returned by {@link #getChildren(Object, int)}, most recently
+	 * built first. Replaced rather than changed, so that it can be read without locking.
+	 */
+	private volatile TranslatorChildIndex[] childIndexes = NO_CHILD_INDEXES;
+	private int childIndexBuilds = 0;
+	private volatile boolean childIndexReused = false;
+	private boolean childIndexingDisabled = false;
+
+	/**
+	 * Whether this translator is in the index of a parent, so that changing its feature or DOM
+	 * names has to make those indexes stale.
+	 */
+	volatile boolean inChildIndex = false;
+
 	// Use this identifier for the DOMName when the attribute
 	// value is to be extracted directly from the text of the node.
 	// This is rare, but occurs in the web.xml in the case of a
@@ -128,8 +150,11 @@ public class Translator {
 
 		Translator result = null;
 		Translator[] maps = getChildren(target, versionID);
+		TranslatorChildIndex index = getChildIndex(maps);
 
-		if (maps != null) {
+		if (index != null) {
+			result = index.findChild(tagName);
+		} else if (maps != null) {
 			for (int i = 0; i < maps.length; i++) {
 				Translator map = maps[i];
 				if (map.isMapFor(tagName)) {
@@ -147,6 +172,62 @@ public class Translator {
 		return result;
 	}
 
+	/**
+	 * Return the index of <code>children</code>, which must have been returned by
+	 * {@link #getChildren(Object, int)}, or null if the array is searched directly. The index is
+	 * built the first time the array is seen and kept for as long as the array is in use.
+	 * 
+	 * The index is found by the identity of the array, so an array that has been indexed must not
+	 * be changed afterwards; return a new array instead. Changing the feature or the DOM names of
+	 * a child makes every index stale, and it is built again the next time it is used.
+	 */
+	public TranslatorChildIndex getChildIndex(Translator[] children) {
+		if (children == null || children.length < MIN_INDEXED_CHILDREN)
+			return null;
+		TranslatorChildIndex[] indexes = childIndexes;
+		boolean stale = false;
+		for (int i = 0; i < indexes.length; i++) {
+			if (indexes[i].getChildren() == children) {
+				if (!indexes[i].isStale()) {
+					if (!childIndexReused)
+						childIndexReused = true;
+					return indexes[i];
+				}
+				stale = true;
+				break;
+			}
+		}
+		synchronized (this) {
+			// Subclasses that build a new array every time would only pay for the index
+			if (childIndexingDisabled)
+				return null;
+			if (!stale && ++childIndexBuilds > 4 * MAX_CHILD_INDEXES && !childIndexReused) {
+				childIndexingDisabled = true;
+				childIndexes = NO_CHILD_INDEXES;
+				return null;
+			}
+			TranslatorChildIndex index = new TranslatorChildIndex(children);
+			indexes = childIndexes;
+			List<TranslatorChildIndex> newIndexes = new ArrayList<TranslatorChildIndex>(MAX_CHILD_INDEXES);
+			newIndexes.add(index);
+			for (int i = 0; i < indexes.length && newIndexes.size() < MAX_CHILD_INDEXES; i++) {
+				if (indexes[i].getChildren() != children && !indexes[i].isStale())
+					newIndexes.add(indexes[i]);
+			}
+			childIndexes = newIndexes.toArray(new TranslatorChildIndex[newIndexes.size()]);
+			return index;
+		}
+	}
+
+	/**
+	 * Called when the feature or the DOM names of this translator change.
+	 */
+	private void childIndexKeyChanged() {
+		childIndexes = NO_CHILD_INDEXES;
+		if (inChildIndex)
+			TranslatorChildIndex.invalidateAll();
+	}
+
 	/**
 	 * Utility method to string together arrays of children
 	 */
@@ -239,7 +320,7 @@ public class Translator {
 		}
 		// added by MDE
 		this.domNameAndPath = domNameAndPathArg;
-
+		childIndexKeyChanged();
 	}
 
 	/**
@@ -680,6 +761,7 @@ public class Translator {
 
 	protected void setFeature(EStructuralFeature aFeature) {
 		this.feature = aFeature;
+		childIndexKeyChanged();
 		if (feature == null)
 			return;
 		//This way an instance check happens only once
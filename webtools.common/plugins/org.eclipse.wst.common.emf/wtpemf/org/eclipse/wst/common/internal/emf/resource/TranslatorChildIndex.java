@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.internal.emf.resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hash tables over an array of child translators, from DOM name and from feature to the
+ * children that map them. A lookup returns the same child as going through the array in order
+ * and asking each child {@link Translator#isMapFor(String)} or
+ * {@link Translator#isMapFor(Object, Object, Object)}.
+ *
+ * Children whose class overrides how names or features are matched can't be put in the tables;
+ * they are asked in order instead, between the children found in the tables.
+ * 
+ * The index keeps the array it was built for, which must not be changed afterwards. Setting the
+ * feature or the DOM names of a child that is in an index makes all indexes stale; see
+ * {@link #isStale()}.
+ */
+public class TranslatorChildIndex {
+
+	private static final int CUSTOM_DOM_NAME_MATCH = 1;
+	private static final int CUSTOM_FEATURE_MATCH = 1 << 1;
+
+	private static final Class[] STRING_PARAMETER = new Class[]{String.class};
+	private static final Class[] FEATURE_PARAMETERS = new Class[]{Object.class, Object.class, Object.class};
+	private static final int[] NO_INDEXES = new int[0];
+
+	/** The matching overrides of each translator class */
+	private static final Map classOverrides = Collections.synchronizedMap(new WeakHashMap());
+
+	/** Incremented whenever a child that is in an index changes */
+	private static final AtomicInteger generation = new AtomicInteger();
+
+	private final Translator[] children;
+	private final Map<String, int[]> domNameIndexes = new HashMap<String, int[]>();
+	private final int[] customDOMNameIndexes;
+	private final Map<Object, int[]> featureIndexes = new IdentityHashMap<Object, int[]>();
+	private final int[] customFeatureIndexes;
+	private final int builtGeneration;
+
+	public TranslatorChildIndex(Translator[] children) {
+		this.children = children;
+		// Read before the children, so that a change made while building makes the index stale
+		builtGeneration = generation.get();
+		Map<String, List<Integer>> domNames = new HashMap<String, List<Integer>>();
+		Map<Object, List<Integer>> features = new IdentityHashMap<Object, List<Integer>>();
+		List<Integer> customDOMNames = new ArrayList<Integer>();
+		List<Integer> customFeatures = new ArrayList<Integer>();
+		for (int i = 0; i < children.length; i++) {
+			Translator child = children[i];
+			if (child == null)
+				continue;
+			child.inChildIndex = true;
+			int overrides = getOverrides(child.getClass());
+			if ((overrides & CUSTOM_DOM_NAME_MATCH) != 0)
+				customDOMNames.add(new Integer(i));
+			else {
+				add(domNames, child.getDOMPath(), i);
+				String[] names = child.fDOMNames;
+				if (names != null) {
+					for (int j = 0; j < names.length; j++)
+						add(domNames, names[j], i);
+				}
+			}
+			if ((overrides & CUSTOM_FEATURE_MATCH) != 0)
+				customFeatures.add(new Integer(i));
+			else
+				add(features, child.feature, i);
+		}
+		for (Map.Entry<String, List<Integer>> entry : domNames.entrySet())
+			domNameIndexes.put(entry.getKey(), toArray(entry.getValue()));
+		for (Map.Entry<Object, List<Integer>> entry : features.entrySet())
+			featureIndexes.put(entry.getKey(), toArray(entry.getValue()));
+		customDOMNameIndexes = toArray(customDOMNames);
+		customFeatureIndexes = toArray(customFeatures);
+	}
+
+	/**
+	 * Return the children the index was built for.
+	 */
+	public Translator[] getChildren() {
+		return children;
+	}
+
+	/**
+	 * Return whether a child may have changed its feature or DOM names since the index was built.
+	 */
+	public boolean isStale() {
+		return builtGeneration != generation.get();
+	}
+
+	/**
+	 * Make every index that exists stale.
+	 */
+	static void invalidateAll() {
+		generation.incrementAndGet();
+	}
+
+	/**
+	 * Return the first child that maps <code>domName</code>, or null if there is none.
+	 */
+	public Translator findChild(String domName) {
+		return findChild(domName, true, false);
+	}
+
+	/**
+	 * Return the first child that maps <code>domName</code> and is a DOM attribute translator if
+	 * <code>attributeMap</code> is true, or is not one if it is false.
+	 */
+	public Translator findChild(String domName, boolean attributeMap) {
+		return findChild(domName, false, attributeMap);
+	}
+
+	/**
+	 * Return the first child that maps <code>aFeature</code>, or null if there is none.
+	 */
+	public Translator findChild(Object aFeature, Object oldValue, Object newValue) {
+		int[] indexes = featureIndexes.get(aFeature);
+		int next = indexes != null ? indexes[0] : Integer.MAX_VALUE;
+		for (int i = 0; i < customFeatureIndexes.length && customFeatureIndexes[i] < next; i++) {
+			Translator child = children[customFeatureIndexes[i]];
+			if (child.isMapFor(aFeature, oldValue, newValue))
+				return child;
+		}
+		return indexes != null ? children[next] : null;
+	}
+
+	private Translator findChild(String domName, boolean anyKind, boolean attributeMap) {
+		int[] indexes = domNameIndexes.get(domName);
+		if (indexes == null)
+			indexes = NO_INDEXES;
+		int i = 0;
+		int j = 0;
+		while (i < indexes.length || j < customDOMNameIndexes.length) {
+			Translator child;
+			if (j == customDOMNameIndexes.length || (i < indexes.length && indexes[i] < customDOMNameIndexes[j]))
+				child = children[indexes[i++]];
+			else {
+				child = children[customDOMNameIndexes[j++]];
+				if (!child.isMapFor(domName))
+					continue;
+			}
+			if (anyKind || child.isDOMAttribute() == attributeMap)
+				return child;
+		}
+		return null;
+	}
+
+	private static int getOverrides(Class translatorClass) {
+		Integer overrides = (Integer) classOverrides.get(translatorClass);
+		if (overrides == null) {
+			int flags = 0;
+			if (overrides(translatorClass, "isMapFor", STRING_PARAMETER) || overrides(translatorClass, "getDOMPath", null)) //$NON-NLS-1$ //$NON-NLS-2$
+				flags |= CUSTOM_DOM_NAME_MATCH;
+			if (overrides(translatorClass, "isMapFor", FEATURE_PARAMETERS)) //$NON-NLS-1$
+				flags |= CUSTOM_FEATURE_MATCH;
+			overrides = new Integer(flags);
+			classOverrides.put(translatorClass, overrides);
+		}
+		return overrides.intValue();
+	}
+
+	private static boolean overrides(Class translatorClass, String methodName, Class[] parameterTypes) {
+		try {
+			return translatorClass.getMethod(methodName, parameterTypes).getDeclaringClass() != Translator.class;
+		} catch (NoSuchMethodException e) {
+			return true;
+		}
+	}
+
+	private static <K> void add(Map<K, List<Integer>> map, K key, int index) {
+		List<Integer> indexes = map.get(key);
+		if (indexes == null) {
+			indexes = new ArrayList<Integer>(1);
+			map.put(key, indexes);
+		}
+		Integer value = new Integer(index);
+		// A child can map the same name more than once
+		if (!indexes.contains(value))
+			indexes.add(value);
+	}
+
+	private static int[] toArray(List<Integer> list) {
+		if (list.isEmpty())
+			return NO_INDEXES;
+		int[] result = new int[list.size()];
+		for (int i = 0; i < result.length; i++)
+			result[i] = list.get(i).intValue();
+		return result;
+	}
+}
@@ -1,5 +1,5 @@
 /***************************************************************************************************
- * Copyright (c) 2003, 2004 IBM Corporation and others. All rights reserved. This program and the
+ * Copyright (c) 2003, 2026 IBM Corporation and others. All rights reserved. This program and the
  * accompanying materials are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
  * http://www.eclipse.org/legal/epl-v10.html
@@ -27,6 +27,20 @@ public interface TranslatorResource extends ReferencedResource {
 
 	EStructuralFeature DOC_TYPE_FEATURE = new DocTypeFeature();
 
+	/**
+	 * Load option that, when set to Boolean.TRUE, loads the resource with an
+	 * {@link EMF2SAXRenderer} instead of the renderer it was created with. The resource is then
+	 * read into the EMF model without building a DOM or adapting the model to one, and is saved
+	 * by writing the model to the output stream with an {@link EMF2SAXWriter}. This keeps the
+	 * memory used by each resource down, but the formatting and comments of the document are
+	 * not preserved on save. It is meant for tools that mostly read resources, and can be put in
+	 * the load options of a resource set to apply to every translator resource the set loads.
+	 * The option is honored by both {@link org.eclipse.emf.ecore.resource.Resource#load(java.util.Map)}
+	 * and {@link org.eclipse.emf.ecore.resource.Resource#load(java.io.InputStream, java.util.Map)}, and is
+	 * ignored by resources that are already loaded.
+	 */
+	String OPTION_USE_SAX_RENDERER = "USE_SAX_RENDERER"; //$NON-NLS-1$
+
 	/**
 	 * The public id of the XML document, if specified.
 	 */
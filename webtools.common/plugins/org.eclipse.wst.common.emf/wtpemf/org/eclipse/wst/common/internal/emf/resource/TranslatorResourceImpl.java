@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2007 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -150,6 +150,7 @@ public abstract class TranslatorResourceImpl extends ReferencedXMIResourceImpl i
 		try {
 			if (isTrackingMods)
 				setTrackingModification(false);
+			applyRendererOption(options);
 			renderer.doLoad(inputStream, options);
 		}
 		finally {
@@ -419,6 +420,8 @@ public abstract class TranslatorResourceImpl extends ReferencedXMIResourceImpl i
 			if (isLoaded())
 				return;
 			
+			applyRendererOption(options);
+
 			if (renderer.useStreamsForIO()) {
 				super.load(options);
 			}
@@ -428,6 +431,30 @@ public abstract class TranslatorResourceImpl extends ReferencedXMIResourceImpl i
 			}
 	}
 
+	/**
+	 * Switch renderers if the load <code>options</code> ask for it. Called by
+	 * {@link #load(Map)}, which picks how to load from the renderer, and again by
+	 * {@link #basicDoLoad(InputStream, Map)}, which every load from a stream goes through,
+	 * including {@link #load(InputStream, Map)}.
+	 */
+	private void applyRendererOption(Map options) {
+		if (options != null && Boolean.TRUE.equals(options.get(OPTION_USE_SAX_RENDERER)))
+			useSAXRenderer();
+	}
+
+	/**
+	 * Replace the renderer with an {@link EMF2SAXRenderer} before the resource is loaded, keeping
+	 * whether the renderer validates.
+	 */
+	protected void useSAXRenderer() {
+		if (renderer instanceof EMF2SAXRenderer)
+			return;
+		EMF2SAXRenderer saxRenderer = (EMF2SAXRenderer) EMF2SAXRendererFactory.INSTANCE.createRenderer();
+		if (renderer instanceof AbstractRendererImpl)
+			saxRenderer.setValidating(((AbstractRendererImpl) renderer).isValidating());
+		setRenderer(saxRenderer);
+	}
+
 	@Override
 	public void eNotify(Notification notification) {
 	    Adapter[] eAdapters = eBasicAdapterArray();
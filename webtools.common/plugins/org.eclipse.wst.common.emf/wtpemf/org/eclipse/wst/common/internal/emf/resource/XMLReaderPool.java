@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.internal.emf.resource;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.eclipse.wst.common.internal.emf.plugin.EcoreUtilitiesPlugin;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Provides a thread safe pool of namespace aware XMLReaders, configured for either validating or
+ * non-validating loads. Which of the optional parser features are supported is found out when the
+ * first reader is created, so later readers are configured without trying features that the
+ * parser doesn't recognize, and the warnings about them are only logged once.
+ *
+ * A reader must be released after a successful parse so that it can be used again. Readers that
+ * failed to parse should not be released.
+ */
+public class XMLReaderPool {
+
+	public static final int DEFAULT_CAPACITY = 8;
+
+	private static final String VALIDATION = "http://xml.org/sax/features/validation"; //$NON-NLS-1$
+	private static final String NAMESPACE_PREFIXES = "http://xml.org/sax/features/namespace-prefixes"; //$NON-NLS-1$
+	private static final String SCHEMA_VALIDATION = "http://apache.org/xml/features/validation/schema"; //$NON-NLS-1$
+	private static final String ALLOW_JAVA_ENCODINGS = "http://apache.org/xml/features/allow-java-encodings"; //$NON-NLS-1$
+
+	/** Used to release the handlers of a reader when it is returned to the pool */
+	private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
+	/** The optional features supported by the parser, or null until the first reader is created */
+	private static FeatureSupport featureSupport;
+
+	private final int capacity;
+	private final Queue<XMLReader> validatingReaders = new ConcurrentLinkedQueue<XMLReader>();
+	private final Queue<XMLReader> nonValidatingReaders = new ConcurrentLinkedQueue<XMLReader>();
+	private final AtomicInteger validatingCount = new AtomicInteger();
+	private final AtomicInteger nonValidatingCount = new AtomicInteger();
+
+	public XMLReaderPool() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a pool that keeps at most <code>capacity</code> available readers for each
+	 * validation mode.
+	 */
+	public XMLReaderPool(int capacity) {
+		this.capacity = (capacity > 0) ? capacity : DEFAULT_CAPACITY;
+	}
+
+	/**
+	 * Return a reader configured for <code>validating</code> loads, from the pool if one is
+	 * available.
+	 */
+	public XMLReader getReader(boolean validating) throws ParserConfigurationException, SAXException {
+		XMLReader reader = getQueue(validating).poll();
+		if (reader != null) {
+			getCount(validating).decrementAndGet();
+			return reader;
+		}
+		return createReader(validating);
+	}
+
+	/**
+	 * Return a reader that was obtained from {@link #getReader(boolean)} with the same
+	 * <code>validating</code> to the pool, after a successful parse.
+	 */
+	public void releaseReader(XMLReader reader, boolean validating) {
+		// Don't keep the handlers, and with them the last loaded resource, reachable
+		reader.setContentHandler(NO_HANDLER);
+		reader.setErrorHandler(NO_HANDLER);
+		reader.setEntityResolver(NO_HANDLER);
+		reader.setDTDHandler(NO_HANDLER);
+		if (getCount(validating).incrementAndGet() <= capacity)
+			getQueue(validating).offer(reader);
+		else
+			getCount(validating).decrementAndGet();
+	}
+
+	private Queue<XMLReader> getQueue(boolean validating) {
+		return validating ? validatingReaders : nonValidatingReaders;
+	}
+
+	private AtomicInteger getCount(boolean validating) {
+		return validating ? validatingCount : nonValidatingCount;
+	}
+
+	private static XMLReader createReader(boolean validating) throws ParserConfigurationException, SAXException {
+		SAXParserFactory factory = SAXParserFactory.newInstance();
+		factory.setValidating(validating);
+		factory.setNamespaceAware(true);
+		/*
+		 * Causes errors in IBM JDK try { factory.setAttribute(JAXP_SCHEMA_LANGUAGE,
+		 * W3C_XML_SCHEMA); } catch (IllegalArgumentException x) { }
+		 */
+		XMLReader reader = factory.newSAXParser().getXMLReader();
+		FeatureSupport support = getFeatureSupport(reader, validating);
+		if (support.validation)
+			reader.setFeature(VALIDATION, validating);
+		if (support.namespacePrefixes)
+			reader.setFeature(NAMESPACE_PREFIXES, true);
+		if (support.schemaValidation)
+			reader.setFeature(SCHEMA_VALIDATION, validating);
+		else if (support.validation)
+			reader.setFeature(VALIDATION, false);
+		if (support.javaEncodings)
+			reader.setFeature(ALLOW_JAVA_ENCODINGS, true);
+		return reader;
+	}
+
+	private static synchronized FeatureSupport getFeatureSupport(XMLReader reader, boolean validating) throws SAXException {
+		if (featureSupport == null) {
+			FeatureSupport support = new FeatureSupport();
+			support.validation = setFeature(reader, VALIDATION, validating);
+			support.namespacePrefixes = setFeature(reader, NAMESPACE_PREFIXES, true);
+			support.schemaValidation = setFeature(reader, SCHEMA_VALIDATION, validating);
+			if (!support.schemaValidation)
+				EcoreUtilitiesPlugin.logWarning("Warning: Parser does not support \"http://apache.org/xml/features/validation/schema\". Validation will be disabled."); //$NON-NLS-1$
+			support.javaEncodings = setFeature(reader, ALLOW_JAVA_ENCODINGS, true);
+			if (!support.javaEncodings)
+				EcoreUtilitiesPlugin.logWarning("Warning: Parser does not support \"http://apache.org/xml/features/allow-java-encodings\"."); //$NON-NLS-1$
+			featureSupport = support;
+		}
+		return featureSupport;
+	}
+
+	private static boolean setFeature(XMLReader reader, String name, boolean value) throws SAXException {
+		try {
+			reader.setFeature(name, value);
+			return true;
+		} catch (SAXNotRecognizedException e) {
+			return false;
+		}
+	}
+
+	private static class FeatureSupport {
+		boolean validation;
+		boolean namespacePrefixes;
+		boolean schemaValidation;
+		boolean javaEncodings;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2006 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -38,6 +38,8 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.emf.ecore.resource.Resource;
@@ -118,6 +120,119 @@ public class ResourceSetWorkbenchEditSynchronizer extends ResourceSetWorkbenchSy
 	protected List autoloadResourcesURIs = new ArrayList();
 	protected List autoloadResourcesExts = new ArrayList();
 
+	private ResourcePathIndex resourcePathIndex;
+
+	/**
+	 * The resources of the resource set, indexed by the path of their file relative to the
+	 * project, so that the resources of a changed file are found without going through the
+	 * whole resource set. The index is built the first time it is used, and then kept current
+	 * from the notifications of the resource set and of its resources. It is built again if it
+	 * is used after being disposed.
+	 */
+	private class ResourcePathIndex extends AdapterImpl {
+		private final Map<String, List<Resource>> resourcesByPath = new HashMap<String, List<Resource>>();
+		private final Map<Resource, String> paths = new HashMap<Resource, String>();
+		private boolean built = false;
+
+		synchronized List getResources(String path) {
+			if (!built) {
+				build();
+				built = true;
+			}
+			List<Resource> resources = resourcesByPath.get(path);
+			return resources == null ? new ArrayList() : new ArrayList(resources);
+		}
+
+		synchronized void dispose() {
+			for (Iterator<Resource> iterator = paths.keySet().iterator(); iterator.hasNext();)
+				iterator.next().eAdapters().remove(this);
+			paths.clear();
+			resourcesByPath.clear();
+			built = false;
+		}
+
+		private void build() {
+			if (!resourceSet.eAdapters().contains(this))
+				resourceSet.eAdapters().add(this);
+			List allResources = null;
+			if (resourceSet instanceof ProjectResourceSetImpl) {
+				ProjectResourceSetImpl projResSet = (ProjectResourceSetImpl) resourceSet;
+				allResources = projResSet.getImmutableResources();
+			} else {
+				allResources = new ArrayList(resourceSet.getResources());
+			}
+			for (Iterator iterator = allResources.iterator(); iterator.hasNext();)
+				add((Resource) iterator.next());
+		}
+
+		private void add(Resource res) {
+			if (res == null || paths.containsKey(res))
+				return;
+			String path = getResourcePath(res);
+			paths.put(res, path);
+			if (!res.eAdapters().contains(this))
+				res.eAdapters().add(this);
+			if (path.length() > 0) {
+				List<Resource> resources = resourcesByPath.get(path);
+				if (resources == null) {
+					resources = new ArrayList<Resource>(1);
+					resourcesByPath.put(path, resources);
+				}
+				resources.add(res);
+			}
+		}
+
+		private void remove(Resource res) {
+			String path = paths.remove(res);
+			if (path == null)
+				return;
+			res.eAdapters().remove(this);
+			List<Resource> resources = resourcesByPath.get(path);
+			if (resources != null) {
+				resources.remove(res);
+				if (resources.isEmpty())
+					resourcesByPath.remove(path);
+			}
+		}
+
+		@Override
+		public synchronized void notifyChanged(Notification msg) {
+			if (!built)
+				return;
+			Object notifier = msg.getNotifier();
+			if (notifier == resourceSet) {
+				if (msg.getFeatureID(ResourceSet.class) != ResourceSet.RESOURCE_SET__RESOURCES)
+					return;
+				switch (msg.getEventType()) {
+					case Notification.ADD :
+						add((Resource) msg.getNewValue());
+						break;
+					case Notification.ADD_MANY :
+						for (Iterator iterator = ((List) msg.getNewValue()).iterator(); iterator.hasNext();)
+							add((Resource) iterator.next());
+						break;
+					case Notification.REMOVE :
+						remove((Resource) msg.getOldValue());
+						break;
+					case Notification.REMOVE_MANY :
+						for (Iterator iterator = ((List) msg.getOldValue()).iterator(); iterator.hasNext();)
+							remove((Resource) iterator.next());
+						break;
+					case Notification.SET :
+						remove((Resource) msg.getOldValue());
+						add((Resource) msg.getNewValue());
+						break;
+				}
+			} else if (notifier instanceof Resource && msg.getFeatureID(null) == Resource.RESOURCE__URI) {
+				Resource res = (Resource) notifier;
+				if (paths.containsKey(res)) {
+					remove(res);
+					add(res);
+				}
+			}
+		}
+	}
+
 
 	/**
 	 * @param aResourceSet
@@ -125,6 +240,8 @@ public class ResourceSetWorkbenchEditSynchronizer extends ResourceSetWorkbenchSy
 	 */
 	public ResourceSetWorkbenchEditSynchronizer(ResourceSet aResourceSet, IProject aProject) {
 		super(aResourceSet, aProject);
+		if (aResourceSet != null)
+			resourcePathIndex = new ResourcePathIndex();
 	}
 		
 	/*
@@ -398,44 +515,33 @@ public class ResourceSetWorkbenchEditSynchronizer extends ResourceSetWorkbenchSy
 	
 	protected List getResources(IFile aFile) {
 
-		List resources = new ArrayList();
 		String aFileString = URI.decode(aFile.getFullPath().toString());
 		IPath aFilePath = new Path(aFileString).removeFirstSegments(1);
 		if (!aFilePath.isEmpty())
 		{
 			aFileString = aFilePath.toString();
 		}
-		if (aFileString.length() > 0)
-		{
-			List allResources = null;
-			if (resourceSet instanceof ProjectResourceSetImpl) {
-	            ProjectResourceSetImpl projResSet =(ProjectResourceSetImpl)resourceSet;
-	            allResources = projResSet.getImmutableResources();
-	        } else {
-	            allResources = resourceSet.getResources();
-	        }
-			for (Iterator iterator = allResources.iterator(); iterator.hasNext();) {
-				Resource res = (Resource) iterator.next();
-				URI resURI = res.getURI();
-				String resURIString = ""; //$NON-NLS-1$
-				if (resURI.path() != null) {
-					IPath resURIPath;
-					if (WorkbenchResourceHelper.isPlatformResourceURI(resURI))
-						resURIPath = new Path(URI.decode(resURI.path())).removeFirstSegments(2);
-					else
-						resURIPath = new Path(URI.decode(resURI.path())).removeFirstSegments(1);
-					resURIString = resURIPath.toString();
-				}
-	
-				if (resURIString.length() > 0)
-				{
-					if (aFileString.equals(resURIString))
-					//if (!resURIString.equals("") && aFile.getFullPath().toString().indexOf(resURIString) != -1) //$NON-NLS-1$
-						resources.add(res);
-				}
-			}
+		if (aFileString.length() > 0 && resourcePathIndex != null)
+			return resourcePathIndex.getResources(aFileString);
+		return new ArrayList();
+	}
+
+	/**
+	 * Return the path of the file of <code>res</code> relative to its project, or an empty
+	 * string if it has none.
+	 */
+	private static String getResourcePath(Resource res) {
+		URI resURI = res.getURI();
+		String resURIString = ""; //$NON-NLS-1$
+		if (resURI != null && resURI.path() != null) {
+			IPath resURIPath;
+			if (WorkbenchResourceHelper.isPlatformResourceURI(resURI))
+				resURIPath = new Path(URI.decode(resURI.path())).removeFirstSegments(2);
+			else
+				resURIPath = new Path(URI.decode(resURI.path())).removeFirstSegments(1);
+			resURIString = resURIPath.toString();
 		}
-		return resources;
+		return resURIString;
 	}
 
 
@@ -590,6 +696,10 @@ public class ResourceSetWorkbenchEditSynchronizer extends ResourceSetWorkbenchSy
 		super.dispose();
 		currentProjectDelta = null;
 		extenders = null;
+		if (resourcePathIndex != null) {
+			resourceSet.eAdapters().remove(resourcePathIndex);
+			resourcePathIndex.dispose();
+		}
 	}
 
 }
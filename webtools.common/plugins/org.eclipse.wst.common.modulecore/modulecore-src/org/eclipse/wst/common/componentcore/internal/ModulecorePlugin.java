@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2006 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,8 +20,10 @@ import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Plugin;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.wst.common.componentcore.ArtifactEdit;
+import org.eclipse.wst.common.componentcore.internal.flat.FlatComponentCache;
 import org.eclipse.wst.common.componentcore.internal.impl.PlatformURLModuleConnection;
 import org.eclipse.wst.common.componentcore.internal.impl.WTPModulesInit;
+import org.eclipse.wst.common.componentcore.internal.resources.ComponentModelCache;
 import org.eclipse.wst.common.componentcore.internal.util.ArtifactEditAdapterFactory;
 import org.eclipse.wst.common.componentcore.internal.util.ModuleCoreEclipseAdapterFactory;
 import org.eclipse.wst.common.componentcore.resources.IVirtualComponent;
@@ -70,6 +72,8 @@ public class ModulecorePlugin extends Plugin {
 	 * This method is called when the plug-in is stopped
 	 */
 	public void stop(BundleContext context) throws Exception {
+		FlatComponentCache.dispose();
+		ComponentModelCache.dispose();
 		super.stop(context);
 		plugin = null;
 		resourceBundle = null;
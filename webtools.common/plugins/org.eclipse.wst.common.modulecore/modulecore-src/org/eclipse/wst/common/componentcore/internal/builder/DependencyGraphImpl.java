@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2011 IBM Corporation and others.
+ * Copyright (c) 2008, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -71,9 +72,41 @@ public class DependencyGraphImpl implements IDependencyGraph {
 	 * {C -> {A, B} }
 	 */
 	private Map<IProject, Set<IProject>> graph;
+	
+	/**
+	 * The inverse of the graph. If project A depends on B and C an entry in this
+	 * map would be {A -> {B, C} }. This lets an update of A touch only A's edges.
+	 */
+	private Map<IProject, Set<IProject>> outgoing;
+	
+	/**
+	 * Projects with references that could not be resolved, either because the
+	 * referenced component could not be found or because the referenced project
+	 * was removed. Their references are resolved again when a project is added.
+	 * This is not persisted with the graph. When the graph is restored it is
+	 * worked out again by the job that checks the restored graph.
+	 */
+	private Set<IProject> unresolved;
+
+	/**
+	 * The keys of the graph and of outgoing whose sets have changed since the
+	 * snapshot was published. Only these sets are copied into the next snapshot.
+	 */
+	private final Set<IProject> changedTargets = new HashSet<IProject>();
+
+	private final Set<IProject> changedSources = new HashSet<IProject>();
+
+	/** Set when the maps are replaced, so that the next snapshot is built from scratch. */
+	private boolean snapshotReset;
 
 	private final AtomicLong modStamp = new AtomicLong();
 
+	/**
+	 * The most recently published snapshot of the graph. Readers use this
+	 * without obtaining the graphLock; it is only replaced while holding it.
+	 */
+	private volatile DependencyGraphSnapshot snapshot = DependencyGraphSnapshot.EMPTY;
+
 	private final ListenerList listeners = new ListenerList();
 	
 	/** Used to guard pauseCount. */
@@ -121,39 +154,86 @@ public class DependencyGraphImpl implements IDependencyGraph {
 			IProject targetProject, boolean waitForAllUpdates) {
 		DependencyGraphReferences refs = new DependencyGraphReferences();
 		refs.targetProject = targetProject;
+		refs.stale = !waitForAllUpdates && isUpdateNecessary();
+		Set<IProject> referencingProjects = getSnapshot(waitForAllUpdates).getReferencingComponents(targetProject);
+		for (IProject sourceProject : referencingProjects) {
+			if (!sourceProject.isAccessible()) {
+				referencingProjects = removeInaccessibleReferences(targetProject).getReferencingComponents(targetProject);
+				break;
+			}
+		}
+		// callers have always been given their own copy
+		refs.referencingProjects = new HashSet<IProject>(referencingProjects);
+		return refs;
+	}
+
+	public IDependencyGraphSnapshot getSnapshot(boolean waitForAllUpdates) {
 		if (waitForAllUpdates) {
-			refs.stale = false;
 			waitForAllUpdates(null);
-		} else if (isUpdateNecessary()) {
-			refs.stale = true;
 		}
+		return snapshot;
+	}
+
+	/**
+	 * Remove the references to the target project from projects that are no
+	 * longer accessible, and return the resulting snapshot.
+	 */
+	private DependencyGraphSnapshot removeInaccessibleReferences(IProject targetProject) {
 		synchronized (graphLock) {
 			Set<IProject> set = graph.get(targetProject);
-			if (set == null) {
-				refs.referencingProjects = Collections.EMPTY_SET;
-			} else {
+			if (set != null) {
 				DependencyGraphEvent event = null;
-				for (Iterator<IProject> iterator = set.iterator(); iterator	.hasNext();) {
-					IProject sourceProject = iterator.next();
+				for (IProject sourceProject : set.toArray(new IProject[set.size()])) {
 					if (!sourceProject.isAccessible()) {
-						iterator.remove();
 						if (event == null) {
-							incrementModStamp();
 							event = new DependencyGraphEvent();
-							event.setModStamp(getModStamp());
 						}
-						event.removeReference(sourceProject, targetProject);
+						removeReference(sourceProject, targetProject, event);
 					}
 				}
 				if (event != null) {
+					publishSnapshot();
 					notifiyListeners(event);
 				}
-				Set<IProject> copy = new HashSet<IProject>();
-				copy.addAll(set);
-				refs.referencingProjects = copy;
 			}
+			return snapshot;
+		}
+	}
+
+	/**
+	 * Replace the published snapshot if the graph has changed since it was
+	 * taken. This is called once at the end of every batch of updates rather
+	 * than after every change. Only the sets of the projects that changed in
+	 * the batch are copied; the rest are shared with the previous snapshot.
+	 */
+	private void publishSnapshot() {
+		synchronized (graphLock) {
+			long stamp = getModStamp();
+			if (snapshot.getModStamp() != stamp) {
+				if (snapshotReset) {
+					snapshot = new DependencyGraphSnapshot(stamp, graph, outgoing);
+				} else {
+					snapshot = snapshot.update(stamp, graph, changedTargets, outgoing, changedSources);
+				}
+				snapshotReset = false;
+				changedTargets.clear();
+				changedSources.clear();
+			}
+		}
+	}
+
+	/**
+	 * Start again with an empty graph.
+	 */
+	private void resetGraph() {
+		synchronized (graphLock) {
+			graph = new HashMap<IProject, Set<IProject>>();
+			outgoing = new HashMap<IProject, Set<IProject>>();
+			unresolved = new HashSet<IProject>();
+			snapshotReset = true;
+			changedTargets.clear();
+			changedSources.clear();
 		}
-		return refs;
 	}
 
 	public boolean isStale() {
@@ -234,7 +314,7 @@ public class DependencyGraphImpl implements IDependencyGraph {
 		synchronized (graphLock) {
 			try {
 				preUpdate();
-				graph = new HashMap<IProject, Set<IProject>>();
+				resetGraph();
 				listener = new DependencyGraphResourceChangedListener();
 				ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
 				if (restoreGraph() == null)rebuild();
@@ -255,44 +335,60 @@ public class DependencyGraphImpl implements IDependencyGraph {
 		}
 	}
 
-	private void removeAllReferences(DependencyGraphEvent event) {
+	/**
+	 * Remove all the references to and from the project. The projects that
+	 * referenced it are remembered, so that their references are resolved again
+	 * if the project comes back.
+	 */
+	private void removeAllReferences(IProject project, DependencyGraphEvent event) {
 		synchronized (graphLock) {
-			IProject[] allReferenceKeys = new IProject[graph.keySet().size()];
-			graph.keySet().toArray(allReferenceKeys);
-			for (IProject project : allReferenceKeys) {
-				removeAllReferences(project, event);
+			unresolved.remove(project);
+			Set<IProject> targets = outgoing.get(project);
+			if (targets != null) {
+				for (IProject targetProject : targets.toArray(new IProject[targets.size()])) {
+					removeReference(project, targetProject, event);
+				}
+			}
+			Set<IProject> sources = graph.get(project);
+			if (sources != null) {
+				for (IProject sourceProject : sources.toArray(new IProject[sources.size()])) {
+					removeReference(sourceProject, project, event);
+					unresolved.add(sourceProject);
+				}
 			}
 		}
 	}
 
-	private void removeAllReferences(IProject targetProject, DependencyGraphEvent event) {
+	/**
+	 * Replace the references from the source project, touching only the
+	 * references that have changed.
+	 */
+	private void setReferences(IProject sourceProject, Set<IProject> targetProjects, DependencyGraphEvent event) {
 		synchronized (graphLock) {
-			boolean removed = false;
-			Set<IProject> removedSet = graph.remove(targetProject);
-			if (removedSet != null && !removedSet.isEmpty()) {
-				removed = true;
-				for (IProject project : removedSet) {
-					event.removeReference(project, targetProject);
-				}
-			}
-			for (Entry<IProject, Set<IProject>> entry : graph.entrySet()) {
-				if (!entry.getValue().isEmpty()	&& entry.getValue().remove(targetProject)) {
-					removed = true;
-					event.removeReference(targetProject, entry.getKey());
+			Set<IProject> existing = outgoing.get(sourceProject);
+			if (existing != null) {
+				for (IProject targetProject : existing.toArray(new IProject[existing.size()])) {
+					if (!targetProjects.contains(targetProject)) {
+						removeReference(sourceProject, targetProject, event);
+					}
 				}
 			}
-			if (removed) {
-				incrementModStamp();
-				event.setModStamp(getModStamp());
+			for (IProject targetProject : targetProjects) {
+				addReference(sourceProject, targetProject, event);
 			}
 		}
 	}
 
 	private void removeReference(IProject sourceProject, IProject targetProject, DependencyGraphEvent event) {
 		synchronized (graphLock) {
+			removeOutgoing(sourceProject, targetProject);
 			Set<IProject> referencingProjects = graph.get(targetProject);
 			if (referencingProjects != null) {
 				if (referencingProjects.remove(sourceProject)) {
+					if (referencingProjects.isEmpty()) {
+						graph.remove(targetProject);
+					}
+					changedTargets.add(targetProject);
 					event.removeReference(sourceProject, targetProject);
 					incrementModStamp();
 					event.setModStamp(getModStamp());
@@ -301,8 +397,26 @@ public class DependencyGraphImpl implements IDependencyGraph {
 		}
 	}
 
+	private void removeOutgoing(IProject sourceProject, IProject targetProject) {
+		Set<IProject> targets = outgoing.get(sourceProject);
+		if (targets != null && targets.remove(targetProject)) {
+			if (targets.isEmpty()) {
+				outgoing.remove(sourceProject);
+			}
+			changedSources.add(sourceProject);
+		}
+	}
+
 	private void addReference(IProject sourceProject, IProject targetProject, DependencyGraphEvent event) {
 		synchronized (graphLock) {
+			Set<IProject> targets = outgoing.get(sourceProject);
+			if (targets == null) {
+				targets = new HashSet<IProject>();
+				outgoing.put(sourceProject, targets);
+			}
+			if (targets.add(targetProject)) {
+				changedSources.add(sourceProject);
+			}
 			Set<IProject> referencingProjects = graph.get(targetProject);
 			if (referencingProjects == null) {
 				referencingProjects = new HashSet<IProject>();
@@ -310,6 +424,7 @@ public class DependencyGraphImpl implements IDependencyGraph {
 			}
 			boolean added = referencingProjects.add(sourceProject);
 			if (added) {
+				changedTargets.add(targetProject);
 				event.addRefererence(sourceProject, targetProject);
 				incrementModStamp();
 				event.setModStamp(getModStamp());
@@ -317,6 +432,46 @@ public class DependencyGraphImpl implements IDependencyGraph {
 		}
 	}
 
+	/**
+	 * Resolve the references of the source project's component. This is done
+	 * outside of the graphLock since it may need to read the component metadata.
+	 * 
+	 * @return the projects that the source project references, or null if the
+	 *         source project is not a component.
+	 */
+	private Set<IProject> resolveReferences(IProject sourceProject) {
+		IVirtualComponent component = ComponentCore.createComponent(sourceProject);
+		if (!(component instanceof VirtualComponent)) {
+			return null;
+		}
+		((VirtualComponent) component).flushCache();
+		Set<IProject> targets = new HashSet<IProject>();
+		boolean resolved = true;
+		IVirtualReference[] references = ((VirtualComponent) component).getRawReferences();
+		for (IVirtualReference ref : references) {
+			IVirtualComponent targetComponent = ref.getReferencedComponent();
+			if (targetComponent == null) {
+				resolved = false;
+			} else {
+				IProject targetProject = targetComponent.getProject();
+				if (targetProject != null && !targetProject.equals(sourceProject)) {
+					targets.add(targetProject);
+					if (!targetProject.isAccessible()) {
+						resolved = false;
+					}
+				}
+			}
+		}
+		synchronized (graphLock) {
+			if (resolved) {
+				unresolved.remove(sourceProject);
+			} else {
+				unresolved.add(sourceProject);
+			}
+		}
+		return targets;
+	}
+
 	public static final Object GRAPH_UPDATE_JOB_FAMILY = new Object();
 
 	/** The amount of time that we delay before starting the graph update job. */
@@ -466,95 +621,50 @@ public class DependencyGraphImpl implements IDependencyGraph {
 
 					public void run() throws Exception {
 						final DependencyGraphEvent event = new DependencyGraphEvent();
+						try {
+							updateGraph(event);
+						} finally {
+							publishSnapshot();
+						}
+						notifiyListeners(event);
+					}
 
-						// all references will be rebuilt during an add
-						if (added.length == 0) {
-							// this is the simple case; just remove them all
-							synchronized (graphLock) {
-								for (Object o : removed) {
-									IProject project = (IProject) o;
-									removeAllReferences(project, event);
-								}
-							}
+					private void updateGraph(DependencyGraphEvent event) {
+						for (Object o : removed) {
+							removeAllReferences((IProject) o, event);
 						}
-						// get the updated queue in case there are any adds
-						// if there are any added projects, then unfortunately
-						// the entire workspace needs to be processed
-						if (added.length > 0) {
-							removeAllReferences(event);
-							IProject[] allProjects = null;
-							int state = ResourcesPlugin.getPlugin().getBundle().getState();
-							if (state == Bundle.ACTIVE) {
-								allProjects = ResourcesPlugin.getWorkspace().getRoot().getProjects();
-							} else {
-								return;
-							}
 
-							for (IProject sourceProject : allProjects) {
-								IVirtualComponent component = ComponentCore.createComponent(sourceProject);
-								if (component instanceof VirtualComponent) {
-									((VirtualComponent) component).flushCache();
-								}
+						// Only the references from the added and updated projects need to be
+						// resolved. When a project is added, the projects with unresolved
+						// references are resolved again, since they may have been waiting for it.
+						Set<IProject> sources = new LinkedHashSet<IProject>();
+						for (Object o : added) {
+							sources.add((IProject) o);
+						}
+						for (Object o : updated) {
+							sources.add((IProject) o);
+						}
+						if (added.length > 0) {
+							synchronized (graphLock) {
+								sources.addAll(unresolved);
 							}
+						}
 
-							for (IProject sourceProject : allProjects) {
-								IVirtualComponent component = ComponentCore.createComponent(sourceProject);
-								if (component instanceof VirtualComponent) {
-									IVirtualReference[] references = ((VirtualComponent) component).getRawReferences();
-									for (IVirtualReference ref : references) {
-										IVirtualComponent targetComponent = ref.getReferencedComponent();
-										if (targetComponent != null) {
-											IProject targetProject = targetComponent.getProject();
-											if (targetProject != null && !targetProject.equals(sourceProject)) {
-												addReference(sourceProject,	targetProject, event);
-											}
-										}
-									}
-								}
-							}
-						} else if (updated.length > 0) {
-							IProject[] allProjects = null;
-							int state = ResourcesPlugin.getPlugin().getBundle().getState();
-							if (state == Bundle.ACTIVE) {
-								allProjects = ResourcesPlugin.getWorkspace().getRoot().getProjects();
-							} else {
+						for (IProject sourceProject : sources) {
+							if (ResourcesPlugin.getPlugin().getBundle().getState() != Bundle.ACTIVE) {
 								return;
 							}
-
-							Set<IProject> validRefs = new HashSet<IProject>();
-							for (Object o : updated) {
-								IProject sourceProject = (IProject) o;
-								IVirtualComponent component = ComponentCore.createComponent(sourceProject);
-								if (component instanceof VirtualComponent) {
-									validRefs.clear();
-									((VirtualComponent) component).flushCache();
-									IVirtualReference[] references = ((VirtualComponent) component).getRawReferences();
-									for (IVirtualReference ref : references) {
-										IVirtualComponent targetComponent = ref.getReferencedComponent();
-										if (targetComponent != null) {
-											IProject targetProject = targetComponent.getProject();
-											if (targetProject != null && !targetProject.equals(sourceProject)) {
-												validRefs.add(targetProject);
-											}
-										}
-									}
-									synchronized (graphLock) {
-										for (IProject targetProject : allProjects) {
-											// if the reference was identified above, be sure to add it otherwise, remove it
-											if (validRefs.remove(targetProject)) {
-												addReference(sourceProject,	targetProject, event);
-											} else {
-												removeReference(sourceProject,	targetProject, event);
-											}
-										}
-									}
-								} else {
-									// if this project is not a component, then it should be completely removed.
-									removeAllReferences(sourceProject, event);
-								}
+							if (!sourceProject.isAccessible()) {
+								removeAllReferences(sourceProject, event);
+								continue;
 							}
+							Set<IProject> targets = resolveReferences(sourceProject);
+							if (targets == null) {
+								// if this project is not a component, then it does not reference anything.
+								targets = Collections.emptySet();
+							}
+							setReferences(sourceProject, targets, event);
 						}
-						notifiyListeners(event);
 					}
 				});
 				return Status.OK_STATUS;
@@ -751,7 +861,7 @@ public class DependencyGraphImpl implements IDependencyGraph {
 	private RestoredGraphResults restoreGraph() {
 		try {
 			synchronized (graphLock) {
-				graph = new HashMap<IProject, Set<IProject>>();
+				resetGraph();
 				IPath stateLocation = ModulecorePlugin.getDefault().getStateLocation();
 				File file = stateLocation.append(DEPENDENCY_GRAPH_CACHE).toFile();
 				if (!file.exists()) {
@@ -827,6 +937,7 @@ public class DependencyGraphImpl implements IDependencyGraph {
 						results.graph = savedMap;
 
 						// finally ensure the results are accurate
+						publishSnapshot();
 						checkRestoredResults(results);
 						return results;
 					}
@@ -927,6 +1038,9 @@ public class DependencyGraphImpl implements IDependencyGraph {
 			@Override
 			protected IStatus run(final IProgressMonitor monitor) {
 				SafeRunner.run(new ISafeRunnable() {
+					/** The projects with references that can't be resolved. */
+					private final Set<IProject> unresolvedProjects = new HashSet<IProject>();
+
 					public void run() throws Exception {
 						try {
 							IProject[] allProjects = null;
@@ -936,7 +1050,7 @@ public class DependencyGraphImpl implements IDependencyGraph {
 							} else {
 								return;
 							}
-							if (isStale(allProjects)) {
+							if (isStale(allProjects) || !restoreUnresolved(unresolvedProjects, restoredGraphResults.event.getModStamp())) {
 								rebuild(allProjects);
 								saveGraph(); // trigger a future save
 							}
@@ -964,9 +1078,14 @@ public class DependencyGraphImpl implements IDependencyGraph {
 										return true;
 									}
 									IVirtualComponent targetComponent = ref.getReferencedComponent();
-									if (targetComponent != null) {
+									if (targetComponent == null) {
+										unresolvedProjects.add(sourceProject);
+									} else {
 										IProject targetProject = targetComponent.getProject();
 										if (targetProject != null && !targetProject.equals(sourceProject)) {
+											if (!targetProject.isAccessible()) {
+												unresolvedProjects.add(sourceProject);
+											}
 											String targetProjectName = targetProject.getName();
 											String sourceProjectName = sourceProject.getName();
 											Set<String> targetProjects = computedGraph.get(targetProjectName);
@@ -1004,6 +1123,23 @@ public class DependencyGraphImpl implements IDependencyGraph {
 		checkRestoreDataJob.schedule();
 	}
 
+	/**
+	 * Remember the projects whose references could not be resolved when the
+	 * restored graph was checked, as long as the graph hasn't changed since.
+	 * 
+	 * @return false if the graph has changed, in which case it needs to be
+	 *         rebuilt instead.
+	 */
+	private boolean restoreUnresolved(Set<IProject> projects, long stamp) {
+		synchronized (graphLock) {
+			if (stamp != getModStamp()) {
+				return false;
+			}
+			unresolved.addAll(projects);
+			return true;
+		}
+	}
+
 	public String toString() {
 		synchronized (graphLock) {
 			StringBuffer buff = new StringBuffer("Dependency Graph:\n{\n");
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.wst.common.componentcore.internal.builder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.resources.IProject;
+
+/**
+ * The immutable snapshot that is published by {@link DependencyGraphImpl}
+ * after every batch of updates. The transitive queries are computed the first
+ * time they are asked for and then remembered for the life of the snapshot.
+ * 
+ * <p>A snapshot is usually made from the previous one by replacing only the
+ * sets of the projects that changed, so publishing a snapshot after a small
+ * change does not copy the whole graph. The unchanged sets are shared between
+ * the snapshots, which is safe since they are never modified.
+ */
+class DependencyGraphSnapshot implements IDependencyGraphSnapshot {
+
+	static final DependencyGraphSnapshot EMPTY = new DependencyGraphSnapshot(-1,
+			Collections.<IProject, Set<IProject>> emptyMap(), Collections.<IProject, Set<IProject>> emptyMap());
+
+	private final long modStamp;
+
+	/** target -> the projects that reference it */
+	private final Map<IProject, Set<IProject>> referencing;
+
+	/** source -> the projects that it references */
+	private final Map<IProject, Set<IProject>> referenced;
+
+	private final ConcurrentMap<IProject, Set<IProject>> transitiveReferencing = new ConcurrentHashMap<IProject, Set<IProject>>();
+
+	private final ConcurrentMap<IProject, Set<IProject>> transitiveReferenced = new ConcurrentHashMap<IProject, Set<IProject>>();
+
+	/**
+	 * The maps are copied, so the caller is free to change them afterwards.
+	 */
+	DependencyGraphSnapshot(long modStamp, Map<IProject, Set<IProject>> referencing, Map<IProject, Set<IProject>> referenced) {
+		this.modStamp = modStamp;
+		this.referencing = copy(referencing);
+		this.referenced = copy(referenced);
+	}
+
+	private DependencyGraphSnapshot(long modStamp, DependencyGraphSnapshot previous, Map<IProject, Set<IProject>> referencing,
+			Set<IProject> changedTargets, Map<IProject, Set<IProject>> referenced, Set<IProject> changedSources) {
+		this.modStamp = modStamp;
+		this.referencing = copy(previous.referencing, referencing, changedTargets);
+		this.referenced = copy(previous.referenced, referenced, changedSources);
+	}
+
+	/**
+	 * Returns a new snapshot that is this snapshot with the sets of the changed
+	 * projects taken from the graph. The graph must not have changed in any
+	 * other way since this snapshot was taken.
+	 */
+	DependencyGraphSnapshot update(long modStamp, Map<IProject, Set<IProject>> referencing, Set<IProject> changedTargets,
+			Map<IProject, Set<IProject>> referenced, Set<IProject> changedSources) {
+		return new DependencyGraphSnapshot(modStamp, this, referencing, changedTargets, referenced, changedSources);
+	}
+
+	/**
+	 * Copy the previous map, replacing the sets of the changed projects with
+	 * copies of their sets in the map.
+	 */
+	private static Map<IProject, Set<IProject>> copy(Map<IProject, Set<IProject>> previous, Map<IProject, Set<IProject>> map, Set<IProject> changed) {
+		if (changed.isEmpty()) {
+			return previous;
+		}
+		Map<IProject, Set<IProject>> copy = new HashMap<IProject, Set<IProject>>(previous);
+		for (IProject project : changed) {
+			Set<IProject> set = map.get(project);
+			if (set == null || set.isEmpty()) {
+				copy.remove(project);
+			} else {
+				copy.put(project, Collections.unmodifiableSet(new HashSet<IProject>(set)));
+			}
+		}
+		return copy;
+	}
+
+	private static Map<IProject, Set<IProject>> copy(Map<IProject, Set<IProject>> map) {
+		Map<IProject, Set<IProject>> copy = new HashMap<IProject, Set<IProject>>(map.size() * 4 / 3 + 1);
+		for (Map.Entry<IProject, Set<IProject>> entry : map.entrySet()) {
+			if (!entry.getValue().isEmpty()) {
+				copy.put(entry.getKey(), Collections.unmodifiableSet(new HashSet<IProject>(entry.getValue())));
+			}
+		}
+		return copy;
+	}
+
+	public long getModStamp() {
+		return modStamp;
+	}
+
+	public Set<IProject> getReferencingComponents(IProject targetProject) {
+		return get(referencing, targetProject);
+	}
+
+	public Set<IProject> getReferencedComponents(IProject sourceProject) {
+		return get(referenced, sourceProject);
+	}
+
+	public Set<IProject> getTransitiveReferencingComponents(IProject targetProject) {
+		return closure(referencing, transitiveReferencing, targetProject);
+	}
+
+	public Set<IProject> getTransitiveReferencedComponents(IProject sourceProject) {
+		return closure(referenced, transitiveReferenced, sourceProject);
+	}
+
+	private static Set<IProject> get(Map<IProject, Set<IProject>> map, IProject project) {
+		Set<IProject> set = map.get(project);
+		if (set == null) {
+			return Collections.emptySet();
+		}
+		return set;
+	}
+
+	/**
+	 * Walk the edges breadth first from the project. Two threads may compute the
+	 * same closure at the same time, but since the snapshot never changes they
+	 * will compute the same answer.
+	 */
+	private static Set<IProject> closure(Map<IProject, Set<IProject>> edges, ConcurrentMap<IProject, Set<IProject>> memo, IProject project) {
+		Set<IProject> result = memo.get(project);
+		if (result != null) {
+			return result;
+		}
+		if (!edges.containsKey(project)) {
+			return Collections.emptySet();
+		}
+		Set<IProject> visited = new HashSet<IProject>();
+		List<IProject> queue = new ArrayList<IProject>();
+		queue.add(project);
+		for (int i = 0; i < queue.size(); i++) {
+			for (IProject next : get(edges, queue.get(i))) {
+				if (!next.equals(project) && visited.add(next)) {
+					queue.add(next);
+				}
+			}
+		}
+		result = Collections.unmodifiableSet(visited);
+		Set<IProject> existing = memo.putIfAbsent(project, result);
+		return existing == null ? result : existing;
+	}
+
+	public String toString() {
+		return "Dependency Graph Snapshot " + modStamp + ": " + referencing;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2011 IBM Corporation and others.
+ * Copyright (c) 2008, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -93,6 +93,21 @@ public interface IDependencyGraph {
 	 * @return
 	 */
 	IDependencyGraphReferences getReferencingComponents(IProject targetProject, boolean waitForAllUpdates);
+
+	/**
+	 * Returns an immutable snapshot of the whole graph, which can be queried
+	 * from any thread without locking. This is the cheapest way to make many
+	 * queries, or to ask for the projects that are transitively referencing or
+	 * referenced by a project.
+	 * 
+	 * <p>The <code>waitForAllUpdates</code> flag has the same meaning as in
+	 * {@link #getReferencingComponents(IProject, boolean)}. If it is
+	 * <code>false</code>, then the snapshot may not include pending updates.
+	 * 
+	 * @param waitForAllUpdates
+	 * @return
+	 */
+	IDependencyGraphSnapshot getSnapshot(boolean waitForAllUpdates);
 		
 	/**
 	 * Returns <code>true</code> if there are any pending updates.
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.wst.common.componentcore.internal.builder;
+
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+
+/**
+ * An immutable view of the {@link IDependencyGraph} as it was at a particular
+ * modification stamp. A snapshot never changes, so it can be queried from any
+ * thread without locking. Clients that need the current state should compare
+ * {@link #getModStamp()} with {@link IDependencyGraph#getModStamp()} and ask for
+ * a new snapshot when they differ.
+ *
+ * <p>All the returned sets are unmodifiable.
+ */
+public interface IDependencyGraphSnapshot {
+
+	/**
+	 * Returns the modification stamp of the graph when this snapshot was taken.
+	 */
+	long getModStamp();
+
+	/**
+	 * Returns the set of projects whose components directly reference the
+	 * target project; see
+	 * {@link IDependencyGraph#getReferencingComponents(IProject)}
+	 */
+	Set<IProject> getReferencingComponents(IProject targetProject);
+
+	/**
+	 * Returns the set of projects that the source project's component directly
+	 * references.
+	 */
+	Set<IProject> getReferencedComponents(IProject sourceProject);
+
+	/**
+	 * Returns the set of projects whose components reference the target
+	 * project, either directly or through other projects. The target project is
+	 * not included, even if there is a cycle.
+	 */
+	Set<IProject> getTransitiveReferencingComponents(IProject targetProject);
+
+	/**
+	 * Returns the set of projects that the source project's component
+	 * references, either directly or through other projects. The source project
+	 * is not included, even if there is a cycle.
+	 */
+	Set<IProject> getTransitiveReferencedComponents(IProject sourceProject);
+
+}
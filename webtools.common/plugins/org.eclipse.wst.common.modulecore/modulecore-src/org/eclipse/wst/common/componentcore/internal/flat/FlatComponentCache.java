@@ -0,0 +1,530 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.componentcore.internal.flat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.common.componentcore.internal.ComponentResource;
+import org.eclipse.wst.common.componentcore.internal.ModulecorePlugin;
+import org.eclipse.wst.common.componentcore.internal.StructureEdit;
+import org.eclipse.wst.common.componentcore.internal.WorkbenchComponent;
+import org.eclipse.wst.common.componentcore.internal.builder.IDependencyGraph;
+import org.eclipse.wst.common.componentcore.internal.impl.WTPModulesResourceFactory;
+import org.eclipse.wst.common.componentcore.internal.util.IModuleConstants;
+import org.eclipse.wst.common.componentcore.resources.IVirtualComponent;
+
+/**
+ * A cache of flattened components, shared by the {@link FlatVirtualComponent}s
+ * that are created with the {@link IFlatVirtualComponent#CACHE_KEY} option.
+ *
+ * <p>A cached model stays valid until the dependency graph changes, the
+ * component metadata of one of its projects changes, or a resource is added to
+ * or removed from a folder that the model is made from: a folder that is
+ * mapped into the component, or a folder that holds flattened resources.
+ * Other changes, such as build output in a folder that is not part of the
+ * component, leave the model alone. When only the contents of files change, the model is patched
+ * the next time it is asked for: the changed files are replaced, along with the
+ * folders above them, so the cost depends on the number of changed files and
+ * not on the size of the component. External files are checked for changes
+ * each time the model is asked for.
+ *
+ * <p>The arrays and folders of a model that has been handed out are never
+ * changed, so a model can be used while a newer one is being made. A model
+ * is not kept if any resource changed while it was being made, since the
+ * change could have been missed by the model and is not recorded against it.
+ */
+public final class FlatComponentCache {
+
+	/**
+	 * The maximum number of flattened components that are kept.
+	 */
+	private static final int MAX_ENTRIES = 32;
+
+	private static final Map<Key, CachedComponent> entries = new LinkedHashMap<Key, CachedComponent>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		protected boolean removeEldestEntry(Map.Entry<Key, CachedComponent> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	private static IResourceChangeListener listener;
+
+	/**
+	 * Counts the resource change events, so that a model that was made while
+	 * resources were changing can be recognized.
+	 */
+	private static final AtomicLong resourceStamp = new AtomicLong();
+
+	private FlatComponentCache() {
+	}
+
+	/**
+	 * Returns the cached members and child modules of the component, or null
+	 * if there are none or they are no longer valid.
+	 */
+	static CachedComponent get(IVirtualComponent component, Object cacheKey) {
+		CachedComponent entry;
+		synchronized (entries) {
+			entry = entries.get(new Key(component, cacheKey));
+		}
+		if (entry == null)
+			return null;
+		if (entry.graphStamp != IDependencyGraph.INSTANCE.getModStamp()) {
+			remove(entry);
+			return null;
+		}
+		return entry.refresh();
+	}
+
+	/**
+	 * Returns the resource change stamp, to be passed to
+	 * {@link #put(IVirtualComponent, Object, long, long, List, List)}. This is
+	 * called before the component is flattened, and starts listening for
+	 * resource changes if that hasn't been done yet.
+	 */
+	static long getResourceStamp() {
+		synchronized (entries) {
+			if (listener == null) {
+				listener = new DeltaListener();
+				ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+			}
+			return resourceStamp.get();
+		}
+	}
+
+	/**
+	 * Remember the members and child modules of the component, unless
+	 * resources have changed since it started to be flattened.
+	 *
+	 * @param graphStamp the dependency graph modification stamp from before the
+	 *            component was flattened
+	 * @param stamp the resource change stamp from before the component was
+	 *            flattened, see {@link #getResourceStamp()}
+	 */
+	static void put(IVirtualComponent component, Object cacheKey, long graphStamp, long stamp,
+			List<IFlatResource> members, List<IChildModuleReference> children) {
+		if (resourceStamp.get() != stamp)
+			return;
+		CachedComponent entry = CachedComponent.create(new Key(component, cacheKey), graphStamp, members, children);
+		if (entry == null)
+			return;
+		synchronized (entries) {
+			// the listener takes the entries after it counts the event, so an
+			// entry that is put after that is either seen by it or dropped here
+			if (listener != null && resourceStamp.get() == stamp)
+				entries.put(entry.key, entry);
+		}
+	}
+
+	private static void remove(CachedComponent entry) {
+		synchronized (entries) {
+			if (entries.get(entry.key) == entry)
+				entries.remove(entry.key);
+		}
+	}
+
+	/**
+	 * Forget all the flattened components and stop listening for resource changes.
+	 */
+	public static void dispose() {
+		synchronized (entries) {
+			entries.clear();
+			if (listener != null) {
+				ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+				listener = null;
+			}
+		}
+	}
+
+	private static final class Key {
+		private final IVirtualComponent component;
+		private final Object cacheKey;
+
+		Key(IVirtualComponent component, Object cacheKey) {
+			this.component = component;
+			this.cacheKey = cacheKey;
+		}
+
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return component.equals(other.component) && cacheKey.equals(other.cacheKey);
+		}
+
+		public int hashCode() {
+			return component.hashCode() * 37 + cacheKey.hashCode();
+		}
+	}
+
+	static final class CachedComponent {
+		private final Key key;
+		private final long graphStamp;
+
+		/**
+		 * The projects whose resources the model is made from.
+		 */
+		private final Set<IProject> projects;
+
+		/**
+		 * The folders that are mapped into the component, the folders that
+		 * hold resources of the model, and the folders above either of them.
+		 */
+		private final Set<IPath> mappedFolders;
+		private final Set<IPath> containers;
+		private final Set<IPath> enclosing;
+
+		/**
+		 * The workspace files in the model, and the external files in the model.
+		 * A file may appear more than once in the model.
+		 */
+		private final Map<IFile, List<FlatFile>> files;
+		private final List<FlatFile> externalFiles;
+
+		/**
+		 * The workspace files whose contents have changed since the model was patched.
+		 */
+		private final Set<IFile> changed = new HashSet<IFile>();
+
+		private List<IFlatResource> members;
+		private final List<IChildModuleReference> children;
+
+		private CachedComponent(Key key, long graphStamp, Set<IProject> projects, Set<IPath> mappedFolders,
+				Set<IPath> containers, Map<IFile, List<FlatFile>> files, List<FlatFile> externalFiles,
+				List<IFlatResource> members, List<IChildModuleReference> children) {
+			this.key = key;
+			this.graphStamp = graphStamp;
+			this.projects = projects;
+			this.mappedFolders = mappedFolders;
+			this.containers = containers;
+			this.enclosing = new HashSet<IPath>();
+			for (IPath container : containers) {
+				IPath folder = container;
+				while (folder.segmentCount() > 0 && enclosing.add(folder))
+					folder = folder.removeLastSegments(1);
+			}
+			this.files = files;
+			this.externalFiles = externalFiles;
+			this.members = members;
+			this.children = children;
+		}
+
+		/**
+		 * Index the files of the model.
+		 *
+		 * @return the entry, or null if the model has resources whose changes
+		 *         cannot be tracked, for example files that are only streams.
+		 */
+		static CachedComponent create(Key key, long graphStamp, List<IFlatResource> members, List<IChildModuleReference> children) {
+			Map<IFile, List<FlatFile>> files = new HashMap<IFile, List<FlatFile>>();
+			List<FlatFile> externalFiles = new ArrayList<FlatFile>();
+			Set<IProject> projects = new HashSet<IProject>();
+			Set<IPath> mappedFolders = new HashSet<IPath>();
+			Set<IPath> containers = new HashSet<IPath>();
+			IProject project = key.component.getProject();
+			if (project != null) {
+				projects.add(project);
+				projects.addAll(IDependencyGraph.INSTANCE.getSnapshot(false).getTransitiveReferencedComponents(project));
+				if (!key.component.isBinary())
+					addMappedFolders(project, mappedFolders);
+			}
+			containers.addAll(mappedFolders);
+			if (!index(members.toArray(new IFlatResource[members.size()]), files, externalFiles, projects, containers))
+				return null;
+			return new CachedComponent(key, graphStamp, projects, mappedFolders, containers, files, externalFiles,
+					new ArrayList<IFlatResource>(members), new ArrayList<IChildModuleReference>(children));
+		}
+
+		/**
+		 * Adds the full paths of the source folders that are mapped into the component.
+		 */
+		private static void addMappedFolders(IProject project, Set<IPath> mappedFolders) {
+			StructureEdit edit = null;
+			try {
+				edit = StructureEdit.getStructureEditForRead(project);
+				WorkbenchComponent component = edit == null ? null : edit.getComponent();
+				if (component == null)
+					return;
+				for (Iterator iter = component.getResources().iterator(); iter.hasNext();) {
+					IPath sourcePath = ((ComponentResource) iter.next()).getSourcePath();
+					if (sourcePath != null)
+						mappedFolders.add(project.getFullPath().append(sourcePath));
+				}
+			} finally {
+				if (edit != null)
+					edit.dispose();
+			}
+		}
+
+		private static boolean index(IFlatResource[] resources, Map<IFile, List<FlatFile>> files,
+				List<FlatFile> externalFiles, Set<IProject> projects, Set<IPath> containers) {
+			for (int i = 0; i < resources.length; i++) {
+				if (resources[i] instanceof FlatFolder) {
+					IContainer container = (IContainer) ((FlatFolder) resources[i]).getAdapter(IContainer.class);
+					if (container != null) {
+						projects.add(container.getProject());
+						containers.add(container.getFullPath());
+					}
+					if (!index(((FlatFolder) resources[i]).members(), files, externalFiles, projects, containers))
+						return false;
+				} else if (resources[i] instanceof FlatFile) {
+					FlatFile file = (FlatFile) resources[i];
+					IFile ifile = (IFile) file.getAdapter(IFile.class);
+					if (ifile != null) {
+						projects.add(ifile.getProject());
+						containers.add(ifile.getParent().getFullPath());
+						List<FlatFile> list = files.get(ifile);
+						if (list == null) {
+							list = new ArrayList<FlatFile>(1);
+							files.put(ifile, list);
+						}
+						list.add(file);
+					} else if (file.getAdapter(File.class) != null) {
+						externalFiles.add(file);
+					} else {
+						return false;
+					}
+				} else {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Returns true if adding or removing the resource at the given path can
+		 * change the model: it is in or above a folder of the model, or inside
+		 * a folder that is mapped into the component.
+		 */
+		boolean isAffectedBy(IPath path) {
+			if (enclosing.contains(path) || containers.contains(path.removeLastSegments(1)))
+				return true;
+			for (IPath folder = path; folder.segmentCount() > 0; folder = folder.removeLastSegments(1)) {
+				if (mappedFolders.contains(folder))
+					return true;
+			}
+			return false;
+		}
+
+		synchronized List<IFlatResource> getMembers() {
+			return members;
+		}
+
+		List<IChildModuleReference> getChildren() {
+			return children;
+		}
+
+		synchronized void fileChanged(IFile file) {
+			if (files.containsKey(file))
+				changed.add(file);
+		}
+
+		/**
+		 * Patch the model with the files that have changed.
+		 */
+		synchronized CachedComponent refresh() {
+			for (IFile file : changed) {
+				List<FlatFile> list = files.get(file);
+				for (int i = 0; i < list.size(); i++) {
+					FlatFile old = list.get(i);
+					FlatFile replacement = new FlatFile(file, old.getName(), old.getModuleRelativePath());
+					replace(old, replacement);
+					list.set(i, replacement);
+				}
+			}
+			changed.clear();
+			for (int i = 0; i < externalFiles.size(); i++) {
+				FlatFile old = externalFiles.get(i);
+				File file = (File) old.getAdapter(File.class);
+				if (file.lastModified() != old.getModificationStamp()) {
+					FlatFile replacement = new FlatFile(file, old.getName(), old.getModuleRelativePath());
+					replace(old, replacement);
+					externalFiles.set(i, replacement);
+				}
+			}
+			return this;
+		}
+
+		/**
+		 * Replace the file in the model, copying the folders that contain it
+		 * rather than changing them.
+		 */
+		private void replace(FlatFile old, FlatFile replacement) {
+			String[] segments = old.getModuleRelativePath().segments();
+			IFlatResource[] root = members.toArray(new IFlatResource[members.size()]);
+			IFlatResource[] patched = replace(root, segments, 0, old, replacement);
+			if (patched != root) {
+				List<IFlatResource> list = new ArrayList<IFlatResource>(patched.length);
+				for (int i = 0; i < patched.length; i++)
+					list.add(patched[i]);
+				members = list;
+			}
+		}
+
+		private static IFlatResource[] replace(IFlatResource[] resources, String[] segments, int depth,
+				FlatFile old, FlatFile replacement) {
+			for (int i = 0; i < resources.length; i++) {
+				IFlatResource copy = null;
+				if (depth == segments.length) {
+					if (resources[i] == old)
+						copy = replacement;
+				} else if (resources[i] instanceof FlatFolder && resources[i].getName().equals(segments[depth])) {
+					FlatFolder folder = (FlatFolder) resources[i];
+					IFlatResource[] folderMembers = folder.members();
+					IFlatResource[] patched = replace(folderMembers, segments, depth + 1, old, replacement);
+					if (patched != folderMembers) {
+						FlatFolder folderCopy = new FlatFolder((IContainer) folder.getAdapter(IContainer.class),
+								folder.getName(), folder.getModuleRelativePath());
+						folderCopy.setMembers(patched);
+						copy = folderCopy;
+					}
+				}
+				if (copy != null) {
+					IFlatResource[] result = new IFlatResource[resources.length];
+					System.arraycopy(resources, 0, result, 0, resources.length);
+					result[i] = copy;
+					return result;
+				}
+			}
+			return resources;
+		}
+	}
+
+	/**
+	 * Drops the models of the components whose projects or folders have
+	 * changed, and records the files whose contents have changed.
+	 */
+	private static final class DeltaListener implements IResourceChangeListener {
+
+		private static final IPath COMPONENT_FILE = new Path(IModuleConstants.DOT_SETTINGS).append(WTPModulesResourceFactory.WTP_MODULES_SHORT_NAME);
+		private static final String MANIFEST = "MANIFEST.MF"; //$NON-NLS-1$
+		private static final String CLASSPATH = ".classpath"; //$NON-NLS-1$
+
+		public void resourceChanged(IResourceChangeEvent event) {
+			IResourceDelta delta = event.getDelta();
+			if (delta == null)
+				return;
+			resourceStamp.incrementAndGet();
+			final Set<IProject> watched = new HashSet<IProject>();
+			CachedComponent[] current;
+			synchronized (entries) {
+				current = entries.values().toArray(new CachedComponent[entries.size()]);
+			}
+			if (current.length == 0)
+				return;
+			for (int i = 0; i < current.length; i++)
+				watched.addAll(current[i].projects);
+
+			final Set<IProject> structural = new HashSet<IProject>();
+			final List<IPath> moved = new ArrayList<IPath>();
+			final List<IFile> contents = new ArrayList<IFile>();
+			try {
+				delta.accept(new IResourceDeltaVisitor() {
+					public boolean visit(IResourceDelta child) throws CoreException {
+						IResource resource = child.getResource();
+						if (resource.getType() == IResource.ROOT)
+							return true;
+						IProject project = resource.getProject();
+						if (!watched.contains(project) || structural.contains(project))
+							return false;
+						int kind = child.getKind();
+						int flags = child.getFlags();
+						if (resource.getType() == IResource.PROJECT) {
+							if (kind == IResourceDelta.ADDED || kind == IResourceDelta.REMOVED
+									|| (flags & (IResourceDelta.OPEN | IResourceDelta.TYPE | IResourceDelta.DESCRIPTION)) != 0) {
+								structural.add(project);
+								return false;
+							}
+							return true;
+						}
+						boolean addedOrRemoved = kind == IResourceDelta.ADDED || kind == IResourceDelta.REMOVED;
+						if (isMetadata(resource) && (addedOrRemoved || (flags & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0)) {
+							structural.add(project);
+							return false;
+						}
+						if (addedOrRemoved || (flags & (IResourceDelta.TYPE | IResourceDelta.DERIVED_CHANGED)) != 0) {
+							moved.add(resource.getFullPath());
+							// the component metadata may have come or gone with its folder
+							return resource.getType() == IResource.FOLDER && resource.getProjectRelativePath().equals(COMPONENT_FILE.removeLastSegments(1));
+						}
+						if (resource.getType() == IResource.FILE && (flags & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0)
+							contents.add((IFile) resource);
+						return true;
+					}
+				});
+			} catch (CoreException e) {
+				ModulecorePlugin.logError(e);
+				structural.addAll(watched);
+			}
+
+			for (int i = 0; i < current.length; i++) {
+				CachedComponent entry = current[i];
+				if (isStale(entry, structural, moved)) {
+					remove(entry);
+				} else {
+					for (Iterator<IFile> iter = contents.iterator(); iter.hasNext();)
+						entry.fileChanged(iter.next());
+				}
+			}
+		}
+
+		private static boolean isStale(CachedComponent entry, Set<IProject> structural, List<IPath> moved) {
+			for (IProject project : structural) {
+				if (entry.projects.contains(project))
+					return true;
+			}
+			for (int i = 0; i < moved.size(); i++) {
+				if (entry.isAffectedBy(moved.get(i)))
+					return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Returns true for the component file, the Java class path and the
+		 * manifests, which can change how the component is made up without
+		 * changing the dependency graph.
+		 */
+		private static boolean isMetadata(IResource resource) {
+			if (resource.getType() != IResource.FILE)
+				return false;
+			IPath path = resource.getProjectRelativePath();
+			if (path.segmentCount() == 1) {
+				String name = path.segment(0);
+				return CLASSPATH.equals(name) || WTPModulesResourceFactory.OLD_WTP_MODULES_SHORT_NAME.equals(name)
+						|| WTPModulesResourceFactory.FIRST_WTP_MODULES_SHORT_NAME.equals(name);
+			}
+			return path.equals(COMPONENT_FILE) || MANIFEST.equals(resource.getName());
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2013 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,8 @@
 package org.eclipse.wst.common.componentcore.internal.flat;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFolder;
@@ -28,6 +30,15 @@ public class FlatFolder extends FlatResource implements IFlatFolder {
 	private String name;
 	private IPath path;
 	private IFlatResource[] members;
+	
+	/*
+	 * While the tree is being built the members are kept in a list, so that
+	 * adding a member does not copy the members array, with an index of the
+	 * members by name. They are created the first time a member is added or
+	 * looked up, and the array is only created again when members() is called.
+	 */
+	private List<IFlatResource> memberList;
+	private FlatResourceIndex memberNames;
 
 	/**
 	 * Creates a module folder.
@@ -51,6 +62,70 @@ public class FlatFolder extends FlatResource implements IFlatFolder {
 	 */
 	public void setMembers(IFlatResource[] members) {
 		this.members = members;
+		memberList = null;
+		memberNames = null;
+	}
+	
+	/**
+	 * Adds a member to the end of this folder. Like
+	 * {@link #setMembers(IFlatResource[])}, this does not check whether the
+	 * folder already has an equal member.
+	 * 
+	 * @param member the member to add
+	 */
+	void addMember(IFlatResource member) {
+		ensureMemberList();
+		memberList.add(member);
+		memberNames.add(member);
+		members = null;
+	}
+	
+	/**
+	 * Removes the first member that is equal to the given member, if there is
+	 * one, and adds the given member to the end of this folder.
+	 * 
+	 * @param member the member to add
+	 */
+	void replaceMember(IFlatResource member) {
+		ensureMemberList();
+		if (memberList.remove(member))
+			memberNames.remove(member);
+		addMember(member);
+	}
+	
+	/**
+	 * Returns the first member of this folder with the given name.
+	 * 
+	 * @param memberName the name of the member
+	 * @return the member, or <code>null</code> if there is no such member
+	 */
+	IFlatResource getMember(String memberName) {
+		ensureMemberList();
+		return memberNames.get(memberName);
+	}
+	
+	/**
+	 * Returns the first member of this folder that is a folder with the given
+	 * name. A file with the same name does not hide the folder.
+	 * 
+	 * @param memberName the name of the folder
+	 * @return the folder, or <code>null</code> if there is no such folder
+	 */
+	FlatFolder getFolder(String memberName) {
+		ensureMemberList();
+		return memberNames.getFolder(memberName);
+	}
+	
+	private void ensureMemberList() {
+		if (memberList != null)
+			return;
+		IFlatResource[] current = members();
+		memberList = new ArrayList<IFlatResource>(Math.max(10, current.length * 2));
+		memberNames = new FlatResourceIndex(current.length);
+		for (int i = 0; i < current.length; i++) {
+			memberList.add(current[i]);
+			memberNames.add(current[i]);
+		}
 	}
 
 	/* (non-Javadoc)
@@ -71,6 +146,8 @@ public class FlatFolder extends FlatResource implements IFlatFolder {
 	 * @see org.eclipse.wst.server.core.model.IModuleFolder#members()
 	 */
 	public IFlatResource[] members() {
+		if (members == null && memberList != null)
+			members = memberList.toArray(new IFlatResource[memberList.size()]);
 		if (members == null)
 			return EMPTY_RESOURCE_ARRAY;
 		return members;
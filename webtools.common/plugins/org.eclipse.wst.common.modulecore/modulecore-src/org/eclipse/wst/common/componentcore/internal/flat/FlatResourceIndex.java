@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.componentcore.internal.flat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of flat resources by name. Several resources can have the same
+ * name, for example a file and a folder, so the index remembers all of them
+ * in the order that they were added. Most names are unique, so a name only
+ * gets a list once it is shared.
+ */
+final class FlatResourceIndex {
+
+	/* Each value is either an IFlatResource or a List of them */
+	private final Map<String, Object> byName;
+
+	FlatResourceIndex(int size) {
+		byName = new HashMap<String, Object>(size * 4 / 3 + 1);
+	}
+
+	void add(IFlatResource resource) {
+		String name = resource.getName();
+		Object existing = byName.get(name);
+		if (existing == null)
+			byName.put(name, resource);
+		else if (existing instanceof List)
+			asList(existing).add(resource);
+		else {
+			List<IFlatResource> list = new ArrayList<IFlatResource>(2);
+			list.add((IFlatResource) existing);
+			list.add(resource);
+			byName.put(name, list);
+		}
+	}
+
+	/**
+	 * Removes the first resource that is equal to the given one.
+	 */
+	void remove(IFlatResource resource) {
+		String name = resource.getName();
+		Object existing = byName.get(name);
+		if (existing instanceof List) {
+			List<IFlatResource> list = asList(existing);
+			list.remove(resource);
+			if (list.size() == 1)
+				byName.put(name, list.get(0));
+		} else if (resource.equals(existing))
+			byName.remove(name);
+	}
+
+	/**
+	 * Returns the first resource with the given name, or <code>null</code>.
+	 */
+	IFlatResource get(String name) {
+		Object existing = byName.get(name);
+		if (existing instanceof List)
+			return asList(existing).get(0);
+		return (IFlatResource) existing;
+	}
+
+	/**
+	 * Returns the first folder with the given name, or <code>null</code>. Files
+	 * with the same name are passed over.
+	 */
+	FlatFolder getFolder(String name) {
+		Object existing = byName.get(name);
+		if (existing instanceof List) {
+			for (IFlatResource resource : asList(existing)) {
+				if (resource instanceof FlatFolder)
+					return (FlatFolder) resource;
+			}
+			return null;
+		}
+		return existing instanceof FlatFolder ? (FlatFolder) existing : null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<IFlatResource> asList(Object value) {
+		return (List<IFlatResource>) value;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009 Red Hat and others.
+ * Copyright (c) 2009, 2026 Red Hat and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -22,6 +22,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.wst.common.componentcore.internal.DependencyType;
+import org.eclipse.wst.common.componentcore.internal.builder.IDependencyGraph;
 import org.eclipse.wst.common.componentcore.internal.flat.VirtualComponentFlattenUtility.ShouldIncludeUtilityCallback;
 import org.eclipse.wst.common.componentcore.resources.IVirtualComponent;
 import org.eclipse.wst.common.componentcore.resources.IVirtualFolder;
@@ -115,7 +116,7 @@ public class FlatVirtualComponent implements IFlatVirtualComponent, ShouldInclud
 			}
 			// Perform the actual calculation on a proxy so this instance's "members" and "children" remain unset.
 			FlatVirtualComponent proxyComponent = new FlatVirtualComponent(this.component, this.dataModel);
-			proxyComponent.cacheResources();
+			proxyComponent.cacheSharedResources();
 			// Update using the proxy results if we determine there is no calculation ongoing in some other thread
 			synchronized (lock) {
 				// See if this thread is still the most recent one to perform the calculation.
@@ -157,7 +158,7 @@ public class FlatVirtualComponent implements IFlatVirtualComponent, ShouldInclud
 			}
 			// Perform the actual calculation on a proxy so this instance's "members" and "children" remain unset.
 			FlatVirtualComponent proxyComponent = new FlatVirtualComponent(this.component, this.dataModel);
-			proxyComponent.cacheResources();
+			proxyComponent.cacheSharedResources();
 			// Update using the proxy results if we determine there is no calculation ongoing in some other thread
 			synchronized (lock) {
 				// See if this thread is still the most recent one to perform the calculation.
@@ -180,6 +181,28 @@ public class FlatVirtualComponent implements IFlatVirtualComponent, ShouldInclud
 	}
 	
 	
+	/**
+	 * The same as {@link #cacheResources()}, but if the {@link #CACHE_KEY} option is
+	 * set, the result is shared through the {@link FlatComponentCache}.
+	 */
+	private void cacheSharedResources() throws CoreException {
+		Object cacheKey = dataModel.get(CACHE_KEY);
+		if (cacheKey == null || component == null) {
+			cacheResources();
+			return;
+		}
+		FlatComponentCache.CachedComponent entry = FlatComponentCache.get(component, cacheKey);
+		if (entry != null) {
+			members = new ArrayList<IFlatResource>(entry.getMembers());
+			children = new ArrayList<IChildModuleReference>(entry.getChildren());
+			return;
+		}
+		long graphStamp = IDependencyGraph.INSTANCE.getModStamp();
+		long resourceStamp = FlatComponentCache.getResourceStamp();
+		cacheResources();
+		FlatComponentCache.put(component, cacheKey, graphStamp, resourceStamp, members, children);
+	}
+	
 	protected void cacheResources() throws CoreException {
 		runInitializations();
 		if( canOptimize()) {
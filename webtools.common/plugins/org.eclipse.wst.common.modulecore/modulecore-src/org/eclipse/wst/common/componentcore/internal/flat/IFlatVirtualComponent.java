@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009 Red Hat and others.
+ * Copyright (c) 2009, 2026 Red Hat and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,6 +25,15 @@ public interface IFlatVirtualComponent {
 	 * The ExportModel being used; the value of this should be the IFlatVirtualComponent itself. 
 	 */
 	public static String EXPORT_MODEL = "org.eclipse.wst.common.componentcore.export.exportModel";
+	
+	/**
+	 * An options key which lets the flattened component be cached and shared
+	 * with other IFlatVirtualComponents for the same component. The value may 
+	 * be any object with equals() and hashCode(), and should be the same only
+	 * for callers that use the same participants and options, since those are
+	 * not compared. The cached model is updated as resources change.
+	 */
+	public static String CACHE_KEY = "org.eclipse.wst.common.componentcore.export.cacheKey";
 
 	/**
 	 * Fetch the list of resources, which include raw files or folders only
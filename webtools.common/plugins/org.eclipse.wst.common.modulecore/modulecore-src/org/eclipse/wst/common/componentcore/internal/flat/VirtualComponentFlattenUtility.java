@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009 Red Hat and others.
+ * Copyright (c) 2009, 2026 Red Hat and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -40,6 +40,16 @@ public class VirtualComponentFlattenUtility {
 	
 	private List<IFlatResource> members;
 	private ShouldIncludeUtilityCallback handler;
+	
+	/*
+	 * An index of the top level members, so that finding the parent folder of
+	 * a file does not scan the top level. Callers may also add to the members
+	 * list directly, so the index is rebuilt when the size of the list changes.
+	 */
+	private FlatResourceIndex rootNames;
+	private List<IFlatResource> rootOthers;
+	private int indexedSize = -1;
+	
 	public VirtualComponentFlattenUtility(
 			List<IFlatResource> members, ShouldIncludeUtilityCallback handler) {
 		this.members = members;
@@ -47,11 +57,11 @@ public class VirtualComponentFlattenUtility {
 	}
 	
 	public void addMembers(IVirtualComponent current, IVirtualContainer cont, IPath path) throws CoreException {
-		ensureParentExists(members, path, null);
+		ensureParentExists(path, null);
 		FlatResource[] mr = addMembersInternal(current, cont, path);
 		int size = mr.length;
 		for (int j = 0; j < size; j++) {
-			members.add(mr[j]);
+			addRootMember(mr[j]);
 		}
 	}
 	
@@ -69,15 +79,15 @@ public class VirtualComponentFlattenUtility {
 	
 	// Physically adds this container
 	protected void addContainerInternal(IContainer container, IPath path) throws CoreException {
-		IFlatFolder mf = (FlatFolder) getExistingModuleResource(members,path.append(container.getName()).makeRelative());
+		IFlatFolder mf = getExistingFolder(path.append(container.getName()).makeRelative());
 		if( mf == null ) {
 			mf = new FlatFolder(container, container.getName(), path);
-			IFlatFolder parent = (FlatFolder) getExistingModuleResource(members, path);
+			IFlatFolder parent = getExistingFolder(path);
 			if (path.isEmpty())
-				members.add(mf);
+				addRootMember(mf);
 			else {
 				if (parent == null)
-					parent = ensureParentExists(members, path, container);
+					parent = ensureParentExists(path, container);
 				addMembersToModuleFolder(parent, new IFlatResource[] {mf});
 			}
 		}
@@ -121,15 +131,23 @@ public class VirtualComponentFlattenUtility {
 		if( mf != null ) {
 			if (handler == null || handler.shouldAddComponentFile(current, mf)) {
 				if( mf.getModuleRelativePath().segmentCount() == 0) {
-					members.remove(mf);
-					members.add(mf);
+					ensureRootIndex();
+					if (members.remove(mf)) {
+						indexedSize--;
+						rootNames.remove(mf);
+					}
+					addRootMember(mf);
 				}
 				else {
-					IFlatFolder moduleParent = VirtualComponentFlattenUtility.ensureParentExists(members, mf.getModuleRelativePath(), null);
-					List tempParentMembers = new ArrayList(Arrays.asList(moduleParent.members()));
-					tempParentMembers.remove(mf);
-					tempParentMembers.add(mf);
-					moduleParent.setMembers((IFlatResource[]) tempParentMembers.toArray(new IFlatResource[tempParentMembers.size()]));
+					IFlatFolder moduleParent = ensureParentExists(mf.getModuleRelativePath(), null);
+					if (moduleParent instanceof FlatFolder)
+						((FlatFolder) moduleParent).replaceMember(mf);
+					else {
+						List tempParentMembers = new ArrayList(Arrays.asList(moduleParent.members()));
+						tempParentMembers.remove(mf);
+						tempParentMembers.add(mf);
+						moduleParent.setMembers((IFlatResource[]) tempParentMembers.toArray(new IFlatResource[tempParentMembers.size()]));
+					}
 				}
 			}
 		}
@@ -141,15 +159,15 @@ public class VirtualComponentFlattenUtility {
 	
 	protected IFlatFolder addVirtualContainerInternal(IVirtualContainer cc, IPath path) {
 		// Retrieve already existing module folder if applicable
-		IFlatFolder mf = (FlatFolder) getExistingModuleResource(members,path.append(cc.getName()).makeRelative());
+		IFlatFolder mf = getExistingFolder(path.append(cc.getName()).makeRelative());
 		if (mf == null) {
 			mf = new FlatFolder((IContainer)cc.getUnderlyingResource(), cc.getName(), path);
-			IFlatFolder parent = (FlatFolder) getExistingModuleResource(members, path);
+			IFlatFolder parent = getExistingFolder(path);
 			if (path.isEmpty())
-				members.add(mf);
+				addRootMember(mf);
 			else {
 				if (parent == null)
-					parent = ensureParentExists(members, path, (IContainer)cc.getUnderlyingResource());
+					parent = ensureParentExists(path, (IContainer)cc.getUnderlyingResource());
 				addMembersToModuleFolder(parent, new IFlatResource[] {mf});
 			}
 		}
@@ -159,6 +177,66 @@ public class VirtualComponentFlattenUtility {
 	public static FlatFile createModuleFile(final IFile file, final IPath path) {
 		return new FlatFile(file, file.getName(), path);
 	}
+	
+	private void ensureRootIndex() {
+		if (indexedSize == members.size())
+			return;
+		rootNames = new FlatResourceIndex(members.size());
+		rootOthers = new ArrayList<IFlatResource>();
+		for (IFlatResource resource : members)
+			indexRootMember(resource);
+		indexedSize = members.size();
+	}
+	
+	private void indexRootMember(IFlatResource resource) {
+		if (resource.getModuleRelativePath().segmentCount() > 0)
+			rootOthers.add(resource);
+		else
+			rootNames.add(resource);
+	}
+	
+	private void addRootMember(IFlatResource resource) {
+		ensureRootIndex();
+		members.add(resource);
+		indexRootMember(resource);
+		indexedSize++;
+	}
+	
+	/**
+	 * Finds an existing folder among the members of this utility, using the
+	 * index of the top level members. A file with the same path as the folder
+	 * is passed over.
+	 */
+	private FlatFolder getExistingFolder(IPath path) {
+		if (path == null || path.segmentCount() == 0)
+			return null;
+		ensureRootIndex();
+		String[] pathSegments = path.segments();
+		FlatFolder folder = rootNames.getFolder(pathSegments[0]);
+		if (folder != null) {
+			for (int i = 1; i < pathSegments.length && folder != null; i++)
+				folder = folder.getFolder(pathSegments[i]);
+			return folder;
+		}
+		FlatResource resource = getExistingModuleResource(rootOthers, path);
+		return resource instanceof FlatFolder ? (FlatFolder) resource : null;
+	}
+	
+	private IFlatFolder ensureParentExists(IPath path, IContainer cc) {
+		IFlatFolder parent = getExistingFolder(path);
+		if (parent == null && path.segmentCount() > 0) {
+			String folderName = path.lastSegment();
+			IPath folderPath = Path.EMPTY;
+			if (path.segmentCount()>1)
+				folderPath = path.removeLastSegments(1);
+			parent = new FlatFolder(cc, folderName, folderPath);
+			if (path.segmentCount()>1)
+				addMembersToModuleFolder(ensureParentExists(path.removeLastSegments(1),cc), new IFlatResource[] {parent});
+			else
+				addRootMember(parent);
+		}
+		return parent;
+	}
 
 	
 	/**
@@ -173,7 +251,7 @@ public class VirtualComponentFlattenUtility {
     	// If the list is empty, return null
     	if (aList==null || aList.isEmpty() || path == null)
     		return null;
-    	// Otherwise recursively check to see if given resource matches current resource or if it is a child
+    	// Otherwise check to see if given resource matches current resource or if it is a child
     	String[] pathSegments = path.segments(); 
     	FlatResource exportableResource = null;
     	
@@ -190,17 +268,35 @@ public class VirtualComponentFlattenUtility {
 		    		startsWith(moduleSegments, pathSegments))
 		    	return exportableResource; 
     		
-    		// Otherwise, if it is a folder, check its children for the existing resource path
+    		// Otherwise, if it is a folder, look up the rest of the path in its children
     		// but only check if the beginning segments are a match
 	    	if(exportableResource instanceof FlatFolder && 
 	    			startsWith(moduleSegments, pathSegments) && pathSegments.length > moduleSegments.length &&
 	    			exportableResource.getName().equals(pathSegments[moduleSegments.length > 0 ? moduleSegments.length : 0]))	    	  
-    			if (((FlatFolder)exportableResource).members()!=null)
-    				return getExistingModuleResource(Arrays.asList(((FlatFolder)exportableResource).members()),path);
+    			return getMember(exportableResource, pathSegments, moduleSegments.length + 1);
     	}
     	return null;
     }
 	
+	/**
+	 * Walk down from the resource, looking up each remaining path segment by
+	 * name in the folder's members. Only folders are looked for until the last
+	 * segment, so a file does not hide a folder with the same name.
+	 * 
+	 * @return the resource for the last segment, or null if there is none
+	 */
+	private static FlatResource getMember(IFlatResource resource, String[] pathSegments, int start) {
+		for (int i = start; i < pathSegments.length; i++) {
+			if (!(resource instanceof FlatFolder))
+				return null;
+			FlatFolder folder = (FlatFolder)resource;
+			resource = i == pathSegments.length - 1 ? folder.getMember(pathSegments[i]) : folder.getFolder(pathSegments[i]);
+			if (resource == null)
+				return null;
+		}
+		return (FlatResource) resource;
+	}
+	
 	/**
 	 * @return True if beginningSegments[i] == testSegments[i] for all 0<=i<beginningSegments[i] 
 	 */
@@ -237,6 +333,12 @@ public class VirtualComponentFlattenUtility {
 		// If the folder is null or the resources to add are null or empty, bail and return
 		if (mf == null || mr == null || mr.length==0) 
 			return;
+		// Add the resources one at a time without copying the members array
+		if (mf instanceof FlatFolder) {
+			for (int i = 0; i < mr.length; i++)
+				((FlatFolder)mf).addMember(mr[i]);
+			return;
+		}
 		// Get the existing members in the module folder
 		IFlatResource[] mf_members = mf.members();
 		int mf_size = 0;
@@ -0,0 +1,326 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.componentcore.internal.resources;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.wst.common.componentcore.internal.ComponentResource;
+import org.eclipse.wst.common.componentcore.internal.ModulecorePlugin;
+import org.eclipse.wst.common.componentcore.internal.Property;
+import org.eclipse.wst.common.componentcore.internal.ReferencedComponent;
+import org.eclipse.wst.common.componentcore.internal.StructureEdit;
+import org.eclipse.wst.common.componentcore.internal.WorkbenchComponent;
+import org.eclipse.wst.common.componentcore.internal.impl.ResourceTreeRoot;
+import org.eclipse.wst.common.componentcore.internal.impl.WorkbenchComponentImpl;
+import org.eclipse.wst.common.componentcore.internal.resources.ResourceTimestampMappings.ProjectTimestamp;
+
+/**
+ * A workspace wide cache of the parsed .settings/org.eclipse.wst.common.component
+ * models. The model of a project is read once through {@link StructureEdit}
+ * and kept as a detached copy until the {@link ProjectTimestamp} signature of
+ * the project changes, or until the EMF resource it was read from is modified
+ * or unloaded. Readers get the cached model without parsing the file or
+ * acquiring the edit model.
+ *
+ * <p>The cached models are shared, so clients must never change them. Changes
+ * are made through {@link StructureEdit#getStructureEditForWrite(IProject)} as
+ * before, and are seen by readers as soon as the resource is modified.
+ *
+ * <p>The model of a project is forgotten when the project is closed, deleted
+ * or moved, and models of projects that are not accessible are not cached.
+ */
+public final class ComponentModelCache {
+
+	private static final ConcurrentMap<IProject, ComponentModel> models = new ConcurrentHashMap<IProject, ComponentModel>();
+
+	/**
+	 * Incremented every time a model is invalidated, so that a model which was
+	 * read while it was being changed is not cached.
+	 */
+	private static long invalidations = 0;
+
+	private static final Object lock = new Object();
+
+	private static IResourceChangeListener listener;
+
+	private ComponentModelCache() {
+	}
+
+	/**
+	 * Returns the model of the project's component. The returned model is never
+	 * <code>null</code>, but {@link ComponentModel#getComponent()} is
+	 * <code>null</code> if the project is not a component.
+	 */
+	public static ComponentModel getModel(IProject project) {
+		ComponentModel model = models.get(project);
+		if (model != null && !model.signature.hasChanged(project))
+			return model;
+
+		long start;
+		synchronized (lock) {
+			start = invalidations;
+		}
+		model = readModel(project);
+		synchronized (lock) {
+			if (start == invalidations && model.cacheable && project.isAccessible()) {
+				if (listener == null) {
+					listener = new ProjectListener();
+					ResourcesPlugin.getWorkspace().addResourceChangeListener(listener,
+							IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE | IResourceChangeEvent.POST_CHANGE);
+				}
+				models.put(project, model);
+			}
+		}
+		return model;
+	}
+
+	/**
+	 * Forget the model of the project, so that it is read again the next time
+	 * it is asked for.
+	 */
+	public static void invalidate(IProject project) {
+		synchronized (lock) {
+			invalidations++;
+			models.remove(project);
+		}
+	}
+
+	/**
+	 * Forget all the models and stop listening for project changes.
+	 */
+	public static void dispose() {
+		synchronized (lock) {
+			invalidations++;
+			models.clear();
+			if (listener != null) {
+				ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+				listener = null;
+			}
+		}
+	}
+
+	/**
+	 * Returns true if a model of the project is cached.
+	 */
+	public static boolean isCached(IProject project) {
+		return models.containsKey(project);
+	}
+
+	private static ComponentModel readModel(IProject project) {
+		// Take the signature first, so that a change made while reading is noticed
+		ProjectTimestamp signature = new ProjectTimestamp(project);
+		StructureEdit core = null;
+		try {
+			core = StructureEdit.getStructureEditForRead(project);
+			if (core == null)
+				return new ComponentModel(project, signature, null);
+			return new ComponentModel(project, signature, core.getComponent());
+		} finally {
+			if (core != null)
+				core.dispose();
+		}
+	}
+
+	/**
+	 * Invalidates the cached model of a project when its resource is modified
+	 * or unloaded.
+	 */
+	private static class ResourceListener extends AdapterImpl {
+		private final IProject project;
+
+		ResourceListener(IProject project) {
+			this.project = project;
+		}
+
+		public void notifyChanged(Notification notification) {
+			int featureID = notification.getFeatureID(null);
+			if (featureID == Resource.RESOURCE__IS_MODIFIED || featureID == Resource.RESOURCE__IS_LOADED)
+				invalidate(project);
+		}
+
+		public boolean equals(Object obj) {
+			return obj instanceof ResourceListener && ((ResourceListener) obj).project.equals(project);
+		}
+
+		public int hashCode() {
+			return project.hashCode();
+		}
+	}
+
+	/**
+	 * Forgets the models of projects that are closed, deleted or moved.
+	 */
+	private static class ProjectListener implements IResourceChangeListener {
+
+		public void resourceChanged(IResourceChangeEvent event) {
+			if (event.getType() != IResourceChangeEvent.POST_CHANGE) {
+				if (event.getResource() instanceof IProject)
+					invalidate((IProject) event.getResource());
+				return;
+			}
+			IResourceDelta delta = event.getDelta();
+			if (delta == null)
+				return;
+			IResourceDelta[] children = delta.getAffectedChildren(IResourceDelta.REMOVED);
+			for (int i = 0; i < children.length; i++) {
+				IResource resource = children[i].getResource();
+				if (resource.getType() == IResource.PROJECT && models.containsKey(resource))
+					invalidate((IProject) resource);
+			}
+		}
+	}
+
+	/**
+	 * The cached model of one project.
+	 */
+	public static final class ComponentModel {
+
+		private static final IPath[] NO_PATHS = new IPath[0];
+
+		private final ProjectTimestamp signature;
+		private final boolean cacheable;
+		private final Resource resource;
+		private final WorkbenchComponent component;
+		private final String deployedName;
+		private final Properties metaProperties = new Properties();
+		private final IPath[] metaResources;
+		private final List<ReferencedComponent> referencedComponents;
+
+		ComponentModel(IProject project, ProjectTimestamp signature, WorkbenchComponent source) {
+			this.signature = signature;
+			if (source == null) {
+				cacheable = true;
+				resource = null;
+				component = null;
+				deployedName = null;
+				metaResources = NO_PATHS;
+				referencedComponents = Collections.emptyList();
+				return;
+			}
+			resource = source.eResource();
+			// An unsaved change may be followed by others that are not notified
+			cacheable = resource == null || !resource.isModified();
+			if (resource != null) {
+				ResourceListener listener = new ResourceListener(project);
+				if (!resource.eAdapters().contains(listener))
+					resource.eAdapters().add(listener);
+			}
+
+			component = (WorkbenchComponent) EcoreUtil.copy(source);
+			// The copy has no resource, so remember which project its resources belong to
+			List sourceResources = source.getResources();
+			List copiedResources = component.getResources();
+			for (int i = 0; i < copiedResources.size(); i++) {
+				IProject owningProject = ((ComponentResource) sourceResources.get(i)).getOwningProject();
+				((ComponentResource) copiedResources.get(i)).setOwningProject(owningProject != null ? owningProject : project);
+			}
+			// Build the lazily created state now, while the copy is not yet shared
+			ResourceTreeRoot.getDeployResourceTreeRoot(component);
+			ResourceTreeRoot.getSourceResourceTreeRoot(component);
+			((WorkbenchComponentImpl) component).getDefaultSourceRoot();
+
+			String name = component.getName();
+			deployedName = name != null && name.length() > 0 ? name : null;
+
+			List propList = component.getProperties();
+			for (int i = 0; i < propList.size(); i++) {
+				Property property = (Property) propList.get(i);
+				String value = property.getValue();
+				if (value == null) {
+					value = ""; //$NON-NLS-1$
+					String message = "WARNING:  The component file in " + project.getName() + " has no value defined for the property: " + property.getName(); //$NON-NLS-1$//$NON-NLS-2$
+					ModulecorePlugin.logError(IStatus.ERROR, message, null);
+				}
+				metaProperties.setProperty(property.getName(), value);
+			}
+
+			List paths = component.getMetadataResources();
+			metaResources = (IPath[]) paths.toArray(new IPath[paths.size()]);
+
+			// Resolvers are given the references of the model itself, since they may
+			// need to find the component and resource that a reference belongs to
+			List<ReferencedComponent> references = new ArrayList<ReferencedComponent>();
+			List referenced = source.getReferencedComponents();
+			for (int i = 0; i < referenced.size(); i++) {
+				ReferencedComponent reference = (ReferencedComponent) referenced.get(i);
+				if (reference != null)
+					references.add(reference);
+			}
+			referencedComponents = Collections.unmodifiableList(references);
+		}
+
+		/**
+		 * Returns the EMF resource that the model was read from, or
+		 * <code>null</code> if the project is not a component.
+		 */
+		public Resource getResource() {
+			return resource;
+		}
+
+		/**
+		 * Returns the cached copy of the component, or <code>null</code> if the
+		 * project is not a component. The copy is shared and must not be changed.
+		 */
+		public WorkbenchComponent getComponent() {
+			return component;
+		}
+
+		/**
+		 * Returns the name of the component, or <code>null</code> if it is not set.
+		 */
+		public String getDeployedName() {
+			return deployedName;
+		}
+
+		/**
+		 * Returns a new copy of the component's properties.
+		 */
+		public Properties getMetaProperties() {
+			Properties properties = new Properties();
+			properties.putAll(metaProperties);
+			return properties;
+		}
+
+		/**
+		 * Returns a new copy of the component's metadata resource paths.
+		 */
+		public IPath[] getMetaResources() {
+			return metaResources.clone();
+		}
+
+		/**
+		 * Returns the component's references, in the order they are defined.
+		 * Unlike {@link #getComponent()}, these are the references of the model
+		 * that was read, so they can be navigated to their component and
+		 * resource. They are shared and must not be changed.
+		 */
+		public List<ReferencedComponent> getReferencedComponents() {
+			return referencedComponents;
+		}
+	}
+}
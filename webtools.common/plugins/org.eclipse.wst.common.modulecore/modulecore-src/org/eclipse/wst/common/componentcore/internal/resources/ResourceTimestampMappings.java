@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2006 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -205,7 +205,7 @@ public class ResourceTimestampMappings {
 	/**
 	 * Provides a signature based on the modificationStamp of a resource.
 	 */
-	public class SimpleResourceTimestamp implements TimestampSignature {
+	public static class SimpleResourceTimestamp implements TimestampSignature {
 		private long timestamp = 0;
 
 		public SimpleResourceTimestamp(IResource resource) {
@@ -225,7 +225,7 @@ public class ResourceTimestampMappings {
 	 * Provides a signature for a project based on the modificationStamp of the (1) project, (2) the
 	 * component manifest, and (3) the facet configuration
 	 */
-	public class ProjectTimestamp implements TimestampSignature {
+	public static class ProjectTimestamp implements TimestampSignature {
 
 		private long projectTimestamp = 0;
 		private long componentManifestTimestamp = 0;
@@ -241,12 +241,13 @@ public class ResourceTimestampMappings {
 				if (projectTimestamp != project.getModificationStamp())
 					return true;
 
+				// A missing file has the null stamp, which is what was recorded if it was missing then too
 				IFile file = project.getFile(COMPONENT_MANIFEST_PATH);
-				if (!file.exists() || componentManifestTimestamp != file.getModificationStamp())
+				if (componentManifestTimestamp != file.getModificationStamp())
 					return true;
 
 				file = project.getFile(FACET_CONFIG_PATH);
-				if (!file.exists() || facetConfigTimestamp != file.getModificationStamp())
+				if (facetConfigTimestamp != file.getModificationStamp())
 					return true;
 
 				return false;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2011 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -24,7 +24,6 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.emf.common.notify.Notification;
@@ -36,7 +35,6 @@ import org.eclipse.wst.common.componentcore.ModuleCoreNature;
 import org.eclipse.wst.common.componentcore.UnresolveableURIException;
 import org.eclipse.wst.common.componentcore.internal.ComponentcoreFactory;
 import org.eclipse.wst.common.componentcore.internal.ComponentcorePackage;
-import org.eclipse.wst.common.componentcore.internal.ModulecorePlugin;
 import org.eclipse.wst.common.componentcore.internal.Property;
 import org.eclipse.wst.common.componentcore.internal.ReferencedComponent;
 import org.eclipse.wst.common.componentcore.internal.StructureEdit;
@@ -92,6 +90,7 @@ public class VirtualComponent implements IVirtualComponent {
 	}
 	
 	protected void resourceChanged(Resource aResource) {
+		ComponentModelCache.invalidate(getProject());
 		clearCache();
 	}
 	
@@ -115,20 +114,7 @@ public class VirtualComponent implements IVirtualComponent {
 	}
 	
 	protected Resource createResource() {
-		StructureEdit core = null;
-		Resource res = null;
-        try {
-            core = StructureEdit.getStructureEditForRead(getProject());
-            if (core == null)
-            	return null;
-            WorkbenchComponent component = core.getComponent();
-            if(component != null)
-            	res = component.eResource();
-        } finally {
-            if(core != null)
-                core.dispose();
-        }
-        return res;
+		return ComponentModelCache.getModel(getProject()).getResource();
 	}
 	
 	public void dispose() {
@@ -164,22 +150,13 @@ public class VirtualComponent implements IVirtualComponent {
 			return deploymentName;
 		}
 			
-		StructureEdit core = null;
 		IProject project = getProject();
-		try {
-			if (project != null && getName() != null) {
-				core = StructureEdit.getStructureEditForRead(project);
-				if(core != null && core.getComponent() != null){
-					WorkbenchComponent component = core.getComponent();
-					if (component.getName()!=null && component.getName().length()>0) {
-						deploymentName = component.getName();
-						return deploymentName;
-					}
-				}
+		if (project != null && getName() != null) {
+			String componentName = ComponentModelCache.getModel(project).getDeployedName();
+			if (componentName != null) {
+				deploymentName = componentName;
+				return deploymentName;
 			}
-		} finally {
-			if(core != null)
-				core.dispose();
 		}
 		deploymentName = getProject().getName();
 		return deploymentName;
@@ -196,35 +173,8 @@ public class VirtualComponent implements IVirtualComponent {
 			return metaProperties;
 		}
 		
-        StructureEdit core = null;
-        Properties props = new Properties();
-        metaProperties = props;
-        try {
-            core = StructureEdit.getStructureEditForRead(getProject());
-            if (core == null)
-            	return props;
-            WorkbenchComponent component = core.getComponent(); 
-            if (component == null) return props;
-            List propList = component.getProperties();
-            if(propList != null) {
-                for (int i = 0; i < propList.size(); i++) {
-                	Property property = (Property)propList.get(i);
-                	String name = property.getName();
-                	String value = property.getValue();
-                	if(value == null){
-                		value = ""; //$NON-NLS-1$
-                		String message = "WARNING:  The component file in "+getProject().getName()+" has no value defined for the property: "+name;  //$NON-NLS-1$//$NON-NLS-2$
-                		ModulecorePlugin.logError(IStatus.ERROR, message, null);
-                	}
-                    props.setProperty(name, value);
-                }
-            }
-            metaProperties =  props; 
-            return props;
-        } finally {
-            if(core != null)
-                core.dispose();
-        }
+		metaProperties = ComponentModelCache.getModel(getProject()).getMetaProperties();
+		return metaProperties;
 	}
 
 	public void setMetaProperties(Properties properties) {
@@ -308,21 +258,7 @@ public class VirtualComponent implements IVirtualComponent {
 		if(cacheMetaResources != null)
 			return cacheMetaResources;
 		
-		StructureEdit moduleCore = null;
-		List metaResources = new ArrayList();
-		try {
-			moduleCore = StructureEdit.getStructureEditForRead(getProject());
-			if (moduleCore != null) {
-				WorkbenchComponent component = moduleCore.getComponent();
-				if (component != null)
-					metaResources.addAll(component.getMetadataResources());
-			}
-		} finally {
-			if (moduleCore != null) {
-				moduleCore.dispose();
-			}
-		}
-		cacheMetaResources = (IPath[]) metaResources.toArray(new IPath[metaResources.size()]);
+		cacheMetaResources = ComponentModelCache.getModel(getProject()).getMetaResources();
 		return cacheMetaResources;
 	}
 
@@ -390,33 +326,15 @@ public class VirtualComponent implements IVirtualComponent {
 		if (rawReferencesArray != null) {
 			return rawReferencesArray;
 		}
-		StructureEdit core = null;
 		List references = new ArrayList();
-		try {
-			core = StructureEdit.getStructureEditForRead(getProject());
-			if (core != null && core.getComponent() != null) {
-				WorkbenchComponent component = core.getComponent();
-				if (component != null) {
-					List referencedComponents = component.getReferencedComponents();
-					for (Iterator iter = referencedComponents.iterator(); iter.hasNext();) {
-						ReferencedComponent referencedComponent = (ReferencedComponent) iter.next();
-						if (referencedComponent == null) {
-							continue;
-						}
-						IVirtualReference vReference = StructureEdit.createVirtualReference(this, referencedComponent);
-						if (vReference != null && vReference.getReferencedComponent() != null) {
-							references.add(vReference);
-						}
-					}
-				}
-			}
-			rawReferencesArray = (IVirtualReference[]) references.toArray(new IVirtualReference[references.size()]);
-			return rawReferencesArray;
-		} finally {
-			if (core != null) {
-				core.dispose();
+		for (ReferencedComponent referencedComponent : ComponentModelCache.getModel(getProject()).getReferencedComponents()) {
+			IVirtualReference vReference = StructureEdit.createVirtualReference(this, referencedComponent);
+			if (vReference != null && vReference.getReferencedComponent() != null) {
+				references.add(vReference);
 			}
 		}
+		rawReferencesArray = (IVirtualReference[]) references.toArray(new IVirtualReference[references.size()]);
+		return rawReferencesArray;
 	}
 	
 
@@ -424,32 +342,16 @@ public class VirtualComponent implements IVirtualComponent {
 		if(referencesArray != null) {
 			return referencesArray;
 		}
-		StructureEdit core = null;
 		List references = new ArrayList();
-		try {
-			core = StructureEdit.getStructureEditForRead(getProject());
-			if (core!=null && core.getComponent()!=null) {
-				WorkbenchComponent component = core.getComponent();
-				if (component!=null) {
-					List referencedComponents = component.getReferencedComponents();
-					for (Iterator iter = referencedComponents.iterator(); iter.hasNext();) {
-						ReferencedComponent referencedComponent = (ReferencedComponent) iter.next();
-						if (referencedComponent==null) 
-							continue;
-						IVirtualReference vReference = StructureEdit.createVirtualReference(this, referencedComponent);
-						if (vReference != null && vReference.getReferencedComponent() != null && vReference.getReferencedComponent().exists()){
-							references.add(vReference); 
-							customizeCreatedReference(vReference, referencedComponent);
-						}
-					}
-				}
+		for (ReferencedComponent referencedComponent : ComponentModelCache.getModel(getProject()).getReferencedComponents()) {
+			IVirtualReference vReference = StructureEdit.createVirtualReference(this, referencedComponent);
+			if (vReference != null && vReference.getReferencedComponent() != null && vReference.getReferencedComponent().exists()){
+				references.add(vReference); 
+				customizeCreatedReference(vReference, referencedComponent);
 			}
-			referencesArray = (IVirtualReference[]) references.toArray(new IVirtualReference[references.size()]);
-			return referencesArray;
-		} finally {
-			if(core != null)
-				core.dispose();
-		}		
+		}
+		referencesArray = (IVirtualReference[]) references.toArray(new IVirtualReference[references.size()]);
+		return referencesArray;
 	}
 	
 	protected void customizeCreatedReference(IVirtualReference reference, Object dependentObject) {
@@ -645,42 +547,26 @@ public class VirtualComponent implements IVirtualComponent {
 		if(shouldCacheReferences() && allReferences != null)
 			return allReferences;
 		
-		StructureEdit core = null;
 		List references = new ArrayList();
-		try {
-			core = StructureEdit.getStructureEditForRead(getProject());
-			if (core!=null && core.getComponent()!=null) {
-				WorkbenchComponent component = core.getComponent();
-				if (component!=null) {
-					List referencedComponents = component.getReferencedComponents();
-					for (Iterator iter = referencedComponents.iterator(); iter.hasNext();) {
-						ReferencedComponent referencedComponent = (ReferencedComponent) iter.next();
-						if (referencedComponent==null) 
-							continue;
-						IVirtualReference vReference = StructureEdit.createVirtualReference(this, referencedComponent);
-						if (vReference != null && vReference.getReferencedComponent() != null){
-							vReference.setArchiveName( referencedComponent.getArchiveName() );
-							references.add(vReference);
-						}
-						else {
-							if (vReference != null && vReference.getReferencedComponent() == null){
-								// If none of the resolvers used by StructureEdit.createVirtualReference could find a reference with 
-								// a non-null referenced component, try to find it ourselves.  
-								vReference = getReferenceForNonResolvableComponent(this, referencedComponent);
-							}
-							if (vReference != null && vReference.getReferencedComponent() != null){
-								references.add(vReference);
-							}
-						}
-					}
+		for (ReferencedComponent referencedComponent : ComponentModelCache.getModel(getProject()).getReferencedComponents()) {
+			IVirtualReference vReference = StructureEdit.createVirtualReference(this, referencedComponent);
+			if (vReference != null && vReference.getReferencedComponent() != null){
+				vReference.setArchiveName( referencedComponent.getArchiveName() );
+				references.add(vReference);
+			}
+			else {
+				if (vReference != null && vReference.getReferencedComponent() == null){
+					// If none of the resolvers used by StructureEdit.createVirtualReference could find a reference with 
+					// a non-null referenced component, try to find it ourselves.  
+					vReference = getReferenceForNonResolvableComponent(this, referencedComponent);
+				}
+				if (vReference != null && vReference.getReferencedComponent() != null){
+					references.add(vReference);
 				}
 			}
-			allReferences = (IVirtualReference[]) references.toArray(new IVirtualReference[references.size()]);
-			return allReferences;
-		} finally {
-			if(core != null)
-				core.dispose();
-		}		
+		}
+		allReferences = (IVirtualReference[]) references.toArray(new IVirtualReference[references.size()]);
+		return allReferences;
 	}
 		
 	
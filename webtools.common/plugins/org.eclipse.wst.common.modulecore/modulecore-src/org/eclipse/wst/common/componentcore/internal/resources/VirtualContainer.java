@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2012 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -72,37 +72,28 @@ public abstract class VirtualContainer extends VirtualResource implements IVirtu
 	}
 
 	public IVirtualResource findMember(IPath aPath, int theSearchFlags) {
-		StructureEdit structureEdit = null;
-		try {
-			structureEdit = StructureEdit.getStructureEditForRead(getProject());
-			if(structureEdit != null){
-				WorkbenchComponent component = structureEdit.getComponent();
-				if (null != component) {
-					ResourceTreeRoot root = ResourceTreeRoot.getDeployResourceTreeRoot(component);
-					ComponentResource[] resources = root.findModuleResources(getRuntimePath().append(aPath), ResourceTreeNode.CREATE_NONE);
+		WorkbenchComponent component = getReadOnlyComponent();
+		if (null != component) {
+			ResourceTreeRoot root = ResourceTreeRoot.getDeployResourceTreeRoot(component);
+			ComponentResource[] resources = root.findModuleResources(getRuntimePath().append(aPath), ResourceTreeNode.CREATE_NONE);
 	
-					for (int i = 0; i < resources.length; i++) {
-					// return the resources corresponding to the root, not any of the children if its a folder
-						if (resources[i].getRuntimePath().equals(getRuntimePath().append(aPath))) {
-							IResource platformResource = getProject().findMember(resources[i].getSourcePath());
-							if (platformResource == null)
-								platformResource = ResourcesPlugin.getWorkspace().getRoot().findMember(resources[i].getSourcePath());
-							if (platformResource != null) {
-								switch (platformResource.getType()) {
-									case IResource.FOLDER :
-									case IResource.PROJECT :
-										return ComponentCore.createFolder(getProject(), getRuntimePath().append(aPath));
-									case IResource.FILE :
-										return new VirtualFile(getProject(), getRuntimePath().append(aPath));
-								}
-							}
+			for (int i = 0; i < resources.length; i++) {
+			// return the resources corresponding to the root, not any of the children if its a folder
+				if (resources[i].getRuntimePath().equals(getRuntimePath().append(aPath))) {
+					IResource platformResource = getProject().findMember(resources[i].getSourcePath());
+					if (platformResource == null)
+						platformResource = ResourcesPlugin.getWorkspace().getRoot().findMember(resources[i].getSourcePath());
+					if (platformResource != null) {
+						switch (platformResource.getType()) {
+							case IResource.FOLDER :
+							case IResource.PROJECT :
+								return ComponentCore.createFolder(getProject(), getRuntimePath().append(aPath));
+							case IResource.FILE :
+								return new VirtualFile(getProject(), getRuntimePath().append(aPath));
 						}
 					}
 				}
 			}
-		} finally {
-			if (structureEdit != null)
-				structureEdit.dispose();
 		}
 		return null;
 	}
@@ -165,10 +156,8 @@ public abstract class VirtualContainer extends VirtualResource implements IVirtu
 			if (localName != null)
 				allNames.add(localName);
 		}
-		StructureEdit moduleCore = null;
 		try {
-			moduleCore = StructureEdit.getStructureEditForRead(getProject());
-			WorkbenchComponent wbComponent = moduleCore.getComponent();
+			WorkbenchComponent wbComponent = getReadOnlyComponent();
 			if (wbComponent != null) {
 				ResourceTreeRoot root = ResourceTreeRoot.getDeployResourceTreeRoot(wbComponent);
 				ComponentResource[] componentResources = root.findModuleResources(getRuntimePath(), ResourceTreeNode.CREATE_NONE);
@@ -224,9 +213,6 @@ public abstract class VirtualContainer extends VirtualResource implements IVirtu
 		} catch (Exception e) {
 			if (virtualResources == null)
 				return new IVirtualResource[0];
-		} finally {
-			if (moduleCore != null)
-				moduleCore.dispose();
 		}
 		return (IVirtualResource[]) virtualResources.toArray(new IVirtualResource[virtualResources.size()]);
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2006 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -46,8 +46,6 @@ public abstract class VirtualResource implements IVirtualResource {
 	private IVirtualComponent component;
 	private String resourceType;
 
-	private final ResourceTimestampMappings mapping = new ResourceTimestampMappings();
-
 
 	protected VirtualResource(IProject aComponentProject, IPath aRuntimePath) {
 		componentProject = aComponentProject;
@@ -330,25 +328,6 @@ public abstract class VirtualResource implements IVirtualResource {
 	}
 
 	protected final WorkbenchComponent getReadOnlyComponent() {
-		if (!mapping.hasChanged(getProject()) && mapping.hasCacheData(getProject()))
-			return (WorkbenchComponent) mapping.getData(getProject());
-
-		StructureEdit moduleCore = null;
-		WorkbenchComponent component = null;
-		try {
-			moduleCore = StructureEdit.getStructureEditForRead(getProject());
-			if (moduleCore != null) {
-				component = moduleCore.getComponent();
-				mapping.mark(getProject(), component);
-			}
-		}
-		finally {
-			if (moduleCore != null) {
-				moduleCore.dispose();
-			}
-		}
-		return component;
-
-
+		return ComponentModelCache.getModel(getProject()).getComponent();
 	}
 }
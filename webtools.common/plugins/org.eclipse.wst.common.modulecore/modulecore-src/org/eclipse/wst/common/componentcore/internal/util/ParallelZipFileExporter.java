@@ -0,0 +1,860 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.common.componentcore.internal.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.common.componentcore.internal.flat.IFlatFile;
+import org.eclipse.wst.common.componentcore.internal.flat.IFlatFolder;
+import org.eclipse.wst.common.componentcore.internal.flat.IFlatResource;
+
+/**
+ * Exports resources to a .zip file, compressing the entries in parallel.
+ *
+ * <p>The contents of workspace and external files are read and compressed by a
+ * pool of worker threads, and the entries are written to the archive in the
+ * order they were added. File contents are streamed, and large entries are
+ * held in temporary files rather than in memory while they wait to be written.
+ * Entries that are already compressed, such as nested archives, are stored
+ * rather than compressed again.
+ *
+ * <p>If a previous version of the archive is given, entries whose name, size,
+ * compression method and checksum have not changed are copied from it without
+ * being compressed again. The contents are still read to compute the checksum,
+ * since neither the size nor the modification time shows every change.
+ *
+ * <p>{@link #finished()} must always be called, even if a write fails, so that
+ * the archive and the worker threads are closed. If a write has failed, the
+ * incomplete archive is deleted and a previous archive that was moved out of
+ * its way is put back.
+ */
+public class ParallelZipFileExporter {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Entries whose data is larger than this are kept in a temporary file while
+	 * they wait to be written.
+	 */
+	private static final int SPILL_THRESHOLD = 1024 * 1024;
+
+	private static final String[] COMPRESSED_EXTENSIONS = { "jar", "war", "ear", "rar", "sar", "zip", "gz", "tgz", "png", "jpg", "jpeg", "gif" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$
+
+	private static final int LOCSIG = 0x04034b50;
+	private static final int CENSIG = 0x02014b50;
+	private static final int ENDSIG = 0x06054b50;
+	private static final int ZIP64_ENDSIG = 0x06064b50;
+	private static final int ZIP64_LOCSIG = 0x07064b50;
+	private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+	private static final int UTF8_FLAG = 0x800;
+
+	private final CountingOutputStream outputStream;
+
+	private final boolean useCompression;
+
+	private int level = Deflater.DEFAULT_COMPRESSION;
+
+	private final ExecutorService executor;
+
+	/** The maximum number of entries that are prepared but not yet written. */
+	private final int window;
+
+	private final LinkedList<Future<PreparedEntry>> pending = new LinkedList<Future<PreparedEntry>>();
+
+	private final List<CentralEntry> central = new ArrayList<CentralEntry>();
+
+	private final Set<String> names = new HashSet<String>();
+
+	private RandomAccessFile previousArchive;
+
+	private Map<String, CentralEntry> previousEntries = Collections.emptyMap();
+
+	/** A previous archive that was moved out of the way, and is deleted when finished. */
+	private File movedArchive;
+
+	private final File archive;
+
+	/** Set when an entry could not be written, so that the archive is not completed. */
+	private boolean failed;
+
+	private boolean finished;
+
+	/**
+	 * Create an instance of this class.
+	 *
+	 * @param filename
+	 *            the archive to create
+	 * @param compress
+	 *            whether the entries should be compressed
+	 * @exception java.io.IOException
+	 */
+	public ParallelZipFileExporter(String filename, boolean compress) throws IOException {
+		this(filename, compress, null);
+	}
+
+	/**
+	 * Create an instance of this class which copies unchanged entries from a
+	 * previous archive.
+	 *
+	 * @param filename
+	 *            the archive to create
+	 * @param compress
+	 *            whether the entries should be compressed
+	 * @param previous
+	 *            a previous version of the archive, or null. It may be the same
+	 *            file as the archive being created, in which case it is moved
+	 *            out of the way and deleted when the export is finished, or put
+	 *            back if the export fails.
+	 * @exception java.io.IOException
+	 */
+	public ParallelZipFileExporter(String filename, boolean compress, File previous) throws IOException {
+		Path directoryPath = new Path(filename);
+		directoryPath = (Path) directoryPath.removeLastSegments(1);
+		File newZipFile = new File(directoryPath.toString());
+		newZipFile.mkdirs();
+		archive = new File(filename);
+		useCompression = compress;
+		if (previous != null && previous.isFile()) {
+			if (previous.getCanonicalFile().equals(archive.getCanonicalFile())) {
+				movedArchive = new File(filename + ".previous"); //$NON-NLS-1$
+				movedArchive.delete();
+				if (!previous.renameTo(movedArchive))
+					throw new IOException("Could not move " + previous); //$NON-NLS-1$
+				previous = movedArchive;
+			}
+			previousArchive = new RandomAccessFile(previous, "r"); //$NON-NLS-1$
+			try {
+				previousEntries = readCentralDirectory(previousArchive);
+			} catch (IOException e) {
+				// The previous archive can't be read, so nothing is copied from it
+				previousEntries = Collections.emptyMap();
+			}
+		}
+		outputStream = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(filename), BUFFER_SIZE));
+		int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+		window = threads * 2;
+		executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "Archive export"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Set the compression level of the entries that are compressed. This
+	 * should be called before any entries are written.
+	 *
+	 * @param level
+	 *            a level from {@link Deflater}
+	 */
+	public void setLevel(int level) {
+		this.level = level;
+	}
+
+	/**
+	 * Write all the entries that are still pending, and close the archive. If
+	 * an earlier write failed, the archive is deleted instead of completed.
+	 * Calling this again does nothing.
+	 *
+	 * @exception java.io.IOException
+	 */
+	public void finished() throws IOException {
+		if (finished)
+			return;
+		finished = true;
+		boolean completed = false;
+		try {
+			if (!failed) {
+				while (!pending.isEmpty())
+					writeNext();
+				writeCentralDirectory();
+				outputStream.close();
+				completed = true;
+			}
+		} catch (CoreException e) {
+			throw new IOException(e);
+		} finally {
+			executor.shutdown();
+			discardPending();
+			if (!completed) {
+				closeQuietly(outputStream);
+				if (previousArchive != null)
+					closeQuietly(previousArchive);
+				archive.delete();
+				if (movedArchive != null)
+					movedArchive.renameTo(archive);
+			} else {
+				if (previousArchive != null)
+					previousArchive.close();
+				if (movedArchive != null)
+					movedArchive.delete();
+			}
+		}
+	}
+
+	/**
+	 * Wait for the entries that are still being prepared, so that their
+	 * temporary files can be deleted. There are never more than the window.
+	 */
+	private void discardPending() {
+		for (Future<PreparedEntry> future : pending) {
+			try {
+				future.get().dispose();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				// The entry could not be prepared, so there is nothing to dispose of
+			}
+		}
+		pending.clear();
+	}
+
+	private static void closeQuietly(Closeable closeable) {
+		try {
+			closeable.close();
+		} catch (IOException e) {
+			// The archive is being deleted
+		}
+	}
+
+	public void writeFolder(String destinationPath) throws IOException, CoreException {
+		if (!destinationPath.endsWith("/")) //$NON-NLS-1$
+			destinationPath = destinationPath + '/';
+		reserve(destinationPath);
+		PreparedEntry entry = new PreparedEntry(destinationPath, ZipEntry.STORED, System.currentTimeMillis());
+		submit(done(entry));
+	}
+
+	/**
+	 * Write the passed resource to the current archive. The contents are read
+	 * and compressed by a worker thread.
+	 *
+	 * @param resource
+	 *            org.eclipse.core.resources.IFile
+	 * @param destinationPath
+	 *            java.lang.String
+	 * @exception java.io.IOException
+	 * @exception org.eclipse.core.runtime.CoreException
+	 */
+	public void write(final IFile resource, String destinationPath) throws IOException, CoreException {
+		File file = resource.getLocation() == null ? null : resource.getLocation().toFile();
+		submitContents(destinationPath, resource.getLocalTimeStamp(), file == null ? -1 : file.length(), new Contents() {
+			public InputStream open() throws CoreException {
+				return resource.getContents(false);
+			}
+		});
+	}
+
+	/**
+	 * Write the passed file to the current archive. The contents are read
+	 * and compressed by a worker thread.
+	 *
+	 * @exception java.io.IOException
+	 * @exception org.eclipse.core.runtime.CoreException
+	 */
+	public void write(final File file, String destinationPath) throws IOException, CoreException {
+		submitContents(destinationPath, file.lastModified(), file.length(), new Contents() {
+			public InputStream open() throws IOException {
+				return new FileInputStream(file);
+			}
+		});
+	}
+
+	/**
+	 * Write the contents of the stream to the current archive. Since the
+	 * stream belongs to the caller, it is read and compressed on the calling
+	 * thread.
+	 *
+	 * @exception java.io.IOException
+	 * @exception org.eclipse.core.runtime.CoreException
+	 */
+	public void write(InputStream contentStream, String destinationPath) throws IOException, CoreException {
+		reserve(destinationPath);
+		PreparedEntry entry;
+		try {
+			entry = prepare(destinationPath, getMethod(destinationPath), System.currentTimeMillis(), contentStream);
+		} catch (IOException e) {
+			failed = true;
+			throw e;
+		}
+		submit(done(entry));
+	}
+
+	/**
+	 * Write the members of a flattened component, and the members of its
+	 * folders, to the current archive.
+	 *
+	 * @param members
+	 *            the members from
+	 *            {@link org.eclipse.wst.common.componentcore.internal.flat.IFlatVirtualComponent#fetchResources()}
+	 * @exception java.io.IOException
+	 * @exception org.eclipse.core.runtime.CoreException
+	 */
+	public void write(IFlatResource[] members) throws IOException, CoreException {
+		for (int i = 0; i < members.length; i++) {
+			IPath path = members[i].getModuleRelativePath().append(members[i].getName()).makeRelative();
+			if (members[i] instanceof IFlatFolder) {
+				writeFolder(path.toString());
+				write(((IFlatFolder) members[i]).members());
+			} else if (members[i] instanceof IFlatFile) {
+				IFile file = (IFile) members[i].getAdapter(IFile.class);
+				File externalFile = (File) members[i].getAdapter(File.class);
+				if (file != null) {
+					write(file, path.toString());
+				} else if (externalFile != null) {
+					write(externalFile, path.toString());
+				} else {
+					InputStream contentStream = (InputStream) members[i].getAdapter(InputStream.class);
+					if (contentStream != null) {
+						try {
+							write(contentStream, path.toString());
+						} finally {
+							contentStream.close();
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private int getMethod(String destinationPath) {
+		if (!useCompression)
+			return ZipEntry.STORED;
+		int dot = destinationPath.lastIndexOf('.');
+		if (dot != -1 && dot > destinationPath.lastIndexOf('/')) {
+			String extension = destinationPath.substring(dot + 1);
+			for (int i = 0; i < COMPRESSED_EXTENSIONS.length; i++) {
+				if (COMPRESSED_EXTENSIONS[i].equalsIgnoreCase(extension))
+					return ZipEntry.STORED;
+			}
+		}
+		return ZipEntry.DEFLATED;
+	}
+
+	/**
+	 * Read and compress the contents on a worker thread, unless the entry is
+	 * unchanged since the previous archive.
+	 *
+	 * @param size
+	 *            the size of the contents, or -1 if it is not known
+	 */
+	private void submitContents(final String destinationPath, final long time, long size, final Contents contents)
+			throws IOException, CoreException {
+		reserve(destinationPath);
+		final int method = getMethod(destinationPath);
+		final CentralEntry previous = size < 0 ? null : findPrevious(destinationPath, method, size);
+		submit(executor.submit(new Callable<PreparedEntry>() {
+			public PreparedEntry call() throws Exception {
+				if (previous != null && checksum(contents) == previous.crc)
+					return copyOf(previous, destinationPath, time);
+				InputStream contentStream = contents.open();
+				try {
+					return prepare(destinationPath, method, time, contentStream);
+				} finally {
+					contentStream.close();
+				}
+			}
+		}));
+	}
+
+	/**
+	 * Returns the entry of the previous archive that may be copied, or null if
+	 * there is none or it has a different size or compression method.
+	 */
+	private CentralEntry findPrevious(String destinationPath, int method, long size) {
+		CentralEntry previous = previousEntries.get(destinationPath);
+		if (previous == null || previous.method != method || previous.size != size)
+			return null;
+		return previous;
+	}
+
+	/**
+	 * Returns an entry that copies the data from the previous archive.
+	 */
+	private static PreparedEntry copyOf(CentralEntry previous, String destinationPath, long time) {
+		PreparedEntry entry = new PreparedEntry(destinationPath, previous.method, time);
+		entry.crc = previous.crc;
+		entry.size = previous.size;
+		entry.compressedSize = previous.compressedSize;
+		entry.previousOffset = previous.offset;
+		return entry;
+	}
+
+	private static long checksum(Contents contents) throws IOException, CoreException {
+		CRC32 checksumCalculator = new CRC32();
+		InputStream contentStream = contents.open();
+		try {
+			byte[] readBuffer = new byte[BUFFER_SIZE];
+			int n;
+			while ((n = contentStream.read(readBuffer)) != -1)
+				checksumCalculator.update(readBuffer, 0, n);
+		} finally {
+			contentStream.close();
+		}
+		return checksumCalculator.getValue();
+	}
+
+	private PreparedEntry prepare(String destinationPath, int method, long time, InputStream contentStream) throws IOException {
+		PreparedEntry entry = new PreparedEntry(destinationPath, method, time);
+		CRC32 checksumCalculator = new CRC32();
+		SpillBuffer buffer = new SpillBuffer();
+		Deflater deflater = method == ZipEntry.DEFLATED ? new Deflater(level, true) : null;
+		try {
+			OutputStream target = deflater == null ? buffer : new DeflaterOutputStream(buffer, deflater, BUFFER_SIZE);
+			byte[] readBuffer = new byte[BUFFER_SIZE];
+			int n;
+			while ((n = contentStream.read(readBuffer)) != -1) {
+				checksumCalculator.update(readBuffer, 0, n);
+				entry.size += n;
+				target.write(readBuffer, 0, n);
+			}
+			if (deflater != null)
+				((DeflaterOutputStream) target).finish();
+			buffer.close();
+		} catch (IOException e) {
+			buffer.dispose();
+			throw e;
+		} finally {
+			if (deflater != null)
+				deflater.end();
+		}
+		entry.crc = checksumCalculator.getValue();
+		entry.compressedSize = buffer.length;
+		entry.data = buffer;
+		return entry;
+	}
+
+	/**
+	 * Reserve the name of an entry before any work is done for it, so that a
+	 * duplicate entry is rejected without leaving anything behind.
+	 */
+	private void reserve(String name) throws ZipException {
+		if (!names.add(name))
+			throw new ZipException("duplicate entry: " + name); //$NON-NLS-1$
+	}
+
+	private void submit(Future<PreparedEntry> future) throws IOException, CoreException {
+		pending.add(future);
+		while (pending.size() > window)
+			writeNext();
+	}
+
+	private static Future<PreparedEntry> done(final PreparedEntry entry) {
+		FutureTask<PreparedEntry> task = new FutureTask<PreparedEntry>(new Callable<PreparedEntry>() {
+			public PreparedEntry call() {
+				return entry;
+			}
+		});
+		task.run();
+		return task;
+	}
+
+	private void writeNext() throws IOException, CoreException {
+		Future<PreparedEntry> future = pending.removeFirst();
+		boolean written = false;
+		try {
+			PreparedEntry entry;
+			try {
+				entry = future.get();
+			} catch (InterruptedException e) {
+				// Keep the entry so that it is disposed of when finished
+				pending.addFirst(future);
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException)
+					throw (IOException) cause;
+				if (cause instanceof CoreException)
+					throw (CoreException) cause;
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw new IOException(cause);
+			}
+			try {
+				writeEntry(entry);
+			} finally {
+				entry.dispose();
+			}
+			written = true;
+		} finally {
+			if (!written)
+				failed = true;
+		}
+	}
+
+	private void writeEntry(PreparedEntry entry) throws IOException {
+		long offset = outputStream.written;
+		boolean zip64 = entry.size >= ZIP64_MAGIC || entry.compressedSize >= ZIP64_MAGIC;
+		outputStream.writeInt(LOCSIG);
+		outputStream.writeShort(zip64 ? 45 : 20);
+		outputStream.writeShort(UTF8_FLAG);
+		outputStream.writeShort(entry.method);
+		outputStream.writeInt(entry.time);
+		outputStream.writeInt(entry.crc);
+		outputStream.writeInt(zip64 ? ZIP64_MAGIC : entry.compressedSize);
+		outputStream.writeInt(zip64 ? ZIP64_MAGIC : entry.size);
+		outputStream.writeShort(entry.nameBytes.length);
+		outputStream.writeShort(zip64 ? 20 : 0);
+		outputStream.write(entry.nameBytes);
+		if (zip64) {
+			outputStream.writeShort(1);
+			outputStream.writeShort(16);
+			outputStream.writeLong(entry.size);
+			outputStream.writeLong(entry.compressedSize);
+		}
+		if (entry.previousOffset >= 0)
+			copyPrevious(entry.previousOffset, entry.compressedSize);
+		else if (entry.data != null)
+			entry.data.writeTo(outputStream);
+		CentralEntry centralEntry = new CentralEntry();
+		centralEntry.nameBytes = entry.nameBytes;
+		centralEntry.method = entry.method;
+		centralEntry.time = entry.time;
+		centralEntry.crc = entry.crc;
+		centralEntry.size = entry.size;
+		centralEntry.compressedSize = entry.compressedSize;
+		centralEntry.offset = offset;
+		central.add(centralEntry);
+	}
+
+	private void copyPrevious(long offset, long length) throws IOException {
+		byte[] header = new byte[30];
+		previousArchive.seek(offset);
+		previousArchive.readFully(header);
+		if (getInt(header, 0) != LOCSIG)
+			throw new ZipException("invalid previous archive"); //$NON-NLS-1$
+		previousArchive.seek(offset + 30 + getShort(header, 26) + getShort(header, 28));
+		byte[] readBuffer = new byte[BUFFER_SIZE];
+		while (length > 0) {
+			int n = previousArchive.read(readBuffer, 0, (int) Math.min(readBuffer.length, length));
+			if (n == -1)
+				throw new ZipException("truncated previous archive"); //$NON-NLS-1$
+			outputStream.write(readBuffer, 0, n);
+			length -= n;
+		}
+	}
+
+	private void writeCentralDirectory() throws IOException {
+		long centralOffset = outputStream.written;
+		for (CentralEntry entry : central) {
+			boolean zip64Size = entry.size >= ZIP64_MAGIC || entry.compressedSize >= ZIP64_MAGIC;
+			boolean zip64Offset = entry.offset >= ZIP64_MAGIC;
+			int extra = (zip64Size ? 16 : 0) + (zip64Offset ? 8 : 0);
+			int version = extra > 0 ? 45 : 20;
+			outputStream.writeInt(CENSIG);
+			outputStream.writeShort(version);
+			outputStream.writeShort(version);
+			outputStream.writeShort(UTF8_FLAG);
+			outputStream.writeShort(entry.method);
+			outputStream.writeInt(entry.time);
+			outputStream.writeInt(entry.crc);
+			outputStream.writeInt(zip64Size ? ZIP64_MAGIC : entry.compressedSize);
+			outputStream.writeInt(zip64Size ? ZIP64_MAGIC : entry.size);
+			outputStream.writeShort(entry.nameBytes.length);
+			outputStream.writeShort(extra > 0 ? extra + 4 : 0);
+			outputStream.writeShort(0); // comment length
+			outputStream.writeShort(0); // disk number
+			outputStream.writeShort(0); // internal attributes
+			outputStream.writeInt(0); // external attributes
+			outputStream.writeInt(zip64Offset ? ZIP64_MAGIC : entry.offset);
+			outputStream.write(entry.nameBytes);
+			if (extra > 0) {
+				outputStream.writeShort(1);
+				outputStream.writeShort(extra);
+				if (zip64Size) {
+					outputStream.writeLong(entry.size);
+					outputStream.writeLong(entry.compressedSize);
+				}
+				if (zip64Offset)
+					outputStream.writeLong(entry.offset);
+			}
+		}
+		long centralSize = outputStream.written - centralOffset;
+		int count = central.size();
+		if (count >= 0xFFFF || centralOffset >= ZIP64_MAGIC || centralSize >= ZIP64_MAGIC) {
+			long zip64Offset = outputStream.written;
+			outputStream.writeInt(ZIP64_ENDSIG);
+			outputStream.writeLong(44);
+			outputStream.writeShort(45);
+			outputStream.writeShort(45);
+			outputStream.writeInt(0);
+			outputStream.writeInt(0);
+			outputStream.writeLong(count);
+			outputStream.writeLong(count);
+			outputStream.writeLong(centralSize);
+			outputStream.writeLong(centralOffset);
+			outputStream.writeInt(ZIP64_LOCSIG);
+			outputStream.writeInt(0);
+			outputStream.writeLong(zip64Offset);
+			outputStream.writeInt(1);
+		}
+		outputStream.writeInt(ENDSIG);
+		outputStream.writeShort(0);
+		outputStream.writeShort(0);
+		outputStream.writeShort(Math.min(count, 0xFFFF));
+		outputStream.writeShort(Math.min(count, 0xFFFF));
+		outputStream.writeInt(Math.min(centralSize, ZIP64_MAGIC));
+		outputStream.writeInt(Math.min(centralOffset, ZIP64_MAGIC));
+		outputStream.writeShort(0);
+	}
+
+	/**
+	 * Read the central directory of a previous archive. Archives that need the
+	 * zip64 extensions are not read, and nothing is copied from them.
+	 */
+	private static Map<String, CentralEntry> readCentralDirectory(RandomAccessFile file) throws IOException {
+		long length = file.length();
+		int tail = (int) Math.min(length, 0xFFFF + 22);
+		byte[] buffer = new byte[tail];
+		file.seek(length - tail);
+		file.readFully(buffer);
+		for (int i = tail - 22; i >= 0; i--) {
+			if (getInt(buffer, i) != ENDSIG)
+				continue;
+			int count = getShort(buffer, i + 10);
+			long centralSize = getInt(buffer, i + 12);
+			long centralOffset = getInt(buffer, i + 16);
+			if (count == 0xFFFF || centralSize == ZIP64_MAGIC || centralOffset == ZIP64_MAGIC || centralOffset + centralSize > length)
+				return Collections.emptyMap();
+			byte[] directory = new byte[(int) centralSize];
+			file.seek(centralOffset);
+			file.readFully(directory);
+			Map<String, CentralEntry> entries = new HashMap<String, CentralEntry>(count * 4 / 3 + 1);
+			int p = 0;
+			while (p + 46 <= directory.length && getInt(directory, p) == CENSIG) {
+				int flag = getShort(directory, p + 8);
+				int nameLength = getShort(directory, p + 28);
+				CentralEntry entry = new CentralEntry();
+				entry.method = getShort(directory, p + 10);
+				entry.time = getInt(directory, p + 12);
+				entry.crc = getInt(directory, p + 16);
+				entry.compressedSize = getInt(directory, p + 20);
+				entry.size = getInt(directory, p + 24);
+				entry.offset = getInt(directory, p + 42);
+				String name = new String(directory, p + 46, nameLength, (flag & UTF8_FLAG) != 0 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+				// Encrypted entries and entries that need zip64 are not copied
+				if ((flag & 1) == 0 && entry.size != ZIP64_MAGIC && entry.compressedSize != ZIP64_MAGIC && entry.offset != ZIP64_MAGIC)
+					entries.put(name, entry);
+				p += 46 + nameLength + getShort(directory, p + 30) + getShort(directory, p + 32);
+			}
+			return entries;
+		}
+		return Collections.emptyMap();
+	}
+
+	private static int getShort(byte[] b, int i) {
+		return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8;
+	}
+
+	private static long getInt(byte[] b, int i) {
+		return (getShort(b, i) | (long) getShort(b, i + 2) << 16) & ZIP64_MAGIC;
+	}
+
+	/**
+	 * Converts a Java time to an MS-DOS date and time, as used in the archive.
+	 */
+	private static long dosTime(long time) {
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTimeInMillis(time);
+		int year = calendar.get(Calendar.YEAR);
+		if (year < 1980)
+			return (1 << 21) | (1 << 16);
+		return (long) (year - 1980) << 25 | (calendar.get(Calendar.MONTH) + 1) << 21
+				| calendar.get(Calendar.DAY_OF_MONTH) << 16 | calendar.get(Calendar.HOUR_OF_DAY) << 11
+				| calendar.get(Calendar.MINUTE) << 5 | calendar.get(Calendar.SECOND) >> 1;
+	}
+
+	/**
+	 * The contents of a file, which may be opened more than once.
+	 */
+	private interface Contents {
+		InputStream open() throws IOException, CoreException;
+	}
+
+	private static class PreparedEntry {
+		final String name;
+		final byte[] nameBytes;
+		final int method;
+		final long time;
+		long crc;
+		long size;
+		long compressedSize;
+		SpillBuffer data;
+		long previousOffset = -1;
+
+		PreparedEntry(String name, int method, long javaTime) {
+			this.name = name;
+			this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+			this.method = method;
+			this.time = dosTime(javaTime);
+		}
+
+		void dispose() {
+			if (data != null)
+				data.dispose();
+		}
+	}
+
+	private static class CentralEntry {
+		byte[] nameBytes;
+		int method;
+		long time;
+		long crc;
+		long size;
+		long compressedSize;
+		long offset;
+	}
+
+	/**
+	 * Holds the data of an entry in memory, or in a temporary file once the data
+	 * is larger than {@link ParallelZipFileExporter#SPILL_THRESHOLD}.
+	 */
+	private static class SpillBuffer extends OutputStream {
+		private byte[] bytes = new byte[1024];
+		private File file;
+		private OutputStream fileStream;
+		long length;
+
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (fileStream == null && length + len > SPILL_THRESHOLD) {
+				file = File.createTempFile("export", ".tmp"); //$NON-NLS-1$ //$NON-NLS-2$
+				fileStream = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+				fileStream.write(bytes, 0, (int) length);
+				bytes = null;
+			}
+			if (fileStream != null) {
+				fileStream.write(b, off, len);
+			} else {
+				if (length + len > bytes.length) {
+					byte[] grown = new byte[(int) Math.min(SPILL_THRESHOLD, Math.max(bytes.length * 2, length + len))];
+					System.arraycopy(bytes, 0, grown, 0, (int) length);
+					bytes = grown;
+				}
+				System.arraycopy(b, off, bytes, (int) length, len);
+			}
+			length += len;
+		}
+
+		public void close() throws IOException {
+			if (fileStream != null)
+				fileStream.close();
+		}
+
+		void writeTo(OutputStream out) throws IOException {
+			if (file == null) {
+				out.write(bytes, 0, (int) length);
+				return;
+			}
+			InputStream in = new FileInputStream(file);
+			try {
+				byte[] readBuffer = new byte[BUFFER_SIZE];
+				int n;
+				while ((n = in.read(readBuffer)) != -1)
+					out.write(readBuffer, 0, n);
+			} finally {
+				in.close();
+			}
+		}
+
+		void dispose() {
+			bytes = null;
+			if (file != null) {
+				try {
+					close();
+				} catch (IOException e) {
+					// The file is deleted anyway
+				}
+				file.delete();
+			}
+		}
+	}
+
+	/**
+	 * Writes little endian values and counts the bytes that have been written.
+	 */
+	private static class CountingOutputStream extends FilterOutputStream {
+		long written;
+
+		CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		public void write(int b) throws IOException {
+			out.write(b);
+			written++;
+		}
+
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			written += len;
+		}
+
+		void writeShort(int v) throws IOException {
+			write(v & 0xFF);
+			write((v >>> 8) & 0xFF);
+		}
+
+		void writeInt(long v) throws IOException {
+			writeShort((int) (v & 0xFFFF));
+			writeShort((int) ((v >>> 16) & 0xFFFF));
+		}
+
+		void writeLong(long v) throws IOException {
+			writeInt(v & ZIP64_MAGIC);
+			writeInt(v >>> 32);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2017 IBM Corporation and others.
+ * Copyright (c) 2001, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,11 +18,16 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
-import java.util.Enumeration;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
@@ -37,7 +42,6 @@ import javax.xml.transform.stream.StreamResult;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Platform;
-import org.eclipse.wst.common.uriresolver.URIHelper;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -46,6 +50,16 @@ import org.w3c.dom.NodeList;
 /**
  * The cache holds references to remote resources. The cache can store resources,
  * retrieve resources, and delete resources.
+ * 
+ * Reading an entry that is already in the cache never waits for other threads. The
+ * map of entries is never changed in place, instead a changed copy replaces it.
+ * Downloads are run by a small pool of background threads. If several threads ask for
+ * the same resource while it is being downloaded, they all wait for the one download.
+ * A caller never waits longer than the connect and read timeouts allow.
+ * 
+ * An entry that has expired is still returned right away. It is revalidated in the
+ * background by the CacheJob, using a conditional request so that the resource is
+ * only downloaded again if it has changed.
  *
  */
 public class Cache 
@@ -59,11 +73,17 @@ public class Cache
   private static final String CACHE = "cache"; //$NON-NLS-1$
   private static final String LAST_MODIFIED = "lastModified"; //$NON-NLS-1$
   private static final String EXPIRATION_TIME = "expirationTime"; //$NON-NLS-1$
+  private static final String ETAG = "etag"; //$NON-NLS-1$
   private static final String FILE_PROTOCOL = "file:///"; //$NON-NLS-1$
   private static final String CACHE_FILE = "cache.xml"; //$NON-NLS-1$
   private static final String CACHE_EXTENSION = ".cache"; //$NON-NLS-1$
   private static final String CACHE_PREFIX = "wtpcache"; //$NON-NLS-1$
   private static final String CACHE_SUFFIX = null;
+  
+  /**
+   * The most downloads that are run at the same time.
+   */
+  private static final int MAX_DOWNLOADS = 4;
 
 	
   /**
@@ -72,9 +92,25 @@ public class Cache
   private static Cache cacheInstance = null;
   
   /**
-   * The cache is stored in a hashtable.
+   * The cache is stored in a map. The map is never modified, it is replaced
+   * with a modified copy while holding the cacheLock.
+   */
+  private volatile Map cache;
+  
+  /**
+   * The lock used when replacing the cache map.
    */
-  private Hashtable cache;
+  private final Object cacheLock = new Object();
+  
+  /**
+   * The downloads that are in progress, keyed by URI.
+   */
+  private final Map downloads = new HashMap();
+  
+  /**
+   * The threads that run the downloads.
+   */
+  private final Fetcher fetcher = new Fetcher(MAX_DOWNLOADS);
   
   /**
    * A set of uncached resources. The cache was not able to cache resources
@@ -83,6 +119,12 @@ public class Cache
    */
   private Set uncached;
   
+  /**
+   * A set of cached resources that have expired, and are waiting to be
+   * revalidated by the cache job.
+   */
+  private Set stale;
+  
   /**
    * The location of the cache
    */
@@ -94,8 +136,9 @@ public class Cache
   protected Cache(IPath cacheLocation)
   {
 	  this.cacheLocation = cacheLocation.toFile();//Platform.getPluginStateLocation(CachePlugin.getDefault()).toFile();
-    cache = new Hashtable();
-    uncached = new HashSet();
+    cache = new HashMap();
+    uncached = Collections.synchronizedSet(new HashSet());
+    stale = new HashSet();
   }
   
   /**
@@ -133,13 +176,13 @@ public class Cache
       
         if(!uncached.contains(uri))
 	    {
-          result = cacheResource(uri); 
+          result = download(uri, null); 
         }
 	  }
-	  // Retreive a fresh copy of the result if it has timed out.
+	  // Return the local copy right away, and refresh it in the background if it has timed out.
 	  else if(result.hasExpired())
 	  {
-		result = refreshCacheEntry(result);
+		addStaleURI(uri);
 	  }
 	  if(result == null || result.getLocalFile() == null)
 	  {
@@ -148,6 +191,69 @@ public class Cache
 	  return FILE_PROTOCOL + cacheLocation.toString() + IPath.SEPARATOR + result.getLocalFile();
   }
 
+  /**
+   * Download or refresh a resource on one of the fetcher threads, and wait for it to finish.
+   * If the resource is already being downloaded, wait for that download instead of starting
+   * another one.
+   * 
+   * @param uri The remote URI to cache.
+   * @param cacheEntry The existing cache entry that needs to be refreshed, or null if the 
+   *        resource hasn't been cached yet.
+   * @return The cache entry, or null if the resource could not be cached. If the download 
+   *         doesn't finish in time the existing cache entry is returned.
+   */
+  private CacheEntry download(String uri, CacheEntry cacheEntry)
+  {
+	Download download = null;
+	boolean started = false;
+	synchronized(downloads)
+	{
+	  download = (Download)downloads.get(uri);
+	  if(download == null)
+	  {
+		download = new Download(uri, cacheEntry);
+		downloads.put(uri, download);
+		started = true;
+	  }
+	}
+	if(started)
+	{
+	  fetcher.execute(download);
+	}
+	if(!download.await(getConnectTimeout() + getReadTimeout()))
+	{
+	  return cacheEntry;
+	}
+	return download.getResult();
+  }
+  
+  /**
+   * Revalidate the resource, if it is still in the cache and has expired.
+   * 
+   * @param uri The remote URI of the resource.
+   * @return The cache entry, or null if the resource is no longer in the cache.
+   */
+  protected CacheEntry refresh(String uri)
+  {
+	CacheEntry cacheEntry = getEntry(uri);
+	if(cacheEntry != null && cacheEntry.hasExpired())
+	{
+	  cacheEntry = download(uri, cacheEntry);
+	}
+	return cacheEntry;
+  }
+  
+  /**
+   * Get the cache entry for the URI.
+   * 
+   * @param uri The remote URI of the resource.
+   * @return The cache entry, or null if the resource isn't in the cache.
+   */
+  CacheEntry getEntry(String uri)
+  {
+	return (CacheEntry)cache.get(uri);
+  }
+  
   /**
    * Return the preferred timeout in milliseconds
    * @return
@@ -157,6 +263,135 @@ public class Cache
     return CachePlugin.getDefault().getCacheTimeout() * 60000;
   }
 
+  /**
+   * Return the connect timeout in milliseconds.
+   */
+  private static int getConnectTimeout()
+  {
+	CachePlugin plugin = CachePlugin.getDefault();
+	return plugin == null ? CachePlugin.DEFAULT_CONNECT_TIMEOUT : plugin.getConnectTimeout();
+  }
+
+  /**
+   * Return the read timeout in milliseconds.
+   */
+  private static int getReadTimeout()
+  {
+	CachePlugin plugin = CachePlugin.getDefault();
+	return plugin == null ? CachePlugin.DEFAULT_READ_TIMEOUT : plugin.getReadTimeout();
+  }
+  
+  /**
+   * Open a connection to the URI, following any redirects. The connect and read
+   * timeouts are set on every connection.
+   * 
+   * @param uri The remote URI.
+   * @return The connection, which has already been connected.
+   */
+  private static URLConnection openConnection(String uri) throws IOException
+  {
+	return openConnection(uri, null);
+  }
+  
+  /**
+   * Open a connection to the URI, following any redirects.
+   * 
+   * @param uri The remote URI.
+   * @param cacheEntry If not null, the request is made conditional on the resource
+   *        having changed since this entry was cached.
+   * @return The connection, which has already been connected.
+   */
+  private static URLConnection openConnection(String uri, CacheEntry cacheEntry) throws IOException
+  {
+	URLConnection conn = openConnection(new URL(uri), cacheEntry);
+	/* XXX: This should really be implemented using HttpClient or similar */
+	int allowedRedirects = 5;
+	while(conn.getHeaderField("Location") != null && allowedRedirects > 0) //$NON-NLS-1$
+	{
+	  allowedRedirects--;
+	  conn = openConnection(new URL(conn.getHeaderField("Location")), cacheEntry); //$NON-NLS-1$
+	}
+	return conn;
+  }
+  
+  private static URLConnection openConnection(URL url, CacheEntry cacheEntry) throws IOException
+  {
+	URLConnection conn = url.openConnection();
+	setTimeout(conn, "setConnectTimeout", getConnectTimeout()); //$NON-NLS-1$
+	setTimeout(conn, "setReadTimeout", getReadTimeout()); //$NON-NLS-1$
+	if(cacheEntry != null)
+	{
+	  if(cacheEntry.getLastModified() > 0)
+	  {
+		conn.setIfModifiedSince(cacheEntry.getLastModified());
+	  }
+	  if(cacheEntry.getETag() != null)
+	  {
+		conn.setRequestProperty("If-None-Match", cacheEntry.getETag()); //$NON-NLS-1$
+	  }
+	}
+	conn.connect();
+	return conn;
+  }
+  
+  /**
+   * Answer the expiration time that the server gave the resource, or the
+   * preferred expiration time if the server didn't give one.
+   */
+  private static long getExpiration(URLConnection conn)
+  {
+	long expiration = conn.getExpiration();
+	if(expiration == 0)
+	{
+	  expiration = System.currentTimeMillis() + getTimeout();
+	}
+	return expiration;
+  }
+  
+  /**
+   * The timeouts were added to URLConnection in Java 5. This plug-in still runs on
+   * Java 1.4, so the timeouts are set reflectively when they are available.
+   */
+  private static void setTimeout(URLConnection conn, String name, int timeout)
+  {
+	try
+	{
+	  Method method = URLConnection.class.getMethod(name, new Class[]{Integer.TYPE});
+	  method.invoke(conn, new Object[]{new Integer(timeout)});
+	}
+	catch(Exception e)
+	{
+	  // Running on Java 1.4, the caller will still stop waiting after the timeout.
+	}
+  }
+  
+  /**
+   * Add a new entry to the cache.
+   */
+  private void putEntry(CacheEntry cacheEntry)
+  {
+	synchronized(cacheLock)
+	{
+	  Map map = new HashMap(cache);
+	  map.put(cacheEntry.getURI(), cacheEntry);
+	  cache = map;
+	}
+  }
+  
+  /**
+   * Remove an entry from the cache.
+   */
+  private void removeEntry(String uri)
+  {
+	synchronized(cacheLock)
+	{
+	  if(!cache.containsKey(uri))return;
+	  Map map = new HashMap(cache);
+	  map.remove(uri);
+	  cache = map;
+	}
+  }
+  
   /**
    * Get the list of uncached resources.
    * 
@@ -175,14 +410,53 @@ public class Cache
     uncached.clear();
   }
   
+  /**
+   * Add an expired resource to the list of resources to revalidate, and start the 
+   * cache job if not already started.
+   */
+  protected void addStaleURI(String uri)
+  {
+	synchronized(stale)
+	{
+	  if(!stale.add(uri))return;
+	}
+	CacheJob.startJob();
+  }
+  
+  /**
+   * Get and clear the list of expired resources that need to be revalidated.
+   * 
+   * @return The list of expired resources.
+   */
+  protected String[] takeStaleURIs()
+  {
+	synchronized(stale)
+	{
+	  String[] uris = (String[])stale.toArray(new String[stale.size()]);
+	  stale.clear();
+	  return uris;
+	}
+  }
+  
+  /**
+   * Answer true if there are expired resources waiting to be revalidated.
+   */
+  protected boolean hasStaleURIs()
+  {
+	synchronized(stale)
+	{
+	  return !stale.isEmpty();
+	}
+  }
+  
   /**
    * Add an uncached resource to the list and start the 
    * uncached job if not already started.
    */
   protected void addUncachedURI(String uri)
   {
-	CacheJob.startJob();
     uncached.add(uri);
+	CacheJob.startJob();
   }
   
   /**
@@ -201,25 +475,20 @@ public class Cache
 	  OutputStream os = null;
 	  try
 	  {
-		  String actualUri = uri;
-		  URL url = new URL(actualUri);
-		  URLConnection conn = url.openConnection();
-		  /* XXX: This should really be implemented using HttpClient or similar */
-		  int allowedRedirects = 5;
-		  while(conn.getHeaderField("Location") != null && allowedRedirects > 0) //$NON-NLS-1$
-		  {
-			  allowedRedirects--;
-			  url = new URL(actualUri = conn.getHeaderField("Location")); //$NON-NLS-1$
-			  conn = url.openConnection();
-		  }
+		  URLConnection conn = openConnection(uri);
 		  // Determine if this resource can be cached.
 		  if(CachePlugin.getDefault().isIgnoreNoCacheHeader() || conn.getUseCaches())
           {
-			is = URIHelper.getInputStream(actualUri, 0);
-	    	if (is == null) {
+			try
+			{
+			  is = conn.getInputStream();
+			}
+			catch(IOException e)
+			{
+			  // The resource doesn't exist, there is no point in trying again later.
 	    	  uncached.add(uri);
 	    	  return cacheEntry;
-	    	}
+			}
 		    Random rand = new Random();
 			String fileName = Math.abs(rand.nextInt()) + CACHE_EXTENSION;
 		    File file = new File(cacheLocation, fileName);
@@ -237,13 +506,11 @@ public class Cache
 			  os.write(bytes, 0, bytelength);
 		    }
 			long lastModified = conn.getLastModified();
-		    long expiration = conn.getExpiration();
-			if(expiration == 0)
-			{
-			  expiration = System.currentTimeMillis() + getTimeout();
-			}
-		    cacheEntry = new CacheEntry(uri, fileName, lastModified, expiration);
-		    cache.put(uri,cacheEntry);
+		    long expiration = getExpiration(conn);
+		    os.close();
+		    os = null;
+		    cacheEntry = new CacheEntry(uri, fileName, lastModified, expiration, conn.getHeaderField("ETag")); //$NON-NLS-1$
+		    putEntry(cacheEntry);
 		  }
 
 	  }
@@ -282,10 +549,12 @@ public class Cache
   }
   
   /**
-   * Refresh the cache entry if necessary. The cache entry will be refreshed
-   * if the remote resource is accessible and the last modified time of the
-   * remote resource is greater than the last modified time of the cached
-   * resource.
+   * Refresh the cache entry if necessary. The request is made conditional on the
+   * last modified time and entity tag of the cached resource, so that the server
+   * can answer with 304 (Not Modified) instead of sending the resource again. The
+   * cache entry will be refreshed if the remote resource is accessible and has
+   * changed, that is it has a different entity tag or its last modified time is
+   * greater than the last modified time of the cached resource.
    * 
    * @param cacheEntry The cache entry to refresh.
    * @return The refreshed cache entry.
@@ -295,27 +564,26 @@ public class Cache
 	  URLConnection conn = null;
 	  InputStream is = null;
 	  OutputStream os = null;
+	  File tempFile = null;
 	  try
 	  {
-		  URL url = new URL(cacheEntry.getURI());
-		  conn = url.openConnection();
-		  conn.connect();
+		  conn = openConnection(cacheEntry.getURI(), cacheEntry);
 		  
+		  boolean notModified = conn instanceof HttpURLConnection && 
+		  	((HttpURLConnection)conn).getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED;
 		  long lastModified = conn.getLastModified();
-	      if(lastModified > cacheEntry.getLastModified())
+		  String etag = conn.getHeaderField("ETag"); //$NON-NLS-1$
+		  boolean changed = etag != null ? !etag.equals(cacheEntry.getETag()) : lastModified > cacheEntry.getLastModified();
+	      if(!notModified && changed)
 		  {
-			long expiration = conn.getExpiration();
-		    if(expiration == 0)
-			{
-			  expiration = System.currentTimeMillis() + getTimeout();
-			}
+			long expiration = getExpiration(conn);
 			
 		    is = conn.getInputStream();
 			
 			String localFile = cacheEntry.getLocalFile();
   
-		    File tempFile = File.createTempFile(CACHE_PREFIX, CACHE_SUFFIX);
-			tempFile.deleteOnExit();
+			// Download next to the cached file, so that it can be replaced with a rename.
+		    tempFile = File.createTempFile(CACHE_PREFIX, CACHE_SUFFIX, cacheLocation);
 
 		    os = new FileOutputStream(tempFile);
 		    byte[] bytes = new byte[1024];
@@ -326,21 +594,21 @@ public class Cache
 		    }
 			is.close();
 			os.close();
-			deleteFile(cacheEntry.getURI());
 			File f = new File(cacheLocation, localFile);
-			tempFile.renameTo(f);
-			cacheEntry.setExpiration(expiration);
-			cacheEntry.setLastModified(lastModified);
+			// If the new copy can't be put in place the old copy and its metadata are kept,
+			// and the temporary file is deleted below.
+			if(replace(tempFile, f))
+			{
+			  tempFile = null;
+			  cacheEntry.setExpiration(expiration);
+			  cacheEntry.setLastModified(lastModified);
+			  cacheEntry.setETag(etag);
+			}
 		  }
 		  // The cache entry hasn't changed. Just update the expiration time.
 	      else
 		  {
-			long expiration = conn.getExpiration();
-			if(expiration == 0)
-			{
-			  expiration = System.currentTimeMillis() + getTimeout();
-			}
-			cacheEntry.setExpiration(expiration);
+			cacheEntry.setExpiration(getExpiration(conn));
 		  }
 
 	  }
@@ -372,10 +640,48 @@ public class Cache
 				// Do nothing if the stream cannot be closed. 
 			  }
 		  }
+		  if(tempFile != null)
+		  {
+			  tempFile.delete();
+		  }
+		  if(conn instanceof HttpURLConnection)
+		  {
+			  ((HttpURLConnection)conn).disconnect();
+		  }
 	  }
 	  return cacheEntry;
   }
   
+  /**
+   * Replace a file with a new file. Where a rename can't replace an existing file,
+   * the existing file is moved out of the way first, and is put back if the new
+   * file can't be renamed.
+   * 
+   * @param newFile The new file.
+   * @param file The file to replace.
+   * @return True if the file was replaced, false if the file is unchanged.
+   */
+  private static boolean replace(File newFile, File file)
+  {
+	if(newFile.renameTo(file))
+	{
+	  return true;
+	}
+	File old = new File(file.getPath() + ".old"); //$NON-NLS-1$
+	old.delete();
+	if(!file.renameTo(old))
+	{
+	  return false;
+	}
+	if(newFile.renameTo(file))
+	{
+	  old.delete();
+	  return true;
+	}
+	old.renameTo(file);
+	return false;
+  }
+  
   /**
    * Get an array of the cached URIs.
    * 
@@ -400,11 +706,12 @@ public class Cache
 		Element rootelem = cachedoc.createElement(CACHE);
 		cachedoc.appendChild(rootelem);
 		
-	  Enumeration uris = cache.keys();
-	  while(uris.hasMoreElements())
+	  Map entries = cache;
+	  Iterator uris = entries.keySet().iterator();
+	  while(uris.hasNext())
 	  {
-		  String key = (String)uris.nextElement();
-		  CacheEntry cacheEntry = (CacheEntry)cache.get(key);
+		  String key = (String)uris.next();
+		  CacheEntry cacheEntry = (CacheEntry)entries.get(key);
 		  if(cacheEntry != null)
 		  {
 			  Element entry = cachedoc.createElement(ENTRY);
@@ -412,6 +719,10 @@ public class Cache
 			  entry.setAttribute(LOCATION, cacheEntry.getLocalFile());
 			  entry.setAttribute(EXPIRATION_TIME, String.valueOf(cacheEntry.getExpirationTime()));
 			  entry.setAttribute(LAST_MODIFIED, String.valueOf(cacheEntry.getLastModified()));
+			  if(cacheEntry.getETag() != null)
+			  {
+				entry.setAttribute(ETAG, cacheEntry.getETag());
+			  }
 			  rootelem.appendChild(entry);
 		  }
 	  }
@@ -429,6 +740,7 @@ public class Cache
 	  {
 		  System.err.println("Unable to store internet cache."); //$NON-NLS-1$
 	  }
+	  fetcher.shutdown();
 	  cacheInstance = null;
   }
   
@@ -438,7 +750,8 @@ public class Cache
    */
   protected static void open(IPath cacheLocation)
   {
-    cacheInstance = new Cache(cacheLocation);
+    Cache instance = new Cache(cacheLocation);
+    cacheInstance = instance;
 	  DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
       try {
 		  
@@ -460,6 +773,7 @@ public class Cache
 					String location = e.getAttribute(LOCATION);
 					String lm = e.getAttribute(LAST_MODIFIED);
 					String et = e.getAttribute(EXPIRATION_TIME);
+					String etag = e.getAttribute(ETAG);
 					long lastModified = -1;
 					long expirationTime = -1;
 					try
@@ -478,7 +792,7 @@ public class Cache
 					}
 					if(uri != null && location != null)
 					{
-					  cacheInstance.cache.put(uri, new CacheEntry(uri, location, lastModified, expirationTime));
+					  instance.putEntry(new CacheEntry(uri, location, lastModified, expirationTime, etag.length() == 0 ? null : etag));
 					}
 				}
 			}
@@ -499,14 +813,17 @@ public class Cache
    */
   public void clear()
   {
-	Enumeration keys = cache.keys();
-	while(keys.hasMoreElements())
+	synchronized(cacheLock)
 	{
-	  String key = (String)keys.nextElement();
+	  Iterator keys = cache.keySet().iterator();
+	  while(keys.hasNext())
+	  {
+		String key = (String)keys.next();
 	  
-	  deleteFile(key);
+		deleteFile(key);
+	  }
+	  cache = new HashMap();
 	}
-	cache.clear();
   }
   
   /**
@@ -517,8 +834,11 @@ public class Cache
   {
 	  if(uri == null) return;
 	  
-	  deleteFile(uri);
-	  cache.remove(uri);
+	  synchronized(cacheLock)
+	  {
+		deleteFile(uri);
+		removeEntry(uri);
+	  }
   }
   
   /**
@@ -539,4 +859,179 @@ public class Cache
 	    } 
 	  }
   }
-}
\ No newline at end of file
+  
+  /**
+   * A download of a resource, that any number of threads can wait for.
+   */
+  private final class Download implements Runnable
+  {
+	private final String uri;
+	private final CacheEntry cacheEntry;
+	private CacheEntry result;
+	private boolean done;
+	
+	/**
+	 * @param uri The remote URI to cache.
+	 * @param cacheEntry The existing entry that is being refreshed, or null.
+	 */
+	public Download(String uri, CacheEntry cacheEntry)
+	{
+	  this.uri = uri;
+	  this.cacheEntry = cacheEntry;
+	}
+	
+	public void run()
+	{
+	  CacheEntry entry = null;
+	  try
+	  {
+		entry = cacheEntry == null ? cacheResource(uri) : refreshCacheEntry(cacheEntry);
+	  }
+	  finally
+	  {
+		synchronized(downloads)
+		{
+		  downloads.remove(uri);
+		}
+		finish(entry);
+	  }
+	}
+	
+	private synchronized void finish(CacheEntry entry)
+	{
+	  result = entry;
+	  done = true;
+	  notifyAll();
+	}
+	
+	/**
+	 * Wait for the download to finish.
+	 * 
+	 * @param timeout The most number of milliseconds to wait.
+	 * @return true if the download has finished.
+	 */
+	public synchronized boolean await(long timeout)
+	{
+	  long end = System.currentTimeMillis() + timeout;
+	  while(!done)
+	  {
+		long remaining = end - System.currentTimeMillis();
+		if(remaining <= 0)
+		{
+		  return false;
+		}
+		try
+		{
+		  wait(remaining);
+		}
+		catch(InterruptedException e)
+		{
+		  Thread.currentThread().interrupt();
+		  return false;
+		}
+	  }
+	  return true;
+	}
+	
+	public synchronized CacheEntry getResult()
+	{
+	  return result;
+	}
+  }
+  
+  /**
+   * A bounded pool of daemon threads that run the downloads. Threads are only
+   * started when there is work to do, and they end after they have been idle
+   * for a while.
+   */
+  private static final class Fetcher
+  {
+	private static final long IDLE_TIME = 30000;
+	
+	private final LinkedList queue = new LinkedList();
+	private final int maxThreads;
+	private int threads;
+	private int idle;
+	private boolean shutdown;
+	
+	public Fetcher(int maxThreads)
+	{
+	  this.maxThreads = maxThreads;
+	}
+	
+	public synchronized void execute(Runnable task)
+	{
+	  if(shutdown)
+	  {
+		task.run();
+		return;
+	  }
+	  queue.addLast(task);
+	  notify();
+	  if(queue.size() > idle && threads < maxThreads)
+	  {
+		threads++;
+		Thread thread = new Thread("Internet cache fetcher") //$NON-NLS-1$
+		{
+		  public void run()
+		  {
+			work();
+		  }
+		};
+		thread.setDaemon(true);
+		thread.start();
+	  }
+	}
+	
+	public synchronized void shutdown()
+	{
+	  shutdown = true;
+	  notifyAll();
+	}
+	
+	private synchronized Runnable next()
+	{
+	  long end = System.currentTimeMillis() + IDLE_TIME;
+	  while(queue.isEmpty())
+	  {
+		long remaining = end - System.currentTimeMillis();
+		if(shutdown || remaining <= 0)
+		{
+		  threads--;
+		  return null;
+		}
+		idle++;
+		try
+		{
+		  wait(remaining);
+		}
+		catch(InterruptedException e)
+		{
+		  // Check the queue again.
+		}
+		finally
+		{
+		  idle--;
+		}
+	  }
+	  return (Runnable)queue.removeFirst();
+	}
+	
+	private void work()
+	{
+	  Runnable task = next();
+	  while(task != null)
+	  {
+		try
+		{
+		  task.run();
+		}
+		catch(RuntimeException e)
+		{
+		  // The download has already finished, keep going with the next one.
+		}
+		task = next();
+	  }
+	}
+  }
+}
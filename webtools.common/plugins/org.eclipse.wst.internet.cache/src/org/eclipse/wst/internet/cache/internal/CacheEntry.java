@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2004 IBM Corporation and others.
+ * Copyright (c) 2001, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,8 +18,9 @@ public class CacheEntry
 {
   private String uri;
   private String localFile;
-  private long lastModified;
-  private long expirationTime;
+  private volatile long lastModified;
+  private volatile long expirationTime;
+  private volatile String etag;
   
   /**
    * Create a new cache entry.
@@ -31,11 +32,27 @@ public class CacheEntry
    *                       expire.
    */
   public CacheEntry(String uri, String localFile, long lastModified, long expirationTime)
+  {
+	this(uri, localFile, lastModified, expirationTime, null);
+  }
+  
+  /**
+   * Create a new cache entry.
+   * 
+   * @param uri The remote URI of the cache entry.
+   * @param localFile The local file that contains the cached entry.
+   * @param lastModifie The time this resource was last modified.
+   * @param expirationTime The time in miliseconds that this cache entry will
+   *                       expire.
+   * @param etag The entity tag that the server gave this resource, or null.
+   */
+  public CacheEntry(String uri, String localFile, long lastModified, long expirationTime, String etag)
   {
 	this.uri = uri;
 	this.localFile = localFile;
 	this.lastModified = lastModified;
 	this.expirationTime = expirationTime;
+	this.etag = etag;
   }
   
   /**
@@ -111,4 +128,22 @@ public class CacheEntry
   {
 	this.lastModified = lastModified;
   }
+  
+  /**
+   * Get the entity tag that the server gave this resource.
+   * 
+   * @return The entity tag, or null if the server didn't give one.
+   */
+  public String getETag()
+  {
+	return etag;
+  }
+  
+  /**
+   * Set the entity tag that the server gave this resource.
+   */
+  public void setETag(String etag)
+  {
+	this.etag = etag;
+  }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2006 IBM Corporation and others.
+ * Copyright (c) 2001, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -21,7 +21,9 @@ import org.eclipse.core.runtime.jobs.Job;
 /**
  * A cache job runs once an hour to cache any prespecified resources which
  * should be cached and any resources for which an attempt was previously 
- * made to cache them but they were unable to be cached.
+ * made to cache them but they were unable to be cached. It also revalidates
+ * cached resources that have expired, while the expired copies continue to
+ * be used.
  */
 public class CacheJob extends Job
 {
@@ -43,13 +45,32 @@ public class CacheJob extends Job
   {
 	boolean allSuccessful = true;
     Cache cache = Cache.getInstance();
+    if(cache == null)
+    {
+      return Status.OK_STATUS;
+    }
+    String[] staleURIs = cache.takeStaleURIs();
     String[] uncachedURIs = cache.getUncachedURIs();
     int numUncachedURIs = uncachedURIs.length;
 
     cache.clearUncachedURIs();
-    monitor.beginTask(CacheMessages._UI_CACHE_MONITOR_NAME, numUncachedURIs);
+    monitor.beginTask(CacheMessages._UI_CACHE_MONITOR_NAME, staleURIs.length + numUncachedURIs);
     try
     {
+      for(int i = 0; i < staleURIs.length; i++)
+      {
+        if (monitor.isCanceled())
+        {
+          for(int j = i; j < staleURIs.length; j++)
+          {
+            cache.addStaleURI(staleURIs[j]);
+          }
+          return Status.CANCEL_STATUS;
+        }
+        monitor.setTaskName(MessageFormat.format(CacheMessages._UI_CACHE_MONITOR_CACHING, new Object[]{staleURIs[i]}));
+        cache.refresh(staleURIs[i]);
+        monitor.worked(1);
+      }
       for(int i = 0; i < numUncachedURIs; i++)
       {
         if (monitor.isCanceled())
@@ -75,9 +96,14 @@ public class CacheJob extends Job
     } 
     finally
     {
+      // Resources that expired while the job was running are revalidated right away.
+      if(cache.hasStaleURIs() && !monitor.isCanceled())
+      {
+    	  startJob(0);
+      }
       // If all the uncached URIs could not be cached 
       // schedule the next time the job should run.
-      if(!allSuccessful)
+      else if(!allSuccessful)
       {
     	  startJob(SCHEDULE_TIME); 
       }
@@ -88,12 +114,16 @@ public class CacheJob extends Job
    * Start the cache job. The cache job caches resources that were not able to be previously
    * downloaded. Only one job is run at a time.
    */
-  protected static void startJob() 
+  protected static synchronized void startJob() 
   {
-	if(job == null)
+	if(job == null || job.getState() == Job.NONE)
 	{
 	  startJob(0);
 	}
+	else if(job.getState() == Job.SLEEPING)
+	{
+	  job.wakeUp();
+	}
   }
   
   /**
@@ -102,7 +132,7 @@ public class CacheJob extends Job
    * @param delay
    * 		The start delay for the cache job.
    */
-  private static void startJob(long delay)
+  private static synchronized void startJob(long delay)
   {
 	job = new CacheJob();
 	job.setPriority(CacheJob.DECORATE);
@@ -113,7 +143,7 @@ public class CacheJob extends Job
    * Stop the current cache job. The cache job caches resources that were not able to be previously
    * downloaded.
    */
-  protected static void stopJob() 
+  protected static synchronized void stopJob() 
   {
 	if (job != null) 
 	{
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2017 IBM Corporation and others.
+ * Copyright (c) 2001, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -26,6 +26,16 @@ public class CachePlugin extends AbstractUIPlugin
    * The ID of this plugin.
    */
   public static final String PLUGIN_ID = "org.eclipse.wst.internet.cache"; //$NON-NLS-1$
+  
+  /**
+   * The default connect timeout, in milliseconds.
+   */
+  public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+  
+  /**
+   * The default read timeout, in milliseconds.
+   */
+  public static final int DEFAULT_READ_TIMEOUT = 30000;
 
   /**
    * The shared instance.
@@ -190,6 +200,55 @@ public class CachePlugin extends AbstractUIPlugin
 	return 1440;
   }
 
+  /**
+   * Set the connect timeout used when downloading resources.
+   * 
+   * @param timeout a timeout in milliseconds
+   */
+  public void setConnectTimeout(int timeout) 
+  {
+	getPluginPreferences().setValue(PreferenceConstants.CONNECT_TIMEOUT, timeout);
+  }
+
+  /**
+   * Returns the number of milliseconds to wait for a connection to a remote resource.
+   * 
+   * @return the connect timeout in milliseconds. The default is 10 seconds.
+   */
+  public int getConnectTimeout() 
+  {
+	if (getPluginPreferences().contains(PreferenceConstants.CONNECT_TIMEOUT)) {
+		int timeout = getPluginPreferences().getInt(PreferenceConstants.CONNECT_TIMEOUT); 
+		if( timeout > 0 )
+			return timeout;
+	}
+	return DEFAULT_CONNECT_TIMEOUT;
+  }
+  
+  /**
+   * Set the read timeout used when downloading resources.
+   * 
+   * @param timeout a timeout in milliseconds
+   */
+  public void setReadTimeout(int timeout) 
+  {
+	getPluginPreferences().setValue(PreferenceConstants.READ_TIMEOUT, timeout);
+  }
+
+  /**
+   * Returns the number of milliseconds to wait for a remote resource to be read.
+   * 
+   * @return the read timeout in milliseconds. The default is 30 seconds.
+   */
+  public int getReadTimeout() 
+  {
+	if (getPluginPreferences().contains(PreferenceConstants.READ_TIMEOUT)) {
+		int timeout = getPluginPreferences().getInt(PreferenceConstants.READ_TIMEOUT); 
+		if( timeout > 0 )
+			return timeout;
+	}
+	return DEFAULT_READ_TIMEOUT;
+  }
   
   static boolean isRunning() {
 	  return plugin != null;
@@ -22,4 +22,8 @@ public class PreferenceConstants  {
 	  public static final String CACHE_DURATION = "cacheDuration"; //$NON-NLS-1$
 
 	  public static final String PROMPT_DISAGREED_LICENSES = "promptDisagreedLicenses"; //$NON-NLS-1$
+
+	  public static final String CONNECT_TIMEOUT = "connectTimeout"; //$NON-NLS-1$
+
+	  public static final String READ_TIMEOUT = "readTimeout"; //$NON-NLS-1$
 }
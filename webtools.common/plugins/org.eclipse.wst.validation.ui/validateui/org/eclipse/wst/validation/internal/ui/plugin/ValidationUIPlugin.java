@@ -25,6 +25,7 @@ import org.eclipse.jface.resource.ImageRegistry;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.wst.common.frameworks.internal.ui.WTPUIPlugin;
 import org.eclipse.wst.validation.internal.operations.ValidationOperation;
+import org.eclipse.wst.validation.ui.internal.EditorTracker;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 
@@ -90,6 +91,12 @@ public class ValidationUIPlugin extends WTPUIPlugin {
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		//	org.eclipse.wst.validation.internal.operations.ValidatorManager.setResourceUtilClass(org.eclipse.wst.validation.internal.operations.ui.UIResourceUtil.class);
+		EditorTracker.start();
+	}
+	
+	public void stop(BundleContext context) throws Exception {
+		EditorTracker.stop();
+		super.stop(context);
 	}
 	
 	/**
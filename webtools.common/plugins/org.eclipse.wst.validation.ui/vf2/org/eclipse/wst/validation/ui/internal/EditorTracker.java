@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.ui.internal;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.ui.IEditorInput;
+import org.eclipse.ui.IEditorReference;
+import org.eclipse.ui.IPartListener2;
+import org.eclipse.ui.IWindowListener;
+import org.eclipse.ui.IWorkbench;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.IWorkbenchPartReference;
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.PartInitException;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.wst.validation.internal.ValBuilderJob;
+
+/**
+ * Keep the build based validation informed about which projects have files open in editors, so
+ * that those projects are validated first when several projects are waiting to be validated.
+ */
+public final class EditorTracker implements IWindowListener, IPartListener2 {
+
+	private static EditorTracker _me;
+
+	/**
+	 * Start tracking the editors, if the workbench is running.
+	 */
+	public static synchronized void start(){
+		if (_me != null || !PlatformUI.isWorkbenchRunning())return;
+		final EditorTracker tracker = new EditorTracker();
+		_me = tracker;
+		PlatformUI.getWorkbench().getDisplay().asyncExec(new Runnable(){
+
+			public void run() {
+				tracker.install();
+			}
+		});
+	}
+
+	/**
+	 * Stop tracking the editors.
+	 */
+	public static synchronized void stop(){
+		if (_me == null)return;
+		final EditorTracker tracker = _me;
+		_me = null;
+		if (!PlatformUI.isWorkbenchRunning())return;
+		PlatformUI.getWorkbench().getDisplay().asyncExec(new Runnable(){
+
+			public void run() {
+				tracker.uninstall();
+			}
+		});
+	}
+
+	private EditorTracker(){
+	}
+
+	private void install(){
+		IWorkbench workbench = PlatformUI.getWorkbench();
+		workbench.addWindowListener(this);
+		for (IWorkbenchWindow window : workbench.getWorkbenchWindows())window.getPartService().addPartListener(this);
+		update(null);
+	}
+
+	private void uninstall(){
+		IWorkbench workbench = PlatformUI.getWorkbench();
+		workbench.removeWindowListener(this);
+		for (IWorkbenchWindow window : workbench.getWorkbenchWindows())window.getPartService().removePartListener(this);
+	}
+
+	/**
+	 * Work out which projects have open editors, and pass them along to the validation framework.
+	 *
+	 * @param closing
+	 *            An editor that is being closed, and should therefore be ignored. This can be null.
+	 */
+	private void update(IWorkbenchPartReference closing){
+		Set<IProject> projects = new HashSet<IProject>();
+		for (IWorkbenchWindow window : PlatformUI.getWorkbench().getWorkbenchWindows()){
+			for (IWorkbenchPage page : window.getPages()){
+				for (IEditorReference ref : page.getEditorReferences()){
+					if (ref == closing)continue;
+					try {
+						IEditorInput input = ref.getEditorInput();
+						IFile file = input == null ? null : (IFile)input.getAdapter(IFile.class);
+						if (file != null)projects.add(file.getProject());
+					}
+					catch (PartInitException e){
+						// the editor can't be restored, so it doesn't count
+					}
+				}
+			}
+		}
+		ValBuilderJob.setPriorityProjects(projects);
+	}
+
+	private void editorChanged(IWorkbenchPartReference partRef, boolean closing){
+		if (partRef instanceof IEditorReference)update(closing ? partRef : null);
+	}
+
+	public void windowActivated(IWorkbenchWindow window) {
+	}
+
+	public void windowClosed(IWorkbenchWindow window) {
+		window.getPartService().removePartListener(this);
+		update(null);
+	}
+
+	public void windowDeactivated(IWorkbenchWindow window) {
+	}
+
+	public void windowOpened(IWorkbenchWindow window) {
+		window.getPartService().addPartListener(this);
+		update(null);
+	}
+
+	public void partActivated(IWorkbenchPartReference partRef) {
+	}
+
+	public void partBroughtToTop(IWorkbenchPartReference partRef) {
+	}
+
+	public void partClosed(IWorkbenchPartReference partRef) {
+		editorChanged(partRef, true);
+	}
+
+	public void partDeactivated(IWorkbenchPartReference partRef) {
+	}
+
+	public void partHidden(IWorkbenchPartReference partRef) {
+	}
+
+	public void partInputChanged(IWorkbenchPartReference partRef) {
+		editorChanged(partRef, false);
+	}
+
+	public void partOpened(IWorkbenchPartReference partRef) {
+		editorChanged(partRef, false);
+	}
+
+	public void partVisible(IWorkbenchPartReference partRef) {
+	}
+
+}
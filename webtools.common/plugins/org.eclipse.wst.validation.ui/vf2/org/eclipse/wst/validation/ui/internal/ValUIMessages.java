@@ -51,6 +51,8 @@ public class ValUIMessages extends NLS {
 	public static String SaveFilesDialog_must_save;
 	public static String PrefPage_always_save;
 	public static String PrefPageConfirmDialog;
+	public static String PrefPageParallel;
+	public static String PrefPageCacheResults;
 	public static String ProjectOverridesNotAllowed;
 	public static String RunValidationDialogTitle;
 	
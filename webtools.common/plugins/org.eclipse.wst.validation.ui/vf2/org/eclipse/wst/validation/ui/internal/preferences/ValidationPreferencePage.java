@@ -173,6 +173,8 @@ public class ValidationPreferencePage extends PreferencePage implements	IWorkben
 		private Button _suspend;
 		private Button _autoSave;
 		private Button _confirmButton;
+		private Button _parallel;
+		private Button _cacheResults;
 		private Label _listLabel;
 		private Table _validatorsTable;
 		private GlobalPreferencesValues 	_globalPreferences = ValManager.getDefault().getGlobalPreferences().asValues();
@@ -294,6 +296,8 @@ public class ValidationPreferencePage extends PreferencePage implements	IWorkben
 			addSuspend(validatorGroup);
 			addAutoSave(validatorGroup);
 			addConfirm(validatorGroup);
+			addParallel(validatorGroup);
+			addCacheResults(validatorGroup);
 
 			_listLabel = new Label(validatorGroup, SWT.NONE);
 			GridData listLabelData = new GridData(GridData.FILL_HORIZONTAL);
@@ -415,6 +419,40 @@ public class ValidationPreferencePage extends PreferencePage implements	IWorkben
 			});
 		}
 
+		private void addParallel(Composite validatorGroup) {
+			GridData gd;
+			gd = new GridData(GridData.FILL_HORIZONTAL);
+			gd.horizontalSpan = 2;
+			_parallel = new Button(validatorGroup, SWT.CHECK);
+			_parallel.setLayoutData(gd);
+			_parallel.setText(ValUIMessages.PrefPageParallel);
+			_parallel.setSelection(_globalPreferences.parallel);
+			_parallel.addSelectionListener(new SelectionAdapter() {
+				public void widgetSelected(SelectionEvent e) {
+					// do not increment the _changeCount as this by itself should not trigger a build prompt
+					_globalPreferences.parallel = _parallel.getSelection();
+					_parallel.setFocus();
+				}
+			});
+		}
+
+		private void addCacheResults(Composite validatorGroup) {
+			GridData gd;
+			gd = new GridData(GridData.FILL_HORIZONTAL);
+			gd.horizontalSpan = 2;
+			_cacheResults = new Button(validatorGroup, SWT.CHECK);
+			_cacheResults.setLayoutData(gd);
+			_cacheResults.setText(ValUIMessages.PrefPageCacheResults);
+			_cacheResults.setSelection(_globalPreferences.cacheResults);
+			_cacheResults.addSelectionListener(new SelectionAdapter() {
+				public void widgetSelected(SelectionEvent e) {
+					// do not increment the _changeCount as this by itself should not trigger a build prompt
+					_globalPreferences.cacheResults = _cacheResults.getSelection();
+					_cacheResults.setFocus();
+				}
+			});
+		}
+
 		private void addAutoSave(Composite validatorGroup) {
 			GridData gd;
 			gd = new GridData(GridData.FILL_HORIZONTAL);
@@ -592,6 +630,8 @@ public class ValidationPreferencePage extends PreferencePage implements	IWorkben
 			_suspend.setSelection(_globalPreferences.disableAllValidation);
 			_autoSave.setSelection(_globalPreferences.saveAutomatically);
 			_confirmButton.setSelection(_globalPreferences.confirmDialog);
+			_parallel.setSelection(_globalPreferences.parallel);
+			_cacheResults.setSelection(_globalPreferences.cacheResults);
 			_override.setSelection(_globalPreferences.override);
 			_validatorsTable.setEnabled(!_suspend.getSelection());
 			_enableAllButton.setEnabled(!_suspend.getSelection());
@@ -603,6 +643,8 @@ public class ValidationPreferencePage extends PreferencePage implements	IWorkben
 		public boolean performOk() throws InvocationTargetException {
 			_globalPreferences.disableAllValidation = _suspend.getSelection();
 			_globalPreferences.saveAutomatically = _autoSave.getSelection();
+			_globalPreferences.parallel = _parallel.getSelection();
+			_globalPreferences.cacheResults = _cacheResults.getSelection();
 			ValManager vm = ValManager.getDefault();
 			int changes = vm.replace(_globalPreferences);
 			if ((changes & GlobalPreferences.BuildChangeMask) != 0)_changeCount++;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2011 IBM Corporation and others.
+ * Copyright (c) 2001, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -268,6 +268,13 @@ public class ValidatorMetaData {
 		return _validator.get();
 	}
 
+	/**
+	 * Answer the id of the plug-in that contributed the validator.
+	 */
+	public String getPluginId() {
+		return _pluginId;
+	}
+
 	public String getValidatorDisplayName() {
 		return _validatorDisplayName;
 	}
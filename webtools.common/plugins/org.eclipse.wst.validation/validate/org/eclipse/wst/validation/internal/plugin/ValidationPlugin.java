@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2012 IBM Corporation and others.
+ * Copyright (c) 2001, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,9 +12,12 @@ package org.eclipse.wst.validation.internal.plugin;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISaveParticipant;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.ProjectScope;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Plugin;
@@ -26,7 +29,9 @@ import org.eclipse.wst.validation.internal.DependencyIndex;
 import org.eclipse.wst.validation.internal.EventManager;
 import org.eclipse.wst.validation.internal.ProjectUnavailableError;
 import org.eclipse.wst.validation.internal.ResourceUnavailableError;
+import org.eclipse.wst.validation.internal.ResultCache;
 import org.eclipse.wst.validation.internal.Tracing;
+import org.eclipse.wst.validation.internal.ValidationExecutor;
 import org.eclipse.wst.validation.internal.core.Message;
 import org.eclipse.wst.validation.internal.provisional.core.IMessage;
 import org.osgi.framework.Bundle;
@@ -102,7 +107,7 @@ public class ValidationPlugin extends Plugin {
 
 		DependencyIndex di = (DependencyIndex)ValidationFramework.getDefault().getDependencyIndex();
 		IWorkspace ws = ResourcesPlugin.getWorkspace();
-		ws.addSaveParticipant(this, di);
+		ws.addSaveParticipant(this, new SaveParticipant(di));
 //		ws.addResourceChangeListener(ValOperationManager.getDefault(), 
 //			IResourceChangeEvent.POST_BUILD | IResourceChangeEvent.PRE_BUILD);
 
@@ -114,6 +119,8 @@ public class ValidationPlugin extends Plugin {
 		ValidationFramework.getDefault().cancel();
 //		ResourcesPlugin.getWorkspace().removeResourceChangeListener( ValOperationManager.getDefault() );		
 		EventManager.getManager().shutdown();
+		ValidationExecutor.shutdown();
+		ResultCache.getDefault().save();
 	}
 
 	/*
@@ -179,4 +186,34 @@ public class ValidationPlugin extends Plugin {
 		getLog().log(status);
 		
 	}	
+	
+	/**
+	 * Saves the dependency index and the result cache whenever the workspace is saved, so that they
+	 * survive a crash.
+	 */
+	private static final class SaveParticipant implements ISaveParticipant {
+		
+		private final DependencyIndex _index;
+		
+		public SaveParticipant(DependencyIndex index){
+			_index = index;
+		}
+
+		public void doneSaving(ISaveContext context) {
+			_index.doneSaving(context);
+		}
+
+		public void prepareToSave(ISaveContext context) throws CoreException {
+			_index.prepareToSave(context);
+		}
+
+		public void rollback(ISaveContext context) {
+			_index.rollback(context);
+		}
+
+		public void saving(ISaveContext context) throws CoreException {
+			_index.saving(context);
+			ResultCache.getDefault().save();
+		}
+	}
 }
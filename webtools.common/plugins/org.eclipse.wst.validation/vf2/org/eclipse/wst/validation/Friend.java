@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2008 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@ import java.util.Map;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.wst.validation.internal.ContentTypeWrapper;
 import org.eclipse.wst.validation.internal.ValType;
+import org.eclipse.wst.validation.internal.model.FilterIndex;
 
 /**
  * This class is only to be called by the validation framework and it's test cases.
@@ -50,6 +51,12 @@ public class Friend {
 		return validator.shouldValidate(resource, valType, contentTypeWrapper);		
 	}
 	
+	public static boolean shouldValidate(Validator validator, IResource resource, ValType valType, 
+		FilterIndex.Match match, int index){
+		
+		return validator.shouldValidate(resource, valType, match, index);		
+	}
+	
 	public static void setMigrated(Validator validator, boolean migrated){
 		validator.setMigrated(migrated);
 	}
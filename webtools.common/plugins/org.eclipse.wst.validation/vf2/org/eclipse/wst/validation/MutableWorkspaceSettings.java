@@ -86,4 +86,35 @@ public final class MutableWorkspaceSettings {
 		_values.disableAllValidation = suspend;
 	}
 
+	/**
+	 * Are independent validators run concurrently?
+	 */
+	public boolean getParallel() {
+		return _values.parallel;
+	}
+
+	/**
+	 * Change whether independent validators are run concurrently.
+	 * @param parallel Set to true, to let validators that apply to the same resource run at the same time.
+	 */
+	public void setParallel(boolean parallel) {
+		_values.parallel = parallel;
+	}
+
+	/**
+	 * Are the results of validating unchanged files reused from earlier sessions?
+	 */
+	public boolean getCacheResults() {
+		return _values.cacheResults;
+	}
+
+	/**
+	 * Change whether the results of validating unchanged files are reused.
+	 * @param cacheResults Set to true, to restore the messages of files whose content, validator configuration
+	 * and dependencies have not changed, instead of validating them again.
+	 */
+	public void setCacheResults(boolean cacheResults) {
+		_values.cacheResults = cacheResults;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2010 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -24,6 +24,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IContributor;
@@ -39,6 +40,7 @@ import org.eclipse.wst.validation.internal.ExtensionConstants;
 import org.eclipse.wst.validation.internal.MarkerManager;
 import org.eclipse.wst.validation.internal.Misc;
 import org.eclipse.wst.validation.internal.NullValidator;
+import org.eclipse.wst.validation.internal.ResultCache;
 import org.eclipse.wst.validation.internal.SummaryReporter;
 import org.eclipse.wst.validation.internal.Tracing;
 import org.eclipse.wst.validation.internal.ValManager;
@@ -54,6 +56,7 @@ import org.eclipse.wst.validation.internal.core.ValidatorLauncher;
 import org.eclipse.wst.validation.internal.delegates.ValidatorDelegateDescriptor;
 import org.eclipse.wst.validation.internal.delegates.ValidatorDelegatesRegistry;
 import org.eclipse.wst.validation.internal.model.FilterGroup;
+import org.eclipse.wst.validation.internal.model.FilterIndex;
 import org.eclipse.wst.validation.internal.operations.IWorkbenchContext;
 import org.eclipse.wst.validation.internal.operations.WorkbenchContext;
 import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
@@ -99,6 +102,9 @@ public abstract class Validator implements Comparable<Validator> {
 	/** An optional customized marker id for this validator. */
 	private String 		_markerId;
 	
+	/** Can this validator be called by more than one thread at the same time? */
+	private boolean		_threadSafe;
+	
 	/** 
 	 * Version of the filter definition. By increasing this number the framework can know that a plug-in has 
 	 * changed it's filters.
@@ -201,6 +207,7 @@ public abstract class Validator implements Comparable<Validator> {
 		_delegatingId = v._delegatingId;
 		_manualValidation = v._manualValidation;
 		_markerId = v._markerId;
+		_threadSafe = v._threadSafe;
 		_messageSettings = v._messageSettings;
 		_sourceId = v._sourceId;
 		_version = v._version;
@@ -325,6 +332,32 @@ public abstract class Validator implements Comparable<Validator> {
 		return result;
 	}
 	
+	/**
+	 * Answer true if this validator, based on it's filters, should validate
+	 * this resource. The filters have already been evaluated by a filter index,
+	 * so this only needs to look up the answer.
+	 * 
+	 * @param valType
+	 *            The context to use when performing the check.
+	 * @param match
+	 *            The filters of the project's validators, evaluated against the resource.
+	 * @param index
+	 *            The position of this validator in the filter index.
+	 * 
+	 * @see Friend#shouldValidate(Validator, IResource, ValType, FilterIndex.Match, int)
+	 */
+	boolean shouldValidate(IResource resource, ValType valType, FilterIndex.Match match, int index){
+		if (valType == ValType.Manual && !_manualValidation)return false;
+		if (valType == ValType.Build && !_buildValidation)return false;
+		
+		Boolean result = match.shouldValidate(index);
+		if (result == null)return shouldValidate(resource, valType, match.getContentTypeWrapper());
+		if (Tracing.matchesExtraDetail(getId())){
+			Tracing.log("Validator-02: " + getId() + " indexed result for " + resource + " = " + result); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		return result;
+	}
+	
 	/**
 	 * Answer true if this validator, based on it's filters, should validate this project. This method
 	 * does not check to see if global validation or project validation has been suspended or not.
@@ -1153,9 +1186,20 @@ public final static class V2 extends Validator implements IAdaptable {
 		ValidationResult vr = null;
 		if (operation == null)operation = new ValOperation();
 		if (monitor == null)monitor = new NullProgressMonitor();
+		
+		// validations that were triggered by a change to some other resource are never cached
+		ResultCache.Key key = null;
+		boolean restored = false;
+		if (event == null && kind != IResourceDelta.REMOVED && ResultCache.isEnabled()){
+			key = ResultCache.getDefault().createKey(this, resource);
+			if (key != null){
+				vr = ResultCache.getDefault().get(key, resource);
+				restored = vr != null;
+			}
+		}
 		try {
 			if (event == null)event = new ValidationEvent(resource, kind, null);
-			vr = getDelegatedValidator().validate(event, operation.getState(), monitor);
+			if (vr == null)vr = getDelegatedValidator().validate(event, operation.getState(), monitor);
 			if (vr == null)vr = getDelegatedValidator().validate(resource, kind, operation.getState(), monitor);
 		}
 		catch (Exception e){
@@ -1174,6 +1218,7 @@ public final static class V2 extends Validator implements IAdaptable {
 				ValidationPlugin.getPlugin().handleException(vr.getValidationException());
 			}
 			updateResults(vr);
+			if (key != null && !restored)ResultCache.getDefault().put(key, resource, vr);
 			if (vr.getDependsOn() != null){
 				ValidationFramework.getDefault().getDependencyIndex().set(getId(), resource, vr.getDependsOn());
 			}
@@ -1188,7 +1233,7 @@ public final static class V2 extends Validator implements IAdaptable {
 //			if (sanityTest(msgs.length, resource)){
 				MarkerManager mm = MarkerManager.getDefault();
 				for (ValidatorMessage m : msgs){
-					mm.createMarker(m, getId());
+					mm.createMarker(m, getId(), operation);
 				}
 //			}
 //			else {
@@ -1392,4 +1437,17 @@ public void setMarkerId(String markerId) {
 	if (markerId != null)MarkerManager.getDefault().getMarkers().add(markerId);
 }
 
+/**
+ * Answer true if the validator has declared that it can be called by more than one thread at the same
+ * time. When parallel validation has been turned on, validators that are not thread safe are only
+ * called by one thread at a time for each project.
+ */
+public boolean isThreadSafe() {
+	return _threadSafe;
+}
+
+public void setThreadSafe(boolean threadSafe) {
+	_threadSafe = threadSafe;
+}
+
 }
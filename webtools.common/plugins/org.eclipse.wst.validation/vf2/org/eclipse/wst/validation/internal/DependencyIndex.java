@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2012 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.wst.validation.internal;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -17,12 +19,18 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -39,162 +47,302 @@ import org.eclipse.wst.validation.Validator;
 import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
 
 /**
- * A simple implementation of the IDependencyIndex. This will probably be
- * replaced with a higher performance, more robust index, at some point in the
- * future.
+ * A simple implementation of the IDependencyIndex.
  * <p>
- * The format of the index is:
+ * The index is split into partitions, one for each project that has dependent resources. Each partition is
+ * persisted in its own journal (see {@link DependencyPartition}), and is only loaded the first time that
+ * something asks about one of its resources. A small summary file records which projects have resources
+ * that depend on resources in which other projects, so that a query about a resource only needs to load
+ * the partitions that could possibly depend on it.
+ * </p>
+ * <p>
+ * There is no global lock. Each partition has its own lock, and the summary is held in concurrent
+ * collections, so validators that are working in different projects do not block each other, and asking
+ * whether a resource is depended on never blocks when none of the projects depend on its project.
+ * </p>
+ * <p>
+ * The format of the summary is:
  * 
  * <pre>
  * Version number
- * Number of depends on entries
- *   depends on file name
- *   number of dependent entries
- *     dependent file name
- *     number of validators
- *       validator id
+ * Number of depends on projects
+ *   depends on project name
+ *   number of dependent projects
+ *     dependent project name
  * </pre>
  * 
  * @author karasiuk
  */
 public class DependencyIndex implements IDependencyIndex, ISaveParticipant {
 	
-	/**
-	 * An index so that we can determine which things depend on this resource.
-	 */
-	private Map<IResource,Set<Depends>>		_dependsOn;
+	/** The partitions that have been loaded, keyed by project name. */
+	private final ConcurrentMap<String, DependencyPartition> _partitions = 
+		new ConcurrentHashMap<String, DependencyPartition>(50);
 	
-	/**
-	 * An index so that we can determine who the resource depends on.
+	/** 
+	 * For each project (name), the projects that have resources that depend on its resources. This is null
+	 * until the summary has been restored. The sets are copy on write, since they are small and rarely change.
 	 */
-	private Map<IResource,Set<Depends>>		_dependents;
-	private boolean _dirty;
+	private volatile ConcurrentMap<String, Set<String>> _dependedOnBy;
+	
+	/** The number of times that the summary has changed. */
+	private final AtomicInteger _changes = new AtomicInteger();
+	
+	/** The value of _changes when the summary was last saved. */
+	private int _savedChanges;
+	
+	/** Was the index converted from the old dep.index file, which needs to be deleted once we have saved? */
+	private boolean _converted;
 	
 	private static IResource[] EmptyResources = new IResource[0];
 	
-	/** Version of the persistent index. */
-	private static final int CurrentVersion = 1;
+	/** Version of the persistent summary. */
+	private static final int CurrentVersion = 2;
+	
+	/** Version of the old, single file, persistent index. */
+	private static final int OldVersion = 1;
 
-	public synchronized void add(String id, IResource dependent, IResource dependsOn) {
+	public void add(String id, IResource dependent, IResource dependsOn) {
 		init();
 		if (dependsOn == null || dependent == null)return;
-		Depends d = getOrCreateDepends(dependent, dependsOn);
-		if (d.getValidators().add(id))_dirty = true;
+		addInternal(id, dependent, dependsOn);
 	}
 	
-	private Depends getOrCreateDepends(IResource dependent, IResource dependsOn) {
-		Set<Depends> set = getSet(_dependents, dependent);
-		for (Depends d : set){
-			if (d.getDependsOn() != null && d.getDependsOn().equals(dependsOn)) return d;
-		}
-		Depends d = new Depends(dependent, dependsOn);
-		_dirty = true;
-		set.add(d);
+	private void addInternal(String id, IResource dependent, IResource dependsOn){
+		addInternal(_dependedOnBy, id, dependent, dependsOn);
+	}
+	
+	private void addInternal(ConcurrentMap<String, Set<String>> dependedOnBy, String id, IResource dependent, 
+		IResource dependsOn){
+		String project = getProjectName(dependent);
+		if (!getPartition(project).add(id, dependent, dependsOn))return;
 		
-		getSet(_dependsOn, dependsOn).add(d);
-		return d;
+		addDependedOnBy(dependedOnBy, getProjectName(dependsOn), project);
 	}
-
+	
 	/**
-	 * Answer the set for the resource, creating it if you need to.
+	 * Record in the summary that the project has resources that depend on resources in the target project.
 	 */
-	private Set<Depends> getSet(Map<IResource, Set<Depends>> map, IResource resource) {
-		Set<Depends> set = map.get(resource);
+	private void addDependedOnBy(ConcurrentMap<String, Set<String>> dependedOnBy, String target, String project){
+		Set<String> set = dependedOnBy.get(target);
 		if (set == null){
-			set = new HashSet<Depends>(5);
-			map.put(resource, set);
+			Set<String> newSet = new CopyOnWriteArraySet<String>();
+			set = dependedOnBy.putIfAbsent(target, newSet);
+			if (set == null)set = newSet;
 		}
-		return set;
+		if (set.add(project))_changes.incrementAndGet();
+	}
+	
+	/**
+	 * Answer the name of the project that the resource belongs to, or the empty string for the workspace root.
+	 */
+	static String getProjectName(IResource resource){
+		IProject project = resource.getProject();
+		return project == null ? "" : project.getName(); //$NON-NLS-1$
+	}
+	
+	/**
+	 * Answer the partition for the project, loading it if you need to.
+	 */
+	private DependencyPartition getPartition(String project){
+		return getPartition(project, true);
 	}
 
 	/**
-	 * Restore the dependency index. See the class comment for the structure.
+	 * Answer the partition for the project.
+	 * 
+	 * @param load
+	 *            If this is false the journal is not read, for callers that are going to throw away its
+	 *            contents anyway.
+	 */
+	private DependencyPartition getPartition(String project, boolean load){
+		DependencyPartition partition = _partitions.get(project);
+		if (partition == null){
+			DependencyPartition newPartition = new DependencyPartition(getPartitionLocation(project));
+			partition = _partitions.putIfAbsent(project, newPartition);
+			if (partition == null)partition = newPartition;
+		}
+		if (load)partition.load(ResourcesPlugin.getWorkspace().getRoot());
+		return partition;
+	}
+	
+	/**
+	 * Answer the partitions that could have resources that depend on this resource.
+	 */
+	private List<DependencyPartition> getPartitionsDependingOn(IResource dependsOn){
+		Set<String> projects = _dependedOnBy.get(getProjectName(dependsOn));
+		if (projects == null || projects.isEmpty())return Collections.emptyList();
+		List<DependencyPartition> list = new LinkedList<DependencyPartition>();
+		for (String project : projects)list.add(getPartition(project));
+		return list;
+	}
+
+	/**
+	 * Restore the summary of the dependency index. See the class comment for the structure. The partitions
+	 * themselves are restored as they are needed.
 	 */	
 	private void init() {
-		if (_dependsOn != null)return;
+		// note how the _dependedOnBy is volatile so that this double checking approach can be used.
+		if (_dependedOnBy != null)return;
+		synchronized(_partitions){
+			if (_dependedOnBy == null)_dependedOnBy = restore();
+		}
+	}
+	
+	private ConcurrentMap<String, Set<String>> restore(){
+		ConcurrentMap<String, Set<String>> dependedOnBy = new ConcurrentHashMap<String, Set<String>>(50);
+		File f = getSummaryLocation();
+		if (!f.exists() || f.length() == 0){
+			convert(dependedOnBy);
+			return dependedOnBy;
+		}
 		
 		boolean error = false;
-		File f = getIndexLocation();
-		if (!f.exists() || f.length() == 0){
-			_dependsOn = new HashMap<IResource,Set<Depends>>(100);
-			_dependents = new HashMap<IResource,Set<Depends>>(100);
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)));
+			int version = in.readInt();
+			if (version != CurrentVersion){
+				error = true;
+				String msg = NLS.bind(ValMessages.ErrDependencyVersion, CurrentVersion);
+				throw new IllegalStateException(msg);
+			}
+			int numDependsOn = in.readInt();
+			for (int i=0; i<numDependsOn; i++){
+				String target = in.readUTF();
+				int numDependents = in.readInt();
+				List<String> list = new ArrayList<String>(numDependents);
+				for (int j=0; j<numDependents; j++)list.add(in.readUTF());
+				dependedOnBy.put(target, new CopyOnWriteArraySet<String>(list));
+			}
 		}
-		else {
-			String errorMessage = ValMessages.Error21; 
-			DataInputStream in = null;
-			try {
-				IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
-				in = new DataInputStream(new FileInputStream(f));
-				
-				int version = in.readInt();
-				if (version != CurrentVersion){
-					error = true;
-					String msg = NLS.bind(ValMessages.ErrDependencyVersion, CurrentVersion);
-					throw new IllegalStateException(msg);
+		catch (EOFException e){
+			error = true;
+			Tracing.log("Unable to read the dependency index file because of EOF exception");  //$NON-NLS-1$
+		}
+		catch (IOException e){
+			error = true;
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+		finally {
+			Misc.close(in);
+			if (error){
+				// without the summary we can't trust any of the partitions
+				dependedOnBy.clear();
+				f.delete();
+				File[] files = getIndexDir().toFile().listFiles();
+				if (files != null){
+					for (File file : files)file.delete();
 				}
-				int numDependsOn = in.readInt();
-				_dependsOn = new HashMap<IResource,Set<Depends>>(numDependsOn+100);
-				_dependents = new HashMap<IResource,Set<Depends>>(numDependsOn+100);
-				for (int i=0; i<numDependsOn; i++){
-					String v = in.readUTF();
-					IResource dependsOn = root.findMember(v);
-					if (dependsOn == null){
-						Tracing.log(NLS.bind(errorMessage, v));
-					}
-					int numDependents = in.readInt();
-					for (int j=0; j<numDependents; j++){
-						v = in.readUTF();
-						IResource dependent = root.findMember(v);
-						if (dependent == null){
-							Tracing.log(NLS.bind(errorMessage, v));
-						}
-						int numVal = in.readInt();
-						for (int k=0; k<numVal; k++){
-							String id = in.readUTF();
-							if (dependent != null && dependsOn != null)add(id, dependent, dependsOn);
-						}
-					}					
-				}				
-			}
-			catch (EOFException e){
-				error = true;
-				Tracing.log("Unable to read the dependency index file because of EOF exception");  //$NON-NLS-1$
 			}
-			catch (IOException e){
-				error = true;
-				ValidationPlugin.getPlugin().handleException(e);
+		}
+		return dependedOnBy;
+	}
+	
+	/**
+	 * Convert the old dep.index file, if there is one, into partitions. The format of the old file is:
+	 * 
+	 * <pre>
+	 * Version number
+	 * Number of depends on entries
+	 *   depends on file name
+	 *   number of dependent entries
+	 *     dependent file name
+	 *     number of validators
+	 *       validator id
+	 * </pre>
+	 */
+	private void convert(ConcurrentMap<String, Set<String>> dependedOnBy){
+		File f = getOldIndexLocation();
+		if (!f.exists())return;
+		_converted = true;
+		_changes.incrementAndGet();
+		if (f.length() == 0)return;
+		
+		String errorMessage = ValMessages.Error21; 
+		DataInputStream in = null;
+		try {
+			IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)));
+			
+			int version = in.readInt();
+			if (version != OldVersion){
+				String msg = NLS.bind(ValMessages.ErrDependencyVersion, OldVersion);
+				throw new IllegalStateException(msg);
 			}
-			finally {
-				Misc.close(in);
-				if (error){
-					_dependsOn = new HashMap<IResource,Set<Depends>>(100);
-					_dependents = new HashMap<IResource,Set<Depends>>(100);
-					f.delete();
+			int numDependsOn = in.readInt();
+			for (int i=0; i<numDependsOn; i++){
+				String v = in.readUTF();
+				IResource dependsOn = root.findMember(v);
+				if (dependsOn == null){
+					Tracing.log(NLS.bind(errorMessage, v));
 				}
-			}			
+				int numDependents = in.readInt();
+				for (int j=0; j<numDependents; j++){
+					v = in.readUTF();
+					IResource dependent = root.findMember(v);
+					if (dependent == null){
+						Tracing.log(NLS.bind(errorMessage, v));
+					}
+					int numVal = in.readInt();
+					for (int k=0; k<numVal; k++){
+						String id = in.readUTF();
+						if (dependent != null && dependsOn != null)addInternal(dependedOnBy, id, dependent, dependsOn);
+					}
+				}					
+			}				
 		}
+		catch (EOFException e){
+			Tracing.log("Unable to read the dependency index file because of EOF exception");  //$NON-NLS-1$
+		}
+		catch (IOException e){
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+		finally {
+			Misc.close(in);
+		}			
 	}
 
+	/**
+	 * Forget all of the dependencies of the project's resources. The journal is deleted without being read.
+	 * <p>
+	 * This holds the index lock, so that a save sees either the old partition and summary or the new ones,
+	 * and the partition lock, so that it doesn't interleave with {@link #set(String, IResource, IResource[])}.
+	 * </p>
+	 */
 	public synchronized void clear(IProject project) {
 		init();
-		for (Map.Entry<IResource,Set<Depends>> me : _dependents.entrySet()){
-			IResource key = me.getKey();
-			if (key != null && key.getProject() == project){
-				for (Depends d : me.getValue()){
-					if (d.delete())_dirty = true;
-				}
+		String name = project.getName();
+		DependencyPartition partition = getPartition(name, false);
+		synchronized(partition){
+			partition.delete();
+			for (Set<String> set : _dependedOnBy.values()){
+				if (set.remove(name))_changes.incrementAndGet();
 			}
 		}
 	}
 
-	public synchronized IResource[] get(String validatorId, IResource dependsOn) {
+	/**
+	 * Forget the dependencies of a project that is being deleted, and delete its partition. The assertions
+	 * that other projects made about its resources are dropped the next time that their partitions are
+	 * compacted.
+	 */
+	public synchronized void projectDeleted(IProject project){
+		init();
+		String name = project.getName();
+		DependencyPartition partition = _partitions.remove(name);
+		if (partition != null)partition.delete();
+		else getPartitionLocation(name).delete();
+		for (Set<String> set : _dependedOnBy.values()){
+			if (set.remove(name))_changes.incrementAndGet();
+		}
+	}
+
+	public IResource[] get(String validatorId, IResource dependsOn) {
 		init();
 		List<IResource> list = new LinkedList<IResource>();
-		Set<Depends> set = getSet(_dependsOn, dependsOn);
-		for (Depends d : set){
-			for (String id : d.getValidators()){
-				if (validatorId.equals(id))list.add(d.getDependent());
-			}
+		for (DependencyPartition partition : getPartitionsDependingOn(dependsOn)){
+			partition.collect(dependsOn, validatorId, list, null);
 		}
 		
 		if (list.size() == 0)return EmptyResources;
@@ -204,37 +352,79 @@ public class DependencyIndex implements IDependencyIndex, ISaveParticipant {
 	}
 
 	
-	public synchronized List<DependentResource> get(IResource dependsOn) {
+	public List<DependentResource> get(IResource dependsOn) {
 		init();
+		List<IResource> dependents = new ArrayList<IResource>();
+		List<String> ids = new ArrayList<String>();
+		for (DependencyPartition partition : getPartitionsDependingOn(dependsOn)){
+			partition.collect(dependsOn, null, dependents, ids);
+		}
+		
 		List<DependentResource> list = new LinkedList<DependentResource>();
-		Set<Depends> set = getSet(_dependsOn, dependsOn);
 		ValManager vm = ValManager.getDefault();
-		for (Depends d : set){
-			for (String id : d.getValidators()){
-				Validator v = vm.getValidator(id, d.getDependent().getProject());
-				if (v != null)list.add(new DependentResource(d.getDependent(), v));
-			}
+		for (int i=0; i<dependents.size(); i++){
+			IResource dependent = dependents.get(i);
+			Validator v = vm.getValidator(ids.get(i), dependent.getProject());
+			if (v != null)list.add(new DependentResource(dependent, v));
 		}
 		return list;
 	}
+	
+	/**
+	 * Answer all the resources that depend on this resource, either directly or indirectly. For example, if
+	 * a.xml depends on b.xsd, and b.xsd depends on c.xsd, then both a.xml and b.xsd depend on c.xsd.
+	 * <p>
+	 * Only one partition is locked at a time while the answer is being worked out.
+	 * </p>
+	 * 
+	 * @param dependsOn
+	 *            A resource that other resources may depend on.
+	 * @return the dependent resources, in breadth first order. The resource itself is never included.
+	 */
+	public Set<IResource> getTransitiveDependents(IResource dependsOn) {
+		init();
+		Set<IResource> result = new LinkedHashSet<IResource>();
+		LinkedList<IResource> todo = new LinkedList<IResource>();
+		todo.add(dependsOn);
+		while (!todo.isEmpty()){
+			IResource resource = todo.removeFirst();
+			List<IResource> dependents = new ArrayList<IResource>();
+			for (DependencyPartition partition : getPartitionsDependingOn(resource)){
+				partition.collect(resource, null, dependents, null);
+			}
+			for (IResource dependent : dependents){
+				if (!dependent.equals(dependsOn) && result.add(dependent))todo.add(dependent);
+			}
+		}
+		return result;
+	}
 
 
-	public synchronized void set(String id, IResource dependent, IResource[] dependsOn) {
+	/**
+	 * Replace the validator's assertions for the dependent. Other threads see either the old assertions or
+	 * the new ones, never a mixture.
+	 */
+	public void set(String id, IResource dependent, IResource[] dependsOn) {
 		init();
-		Set<Depends> set = getSet(_dependents, dependent);
-		for (Depends d : set){
-			if (d.delete(id))_dirty = true;
-		}
-		if (dependsOn != null){
-			for (IResource d : dependsOn)add(id, dependent, d);
+		String project = getProjectName(dependent);
+		DependencyPartition partition = getPartition(project);
+		synchronized(partition){
+			// the summary is updated first, since it is allowed to name more projects than it needs to
+			if (dependsOn != null){
+				for (IResource d : dependsOn){
+					if (d != null)addDependedOnBy(_dependedOnBy, getProjectName(d), project);
+				}
+			}
+			partition.set(id, dependent, dependsOn);
 		}
 	}
 		
-	public synchronized boolean isDependedOn(IResource resource) {
+	public boolean isDependedOn(IResource resource) {
 		init();
-		Set<Depends> set = _dependsOn.get(resource);
-		if (set == null || set.size() == 0)return false;
-		return true;
+		for (DependencyPartition partition : getPartitionsDependingOn(resource)){
+			if (partition.isDependedOn(resource))return true;
+		}
+		return false;
 	}
 
 	public void doneSaving(ISaveContext context) {	
@@ -247,136 +437,93 @@ public class DependencyIndex implements IDependencyIndex, ISaveParticipant {
 	}
 	
 	/**
-	 * Persist the dependency index. See the class comment for the structure.
+	 * Persist the dependency index. Only the partitions that have been loaded can have changed, and they
+	 * only need to append their changes to their journals. The summary is written first, so that it never
+	 * misses a partition that has been written, and the partitions are not written if it can't be saved.
 	 */
 	public synchronized void saving(ISaveContext context) throws CoreException {
-		if (!_dirty)return;
-		_dirty = false;
-		boolean error = false;
+		if (_dependedOnBy == null)return;
+		getIndexDir().toFile().mkdirs();
+		if (!saveSummary())return;
+		for (DependencyPartition partition : _partitions.values()){
+			try {
+				partition.save();
+			}
+			catch (IOException e){
+				ValidationPlugin.getPlugin().handleException(e);
+			}
+		}
+		if (_converted && _changes.get() == _savedChanges){
+			getOldIndexLocation().delete();
+			_converted = false;
+		}
+	}
+	
+	/**
+	 * Persist the summary, if it has changed. See the class comment for the structure.
+	 * <p>
+	 * Each set is copied once, so that what is written is consistent even if the summary is being changed
+	 * while it is saved. Changes that are made after the copy is taken leave the summary marked as changed.
+	 * </p>
+	 * 
+	 * @return false if the summary could not be saved.
+	 */
+	private boolean saveSummary(){
+		int changes = _changes.get();
+		if (changes == _savedChanges)return true;
+		Map<String, String[]> snapshot = new LinkedHashMap<String, String[]>(_dependedOnBy.size());
+		for (Map.Entry<String, Set<String>> me : _dependedOnBy.entrySet()){
+			String[] projects = me.getValue().toArray(new String[0]);
+			if (projects.length > 0)snapshot.put(me.getKey(), projects);
+		}
+		
+		boolean ok = false;
 		DataOutputStream out = null;
-		File f = null;
+		File f = getSummaryLocation();
+		File temp = new File(f.getPath() + ".tmp"); //$NON-NLS-1$
 		try {
-			f = getIndexLocation();
-			out = new DataOutputStream(new FileOutputStream(f));
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
 			out.writeInt(CurrentVersion);
-			Map<String, Set<DependsResolved>> map = compress(_dependsOn);
-			out.writeInt(map.size());
-			for (Map.Entry<String, Set<DependsResolved>> me : map.entrySet()){
+			out.writeInt(snapshot.size());
+			for (Map.Entry<String, String[]> me : snapshot.entrySet()){
 				out.writeUTF(me.getKey());
-				Set<DependsResolved> set = me.getValue();
-				out.writeInt(set.size());
-				for (DependsResolved d : set){
-					out.writeUTF(d.resource);
-					out.writeInt(d.validators.size());
-					for (String id : d.validators){
-						out.writeUTF(id);
-					}
-				}
+				out.writeInt(me.getValue().length);
+				for (String project : me.getValue())out.writeUTF(project);
 			}
+			out.close();
+			out = null;
+			f.delete();
+			if (!temp.renameTo(f))throw new IOException(f.getPath());
+			_savedChanges = changes;
+			ok = true;
 		}
 		catch (IOException e){
-			error = true;
 			ValidationPlugin.getPlugin().handleException(e);
 		}
 		finally {		
 			Misc.close(out);
-			if (error)f.delete();
-		}
-	}
-
-	private Map<String, Set<DependsResolved>> compress(Map<IResource, Set<Depends>> dependsOn) {
-		Map<String, Set<DependsResolved>> map = new HashMap<String, Set<DependsResolved>>(dependsOn.size());
-		for (Map.Entry<IResource, Set<Depends>> me : dependsOn.entrySet()){
-			Set<DependsResolved> set = new HashSet<DependsResolved>(me.getValue().size());
-			for (Depends d : me.getValue()){
-				IPath path = d.getDependent().getFullPath();
-				if (path != null){
-					DependsResolved dr = new DependsResolved(path.toPortableString(), d.getValidators());
-					if (dr.validators.size() > 0){
-						set.add(dr);
-					}
-				}				
-			}
-			if (set.size() > 0){
-				IResource res = me.getKey();
-				if (res != null){
-					IPath path = res.getFullPath();
-					if (path != null)map.put(path.toPortableString(), set);
-				}
+			if (!ok){
+				temp.delete();
+				f.delete();
 			}
 		}
-		return map;
+		return ok;
 	}
 
-	private File getIndexLocation() {
-		IPath path = ValidationPlugin.getPlugin().getStateLocation().append("dep.index"); //$NON-NLS-1$
-		return path.toFile();
+	private IPath getIndexDir() {
+		return ValidationPlugin.getPlugin().getStateLocation().append("dependencies"); //$NON-NLS-1$
 	}
 
-	/**
-	 * Keep track of a relationship between a dependent and the thing that it
-	 * depends on.
-	 * 
-	 * @author karasiuk
-	 * 
-	 */
-	private final static class Depends {
-
-		/** The resource that is being depended on, for example a.xsd */
-		private final IResource _dependsOn;
-
-		/** The resource that is dependent, for example a.xml */
-		private final IResource _dependent;
-
-		/** The id's of the validators that have asserted the dependency. */
-		private final Set<String> _validators;
-
-		public Depends(IResource dependent, IResource dependsOn) {
-			_dependent = dependent;
-			_dependsOn = dependsOn;
-			_validators = new HashSet<String>(5);
-		}
-
-		/**
-		 * Answer true if the id was deleted.
-		 */
-		public boolean delete(String id) {
-			return _validators.remove(id);
-		}
-
-		/**
-		 * Delete all the dependency assertions for all of your validators.
-		 * @return false if there was nothing to delete
-		 */
-		public boolean delete() {
-			boolean deleted = _validators.size() > 0;
-			if (deleted)_validators.clear();
-			return deleted;
-		}
-
-		public IResource getDependsOn() {
-			return _dependsOn;
-		}
-
-		public IResource getDependent() {
-			return _dependent;
-		}
-
-		public Set<String> getValidators() {
-			return _validators;
-		}
-}
-
-	private final static class DependsResolved {
-		final String 		resource;
-		final Set<String> validators;
-		
-		DependsResolved(String resource, Set<String> validators){
-			this.resource = resource;
-			this.validators = validators;
-			
-		}
+	private File getPartitionLocation(String project) {
+		return getIndexDir().append(project + ".dep").toFile(); //$NON-NLS-1$
 	}
 
+	private File getSummaryLocation() {
+		return getIndexDir().append("projects.index").toFile(); //$NON-NLS-1$
+	}
 
+	private File getOldIndexLocation() {
+		IPath path = ValidationPlugin.getPlugin().getStateLocation().append("dep.index"); //$NON-NLS-1$
+		return path.toFile();
+	}
 }
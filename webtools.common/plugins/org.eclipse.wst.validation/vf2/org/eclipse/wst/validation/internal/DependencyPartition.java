@@ -0,0 +1,540 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
+
+/**
+ * The part of the dependency index that holds the dependencies of the resources in one project. Each
+ * partition is persisted in its own journal file, so that it can be loaded on its own, and so that saving
+ * it only needs to append the changes that were made since it was last saved.
+ * <p>
+ * The format of the journal is a version number, followed by a sequence of records. Each record starts
+ * with a one byte tag:
+ *
+ * <pre>
+ * S index type value - add a string to the string table. The type is 0 for a validator id, or the
+ *                      IResource type for a resource, in which case the value is the portable path.
+ * A dependent dependsOn validator - the validator asserts that the dependent depends on the other resource.
+ * D dependent validator - remove all of the validator's assertions for the dependent.
+ * C - remove all the assertions.
+ * </pre>
+ *
+ * The dependent, dependsOn and validator are all indexes into the string table. When the journal has too
+ * many records compared to the number of assertions that are still in effect, it is compacted by rewriting
+ * it from scratch. The assertions about resources that no longer exist are dropped when it is compacted.
+ * </p>
+ * <p>
+ * Each partition is guarded by its own lock, so that threads that are working with different projects
+ * do not block each other. The results of the queries are copies, so they can be used without holding
+ * the lock.
+ * </p>
+ */
+final class DependencyPartition {
+
+	/** Version of the journal. */
+	private static final int CurrentVersion = 2;
+
+	private static final int TagString = 'S';
+	private static final int TagAdd = 'A';
+	private static final int TagDelete = 'D';
+	private static final int TagClear = 'C';
+
+	/** The string type that is used for validator ids. */
+	private static final int TypeId = 0;
+
+	/** The journal is compacted once it has this many more records than are needed. */
+	private static final int CompactSlack = 200;
+
+	private final File	_file;
+
+	/** An index so that we can determine which things depend on this resource. */
+	private final Map<IResource,Set<Depends>> _dependsOn = new HashMap<IResource,Set<Depends>>(50);
+
+	/** An index so that we can determine who the resource depends on. */
+	private final Map<IResource,Set<Depends>> _dependents = new HashMap<IResource,Set<Depends>>(50);
+
+	/** The changes that have not been written to the journal yet. */
+	private final List<Op>	_pending = new LinkedList<Op>();
+
+	/** The string table of the journal, the keys are built by {@link #key(int, String)}. */
+	private final Map<String, Integer> _strings = new HashMap<String, Integer>(100);
+
+	/** The number of add, delete and clear records in the journal. */
+	private int		_records;
+
+	/** Does the journal need to be rewritten from scratch? */
+	private boolean	_rewrite;
+	
+	/** Has the journal been read? */
+	private boolean	_loaded;
+
+	/**
+	 * @param file the journal for this partition.
+	 */
+	DependencyPartition(File file){
+		_file = file;
+	}
+
+	/**
+	 * Record that the validator has asserted that the dependent depends on the other resource.
+	 *
+	 * @return true if this was a new assertion.
+	 */
+	synchronized boolean add(String id, IResource dependent, IResource dependsOn){
+		if (!addNoRecord(id, dependent, dependsOn))return false;
+		_pending.add(new Op(TagAdd, id, dependent, dependsOn));
+		return true;
+	}
+
+	private boolean addNoRecord(String id, IResource dependent, IResource dependsOn){
+		Set<Depends> set = getSet(_dependents, dependent);
+		for (Depends d : set){
+			if (d.getDependsOn().equals(dependsOn))return d.getValidators().add(id);
+		}
+		Depends d = new Depends(dependent, dependsOn);
+		set.add(d);
+		getSet(_dependsOn, dependsOn).add(d);
+		return d.getValidators().add(id);
+	}
+
+	/**
+	 * Remove all of the validator's assertions for the dependent.
+	 *
+	 * @return true if anything was removed.
+	 */
+	synchronized boolean delete(String id, IResource dependent){
+		if (!deleteNoRecord(id, dependent))return false;
+		_pending.add(new Op(TagDelete, id, dependent, null));
+		return true;
+	}
+
+	private boolean deleteNoRecord(String id, IResource dependent){
+		Set<Depends> set = _dependents.get(dependent);
+		if (set == null)return false;
+		boolean deleted = false;
+		for (Depends d : set){
+			if (d.delete(id))deleted = true;
+		}
+		return deleted;
+	}
+
+	/**
+	 * Replace all of the validator's assertions for the dependent, as a single change.
+	 *
+	 * @param dependsOn
+	 *            The resources that the dependent now depends on. This can be null, and can contain nulls.
+	 */
+	synchronized void set(String id, IResource dependent, IResource[] dependsOn){
+		delete(id, dependent);
+		if (dependsOn != null){
+			for (IResource d : dependsOn){
+				if (d != null)add(id, dependent, d);
+			}
+		}
+	}
+
+	private boolean clearNoRecord(){
+		boolean deleted = false;
+		for (Set<Depends> set : _dependents.values()){
+			for (Depends d : set){
+				if (d.delete())deleted = true;
+			}
+		}
+		return deleted;
+	}
+
+	/**
+	 * Forget all of the assertions and delete the journal, without reading it first.
+	 */
+	synchronized void delete(){
+		_dependsOn.clear();
+		_dependents.clear();
+		_pending.clear();
+		_strings.clear();
+		_records = 0;
+		_rewrite = false;
+		_loaded = true;
+		_file.delete();
+	}
+
+	/**
+	 * Add the resources that depend on this resource, and the validators that asserted the dependency, to
+	 * the lists. The two lists are kept in step.
+	 *
+	 * @param dependsOn
+	 *            The resource that is depended on.
+	 * @param id
+	 *            Only include the assertions of this validator. If this is null, all the assertions are
+	 *            included.
+	 * @param dependents
+	 *            The list that the dependent resources are added to.
+	 * @param ids
+	 *            The list that the validator ids are added to. This can be null.
+	 */
+	synchronized void collect(IResource dependsOn, String id, List<IResource> dependents, List<String> ids){
+		Set<Depends> set = _dependsOn.get(dependsOn);
+		if (set == null)return;
+		for (Depends d : set){
+			for (String validator : d.getValidators()){
+				if (id != null && !id.equals(validator))continue;
+				dependents.add(d.getDependent());
+				if (ids != null)ids.add(validator);
+			}
+		}
+	}
+
+	/**
+	 * Answer true if any of the resources in this partition depend on the resource.
+	 */
+	synchronized boolean isDependedOn(IResource resource){
+		Set<Depends> set = _dependsOn.get(resource);
+		if (set == null)return false;
+		for (Depends d : set){
+			if (d.getValidators().size() > 0)return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Answer the number of assertions that are in effect.
+	 */
+	private int getLiveCount(){
+		int count = 0;
+		for (Set<Depends> set : _dependents.values()){
+			for (Depends d : set)count += d.getValidators().size();
+		}
+		return count;
+	}
+
+	private static Set<Depends> getSet(Map<IResource, Set<Depends>> map, IResource resource) {
+		Set<Depends> set = map.get(resource);
+		if (set == null){
+			set = new HashSet<Depends>(5);
+			map.put(resource, set);
+		}
+		return set;
+	}
+
+	/**
+	 * Restore the partition from its journal, if that hasn't already been done.
+	 */
+	synchronized void load(IWorkspaceRoot root){
+		if (_loaded)return;
+		_loaded = true;
+		if (!_file.exists() || _file.length() == 0)return;
+		DataInputStream in = null;
+		boolean error = false;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(_file)));
+			if (in.readInt() != CurrentVersion){
+				error = true;
+				return;
+			}
+			List<Object> table = new ArrayList<Object>(100);
+			int tag;
+			while ((tag = in.read()) != -1){
+				if (tag == TagString){
+					int index = in.readInt();
+					int type = in.readByte();
+					String value = in.readUTF();
+					while (table.size() <= index)table.add(null);
+					table.set(index, type == TypeId ? value : toResource(root, type, value));
+					_strings.put(key(type, value), index);
+				}
+				else if (tag == TagAdd){
+					IResource dependent = (IResource)table.get(in.readInt());
+					IResource dependsOn = (IResource)table.get(in.readInt());
+					String id = (String)table.get(in.readInt());
+					if (dependent != null && dependsOn != null)addNoRecord(id, dependent, dependsOn);
+					_records++;
+				}
+				else if (tag == TagDelete){
+					IResource dependent = (IResource)table.get(in.readInt());
+					String id = (String)table.get(in.readInt());
+					if (dependent != null)deleteNoRecord(id, dependent);
+					_records++;
+				}
+				else if (tag == TagClear){
+					clearNoRecord();
+					_records++;
+				}
+				else throw new IOException(ValMessages.DecodeError1);
+			}
+		}
+		catch (EOFException e){
+			// the last record was only partly written, keep what we have and write a clean journal
+			_rewrite = true;
+			Tracing.log("Unable to read the dependency journal because of EOF exception"); //$NON-NLS-1$
+		}
+		catch (IOException e){
+			error = true;
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+		catch (RuntimeException e){
+			// a corrupt string table
+			error = true;
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+		finally {
+			Misc.close(in);
+			if (error){
+				_dependsOn.clear();
+				_dependents.clear();
+				_strings.clear();
+				_records = 0;
+				_rewrite = true;
+			}
+		}
+	}
+
+	private static IResource toResource(IWorkspaceRoot root, int type, String value){
+		IPath path = Path.fromPortableString(value);
+		switch (type){
+		case IResource.FILE:
+			return root.getFile(path);
+		case IResource.FOLDER:
+			return root.getFolder(path);
+		case IResource.PROJECT:
+			return root.getProject(path.lastSegment());
+		case IResource.ROOT:
+			return root;
+		}
+		return null;
+	}
+
+	/**
+	 * Write any of the changes to the journal. The journal is compacted if it has grown too large.
+	 */
+	synchronized void save() throws IOException {
+		if (_pending.isEmpty() && !_rewrite)return;
+		if (_rewrite || !_file.exists() || _records + _pending.size() > 2*getLiveCount() + CompactSlack)compact();
+		else append();
+	}
+
+	private void append() throws IOException {
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(_file, true)));
+			for (Op op : _pending){
+				if (op.tag == TagAdd){
+					int dependent = index(out, op.dependent);
+					int dependsOn = index(out, op.dependsOn);
+					int id = index(out, TypeId, op.id);
+					out.writeByte(TagAdd);
+					out.writeInt(dependent);
+					out.writeInt(dependsOn);
+					out.writeInt(id);
+				}
+				else if (op.tag == TagDelete){
+					int dependent = index(out, op.dependent);
+					int id = index(out, TypeId, op.id);
+					out.writeByte(TagDelete);
+					out.writeInt(dependent);
+					out.writeInt(id);
+				}
+				else out.writeByte(TagClear);
+				_records++;
+			}
+			_pending.clear();
+		}
+		catch (IOException e){
+			// we don't know how much of the journal was written, so the next save needs to start over
+			_rewrite = true;
+			throw e;
+		}
+		finally {
+			Misc.close(out);
+		}
+	}
+
+	/**
+	 * Forget the assertions that are no longer in effect, or that are about resources that no longer exist.
+	 */
+	private void prune(){
+		for (Iterator<Set<Depends>> it = _dependents.values().iterator(); it.hasNext();){
+			Set<Depends> set = it.next();
+			for (Iterator<Depends> dit = set.iterator(); dit.hasNext();){
+				Depends d = dit.next();
+				if (d.getValidators().isEmpty() || !d.getDependent().exists() || !d.getDependsOn().exists()){
+					dit.remove();
+					Set<Depends> dependsOn = _dependsOn.get(d.getDependsOn());
+					if (dependsOn != null){
+						dependsOn.remove(d);
+						if (dependsOn.isEmpty())_dependsOn.remove(d.getDependsOn());
+					}
+				}
+			}
+			if (set.isEmpty())it.remove();
+		}
+	}
+
+	/**
+	 * Rewrite the journal so that it only contains the assertions that are in effect.
+	 */
+	private void compact() throws IOException {
+		prune();
+		_strings.clear();
+		_records = 0;
+		File temp = new File(_file.getPath() + ".tmp"); //$NON-NLS-1$
+		DataOutputStream out = null;
+		boolean ok = false;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			out.writeInt(CurrentVersion);
+			for (Set<Depends> set : _dependents.values()){
+				for (Depends d : set){
+					for (String id : d.getValidators()){
+						int dependent = index(out, d.getDependent());
+						int dependsOn = index(out, d.getDependsOn());
+						int idIndex = index(out, TypeId, id);
+						out.writeByte(TagAdd);
+						out.writeInt(dependent);
+						out.writeInt(dependsOn);
+						out.writeInt(idIndex);
+						_records++;
+					}
+				}
+			}
+			out.close();
+			out = null;
+			_file.delete();
+			ok = temp.renameTo(_file);
+			if (!ok)throw new IOException(_file.getPath());
+			_pending.clear();
+			_rewrite = false;
+		}
+		finally {
+			Misc.close(out);
+			if (!ok){
+				temp.delete();
+				_rewrite = true;
+			}
+		}
+	}
+
+	private int index(DataOutputStream out, IResource resource) throws IOException {
+		return index(out, resource.getType(), resource.getFullPath().toPortableString());
+	}
+
+	/**
+	 * Answer the index of the string in the string table, adding it to the journal if it is new.
+	 */
+	private int index(DataOutputStream out, int type, String value) throws IOException {
+		String key = key(type, value);
+		Integer index = _strings.get(key);
+		if (index != null)return index;
+		int i = _strings.size();
+		_strings.put(key, i);
+		out.writeByte(TagString);
+		out.writeInt(i);
+		out.writeByte(type);
+		out.writeUTF(value);
+		return i;
+	}
+
+	private static String key(int type, String value){
+		return String.valueOf(type) + value;
+	}
+
+	/**
+	 * A change that has not been written to the journal yet.
+	 */
+	private final static class Op {
+		final int		tag;
+		final String	id;
+		final IResource	dependent;
+		final IResource dependsOn;
+
+		Op(int tag, String id, IResource dependent, IResource dependsOn){
+			this.tag = tag;
+			this.id = id;
+			this.dependent = dependent;
+			this.dependsOn = dependsOn;
+		}
+	}
+
+	/**
+	 * Keep track of a relationship between a dependent and the thing that it
+	 * depends on.
+	 *
+	 * @author karasiuk
+	 *
+	 */
+	private final static class Depends {
+
+		/** The resource that is being depended on, for example a.xsd */
+		private final IResource _dependsOn;
+
+		/** The resource that is dependent, for example a.xml */
+		private final IResource _dependent;
+
+		/** The id's of the validators that have asserted the dependency. */
+		private final Set<String> _validators;
+
+		public Depends(IResource dependent, IResource dependsOn) {
+			_dependent = dependent;
+			_dependsOn = dependsOn;
+			_validators = new HashSet<String>(5);
+		}
+
+		/**
+		 * Answer true if the id was deleted.
+		 */
+		public boolean delete(String id) {
+			return _validators.remove(id);
+		}
+
+		/**
+		 * Delete all the dependency assertions for all of your validators.
+		 * @return false if there was nothing to delete
+		 */
+		public boolean delete() {
+			boolean deleted = _validators.size() > 0;
+			if (deleted)_validators.clear();
+			return deleted;
+		}
+
+		public IResource getDependsOn() {
+			return _dependsOn;
+		}
+
+		public IResource getDependent() {
+			return _dependent;
+		}
+
+		public Set<String> getValidators() {
+			return _validators;
+		}
+	}
+}
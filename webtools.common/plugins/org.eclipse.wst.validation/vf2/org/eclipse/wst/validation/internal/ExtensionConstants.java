@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2010 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -46,6 +46,12 @@ public interface ExtensionConstants {
 	 */
 	String sourceId = "sourceid"; //$NON-NLS-1$
 	
+	/** 
+	 * threadSafe - can the validator be called by more than one thread at the same time? true or false. This
+	 * is an optional attribute, and if it is not supplied the validator is assumed not to be thread safe.
+	 */
+	String threadSafe = "threadSafe"; //$NON-NLS-1$
+	
 	/** 
 	 * version - the version of this definition. The attribute is a simple integer, and if not specified it
 	 * is assumed to be 1. This allows the filter settings to be changed in the future.
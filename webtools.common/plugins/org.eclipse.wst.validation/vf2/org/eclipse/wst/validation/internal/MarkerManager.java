@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2008 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,7 +10,11 @@
  *******************************************************************************/
 package org.eclipse.wst.validation.internal;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -18,7 +22,11 @@ import java.util.Set;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.wst.validation.Validator;
 import org.eclipse.wst.validation.ValidatorMessage;
 import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
@@ -26,6 +34,13 @@ import org.eclipse.wst.validation.internal.provisional.core.IMessage;
 
 /**
  * A central place to manage all of the V2 validation markers.
+ * <p>
+ * While a resource is being validated, the markers that the validators create for it are collected in a
+ * batch. When the validation is finished, the batch is compared with the markers that the resource already
+ * has. Markers that haven't changed are left alone, and the rest of the markers are created and deleted in
+ * a single workspace operation. The batches belong to the {@link ValOperation}, so markers that are created
+ * for the same resource by other operations are not mixed into them.
+ * </p>
  * @author karasiuk
  *
  */
@@ -52,10 +67,32 @@ public class MarkerManager {
 	 *            The validator that created the marker.
 	 */
 	public void clearMarker(IResource resource, Validator validator) throws CoreException {
+		clearMarker(resource, validator, null);
+	}
+	
+	/**
+	 * Clear any validation markers that may have been set by this validator. If the markers of the resource
+	 * are being collected by the operation, the markers are deleted when the batch ends, unless they are
+	 * collected again.
+	 * 
+	 * @param resource
+	 *            The resource that may have it's markers cleared. It can be
+	 *            null, in which case the operation is a no-op.
+	 * @param validator
+	 *            The validator that created the marker.
+	 * @param operation
+	 *            The operation that the validator is running in. It can be null.
+	 */
+	public void clearMarker(IResource resource, Validator validator, ValOperation operation) throws CoreException {
 		if (resource == null)return;
 		hook(resource);
 		
 		String id = validator.getMarkerId();
+		Batch batch = operation == null ? null : operation.getMarkerBatch(resource);
+		if (batch != null){
+			batch.clear(id, validator.getId());
+			return;
+		}
 		if (id != null){
 			try {
 				resource.deleteMarkers(id, true, IResource.DEPTH_ZERO);
@@ -74,15 +111,35 @@ public class MarkerManager {
 		}
 	}
 	
-	@SuppressWarnings("unchecked")
 	public void createMarker(ValidatorMessage m, String id){
+		createMarker(m, id, null);
+	}
+	
+	/**
+	 * Create a marker for the message. If the markers of the resource are being collected by the operation,
+	 * the marker is added to the batch instead of being created immediately.
+	 * 
+	 * @param m
+	 *            The message.
+	 * @param id
+	 *            The id of the validator that produced the message.
+	 * @param operation
+	 *            The operation that the validator is running in. It can be null.
+	 */
+	@SuppressWarnings("unchecked")
+	public void createMarker(ValidatorMessage m, String id, ValOperation operation){
 		try {
 			IResource resource = m.getResource();
 			hook(resource);
-			IMarker marker = resource.createMarker(m.getType());
 			Map map = m.getAttributes();
 			if (map.get(ValidatorMessage.ValidationId) == null)
 				map.put(ValidatorMessage.ValidationId, id);
+			Batch batch = operation == null ? null : operation.getMarkerBatch(resource);
+			if (batch != null){
+				batch.add(m.getType(), new HashMap<String, Object>(map));
+				return;
+			}
+			IMarker marker = resource.createMarker(m.getType());
 			marker.setAttributes(map);
 		}
 		catch (CoreException e){
@@ -105,6 +162,26 @@ public class MarkerManager {
 	 *            IResource.DEPTH_XXX constants.
 	 */
 	public void deleteMarkers(IResource resource, long operationStartTime, int depth){
+		deleteMarkers(resource, operationStartTime, null, depth);
+	}
+	
+	/**
+	 * Delete all the markers on this resource that were created before the operation started, except for
+	 * the markers that the operation has kept.
+	 * 
+	 * @param resource
+	 *            The resource that is having it's markers deleted.
+	 * @param operation
+	 *            The operation that is running.
+	 * @param depth
+	 *            The depth of the markers to clear. It is one of the
+	 *            IResource.DEPTH_XXX constants.
+	 */
+	public void deleteMarkers(IResource resource, ValOperation operation, int depth){
+		deleteMarkers(resource, operation.getStarted(), operation, depth);
+	}
+	
+	private void deleteMarkers(IResource resource, long operationStartTime, ValOperation operation, int depth){
 		try {
 			hook(resource);
 
@@ -112,6 +189,7 @@ public class MarkerManager {
 				return;
 
 			IMarker[] markers = resource.findMarkers(null, true, depth);
+			List<IMarker> delete = new ArrayList<IMarker>(markers.length);
 			String markerType;
 			for (IMarker marker : markers){
 				try {
@@ -120,18 +198,21 @@ public class MarkerManager {
 				catch (CoreException e)
 				{
 					//ignore the marker
-					return;
+					continue;
 				}
 				if (_markers.contains(markerType)){
 					long createTime = marker.getCreationTime();
-					if (createTime < operationStartTime){
-						try {
-							marker.delete();
-						}
-						catch (CoreException e){
-							// eat it - there is nothing we can do about this.
-						}
-					}
+					if (createTime >= operationStartTime)continue;
+					if (operation != null && operation.isKeptMarker(marker.getId()))continue;
+					delete.add(marker);
+				}
+			}
+			if (delete.size() > 0){
+				try {
+					resource.getWorkspace().deleteMarkers(delete.toArray(new IMarker[delete.size()]));
+				}
+				catch (CoreException e){
+					// eat it - there is nothing we can do about this.
 				}
 			}
 		}
@@ -143,37 +224,140 @@ public class MarkerManager {
 		}		
 	}
 	
-	public void makeMarkers(List<IMessage> list){
-		for (IMessage message : list){
-			IResource res = null;
-			Object target = message.getTargetObject();
+	/**
+	 * Create markers for the messages. All of the markers are created in a single workspace operation, and
+	 * each marker has all of its attributes set at once.
+	 */
+	public void makeMarkers(final List<IMessage> list){
+		IWorkspaceRunnable runnable = new IWorkspaceRunnable(){
+
+			public void run(IProgressMonitor monitor) throws CoreException {
+				for (IMessage message : list)makeMarker(message);
+			}
+		};
+		try {
+			ResourcesPlugin.getWorkspace().run(runnable, null, IWorkspace.AVOID_UPDATE, null);
+		}
+		catch (CoreException e){
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+	}
+	
+	private void makeMarker(IMessage message){
+		IResource res = null;
+		Object target = message.getTargetObject();
+		if (target != null && target instanceof IResource)res = (IResource)target;
+		if (res == null){
+			target = message.getAttribute(IMessage.TargetResource);
 			if (target != null && target instanceof IResource)res = (IResource)target;
-			if (res == null){
-				target = message.getAttribute(IMessage.TargetResource);
-				if (target != null && target instanceof IResource)res = (IResource)target;
+		}
+		if (res != null){
+			try {
+				hook(res);
+				String id = message.getMarkerId();
+				if (id == null)id = ConfigurationConstants.VALIDATION_MARKER;
+				Map<String, Object> attributes = new HashMap<String, Object>();
+				if (message.getAttributes() != null)attributes.putAll(message.getAttributes());
+				attributes.put(IMarker.MESSAGE, message.getText());
+				int markerSeverity = IMarker.SEVERITY_INFO;
+				int sev = message.getSeverity();
+				if ((sev & IMessage.HIGH_SEVERITY) != 0)markerSeverity = IMarker.SEVERITY_ERROR;
+				else if ((sev & IMessage.NORMAL_SEVERITY) != 0)markerSeverity = IMarker.SEVERITY_WARNING;
+				attributes.put(IMarker.SEVERITY, markerSeverity);
+				attributes.put(IMarker.LINE_NUMBER, message.getLineNumber());
+				IMarker marker = res.createMarker(id);
+				marker.setAttributes(attributes);
 			}
-			if (res != null){
-				try {
-					hook(res);
-					String id = message.getMarkerId();
-					if (id == null)id = ConfigurationConstants.VALIDATION_MARKER;
-					IMarker marker = res.createMarker(id);
-					marker.setAttributes(message.getAttributes());
-					marker.setAttribute(IMarker.MESSAGE, message.getText());
-					int markerSeverity = IMarker.SEVERITY_INFO;
-					int sev = message.getSeverity();
-					if ((sev & IMessage.HIGH_SEVERITY) != 0)markerSeverity = IMarker.SEVERITY_ERROR;
-					else if ((sev & IMessage.NORMAL_SEVERITY) != 0)markerSeverity = IMarker.SEVERITY_WARNING;
-					marker.setAttribute(IMarker.SEVERITY, markerSeverity);
-					marker.setAttribute(IMarker.LINE_NUMBER, message.getLineNumber());
-				}
-				catch (CoreException e){
-					ValidationPlugin.getPlugin().handleException(e);
-				}				
+			catch (CoreException e){
+				ValidationPlugin.getPlugin().handleException(e);
+			}				
+		}
+	}
+	
+	/**
+	 * Start collecting the markers that are created for the resource in this operation, instead of creating
+	 * them immediately.
+	 * 
+	 * @param resource
+	 *            The resource that is about to be validated.
+	 * @param operation
+	 *            The operation that the resource is validated in. Only the markers that are created for this
+	 *            operation are collected.
+	 * @return false if the markers for the resource are already being collected, in which case
+	 *         {@link #endBatch(IResource, ValOperation)} must not be called.
+	 */
+	public boolean beginBatch(IResource resource, ValOperation operation){
+		return operation.addMarkerBatch(resource, new Batch());
+	}
+	
+	/**
+	 * Bring the markers of the resource up to date with the markers that were collected since the batch
+	 * began. The validation markers that existed before the operation started, and that were not collected
+	 * again, are deleted. Markers that were collected again are left alone, so that they don't cause any
+	 * resource changes.
+	 * 
+	 * @param resource
+	 *            The resource that has been validated.
+	 * @param operation
+	 *            The operation that the validation ran in. Any markers that are kept are remembered in the
+	 *            operation, so that they are treated as if they had been created by it.
+	 */
+	public void endBatch(final IResource resource, final ValOperation operation){
+		final Batch batch = operation.removeMarkerBatch(resource);
+		if (batch == null || !resource.exists())return;
+		IWorkspaceRunnable runnable = new IWorkspaceRunnable(){
+
+			public void run(IProgressMonitor monitor) throws CoreException {
+				apply(resource, batch, operation);
 			}
+		};
+		try {
+			ResourcesPlugin.getWorkspace().run(runnable, null, IWorkspace.AVOID_UPDATE, null);
+		}
+		catch (CoreException e){
+			if (!resource.exists())throw new ResourceUnavailableError(resource);
+			ValidationPlugin.getPlugin().handleException(e);
 		}
 	}
 	
+	private void apply(IResource resource, Batch batch, ValOperation operation) throws CoreException {
+		Map<Batch.Entry, List<IMarker>> stale = new HashMap<Batch.Entry, List<IMarker>>();
+		for (IMarker marker : resource.findMarkers(null, true, IResource.DEPTH_ZERO)){
+			String type;
+			try {
+				type = marker.getType();
+			}
+			catch (CoreException e){
+				continue;
+			}
+			if (!batch.isCleared(marker, type)){
+				if (!_markers.contains(type))continue;
+				if (marker.getCreationTime() >= operation.getStarted() || operation.isKeptMarker(marker.getId()))continue;
+			}
+			Batch.Entry key = new Batch.Entry(type, marker.getAttributes());
+			List<IMarker> list = stale.get(key);
+			if (list == null){
+				list = new LinkedList<IMarker>();
+				stale.put(key, list);
+			}
+			list.add(marker);
+		}
+		
+		for (Batch.Entry entry : batch.getEntries()){
+			List<IMarker> list = stale.get(entry);
+			if (list != null && !list.isEmpty()){
+				operation.keepMarker(list.remove(0).getId());
+				continue;
+			}
+			IMarker marker = resource.createMarker(entry.getType());
+			marker.setAttributes(entry.getAttributes());
+		}
+		
+		List<IMarker> delete = new LinkedList<IMarker>();
+		for (List<IMarker> list : stale.values())delete.addAll(list);
+		if (delete.size() > 0)resource.getWorkspace().deleteMarkers(delete.toArray(new IMarker[delete.size()]));
+	}
+	
 	/**
 	 * A debugging method. A place to put break points, so that you can figure out what sort of marker
 	 * changes are happening.
@@ -194,6 +378,91 @@ public class MarkerManager {
 		return _markers;
 	}
 	
+	/**
+	 * The markers that have been collected for a resource. The validators for a resource can be run on
+	 * several threads at the same time, so access to the batch is synchronized.
+	 */
+	final static class Batch {
+		
+		private final List<Entry> _entries = new LinkedList<Entry>();
+		
+		/** The marker types and validator ids that were cleared while the markers were being collected. */
+		private final List<String[]> _cleared = new LinkedList<String[]>();
+		
+		public synchronized void add(String type, Map<String, Object> attributes){
+			_entries.add(new Entry(type, attributes));
+		}
+		
+		/**
+		 * Forget the markers of the given type, or if the type is null, the problem markers that were
+		 * created by the given validator. The existing markers that match are deleted when the batch is
+		 * applied.
+		 */
+		public synchronized void clear(String type, String validatorId){
+			_cleared.add(new String[]{type, validatorId});
+			for (Iterator<Entry> it = _entries.iterator(); it.hasNext();){
+				Entry entry = it.next();
+				if (type != null){
+					if (type.equals(entry.getType()))it.remove();
+				}
+				else if (ValConstants.ProblemMarker.equals(entry.getType()) && 
+					validatorId.equals(entry.getAttributes().get(ValidatorMessage.ValidationId)))it.remove();
+			}
+		}
+		
+		/**
+		 * Answer true if the existing marker was cleared while the markers were being collected.
+		 */
+		public synchronized boolean isCleared(IMarker marker, String type) throws CoreException {
+			for (String[] cleared : _cleared){
+				if (cleared[0] != null){
+					if (type.equals(cleared[0]) || marker.isSubtypeOf(cleared[0]))return true;
+				}
+				else if ((type.equals(ValConstants.ProblemMarker) || marker.isSubtypeOf(ValConstants.ProblemMarker)) &&
+					cleared[1].equals(marker.getAttribute(ValidatorMessage.ValidationId, null)))return true;
+			}
+			return false;
+		}
+		
+		public synchronized List<Entry> getEntries(){
+			return new ArrayList<Entry>(_entries);
+		}
+		
+		/**
+		 * A marker, identified by its type and all of its attributes.
+		 */
+		private final static class Entry {
+			private final String 				_type;
+			private final Map<String, Object>	_attributes;
+			
+			@SuppressWarnings("unchecked")
+			public Entry(String type, Map attributes){
+				_type = type;
+				_attributes = attributes == null ? new HashMap<String, Object>() : attributes;
+			}
+			
+			public String getType() {
+				return _type;
+			}
+			
+			public Map<String, Object> getAttributes() {
+				return _attributes;
+			}
+			
+			@Override
+			public int hashCode() {
+				return _type.hashCode() + 31*_attributes.hashCode();
+			}
+			
+			@Override
+			public boolean equals(Object obj) {
+				if (!(obj instanceof Entry))return false;
+				Entry other = (Entry)obj;
+				return _type.equals(other._type) && _attributes.equals(other._attributes);
+			}
+		}
+	}
+	
 	/**
 	 * Store the singleton for the MarkerManager. This approach is used to avoid having to synchronize the
 	 * MarkerManager.getDefault() method.
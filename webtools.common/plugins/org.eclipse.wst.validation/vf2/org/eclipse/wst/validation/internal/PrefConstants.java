@@ -106,6 +106,12 @@ public interface PrefConstants {
 	/** override - should we show projects to override the global preferences? */
 	String override = "override"; //$NON-NLS-1$
 	
+	/** parallel - may independent validators be run concurrently? true/false */
+	String parallel = "parallel"; //$NON-NLS-1$
+	
+	/** cacheResults - may the results of validating unchanged files be reused? true/false */
+	String cacheResults = "cacheResults"; //$NON-NLS-1$
+	
 	/** vals - the validators are grouped under this node. */
 	String vals = "vals"; //$NON-NLS-1$
 	
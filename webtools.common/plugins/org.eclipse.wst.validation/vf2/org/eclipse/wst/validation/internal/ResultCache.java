@@ -0,0 +1,708 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ProjectScope;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.wst.validation.ValidationResult;
+import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.ValidatorMessage;
+import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
+import org.osgi.framework.Bundle;
+import org.osgi.service.prefs.BackingStoreException;
+
+/**
+ * Remember the results of validating files across sessions, so that a file whose content, validator
+ * configuration and dependencies have not changed can have its messages restored without running the
+ * validator again. This is only used when the cache results preference has been turned on.
+ * <p>
+ * Besides the configuration that the framework knows about, a result is tied to the version of the plug-in
+ * that contributed the validator, and to that plug-in's own preferences in the workspace and in the project.
+ * Updating the validator, or changing any of its settings, makes its remembered results stale.
+ * </p>
+ * <p>
+ * A result is only remembered if all of its messages are for the file that was validated, and all of the
+ * resources that it depends on are files. Each result is checked against the content of the file and of the
+ * files that it depends on, so a stale result is never restored. A file whose local time stamp and size are
+ * the same as when the result was remembered is taken to be unchanged. Otherwise the hash of its content is
+ * compared, so a file that was only touched still matches. A file is hashed at most once for each time
+ * stamp, however many validators look at it.
+ * </p>
+ * <p>
+ * The results are forgotten whenever the validation configuration changes, or the preference is toggled.
+ * The cache is saved along with the rest of the validation state whenever the workspace is saved.
+ * </p>
+ * <p>
+ * The format of the cache is:
+ *
+ * <pre>
+ * Version number
+ * Number of entries
+ *   validator id
+ *   file name
+ *   validator configuration hash
+ *   validator stamp (contributing plug-in, its version and a hash of its preferences)
+ *   local time stamp
+ *   size
+ *   content hash
+ *   number of depends on entries
+ *     depends on file name
+ *     local time stamp
+ *     size
+ *     content hash
+ *   number of errors, warnings and infos
+ *   number of messages
+ *     marker type
+ *     number of attributes
+ *       attribute name
+ *       attribute type (S, I or B)
+ *       attribute value
+ * </pre>
+ */
+public final class ResultCache {
+
+	/** Version of the persistent cache. */
+	private static final int CurrentVersion = 3;
+
+	/** The most results that are remembered. The least recently used results are forgotten first. */
+	private static final int MaxEntries = 20000;
+
+	/** The most file hashes that are remembered for reuse by the other validators of the same file. */
+	private static final int MaxHashes = 256;
+
+	/** Strings that are longer than this are not remembered, since they can't be written with writeUTF. */
+	private static final int MaxString = 16000;
+
+	private static final char[] Hex = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+
+	private static ResultCache _me;
+
+	/** The plug-ins that contributed the validators, keyed by validator id. */
+	private final Map<String, String> _contributors = new HashMap<String, String>(50);
+
+	/** The remembered results, keyed by validator id and file name. This is loaded lazily. */
+	private Map<String, Result> _entries;
+	private boolean	_dirty;
+
+	/** The most recent content hashes, keyed by file name. */
+	private final Map<String, Content> _hashes = new LinkedHashMap<String, Content>(MaxHashes, 0.75f, true){
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Content> eldest) {
+			return size() > MaxHashes;
+		}
+	};
+
+	public static synchronized ResultCache getDefault(){
+		if (_me == null)_me = new ResultCache();
+		return _me;
+	}
+
+	/**
+	 * Answer true if the results of validating unchanged files should be reused.
+	 */
+	public static boolean isEnabled(){
+		return ValManager.getDefault().getGlobalPreferences().getCacheResults();
+	}
+
+	private ResultCache(){}
+
+	/**
+	 * Answer the key that identifies this validation.
+	 *
+	 * @param validator
+	 *            The validator that is going to validate the resource.
+	 * @param resource
+	 *            The resource that is going to be validated.
+	 *
+	 * @return null if the result of this validation can not be cached, for example because the resource is
+	 *         not a file.
+	 */
+	public Key createKey(Validator validator, IResource resource){
+		if (resource.getType() != IResource.FILE)return null;
+		Content content = stat((IFile)resource);
+		if (content == null)return null;
+		return new Key(validator.getId(), resource.getFullPath().toPortableString(),
+			validator.hashCodeForConfig(), getStamp(validator, resource.getProject()), content);
+	}
+
+	/**
+	 * Answer a stamp that changes whenever the validator's own plug-in changes. It is made up of the id
+	 * and version of the plug-in that contributed the validator, and a hash of that plug-in's preferences
+	 * in the workspace and in the project, since that is where validators keep their own settings.
+	 *
+	 * @return an empty string if the contributing plug-in is not known.
+	 */
+	private String getStamp(Validator validator, IProject project){
+		String contributor = getContributor(validator);
+		if (contributor == null)return ""; //$NON-NLS-1$
+		Bundle bundle = Platform.getBundle(contributor);
+		if (bundle == null)return ""; //$NON-NLS-1$
+		int h = hashPreferences(new InstanceScope().getNode(contributor));
+		h = 31*h + hashPreferences(new ProjectScope(project).getNode(contributor));
+		return contributor + '_' + bundle.getVersion() + '#' + Integer.toHexString(h);
+	}
+
+	/**
+	 * Answer the id of the plug-in that contributed the validator.
+	 *
+	 * @return null if it is not known.
+	 */
+	private String getContributor(Validator validator){
+		String id = validator.getId();
+		synchronized(_contributors){
+			if (_contributors.containsKey(id))return _contributors.get(id);
+		}
+		String contributor = null;
+		Validator.V1 v1 = validator.asV1Validator();
+		if (v1 != null)contributor = v1.getVmd().getPluginId();
+		else {
+			IExtension extension = Platform.getExtensionRegistry()
+				.getExtension(ValidationPlugin.PLUGIN_ID, ExtensionConstants.validator, id);
+			if (extension != null)contributor = extension.getContributor().getName();
+		}
+		synchronized(_contributors){
+			_contributors.put(id, contributor);
+		}
+		return contributor;
+	}
+
+	/**
+	 * Answer a hash of the preferences that are stored in the node. The hash does not depend on the order
+	 * of the keys.
+	 */
+	private static int hashPreferences(IEclipsePreferences prefs){
+		int h = 0;
+		try {
+			for (String key : prefs.keys()){
+				String value = prefs.get(key, null);
+				h += key.hashCode() ^ (value == null ? 0 : value.hashCode());
+			}
+		}
+		catch (BackingStoreException e){
+			// the preferences can't be read, so they can't have changed either
+		}
+		return h;
+	}
+
+	/**
+	 * Answer the remembered result for this validation.
+	 *
+	 * @param key
+	 *            The key that was returned from {@link #createKey(Validator, IResource)}.
+	 * @param resource
+	 *            The resource that is being validated. The restored messages are for this resource.
+	 *
+	 * @return null if there isn't a result, or if the result is no longer valid.
+	 */
+	public ValidationResult get(Key key, IResource resource){
+		Result entry;
+		synchronized(this){
+			init();
+			entry = _entries.get(key.getName());
+		}
+		if (entry == null || entry.key.configHash != key.configHash || !entry.key.stamp.equals(key.stamp))return null;
+		if (!isSame(entry.key.content, key.content, (IFile)resource))return null;
+
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		IResource[] dependsOn = new IResource[entry.dependsOn.length];
+		for (int i=0; i<dependsOn.length; i++){
+			IResource dep = root.findMember(entry.dependsOn[i]);
+			if (dep == null || dep.getType() != IResource.FILE)return null;
+			Content content = stat((IFile)dep);
+			if (content == null || !isSame(entry.dependsOnContent[i], content, (IFile)dep))return null;
+			dependsOn[i] = dep;
+		}
+
+		ValidationResult vr = new ValidationResult();
+		for (int i=0; i<entry.types.length; i++){
+			ValidatorMessage vm = ValidatorMessage.create("", resource); //$NON-NLS-1$
+			vm.setType(entry.types[i]);
+			vm.setAttributes(entry.attributes[i]);
+			vr.add(vm);
+		}
+		vr.setSeverityError(entry.errors);
+		vr.setSeverityWarning(entry.warnings);
+		vr.setSeverityInfo(entry.infos);
+		if (dependsOn.length > 0)vr.setDependsOn(dependsOn);
+		if (Tracing.isLogging())Tracing.log("ResultCache-01: restored ", resource); //$NON-NLS-1$
+		return vr;
+	}
+
+	/**
+	 * Remember the result of a validation, if it is suitable for caching.
+	 *
+	 * @param key
+	 *            The key that was returned from {@link #createKey(Validator, IResource)}, before the
+	 *            resource was validated.
+	 * @param resource
+	 *            The resource that was validated.
+	 * @param vr
+	 *            The result of the validation.
+	 */
+	@SuppressWarnings("unchecked")
+	public void put(Key key, IResource resource, ValidationResult vr){
+		if (vr.isCanceled() || vr.getValidationException() != null || vr.getSuspendValidation() != null)return;
+		IResource[] validated = vr.getValidated();
+		if (validated != null && (validated.length != 1 || !resource.equals(validated[0])))return;
+
+		// the file must not have changed while it was being validated
+		if (!key.content.sameStamp(stat((IFile)resource)))return;
+		if (hash((IFile)resource, key.content) == null)return;
+
+		Result entry = new Result(key);
+		IResource[] dependsOn = vr.getDependsOn();
+		int numDeps = dependsOn == null ? 0 : dependsOn.length;
+		entry.dependsOn = new String[numDeps];
+		entry.dependsOnContent = new Content[numDeps];
+		for (int i=0; i<numDeps; i++){
+			if (dependsOn[i] == null || dependsOn[i].getType() != IResource.FILE)return;
+			IFile dep = (IFile)dependsOn[i];
+			entry.dependsOn[i] = dep.getFullPath().toPortableString();
+			entry.dependsOnContent[i] = stat(dep);
+			if (entry.dependsOnContent[i] == null || hash(dep, entry.dependsOnContent[i]) == null)return;
+		}
+
+		ValidatorMessage[] msgs = vr.getMessages();
+		entry.types = new String[msgs.length];
+		entry.attributes = new Map[msgs.length];
+		for (int i=0; i<msgs.length; i++){
+			ValidatorMessage m = msgs[i];
+			if (!resource.equals(m.getResource()) || !isSimple(m.getType()))return;
+			Map<String, Object> attributes = m.getAttributes();
+			for (Map.Entry<String, Object> me : attributes.entrySet()){
+				if (!isSimple(me.getKey()) || !isSimple(me.getValue()))return;
+			}
+			entry.types[i] = m.getType();
+			entry.attributes[i] = new HashMap<String, Object>(attributes);
+		}
+		entry.errors = vr.getSeverityError();
+		entry.warnings = vr.getSeverityWarning();
+		entry.infos = vr.getSeverityInfo();
+
+		synchronized(this){
+			init();
+			_entries.put(key.getName(), entry);
+			_dirty = true;
+		}
+	}
+
+	/**
+	 * Forget all of the remembered results.
+	 */
+	public void clear(){
+		clear(null);
+	}
+
+	/**
+	 * Forget the remembered results for the files in the project. The saved cache is not read just to
+	 * forget its results.
+	 *
+	 * @param project
+	 *            The project whose results are forgotten. If this is null, all of the results are forgotten.
+	 */
+	public synchronized void clear(IProject project){
+		if (project == null || _entries == null){
+			// the saved results can't be trusted either
+			_entries = newMap(1000);
+			_dirty = true;
+			return;
+		}
+		String prefix = project.getFullPath().toPortableString() + '/';
+		for (Iterator<Result> it = _entries.values().iterator(); it.hasNext();){
+			if (it.next().key.name.startsWith(prefix)){
+				it.remove();
+				_dirty = true;
+			}
+		}
+	}
+
+	/**
+	 * Answer the number of results that are remembered.
+	 */
+	public synchronized int size(){
+		init();
+		return _entries.size();
+	}
+
+	/**
+	 * Answer true if the value can be persisted.
+	 */
+	private static boolean isSimple(Object value){
+		if (value instanceof String)return ((String)value).length() < MaxString;
+		return value instanceof Integer || value instanceof Boolean;
+	}
+
+	/**
+	 * Answer true if the content of the file is the same as it was when the remembered content was
+	 * recorded. The file is only hashed if its time stamp or size has changed.
+	 *
+	 * @param remembered
+	 *            The content that was recorded with the result.
+	 * @param current
+	 *            The current time stamp and size of the file.
+	 */
+	private boolean isSame(Content remembered, Content current, IFile file){
+		if (remembered.sameStamp(current))return true;
+		String hash = hash(file, current);
+		return hash != null && hash.equals(remembered.hash);
+	}
+
+	/**
+	 * Answer the local time stamp and size of the file, along with its hash if it is already known.
+	 *
+	 * @return null if the file is not local.
+	 */
+	private Content stat(IFile file){
+		IPath location = file.getLocation();
+		long timeStamp = file.getLocalTimeStamp();
+		if (location == null || timeStamp == IResource.NULL_STAMP)return null;
+		Content content = new Content(timeStamp, location.toFile().length(), null);
+		synchronized(_hashes){
+			Content known = _hashes.get(file.getFullPath().toPortableString());
+			if (content.sameStamp(known))content.hash = known.hash;
+		}
+		return content;
+	}
+
+	/**
+	 * Answer the hash of the content of the file, computing it if it isn't already known, and remember it
+	 * in the content.
+	 *
+	 * @param content
+	 *            The time stamp and size of the file, from {@link #stat(IFile)}.
+	 * @return null if the content could not be read.
+	 */
+	private String hash(IFile file, Content content){
+		if (content.hash != null)return content.hash;
+		content.hash = hash(file);
+		if (content.hash != null){
+			synchronized(_hashes){
+				_hashes.put(file.getFullPath().toPortableString(), content);
+			}
+		}
+		return content.hash;
+	}
+
+	/**
+	 * Answer a hash of the content of the file.
+	 *
+	 * @return null if the content could not be read.
+	 */
+	private static String hash(IFile file){
+		InputStream in = null;
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+			in = file.getContents();
+			byte[] buffer = new byte[8192];
+			int len;
+			while ((len = in.read(buffer)) > 0)md.update(buffer, 0, len);
+
+			byte[] digest = md.digest();
+			char[] chars = new char[digest.length*2];
+			for (int i=0; i<digest.length; i++){
+				chars[i*2] = Hex[(digest[i] >> 4) & 0xf];
+				chars[i*2+1] = Hex[digest[i] & 0xf];
+			}
+			return new String(chars);
+		}
+		catch (CoreException e){
+			// the file is out of sync or has been deleted, so it can't be cached
+			return null;
+		}
+		catch (IOException e){
+			return null;
+		}
+		catch (NoSuchAlgorithmException e){
+			ValidationPlugin.getPlugin().handleException(e);
+			return null;
+		}
+		finally {
+			Misc.close(in);
+		}
+	}
+
+	/**
+	 * Restore the cache. See the class comment for the structure.
+	 */
+	private void init(){
+		if (_entries != null)return;
+		_entries = newMap(1000);
+
+		File f = getCacheLocation();
+		if (!f.exists() || f.length() == 0)return;
+
+		boolean error = false;
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)));
+			if (in.readInt() != CurrentVersion){
+				error = true;
+				return;
+			}
+			int count = in.readInt();
+			for (int i=0; i<count; i++){
+				String id = in.readUTF();
+				String name = in.readUTF();
+				int configHash = in.readInt();
+				String stamp = in.readUTF();
+				Result entry = new Result(new Key(id, name, configHash, stamp, readContent(in)));
+				int numDeps = in.readInt();
+				entry.dependsOn = new String[numDeps];
+				entry.dependsOnContent = new Content[numDeps];
+				for (int j=0; j<numDeps; j++){
+					entry.dependsOn[j] = in.readUTF();
+					entry.dependsOnContent[j] = readContent(in);
+				}
+				entry.errors = in.readInt();
+				entry.warnings = in.readInt();
+				entry.infos = in.readInt();
+				int numMessages = in.readInt();
+				entry.types = new String[numMessages];
+				entry.attributes = newAttributes(numMessages);
+				for (int j=0; j<numMessages; j++){
+					entry.types[j] = in.readUTF().intern();
+					int numAttributes = in.readInt();
+					Map<String, Object> attributes = new HashMap<String, Object>(numAttributes+2);
+					for (int k=0; k<numAttributes; k++){
+						String attribute = in.readUTF().intern();
+						char type = in.readChar();
+						if (type == 'S')attributes.put(attribute, in.readUTF());
+						else if (type == 'I')attributes.put(attribute, Integer.valueOf(in.readInt()));
+						else if (type == 'B')attributes.put(attribute, Boolean.valueOf(in.readBoolean()));
+						else throw new IOException(ValMessages.DecodeError1);
+					}
+					entry.attributes[j] = attributes;
+				}
+				_entries.put(entry.key.getName(), entry);
+			}
+		}
+		catch (EOFException e){
+			error = true;
+			Tracing.log("Unable to read the validation result cache because of EOF exception"); //$NON-NLS-1$
+		}
+		catch (IOException e){
+			error = true;
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+		finally {
+			Misc.close(in);
+			if (error){
+				_entries.clear();
+				f.delete();
+			}
+		}
+	}
+
+	/**
+	 * Persist the cache, if it has changed. See the class comment for the structure. The cache is written
+	 * to a temporary file first, so that a failed save never leaves a partial cache behind.
+	 */
+	public synchronized void save(){
+		if (!_dirty)return;
+		boolean error = false;
+		File f = getCacheLocation();
+		File temp = new File(f.getPath() + ".new"); //$NON-NLS-1$
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			out.writeInt(CurrentVersion);
+			out.writeInt(_entries.size());
+			for (Result entry : _entries.values()){
+				Key key = entry.key;
+				out.writeUTF(key.id);
+				out.writeUTF(key.name);
+				out.writeInt(key.configHash);
+				out.writeUTF(key.stamp);
+				writeContent(out, key.content);
+				out.writeInt(entry.dependsOn.length);
+				for (int i=0; i<entry.dependsOn.length; i++){
+					out.writeUTF(entry.dependsOn[i]);
+					writeContent(out, entry.dependsOnContent[i]);
+				}
+				out.writeInt(entry.errors);
+				out.writeInt(entry.warnings);
+				out.writeInt(entry.infos);
+				out.writeInt(entry.types.length);
+				for (int i=0; i<entry.types.length; i++){
+					out.writeUTF(entry.types[i]);
+					out.writeInt(entry.attributes[i].size());
+					for (Map.Entry<String, Object> me : entry.attributes[i].entrySet()){
+						out.writeUTF(me.getKey());
+						Object value = me.getValue();
+						if (value instanceof String){
+							out.writeChar('S');
+							out.writeUTF((String)value);
+						}
+						else if (value instanceof Integer){
+							out.writeChar('I');
+							out.writeInt(((Integer)value).intValue());
+						}
+						else {
+							out.writeChar('B');
+							out.writeBoolean(((Boolean)value).booleanValue());
+						}
+					}
+				}
+			}
+			out.close();
+			out = null;
+			f.delete();
+			if (!temp.renameTo(f))throw new IOException(f.getPath());
+			_dirty = false;
+		}
+		catch (IOException e){
+			error = true;
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+		finally {
+			Misc.close(out);
+			if (error)temp.delete();
+		}
+	}
+
+	private static Content readContent(DataInputStream in) throws IOException {
+		long timeStamp = in.readLong();
+		long size = in.readLong();
+		return new Content(timeStamp, size, in.readUTF());
+	}
+
+	private static void writeContent(DataOutputStream out, Content content) throws IOException {
+		out.writeLong(content.timeStamp);
+		out.writeLong(content.size);
+		out.writeUTF(content.hash);
+	}
+
+	/**
+	 * Answer a map that forgets the least recently used results once it gets too big.
+	 */
+	private static Map<String, Result> newMap(int size){
+		return new LinkedHashMap<String, Result>(size, 0.75f, true){
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Result> eldest) {
+				return size() > MaxEntries;
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object>[] newAttributes(int size){
+		return new Map[size];
+	}
+
+	private File getCacheLocation() {
+		IPath path = ValidationPlugin.getPlugin().getStateLocation().append("results.cache"); //$NON-NLS-1$
+		return path.toFile();
+	}
+
+	/**
+	 * Identifies a validation of a particular version of a file, by a particular configuration and version
+	 * of a validator.
+	 */
+	public final static class Key {
+
+		final String	id;
+		final String	name;
+		final int		configHash;
+
+		/** Identifies the version and the own settings of the validator's plug-in. */
+		final String	stamp;
+		final Content	content;
+
+		Key(String id, String name, int configHash, String stamp, Content content){
+			this.id = id;
+			this.name = name;
+			this.configHash = configHash;
+			this.stamp = stamp;
+			this.content = content;
+		}
+
+		/**
+		 * Answer the name that the result is filed under. A new result for the same validator and file
+		 * replaces the old one.
+		 */
+		String getName(){
+			return id + ' ' + name;
+		}
+	}
+
+	/**
+	 * A version of the content of a file.
+	 */
+	private final static class Content {
+		final long	timeStamp;
+		final long	size;
+
+		/** The hash of the content, or null if it hasn't been computed yet. */
+		volatile String	hash;
+
+		Content(long timeStamp, long size, String hash){
+			this.timeStamp = timeStamp;
+			this.size = size;
+			this.hash = hash;
+		}
+
+		/**
+		 * Answer true if the other content has the same time stamp and size.
+		 */
+		boolean sameStamp(Content other){
+			return other != null && timeStamp == other.timeStamp && size == other.size;
+		}
+	}
+
+	/**
+	 * A remembered result.
+	 */
+	private final static class Result {
+		final Key 	key;
+		String[]	dependsOn;
+		Content[]	dependsOnContent;
+		int			errors;
+		int			warnings;
+		int			infos;
+		String[]	types;
+		Map<String, Object>[]	attributes;
+
+		Result(Key key){
+			this.key = key;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2011 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,8 +11,14 @@
 package org.eclipse.wst.validation.internal;
 
 import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
-import java.util.Queue;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -21,6 +27,8 @@ import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.IResourceProxy;
 import org.eclipse.core.resources.IResourceProxyVisitor;
 import org.eclipse.core.resources.IResourceVisitor;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.resources.WorkspaceJob;
 import org.eclipse.core.runtime.CoreException;
@@ -28,6 +36,8 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.wst.validation.DependentResource;
 import org.eclipse.wst.validation.Friend;
 import org.eclipse.wst.validation.IDependencyIndex;
@@ -51,57 +61,148 @@ import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
  */
 public final class ValBuilderJob extends WorkspaceJob {
 	
-	private static ValBuilderJob _job;
-	private static Queue<ValidationRequest> _work = new LinkedList<ValidationRequest>();
+	/** 
+	 * The projects that are waiting to be validated, along with their (coalesced) request. The projects are
+	 * kept in the order that they were first requested.
+	 */
+	private static final Map<IProject, ValidationRequest> _work = new LinkedHashMap<IProject, ValidationRequest>();
+	
+	/** The projects that are currently being validated by one of the jobs. */
+	private static final Set<IProject> _busy = new HashSet<IProject>();
+	
+	/** Projects that have files open in editors. These are validated before the other projects. */
+	private static volatile Set<IProject> _priority = Collections.emptySet();
+	
+	/** The number of jobs that are scheduled or running. */
+	private static int _jobs;
 	
 	private final ValOperation _operation = new ValOperation();
+	
+	/** Has this job been taken out of the count of jobs? This is guarded by the class lock. */
+	private boolean _exited;
 		
 	/** The types of changes we are interested in. */
 	private final static int	InterestedFlags = IResourceDelta.CONTENT | IResourceDelta.ENCODING |
 		IResourceDelta.MOVED_FROM | IResourceDelta.MOVED_TO;
 	
 	public static synchronized void validateProject(IProject project, IResourceDelta delta, int buildKind){
-		ValidationRequest request = new ValidationRequest(project, delta, buildKind);
-		if (_job == null){
-			_job = new ValBuilderJob();
-			_job.add(request);
-			_job.schedule();
-		}
-		else {
-			_job.add(request);
-		}
+		add(new ValidationRequest(project, delta, buildKind));
+		scheduleJobs();
 	}
 	
-	private static synchronized ValidationRequest getRequest(){
-		ValidationRequest request = _work.poll();
-		if (request == null){
-			_job = null;
+	/**
+	 * Start another job if there is a waiting project that none of the idle jobs are going to pick up. Each
+	 * job validates one project at a time.
+	 */
+	private static void scheduleJobs(){
+		int idle = _jobs - _busy.size();
+		if (_jobs < getMaxJobs() && countReady() > idle){
+			_jobs++;
+			new ValBuilderJob().schedule();
 		}
-		return request;
 	}
 	
 	/**
-	 * Each validation run is done in it's own job.
+	 * The job is finished, either because there was nothing left for it to do, or because it ended
+	 * unexpectedly (or was canceled before it ever ran).
 	 * 
-	 * @param project the project that is being validated
-	 * @param delta the delta that is being validated. This may be null, in which case we do a 
-	 * full validation of the project.
-	 * 
-	 * @param buildKind the kind of build.
-	 * @see org.eclipse.core.resources.IncrementalProjectBuilder#AUTO_BUILD
-	 * @see org.eclipse.core.resources.IncrementalProjectBuilder#CLEAN_BUILD
-	 * @see org.eclipse.core.resources.IncrementalProjectBuilder#FULL_BUILD
-	 * @see org.eclipse.core.resources.IncrementalProjectBuilder#INCREMENTAL_BUILD
+	 * @param job
+	 *            The job that is finished.
+	 * @param project
+	 *            The project that the job was validating, this can be null.
+	 */
+	private static synchronized void exit(ValBuilderJob job, IProject project){
+		if (job._exited)return;
+		job._exited = true;
+		if (project != null)_busy.remove(project);
+		_jobs--;
+	}
+	
+	/**
+	 * Queue the request, coalescing it with the request that is already waiting for the same project.
+	 */
+	private static void add(ValidationRequest request){
+		ValidationRequest queued = _work.get(request.getProject());
+		if (queued == null)_work.put(request.getProject(), request);
+		else _work.put(request.getProject(), queued.coalesce(request));
+	}
+	
+	/**
+	 * Answer the number of projects that are waiting, and are not already being validated.
+	 */
+	private static int countReady(){
+		int count = 0;
+		for (IProject project : _work.keySet()){
+			if (!_busy.contains(project))count++;
+		}
+		return count;
+	}
+	
+	/**
+	 * Answer the maximum number of jobs that can validate projects at the same time. Different projects are
+	 * only validated concurrently if parallel validation has been turned on.
+	 */
+	private static int getMaxJobs(){
+		if (!ValManager.getDefault().getGlobalPreferences().getParallel())return 1;
+		return Runtime.getRuntime().availableProcessors();
+	}
+	
+	/**
+	 * Answer the next request for this job to process. Projects that have files open in editors are
+	 * preferred, and a project is never handed to more than one job at a time.
 	 * 
-	 * @param operation some global context for the validation operation
+	 * @param job
+	 *            The job that is asking for more work.
+	 * @param finished
+	 *            The project that the job has just finished validating. This can be null.
+	 * @return null if there is nothing left that this job can do, in which case the job must finish.
+	 */
+	private static synchronized ValidationRequest getRequest(ValBuilderJob job, IProject finished){
+		if (finished != null)_busy.remove(finished);
+		
+		IProject next = null;
+		Set<IProject> priority = _priority;
+		for (IProject project : _work.keySet()){
+			if (_busy.contains(project))continue;
+			if (next == null)next = project;
+			if (priority.contains(project)){
+				next = project;
+				break;
+			}
+		}
+		
+		if (next == null){
+			exit(job, null);
+			return null;
+		}
+		_busy.add(next);
+		return _work.remove(next);
+	}
+	
+	/**
+	 * Set the projects that have files open in editors. When there is a choice, these projects are
+	 * validated before any of the other projects that are waiting.
 	 * 
+	 * @param projects
+	 *            The projects that should be validated first. The set is copied.
 	 */
-	private ValBuilderJob(){
-		super(ValMessages.JobName);
+	public static void setPriorityProjects(Set<IProject> projects){
+		_priority = Collections.unmodifiableSet(new HashSet<IProject>(projects));
 	}
 	
-	private void add(ValidationRequest request){
-		_work.add(request);
+	/**
+	 * Each validation run is done in it's own job. A job validates one project at a time, holding the
+	 * project as its scheduling rule, and keeps going until there are no more projects waiting for it.
+	 */
+	private ValBuilderJob(){
+		super(ValMessages.JobName);
+		addJobChangeListener(new JobChangeAdapter(){
+
+			@Override
+			public void done(IJobChangeEvent event) {
+				exit(ValBuilderJob.this, null);
+			}
+		});
 	}
 	
 	@Override
@@ -118,16 +219,20 @@ public final class ValBuilderJob extends WorkspaceJob {
 	public IStatus runInWorkspace(IProgressMonitor monitor) {
 		Tracing.log("ValBuilderJob-01: Starting"); //$NON-NLS-1$
 		
+		IProject project = null;
 		try {
 			startingValidation(monitor);
 			
-			ValidationRequest request = getRequest();
+			ValidationRequest request = getRequest(this, null);
 			while(request != null){
-				run(request, monitor);
-				request = getRequest();
+				project = request.getProject();
+				runWithRule(request, monitor);
+				request = getRequest(this, project);
+				project = null;
 			}
 		}
 		finally {
+			exit(this, project);
 			finishingValidation(monitor);
 		}
 		
@@ -161,6 +266,26 @@ public final class ValBuilderJob extends WorkspaceJob {
 		  ValManager.getDefault().accept(finishedVisitor, null, ValType.Build, getOperation(), monitor);
 	}
 
+	/**
+	 * Validate the request while holding the project as the scheduling rule, so that it does not run at the
+	 * same time as workspace operations that change the project. The job itself has no rule, since it
+	 * validates one project after another, so the rule is taken for each request in turn.
+	 */
+	private void runWithRule(final ValidationRequest request, IProgressMonitor monitor){
+		IWorkspaceRunnable runnable = new IWorkspaceRunnable(){
+
+			public void run(IProgressMonitor monitor) throws CoreException {
+				ValBuilderJob.this.run(request, monitor);
+			}
+		};
+		try {
+			ResourcesPlugin.getWorkspace().run(runnable, request.getProject(), IWorkspace.AVOID_UPDATE, monitor);
+		}
+		catch (CoreException e){
+			ValidationPlugin.getPlugin().handleException(e);
+		}
+	}
+
 	private void run(ValidationRequest request, IProgressMonitor monitor){
 		setName(MessageFormat.format(ValMessages.JobNameWithProjectName,new Object[] { request.getProject().getName() })); 
 		try {		
@@ -175,7 +300,7 @@ public final class ValBuilderJob extends WorkspaceJob {
 
 	        ValManager.getDefault().accept(startingVisitor, request.getProject(), ValType.Build, getOperation(), monitor);
 		  
-			if (request.getDelta() == null)fullBuild(request, monitor);
+			if (request.isFull())fullBuild(request, monitor);
 			else deltaBuild(request, monitor);
 
 			
@@ -204,11 +329,29 @@ public final class ValBuilderJob extends WorkspaceJob {
 	}
 
 	private void deltaBuild(ValidationRequest request, IProgressMonitor monitor) throws CoreException {
-		ResourceCounter counter = new ResourceCounter();
-		request.getDelta().accept(counter);
-		SubMonitor subMonitor = SubMonitor.convert(monitor, counter.getCount());
+		DeltaMerger merger = new DeltaMerger();
+		for (IResourceDelta delta : request.getDeltas())delta.accept(merger);
+		Collection<NetChange> changes = merger.getChanges();
+		SubMonitor subMonitor = SubMonitor.convert(monitor, changes.size());
 		Visitor vistitor = new Visitor(request, subMonitor, monitor, getOperation());
-		request.getDelta().accept(vistitor);		
+		
+		// the changes are in pre-order, so a folder that is skipped is always seen before its members
+		Set<IResource> skipped = new HashSet<IResource>();
+		for (NetChange change : changes){
+			if (!isSkipped(change.getResource(), skipped) && !vistitor.visit(change))skipped.add(change.getResource());
+		}
+		vistitor.finish();
+	}
+	
+	/**
+	 * Answer true if one of the resource's parents is in the set of resources that are being skipped.
+	 */
+	private static boolean isSkipped(IResource resource, Set<IResource> skipped){
+		if (skipped.isEmpty())return false;
+		for (IResource parent = resource.getParent(); parent != null; parent = parent.getParent()){
+			if (skipped.contains(parent))return true;
+		}
+		return false;
 	}
 
 	private void fullBuild(ValidationRequest request, IProgressMonitor monitor) throws CoreException {
@@ -217,7 +360,7 @@ public final class ValBuilderJob extends WorkspaceJob {
 		SubMonitor subMonitor = SubMonitor.convert(monitor, counter.getCount());
 		Visitor vistitor = new Visitor(request, subMonitor, monitor, getOperation());
 		request.getProject().accept(vistitor);
-		
+		vistitor.finish();
 	}
 	
 	private ValOperation getOperation(){
@@ -243,32 +386,170 @@ public final class ValBuilderJob extends WorkspaceJob {
 		}		
 	}
 	
-	static final class ValidationRequest {
+	/**
+	 * Fold the changes from one or more resource deltas into a single net change for each resource. A
+	 * resource that was changed several times is only validated once, and a resource that was changed and
+	 * then deleted is no longer validated for its old content.
+	 */
+	public static final class DeltaMerger implements IResourceDeltaVisitor {
+		
+		private final Map<IResource, NetChange> _changes = new LinkedHashMap<IResource, NetChange>();
+
+		public boolean visit(IResourceDelta delta) throws CoreException {
+			NetChange change = _changes.get(delta.getResource());
+			if (change == null)_changes.put(delta.getResource(), new NetChange(delta));
+			else change.fold(delta);
+			return true;
+		}
+		
+		/**
+		 * Answer the net changes, in the order that the resources were first seen.
+		 */
+		public Collection<NetChange> getChanges(){
+			return _changes.values();
+		}
+	}
+	
+	/**
+	 * The net effect of all the deltas that were seen for one resource.
+	 * <ul>
+	 * <li>A resource that was added and then removed has no net change (IResourceDelta.NO_CHANGE).</li>
+	 * <li>A resource that was removed and then added again is changed, and its content is assumed to be
+	 * different.</li>
+	 * <li>A resource that was added and then changed is still an added resource.</li>
+	 * <li>A resource that was changed and then removed is a removed resource.</li>
+	 * </ul>
+	 */
+	public static final class NetChange {
+		
+		private final IResource _resource;
+		private int				_kind;
+		private int				_flags;
+		
+		/** The most recent delta for the resource. */
+		private IResourceDelta	_delta;
+		
+		public NetChange(IResourceDelta delta){
+			_resource = delta.getResource();
+			_kind = delta.getKind();
+			_flags = delta.getFlags();
+			_delta = delta;
+		}
+		
+		/**
+		 * Fold in a delta that happened after the changes that we already know about.
+		 */
+		void fold(IResourceDelta later){
+			int kind = later.getKind();
+			if (kind == IResourceDelta.REMOVED){
+				if (_kind == IResourceDelta.ADDED || _kind == IResourceDelta.NO_CHANGE){
+					_kind = IResourceDelta.NO_CHANGE;
+					_flags = 0;
+				}
+				else {
+					_kind = kind;
+					_flags = later.getFlags();
+				}
+			}
+			else if (kind == IResourceDelta.ADDED){
+				if (_kind == IResourceDelta.REMOVED){
+					_kind = IResourceDelta.CHANGED;
+					_flags = later.getFlags() | IResourceDelta.CONTENT | IResourceDelta.REPLACED;
+				}
+				else {
+					_kind = kind;
+					_flags = later.getFlags();
+				}
+			}
+			else {
+				if (_kind != IResourceDelta.ADDED)_kind = kind;
+				_flags |= later.getFlags();
+			}
+			_delta = later;
+		}
+
+		public IResource getResource() {
+			return _resource;
+		}
+
+		public int getKind() {
+			return _kind;
+		}
+
+		public int getFlags() {
+			return _flags;
+		}
+
+		public IResourceDelta getDelta() {
+			return _delta;
+		}
+	}
+	
+	/**
+	 * A request to validate a project. While a request is waiting to be processed, later requests for the
+	 * same project are coalesced into it, so that each project is only validated once.
+	 */
+	public static final class ValidationRequest {
 		/** The project that is being built. */
 		private final IProject 			_project;
 		
-		/** The resource delta that triggered the build, it will be null for a full build. */
-		private final IResourceDelta	_delta;
+		/** 
+		 * The resource deltas that triggered the build, in the order that they happened. This will be null
+		 * for a full build.
+		 */
+		private final List<IResourceDelta>	_deltas;
 		
 		/** 
 		 * The kind of build.
 		 * 
 		 *  @see org.eclipse.core.resources.IncrementalProjectBuilder
 		 */
-		private final int					_buildKind;
+		private int						_buildKind;
 		
 		public ValidationRequest(IProject project, IResourceDelta delta, int buildKind){
 			_project = project;
-			_delta = delta;
 			_buildKind = buildKind;
+			if (delta == null)_deltas = null;
+			else {
+				_deltas = new LinkedList<IResourceDelta>();
+				_deltas.add(delta);
+			}
+		}
+		
+		/**
+		 * Coalesce a later request for the same project with this one. A full validation of the project makes
+		 * any waiting delta validations redundant, so a full request wins over a delta request. Otherwise the
+		 * later deltas are added to this request, so that all of the deltas that are waiting for a project are
+		 * validated together, as one net set of changes.
+		 * 
+		 * @return the request that should be kept in the queue for the project.
+		 */
+		public ValidationRequest coalesce(ValidationRequest later){
+			if (later.isFull())return later;
+			if (_deltas == null)return this;
+			for (IResourceDelta delta : later.getDeltas()){
+				if (!_deltas.contains(delta))_deltas.add(delta);
+			}
+			_buildKind = later.getBuildKind();
+			return this;
 		}
 
 		public IProject getProject() {
 			return _project;
 		}
+		
+		/**
+		 * Answer true if the whole project needs to be validated.
+		 */
+		public boolean isFull(){
+			return _deltas == null;
+		}
 
-		public IResourceDelta getDelta() {
-			return _delta;
+		/**
+		 * Answer the resource deltas, in the order that they happened, or null if this is a full build.
+		 */
+		public List<IResourceDelta> getDeltas() {
+			return _deltas;
 		}
 
 		public int getBuildKind() {
@@ -276,28 +557,73 @@ public final class ValBuilderJob extends WorkspaceJob {
 		}
 	}
 	
-	private final static class Visitor implements IResourceDeltaVisitor, IResourceVisitor{
+	private final static class Visitor implements IResourceVisitor{
 		
 		private final ValidationRequest 	_request;
 		private final SubMonitor 			_subMonitor;
 		private final IProgressMonitor 		_monitor;
 		private final ValOperation			_operation;
 		
+		/** 
+		 * The resource validations that are waiting to be spread across the validation worker threads. This
+		 * is null if parallel validation has not been turned on.
+		 */
+		private final List<Runnable>		_pending;
+		
 		public Visitor(ValidationRequest request, SubMonitor subMonitor, IProgressMonitor monitor, ValOperation operation){
 			_request = request;
 			_subMonitor = subMonitor;
 			_monitor = monitor;
 			_operation = operation;
+			_pending = ValidationExecutor.isParallel() ? new LinkedList<Runnable>() : null;
+		}
+		
+		/**
+		 * Validate the resource, or if parallel validation has been turned on, remember it so that it can be
+		 * validated by the worker threads when the visit has finished.
+		 */
+		private void validate(final IResource resource, final int kind){
+			if (_pending == null){
+				ValManager.getDefault().validate(_request.getProject(), resource, kind, ValType.Build, 
+					_request.getBuildKind(), _operation, _subMonitor.newChild(1));
+				return;
+			}
+			_subMonitor.worked(1);
+			final IProgressMonitor monitor = ValidationExecutor.cancelOnly(_monitor);
+			_pending.add(new Runnable(){
+
+				public void run() {
+					if (monitor.isCanceled())return;
+					try {
+						ValManager.getDefault().validate(_request.getProject(), resource, kind, ValType.Build, 
+							_request.getBuildKind(), _operation, monitor);
+					}
+					catch (ResourceUnavailableError e){
+						if (Tracing.isLogging())Tracing.log("ValBuilderJob-03: " + e.toString()); //$NON-NLS-1$
+					}
+					catch (Exception e){
+						ValidationPlugin.getPlugin().handleException(e);
+					}
+				}
+			});
+		}
+		
+		/**
+		 * Run any of the validations that were deferred so that they could be run by the worker threads.
+		 */
+		public void finish(){
+			if (_pending == null || _pending.isEmpty())return;
+			ValidationExecutor.getDefault().invokeAll(_pending, _request.getProject().getName());
+			_pending.clear();
 		}
 		
 		public boolean visit(IResource resource) throws CoreException {
 			try {
 				if (DisabledResourceManager.getDefault().isDisabled(resource)){
-					MarkerManager.getDefault().deleteMarkers(resource, _operation.getStarted(), IResource.DEPTH_INFINITE);
+					MarkerManager.getDefault().deleteMarkers(resource, _operation, IResource.DEPTH_INFINITE);
 					return false;
 				}
-				ValManager.getDefault().validate(_request.getProject(), resource, IResourceDelta.NO_CHANGE, ValType.Build, 
-					_request.getBuildKind(), _operation, _subMonitor.newChild(1));
+				validate(resource, IResourceDelta.NO_CHANGE);
 			}
 			catch (ResourceUnavailableError e){
 				if (Tracing.isLogging())Tracing.log("ValBuilderJob-02: " + e.toString()); //$NON-NLS-1$
@@ -306,16 +632,22 @@ public final class ValBuilderJob extends WorkspaceJob {
 			return true;
 		}
 		
+		/**
+		 * Validate a net change.
+		 * 
+		 * @return false if the members of the resource should be skipped.
+		 */
 		@SuppressWarnings("deprecation")
-		public boolean visit(IResourceDelta delta) throws CoreException {
-			IResource resource = delta.getResource();
+		public boolean visit(NetChange change) throws CoreException {
+			IResource resource = change.getResource();
 			if (DisabledResourceManager.getDefault().isDisabled(resource)){
-				MarkerManager.getDefault().deleteMarkers(resource, _operation.getStarted(), IResource.DEPTH_INFINITE);
+				MarkerManager.getDefault().deleteMarkers(resource, _operation, IResource.DEPTH_INFINITE);
 				return false;
 			}
-			int kind = delta.getKind();
+			int kind = change.getKind();
+			if (kind == IResourceDelta.NO_CHANGE)return false;
 			boolean isChanged = (kind & IResourceDelta.CHANGED) != 0;
-			if (isChanged &&  (delta.getFlags() & InterestedFlags) == 0)return true;
+			if (isChanged &&  (change.getFlags() & InterestedFlags) == 0)return true;
 			
 			// Check for file ADDED and REMOVED events, which means that the file may have moved to a new
 			// project. To be safe we clear it's cached list of validators.
@@ -324,8 +656,7 @@ public final class ValBuilderJob extends WorkspaceJob {
 			}
 
 			if ((kind & (IResourceDelta.ADDED | IResourceDelta.CHANGED)) != 0){
-				ValManager.getDefault().validate(_request.getProject(), resource, delta.getKind(), ValType.Build,
-						_request.getBuildKind(), _operation, _subMonitor.newChild(1));
+				validate(resource, kind);
 			}
 			
 			if ((kind & (IResourceDelta.REMOVED)) != 0){
@@ -333,8 +664,7 @@ public final class ValBuilderJob extends WorkspaceJob {
 				IResource project = resource.getProject();
 				if (!_operation.isValidatedProject(project))
 				{
-					ValManager.getDefault().validate(_request.getProject(), delta.getResource(), IResourceDelta.REMOVED, ValType.Build,
-						_request.getBuildKind(), _operation, _subMonitor.newChild(1));
+					validate(resource, IResourceDelta.REMOVED);
 					_operation.addValidatedProject(project);
 				}				
 			}
@@ -346,8 +676,8 @@ public final class ValBuilderJob extends WorkspaceJob {
 					Validator val = dr.getValidator();
 					if (Friend.shouldValidate(val, dr.getResource(), ValType.Build, new ContentTypeWrapper())){
 						_operation.getState().put(ValidationState.TriggerResource, resource);
-						ValidationEvent event = new ValidationEvent(dr.getResource(), IResourceDelta.NO_CHANGE, delta);
-						if (val.shouldClearMarkers(event))mm.clearMarker(dr.getResource(), val);
+						ValidationEvent event = new ValidationEvent(dr.getResource(), IResourceDelta.NO_CHANGE, change.getDelta());
+						if (val.shouldClearMarkers(event))mm.clearMarker(dr.getResource(), val, _operation);
 							ValManager.getDefault().validate(val, _operation, dr.getResource(),
 									IResourceDelta.NO_CHANGE, _monitor, event);
 						}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2011 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,7 @@
 package org.eclipse.wst.validation.internal;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
@@ -53,6 +54,7 @@ import org.eclipse.wst.validation.ValidationFramework;
 import org.eclipse.wst.validation.ValidationResult;
 import org.eclipse.wst.validation.ValidationState;
 import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.internal.model.FilterIndex;
 import org.eclipse.wst.validation.internal.model.GlobalPreferences;
 import org.eclipse.wst.validation.internal.model.GlobalPreferencesValues;
 import org.eclipse.wst.validation.internal.model.IValidatorVisitor;
@@ -570,6 +572,7 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 		int changes = old.compare(gp);
 		if (changes != 0){
 			_globalPreferences.set(gp);
+			if ((changes & GlobalPreferences.CacheResultsMask) != 0)ResultCache.getDefault().clear();
 		}
 		return changes;
 	}
@@ -647,7 +650,10 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 	public void validate(IProject project, final IResource resource, final int kind, ValType valType, 
 		int buildKind, ValOperation operation, final IProgressMonitor monitor) {
 		
-		MarkerManager.getDefault().deleteMarkers(resource, operation.getStarted(), IResource.DEPTH_ZERO);
+		// the markers are collected and applied all at once, so that markers that haven't changed are left alone
+		MarkerManager mm = MarkerManager.getDefault();
+		boolean batched = mm.beginBatch(resource, operation);
+		if (!batched)mm.deleteMarkers(resource, operation, IResource.DEPTH_ZERO);
 		
 		IValidatorVisitor visitor = new IValidatorVisitor(){
 
@@ -665,9 +671,13 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 					validate(validator, operation, resource, kind, subMonitor.newChild(1), null);
 			}			
 		};
-		SubMonitor sm = SubMonitor.convert(monitor, getValidators(project).length);
-		accept(visitor, project, resource, valType, operation, sm);
-		
+		try {
+			SubMonitor sm = SubMonitor.convert(monitor, getValidators(project).length);
+			accept(visitor, project, resource, valType, operation, sm);
+		}
+		finally {
+			if (batched)mm.endBatch(resource, operation);
+		}
 	}
 	
 	/**
@@ -701,7 +711,14 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 	
 		if (resource.exists())
 		{	
-			ValidationResult vr = validator.validate(resource, kind, operation, monitor, event);
+			ValidationResult vr;
+			Object lock = ValidationExecutor.getLock(validator, resource.getProject());
+			if (lock == null)vr = validator.validate(resource, kind, operation, monitor, event);
+			else {
+				synchronized(lock){
+					vr = validator.validate(resource, kind, operation, monitor, event);
+				}
+			}
 	
 			if (pm.isCollecting()){
 				if (cpuTime != -1){
@@ -766,7 +783,7 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 		
 		if (isDisabled(project))return;
 		
-		Map<String,IValidatorGroupListener[]> groupListeners = new HashMap<String,IValidatorGroupListener[]>();
+		List<Validator> selected = new LinkedList<Validator>();
 		
 		ValProperty vp = getValProperty(resource, valType, _configNumber.get());
 		if (vp != null){
@@ -775,50 +792,92 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 				if (!monitor.isCanceled()) {
 					if (!bs.get(_idManager.getIndex(val.getId())))continue;
 					if (operation.isSuspended(val, project))continue;
-					Validator.V2 v2 = val.asV2Validator();
-					if (v2 != null) {
-						notifyGroupListenersStarting(resource, operation.getState(), monitor, groupListeners, v2);
-					}
-					try {
-						visitor.visit(val, project, valType, operation, monitor);
-					}
-					catch (Exception e){
-						ValidationPlugin.getPlugin().handleException(e);
-					}
+					selected.add(val);
 				}
 			}
-			notifyGroupFinishing(resource, operation.getState(), monitor, groupListeners);
+			visit(visitor, project, resource, valType, operation, monitor, selected);
 			return;
 		}
 		
 		vp = new ValProperty();
 		vp.setConfigNumber(_configNumber.get());
-		ContentTypeWrapper ctw = new ContentTypeWrapper();
-		for (Validator val : getValidators(project)){
+		FilterIndex index = _cache.getFilterIndex(project);
+		FilterIndex.Match match = index.match(resource, new ContentTypeWrapper());
+		Validator[] validators = index.getValidators();
+		for (int i=0; i<validators.length; i++){
+			Validator val = validators[i];
 			if (!monitor.isCanceled()) {
 				if (!ValidatorProjectManager.get().shouldValidate(val, project, valType))continue;
-				if (Friend.shouldValidate(val, resource, valType, ctw)){
+				if (Friend.shouldValidate(val, resource, valType, match, i)){
 					vp.getConfigSet().set(_idManager.getIndex(val.getId()));
 					// we do the suspend check after figuring out if it needs to be validated, because we save
 					// this information for the session.
 					if (operation.isSuspended(val, project))continue;
-					Validator.V2 v2 = val.asV2Validator();
-					if (v2 != null) {
-						notifyGroupListenersStarting(resource, operation.getState(), monitor, groupListeners, v2);
-					}
-					try {
-						visitor.visit(val, project, valType, operation, monitor);
-					}
-					catch (Exception e){
-						ValidationPlugin.getPlugin().handleException(e);
-					}
+					selected.add(val);
 				}
 			}
 		}
-		notifyGroupFinishing(resource, operation.getState(), monitor, groupListeners);
+		visit(visitor, project, resource, valType, operation, monitor, selected);
 		putValProperty(vp, resource, valType);
 	}
+	
+	/**
+	 * Visit the validators that have been selected for the resource, letting the group listeners know
+	 * when validation is starting and finishing.
+	 * <p>
+	 * If parallel validation has been turned on, all the group listeners are notified first, and then the
+	 * validators are run concurrently through the ValidationExecutor. Otherwise they are run one after
+	 * another on the calling thread.
+	 * </p>
+	 */
+	private void visit(final IValidatorVisitor visitor, final IProject project, IResource resource, 
+			final ValType valType, final ValOperation operation, IProgressMonitor monitor, List<Validator> validators){
+		
+		Map<String,IValidatorGroupListener[]> groupListeners = new HashMap<String,IValidatorGroupListener[]>();
+		if (validators.size() > 1 && ValidationExecutor.isParallel()){
+			for (Validator val : validators){
+				Validator.V2 v2 = val.asV2Validator();
+				if (v2 != null) {
+					notifyGroupListenersStarting(resource, operation.getState(), monitor, groupListeners, v2);
+				}
+			}
+			final IProgressMonitor workerMonitor = ValidationExecutor.cancelOnly(monitor);
+			List<Runnable> tasks = new ArrayList<Runnable>(validators.size());
+			for (final Validator val : validators){
+				tasks.add(new Runnable(){
 
+					public void run() {
+						if (workerMonitor.isCanceled())return;
+						try {
+							visitor.visit(val, project, valType, operation, workerMonitor);
+						}
+						catch (Exception e){
+							ValidationPlugin.getPlugin().handleException(e);
+						}
+					}
+				});
+			}
+			ValidationExecutor.getDefault().invokeAll(tasks, resource.getName());
+			monitor.worked(validators.size());
+		}
+		else {
+			for (Validator val : validators){
+				if (monitor.isCanceled())break;
+				Validator.V2 v2 = val.asV2Validator();
+				if (v2 != null) {
+					notifyGroupListenersStarting(resource, operation.getState(), monitor, groupListeners, v2);
+				}
+				try {
+					visitor.visit(val, project, valType, operation, monitor);
+				}
+				catch (Exception e){
+					ValidationPlugin.getPlugin().handleException(e);
+				}
+			}
+		}
+		notifyGroupFinishing(resource, operation.getState(), monitor, groupListeners);
+	}
+	
 	/**
 	 * Let the group listeners know that validation might be starting for the group of validators. 
 	 */
@@ -993,6 +1052,7 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 		if (validationSettingChanged){
 			if (project != null)_projectPreferences.remove(project);
 			configHasChanged();
+			ResultCache.getDefault().clear(project);
 		}
 	}
 		
@@ -1222,8 +1282,11 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 	public void projectChanged(IProject project, int type) {
 		switch (type){
 		case IProjectChangeListener.ProjectClosed:
+			projectRemoved(project);
+			break;
 		case IProjectChangeListener.ProjectDeleted:
 			projectRemoved(project);
+			((DependencyIndex)ValidationFramework.getDefault().getDependencyIndex()).projectDeleted(project);
 			break;
 		case IProjectChangeListener.ProjectOpened:
 		case IProjectChangeListener.ProjectChanged:
@@ -1247,6 +1310,7 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 	private final class ValidatorCache {
 		private final ConcurrentMap<IProject, Validator[]> _cache = new ConcurrentHashMap<IProject, Validator[]>(50);
 		private final AtomicReference<Validator[]> _global = new AtomicReference<Validator[]>();
+		private final ConcurrentMap<IProject, FilterIndex> _indexes = new ConcurrentHashMap<IProject, FilterIndex>(50);
 		
 		public Validator[] getValidatorsCached(IProject project) throws ProjectUnavailableError {
 			Validator[] vals = null;
@@ -1267,13 +1331,32 @@ public final class ValManager implements IValChangedListener, IFacetedProjectLis
 			return vals;
 		}
 		
+		/**
+		 * Answer the compiled filters for the project's validators. The index is rebuilt whenever the
+		 * project's validators are.
+		 */
+		public FilterIndex getFilterIndex(IProject project) throws ProjectUnavailableError {
+			Validator[] vals = getValidatorsCached(project);
+			if (project == null)return new FilterIndex(project, vals);
+			FilterIndex index = _indexes.get(project);
+			if (index == null || index.getValidators() != vals){
+				index = new FilterIndex(project, vals);
+				_indexes.put(project, index);
+			}
+			return index;
+		}
+		
 		public void reset(){
 			_cache.clear();
+			_indexes.clear();
 			_global.set(null);
 		}
 		
 		public void reset(IProject project){
-			if (project != null)_cache.remove(project);
+			if (project != null){
+				_cache.remove(project);
+				_indexes.remove(project);
+			}
 		}
 
 	}
@@ -57,6 +57,8 @@ public class ValMessages extends NLS {
 	
 	public static String MigrationJobName;
 	
+	public static String ParallelName;
+	
 	public static String RogueValidator;
 	
 	public static String RuleProjectNature;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2008 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -64,6 +66,16 @@ public final class ValOperation {
 	
 	private final Set<IResource>	_validatedProjects = new HashSet<IResource>(20);
 	
+	/** 
+	 * The ids of the markers that were created before the operation started, but that were found to still
+	 * be correct. They are treated as if they had been created by this operation.
+	 */
+	private final Set<Long>	_keptMarkers = new HashSet<Long>(50);
+	
+	/** The resources that are being validated, and the markers that have been collected for them. */
+	private final ConcurrentMap<IResource, MarkerManager.Batch> _markerBatches = 
+		new ConcurrentHashMap<IResource, MarkerManager.Batch>();
+	
 	public ValOperation(){
 		_multiProject = false;
 	}
@@ -146,6 +158,54 @@ public final class ValOperation {
 		}
 	}
 	
+	/**
+	 * Remember that this marker was created before the operation started, but is still correct.
+	 * 
+	 * @param id the id of the marker.
+	 */
+	public void keepMarker(long id){
+		synchronized(_keptMarkers){
+			_keptMarkers.add(id);
+		}
+	}
+	
+	/**
+	 * Answer if this marker was created before the operation started, but was found to still be correct.
+	 * 
+	 * @param id the id of the marker.
+	 */
+	public boolean isKeptMarker(long id){
+		synchronized(_keptMarkers){
+			return _keptMarkers.contains(id);
+		}
+	}
+	
+	/**
+	 * Start collecting the markers for the resource in this batch.
+	 * 
+	 * @return false if the markers for the resource are already being collected.
+	 */
+	boolean addMarkerBatch(IResource resource, MarkerManager.Batch batch){
+		return _markerBatches.putIfAbsent(resource, batch) == null;
+	}
+	
+	/**
+	 * Answer the batch that the markers for the resource are being collected in, or null if they are not
+	 * being collected.
+	 */
+	MarkerManager.Batch getMarkerBatch(IResource resource){
+		return _markerBatches.get(resource);
+	}
+	
+	/**
+	 * Stop collecting the markers for the resource.
+	 * 
+	 * @return the batch that the markers were collected in, or null if they were not being collected.
+	 */
+	MarkerManager.Batch removeMarkerBatch(IResource resource){
+		return _markerBatches.remove(resource);
+	}
+	
 	/**
 	 * Answer if this resource has been validated
 	 * 
@@ -188,7 +248,9 @@ public final class ValOperation {
 	void suspendValidation(IProject project, Validator validator) {
 		if (project == null)return;
 		if (validator == null)return;
-		getSuspended(project).add(validator.getId());
+		synchronized(_suspended){
+			getSuspended(project).add(validator.getId());
+		}
 	}
 
 	public long getStarted() {
@@ -201,6 +201,8 @@ public final class ValPrefManagerGlobal {
 		gp.disableAllValidation = pref.getBoolean(PrefConstants.suspend, GlobalPreferences.DefaultSuspend);
 		gp.confirmDialog = pref.getBoolean(PrefConstants.confirmDialog, GlobalPreferences.DefaultConfirm);
 		gp.override = pref.getBoolean(PrefConstants.override, GlobalPreferences.DefaultOverride);
+		gp.parallel = pref.getBoolean(PrefConstants.parallel, GlobalPreferences.DefaultParallel);
+		gp.cacheResults = pref.getBoolean(PrefConstants.cacheResults, GlobalPreferences.DefaultCacheResults);
 		gp.version = pref.getInt(PrefConstants.frameworkVersion, GlobalPreferences.DefaultFrameworkVersion);
 		gp.stateTimeStamp = pref.getLong(PrefConstants.stateTS, 0);
 		
@@ -513,6 +515,8 @@ public final class ValPrefManagerGlobal {
 		prefs.putLong(PrefConstants.stateTS, gp.getStateTimeStamp());
 		prefs.putBoolean(PrefConstants.confirmDialog, gp.getConfirmDialog());
 		prefs.putBoolean(PrefConstants.override, gp.getOverride());
+		prefs.putBoolean(PrefConstants.parallel, gp.getParallel());
+		prefs.putBoolean(PrefConstants.cacheResults, gp.getCacheResults());
 		prefs.putInt(PrefConstants.frameworkVersion, ValPrefManagerGlobal.frameworkVersion);
 	}
 
@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.wst.validation.IPerformanceMonitor;
+import org.eclipse.wst.validation.PerformanceCounters;
+import org.eclipse.wst.validation.ValidationFramework;
+import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.internal.plugin.ValidationPlugin;
+
+/**
+ * Runs independent pieces of validation work concurrently on a bounded pool of worker threads. This is
+ * only used when the parallel validation preference has been turned on.
+ * <p>
+ * The thread that submits the work takes tasks from it along with the worker threads, so it never waits for
+ * a task that is still queued behind other work. It only waits for the tasks that workers have already
+ * started. Work that is submitted from one of the worker threads is always run inline, so that a worker
+ * never blocks waiting for another worker.
+ * </p>
+ */
+public final class ValidationExecutor {
+
+	/** The id that is used when reporting the time that was saved by running validators concurrently. */
+	public static final String ParallelId = ValidationPlugin.PLUGIN_ID + ".parallel"; //$NON-NLS-1$
+
+	private static ValidationExecutor _me;
+
+	/** 
+	 * The locks that keep each validator from being called by more than one thread at a time for the same
+	 * project, by validator id and project name.
+	 */
+	private static final ConcurrentMap<String, Object> _locks = new ConcurrentHashMap<String, Object>();
+
+	private final ExecutorService _pool;
+	private final int _threads;
+	private final AtomicInteger _threadNumber = new AtomicInteger();
+
+	/**
+	 * Answer the executor, starting the worker threads if this is the first time that it has been used.
+	 */
+	public static synchronized ValidationExecutor getDefault(){
+		if (_me == null)_me = new ValidationExecutor();
+		return _me;
+	}
+
+	/**
+	 * Stop the worker threads, if they were ever started.
+	 */
+	public static synchronized void shutdown(){
+		if (_me != null){
+			_me._pool.shutdownNow();
+			_me = null;
+		}
+	}
+
+	/**
+	 * Answer true if work should be spread across the worker threads. This is the case if the parallel
+	 * preference is turned on, and we are not already running on one of the worker threads.
+	 */
+	public static boolean isParallel(){
+		if (isWorker())return false;
+		return ValManager.getDefault().getGlobalPreferences().getParallel();
+	}
+
+	/**
+	 * Answer the lock that must be held while the validator is being called for a resource in the project,
+	 * or null if no lock is needed. Validators are not required to be thread safe, so unless a validator has
+	 * declared that it is, it is never called concurrently for resources in the same project. No lock is
+	 * needed if parallel validation has not been turned on.
+	 */
+	public static Object getLock(Validator validator, IProject project){
+		if (validator.isThreadSafe() || !ValManager.getDefault().getGlobalPreferences().getParallel())return null;
+		String id = project == null ? validator.getId() : validator.getId() + '/' + project.getName();
+		Object lock = _locks.get(id);
+		if (lock == null){
+			lock = new Object();
+			Object existing = _locks.putIfAbsent(id, lock);
+			if (existing != null)lock = existing;
+		}
+		return lock;
+	}
+
+	/**
+	 * Answer true if the current thread is one of the validation worker threads.
+	 */
+	public static boolean isWorker(){
+		return Thread.currentThread() instanceof Worker;
+	}
+
+	private ValidationExecutor(){
+		_threads = Runtime.getRuntime().availableProcessors();
+		_pool = new ThreadPoolExecutor(_threads, _threads, 0L, TimeUnit.MILLISECONDS,
+			new LinkedBlockingQueue<Runnable>(), new ThreadFactory(){
+
+				public Thread newThread(Runnable r) {
+					return new Worker(r, _threadNumber.incrementAndGet());
+				}
+			});
+	}
+
+	/**
+	 * Run all of the tasks and wait for them to finish. The tasks are shared between the calling thread and
+	 * the worker threads; the calling thread keeps taking tasks until there are none left, and then waits for
+	 * the ones that the workers are still running. If performance counters are being collected, the wall time
+	 * that was saved, compared to running the tasks one after another, is reported under the {@link #ParallelId}.
+	 *
+	 * @param tasks
+	 *            The work to be done. The tasks are expected to handle their own exceptions.
+	 * @param resourceName
+	 *            The name that is used when reporting the performance counters.
+	 */
+	public void invokeAll(List<Runnable> tasks, String resourceName){
+		if (tasks.size() == 0)return;
+		AtomicLong busy = new AtomicLong();
+		long start = System.currentTimeMillis();
+		Batch batch = new Batch(tasks, busy);
+		int helpers = Math.min(tasks.size() - 1, _threads);
+		List<Future<?>> futures = new ArrayList<Future<?>>(helpers);
+		try {
+			for (int i=0; i<helpers; i++){
+				futures.add(_pool.submit(batch));
+			}
+		}
+		catch (RejectedExecutionException e){
+			// the executor has been shut down, the calling thread does the rest of the work
+		}
+		batch.run();
+
+		// Helpers that have not started yet would find nothing left to do, so they are simply cancelled. We
+		// always wait for the ones that have started, since the callers depend on the tasks being finished.
+		boolean interrupted = false;
+		for (Future<?> f : futures){
+			if (f.cancel(false))continue;
+			boolean waiting = true;
+			while (waiting){
+				try {
+					f.get();
+					waiting = false;
+				}
+				catch (InterruptedException e){
+					interrupted = true;
+				}
+				catch (ExecutionException e){
+					ValidationPlugin.getPlugin().handleException(e.getCause());
+					waiting = false;
+				}
+			}
+		}
+		if (interrupted)Thread.currentThread().interrupt();
+
+		IPerformanceMonitor pm = ValidationFramework.getDefault().getPerformanceMonitor();
+		if (pm.isCollecting()){
+			long saved = busy.get() - (System.currentTimeMillis() - start);
+			if (saved > 0)pm.add(new PerformanceCounters(ParallelId, ValMessages.ParallelName, resourceName,
+				tasks.size(), saved, -1));
+		}
+	}
+
+	/**
+	 * Answer a progress monitor that can safely be handed to a task that runs on a worker thread. It only
+	 * reports the cancellation state of the original monitor, progress is not reported.
+	 *
+	 * @param monitor the monitor of the thread that is submitting the work.
+	 */
+	public static IProgressMonitor cancelOnly(final IProgressMonitor monitor){
+		return new NullProgressMonitor(){
+
+			@Override
+			public boolean isCanceled() {
+				return super.isCanceled() || monitor.isCanceled();
+			}
+		};
+	}
+
+	/**
+	 * The tasks of one call to invokeAll. Each thread that runs the batch keeps taking the next task that
+	 * nobody has taken yet, and keeps track of how long the tasks took to run.
+	 */
+	private final static class Batch implements Runnable {
+
+		private final List<Runnable>	_tasks;
+		private final AtomicLong		_busy;
+		private final AtomicInteger		_next = new AtomicInteger();
+
+		public Batch(List<Runnable> tasks, AtomicLong busy){
+			_tasks = new ArrayList<Runnable>(tasks);
+			_busy = busy;
+		}
+
+		public void run() {
+			for (int i = _next.getAndIncrement(); i < _tasks.size(); i = _next.getAndIncrement()){
+				long start = System.currentTimeMillis();
+				try {
+					_tasks.get(i).run();
+				}
+				catch (RuntimeException e){
+					ValidationPlugin.getPlugin().handleException(e);
+				}
+				finally {
+					_busy.addAndGet(System.currentTimeMillis() - start);
+				}
+			}
+		}
+	}
+
+	private final static class Worker extends Thread {
+
+		public Worker(Runnable r, int number){
+			super(r, "Validation Worker " + number); //$NON-NLS-1$
+			setDaemon(true);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2012 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -176,6 +176,7 @@ public class ValidatorExtensionReader {
 			v.setMarkerId(validator.getAttribute(ExtensionConstants.markerId));
 			v.setVersion(getAttribute(validator, ExtensionConstants.version, 1));
 			v.setSourceId(validator.getAttribute(ExtensionConstants.sourceId));
+			v.setThreadSafe(getAttribute(validator, ExtensionConstants.threadSafe, false));
 			IConfigurationElement[] children = validator.getChildren();
 			for (IConfigurationElement child : children)processIncludeAndExcludeElement(v, child);
 		}
@@ -0,0 +1,384 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.validation.internal.model;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.wst.validation.Validator;
+import org.eclipse.wst.validation.internal.ContentTypeWrapper;
+
+/**
+ * The filters of all the validators of a project, compiled into a form where they can be evaluated for a
+ * resource in a single pass.
+ * <p>
+ * Every filter group of every version 2 validator is given a slot. The rules are then indexed by what they
+ * look at: file extensions are kept in hash tables, file, folder and full path names are kept in prefix
+ * tries, content types are bucketed by their id, and the project level rules (natures, facets and target
+ * runtimes) are evaluated once, when the index is built. Matching a resource marks the slots of all the
+ * groups that have a matching rule, and then each validator only needs to look at the slots of its own
+ * groups.
+ * </p>
+ * <p>
+ * The index is immutable. It needs to be rebuilt whenever the validators, or the project's natures,
+ * facets or runtimes change.
+ * </p>
+ */
+public final class FilterIndex {
+
+	private final Validator[] 	_validators;
+
+	/** For each validator, the first slot of it's groups, or -1 if the validator isn't indexed. */
+	private final int[]			_firstSlot;
+
+	/** For each validator, the groups that were indexed. This is used to notice if the groups have changed. */
+	private final FilterGroup[][] _groups;
+
+	/** For each slot, true if the group is an exclusion group. */
+	private final boolean[]		_exclude;
+
+	/** For each slot, true if the group doesn't have any rules. */
+	private final boolean[]		_empty;
+
+	/** For each slot, true if one of the project level rules matched. */
+	private final boolean[]		_projectMatch;
+
+	private final Map<String, int[]>	_extCase = new HashMap<String, int[]>(50);
+	private final Map<String, int[]>	_extNoCase = new HashMap<String, int[]>(50);
+
+	private final Trie[]		_names = {new Trie(), new Trie(), new Trie()};
+	private final Trie[]		_namesNoCase = {new Trie(), new Trie(), new Trie()};
+
+	private final Map<String, int[]>	_contentTypeExact = new HashMap<String, int[]>(20);
+	private final List<Slotted<IContentType>> 	_contentTypeKindOf = new LinkedList<Slotted<IContentType>>();
+
+	private final List<Slotted<Pattern>>	_patterns = new LinkedList<Slotted<Pattern>>();
+
+	/** Rules that we don't know how to index, and so need to be evaluated one by one. */
+	private final List<Slotted<FilterRule>> _others = new LinkedList<Slotted<FilterRule>>();
+
+	private final IProject	_project;
+	private final int		_slots;
+
+	/**
+	 * Compile the filters of the validators.
+	 *
+	 * @param project
+	 *            The project that the validators belong to.
+	 * @param validators
+	 *            The validators of the project.
+	 */
+	public FilterIndex(IProject project, Validator[] validators){
+		_project = project;
+		_validators = validators;
+		_firstSlot = new int[validators.length];
+		_groups = new FilterGroup[validators.length][];
+
+		int slots = 0;
+		for (int i=0; i<validators.length; i++){
+			Validator.V2 v2 = validators[i].asV2Validator();
+			_firstSlot[i] = -1;
+			if (v2 == null)continue;
+			_groups[i] = v2.getGroups();
+			_firstSlot[i] = slots;
+			slots += _groups[i].length;
+		}
+		_slots = slots;
+		_exclude = new boolean[slots];
+		_empty = new boolean[slots];
+		_projectMatch = new boolean[slots];
+
+		Map<String, List<Integer>> extCase = new HashMap<String, List<Integer>>(50);
+		Map<String, List<Integer>> extNoCase = new HashMap<String, List<Integer>>(50);
+		Map<String, List<Integer>> contentTypes = new HashMap<String, List<Integer>>(20);
+		for (int i=0; i<validators.length; i++){
+			if (_firstSlot[i] < 0)continue;
+			for (int g=0; g<_groups[i].length; g++){
+				int slot = _firstSlot[i] + g;
+				FilterGroup group = _groups[i][g];
+				_exclude[slot] = group.isExclude();
+				FilterRule[] rules = group.getRules();
+				_empty[slot] = rules.length == 0;
+				for (FilterRule rule : rules){
+					if (rule == null)continue;
+					compile(rule, slot, extCase, extNoCase, contentTypes);
+				}
+			}
+		}
+		toSlots(extCase, _extCase);
+		toSlots(extNoCase, _extNoCase);
+		toSlots(contentTypes, _contentTypeExact);
+	}
+
+	private void compile(FilterRule rule, int slot, Map<String, List<Integer>> extCase,
+		Map<String, List<Integer>> extNoCase, Map<String, List<Integer>> contentTypes){
+
+		if (rule instanceof FilterRule.FileExt){
+			FilterRule.FileExt ext = (FilterRule.FileExt)rule;
+			if (ext.getPattern() == null)return;
+			if (ext.isCaseSensitive())add(extCase, ext.getPattern(), slot);
+			else add(extNoCase, ext.getPattern().toLowerCase(), slot);
+		}
+		else if (rule instanceof FilterRule.File){
+			FilterRule.File file = (FilterRule.File)rule;
+			String pattern = file.getPattern();
+			int type = file.getFileType();
+			if (pattern == null || type < FilterRule.File.FileTypeFile || type > FilterRule.File.FileTypeFull)return;
+			if (file.isCaseSensitive())_names[type-1].add(pattern, slot);
+			else _namesNoCase[type-1].add(pattern.toLowerCase(), slot);
+		}
+		else if (rule instanceof FilterRule.ContentType){
+			FilterRule.ContentType ct = (FilterRule.ContentType)rule;
+			IContentType type = ct.getContentType();
+			if (type == null)return;
+			if (ct.isExactMatch())add(contentTypes, type.getId(), slot);
+			else _contentTypeKindOf.add(new Slotted<IContentType>(type, slot));
+		}
+		else if (rule instanceof FilterRule.FilePattern){
+			_patterns.add(new Slotted<Pattern>(((FilterRule.FilePattern)rule).getCompiledPattern(), slot));
+		}
+		else if (rule instanceof FilterRule.ProjectNature || rule instanceof FilterRule.Facet ||
+			rule instanceof FilterRule.TargetRuntime){
+			if (!_projectMatch[slot] && Boolean.TRUE.equals(rule.matchesProject(_project)))_projectMatch[slot] = true;
+		}
+		else _others.add(new Slotted<FilterRule>(rule, slot));
+	}
+
+	private static void add(Map<String, List<Integer>> map, String key, int slot){
+		List<Integer> list = map.get(key);
+		if (list == null){
+			list = new LinkedList<Integer>();
+			map.put(key, list);
+		}
+		list.add(slot);
+	}
+
+	private static void toSlots(Map<String, List<Integer>> from, Map<String, int[]> to){
+		for (Map.Entry<String, List<Integer>> me : from.entrySet())to.put(me.getKey(), toArray(me.getValue()));
+	}
+
+	private static int[] toArray(List<Integer> list){
+		int[] slots = new int[list.size()];
+		int i = 0;
+		for (Integer slot : list)slots[i++] = slot;
+		return slots;
+	}
+
+	/**
+	 * Answer the validators that this index was built for.
+	 */
+	public Validator[] getValidators(){
+		return _validators;
+	}
+
+	/**
+	 * Evaluate all the filters against a resource.
+	 *
+	 * @param resource
+	 *            The resource that is being validated.
+	 * @param contentTypeWrapper
+	 *            Used to remember the content type of the resource.
+	 */
+	public Match match(IResource resource, ContentTypeWrapper contentTypeWrapper){
+		return new Match(resource, contentTypeWrapper);
+	}
+
+	/**
+	 * The result of evaluating all the filters against one resource.
+	 */
+	public final class Match {
+
+		private final IResource				_resource;
+		private final ContentTypeWrapper	_contentTypeWrapper;
+		private final boolean[] 			_matched;
+		private final boolean				_derived;
+
+		private Match(IResource resource, ContentTypeWrapper contentTypeWrapper){
+			_resource = resource;
+			_contentTypeWrapper = contentTypeWrapper;
+			_derived = resource.isDerived();
+			_matched = new boolean[_slots];
+			if (!_derived && _slots > 0)evaluate();
+		}
+
+		private void evaluate(){
+			System.arraycopy(_projectMatch, 0, _matched, 0, _slots);
+
+			String ext = _resource.getFileExtension();
+			if (ext != null){
+				mark(_extCase.get(ext));
+				if (_extNoCase.size() > 0)mark(_extNoCase.get(ext.toLowerCase()));
+			}
+
+			String name = _resource.getName();
+			_names[0].match(name, 0, name.length(), false, _matched);
+			_namesNoCase[0].match(name, 0, name.length(), true, _matched);
+
+			String full = null;
+			if (!_names[1].isEmpty() || !_namesNoCase[1].isEmpty() ||
+				!_names[2].isEmpty() || !_namesNoCase[2].isEmpty() || _patterns.size() > 0){
+				full = FilterRule.PortableFileDelim + _resource.getProjectRelativePath().toPortableString();
+
+				// the folder rules are matched against the parent folder, with a trailing delimiter
+				IPath path = _resource.getProjectRelativePath();
+				int end = path.segmentCount() > 1 ? full.lastIndexOf(FilterRule.PortableFileDelim) + 1 : 1;
+				int start = path.segmentCount() > 1 ? 1 : 0;
+				_names[1].match(full, start, end, false, _matched);
+				_namesNoCase[1].match(full, start, end, true, _matched);
+
+				_names[2].match(full, 1, full.length(), false, _matched);
+				_namesNoCase[2].match(full, 1, full.length(), true, _matched);
+
+				for (Slotted<Pattern> p : _patterns){
+					if (!_matched[p.slot] && p.item.matcher(full).matches())_matched[p.slot] = true;
+				}
+			}
+
+			if ((_contentTypeExact.size() > 0 || _contentTypeKindOf.size() > 0) && _resource instanceof IFile){
+				IContentType ct = _contentTypeWrapper.getContentType((IFile)_resource);
+				if (ct != null){
+					mark(_contentTypeExact.get(ct.getId()));
+					for (Slotted<IContentType> type : _contentTypeKindOf){
+						if (!_matched[type.slot] && ct.isKindOf(type.item))_matched[type.slot] = true;
+					}
+				}
+			}
+
+			for (Slotted<FilterRule> rule : _others){
+				if (_matched[rule.slot])continue;
+				if (Boolean.TRUE.equals(rule.item.matchesResource(_resource, _contentTypeWrapper)) ||
+					Boolean.TRUE.equals(rule.item.matchesProject(_project)))_matched[rule.slot] = true;
+			}
+		}
+
+		private void mark(int[] slots){
+			if (slots == null)return;
+			for (int slot : slots)_matched[slot] = true;
+		}
+
+		/**
+		 * Answer whether the validator should validate the resource, based on it's filters.
+		 *
+		 * @param index
+		 *            The position of the validator in {@link FilterIndex#getValidators()}.
+		 * @return null if the validator was not indexed, or if it's filters have changed since the index
+		 *         was built. In that case the validator needs to be asked directly.
+		 */
+		public Boolean shouldValidate(int index){
+			int first = _firstSlot[index];
+			if (first < 0)return null;
+			Validator.V2 v2 = _validators[index].asV2Validator();
+			if (v2 == null || v2.getGroups() != _groups[index])return null;
+			if (_derived)return Boolean.FALSE;
+			int end = first + _groups[index].length;
+			for (int slot = first; slot < end; slot++){
+				if (_exclude[slot]){
+					if (_matched[slot])return Boolean.FALSE;
+				}
+				else if (!_matched[slot] && !_empty[slot])return Boolean.FALSE;
+			}
+			return Boolean.TRUE;
+		}
+
+		public ContentTypeWrapper getContentTypeWrapper(){
+			return _contentTypeWrapper;
+		}
+	}
+
+	/**
+	 * A prefix tree of patterns. Each node remembers the slots of the patterns that end there, so walking a
+	 * name through the tree finds all the patterns that the name starts with.
+	 */
+	private final static class Trie {
+		private final Node _root = new Node();
+		private boolean _empty = true;
+
+		public void add(String pattern, int slot){
+			Node node = _root;
+			for (int i=0; i<pattern.length(); i++)node = node.child(pattern.charAt(i), true);
+			node.add(slot);
+			_empty = false;
+		}
+
+		public boolean isEmpty(){
+			return _empty;
+		}
+
+		/**
+		 * Mark the slots of all the patterns that are a prefix of name.substring(start, end).
+		 */
+		public void match(String name, int start, int end, boolean lowerCase, boolean[] matched){
+			if (_empty)return;
+			Node node = _root;
+			node.mark(matched);
+			for (int i=start; i<end && node != null; i++){
+				char c = name.charAt(i);
+				if (lowerCase)c = Character.toLowerCase(c);
+				node = node.child(c, false);
+				if (node != null)node.mark(matched);
+			}
+		}
+	}
+
+	private final static class Node {
+		private char[] 	_keys = new char[0];
+		private Node[]	_children = new Node[0];
+		private int[]	_slots = new int[0];
+
+		public Node child(char c, boolean create){
+			for (int i=0; i<_keys.length; i++){
+				if (_keys[i] == c)return _children[i];
+			}
+			if (!create)return null;
+
+			char[] keys = new char[_keys.length+1];
+			System.arraycopy(_keys, 0, keys, 0, _keys.length);
+			keys[_keys.length] = c;
+			Node[] children = new Node[_children.length+1];
+			System.arraycopy(_children, 0, children, 0, _children.length);
+			Node node = new Node();
+			children[_children.length] = node;
+			_keys = keys;
+			_children = children;
+			return node;
+		}
+
+		public void add(int slot){
+			int[] slots = new int[_slots.length+1];
+			System.arraycopy(_slots, 0, slots, 0, _slots.length);
+			slots[_slots.length] = slot;
+			_slots = slots;
+		}
+
+		public void mark(boolean[] matched){
+			for (int slot : _slots)matched[slot] = true;
+		}
+	}
+
+	private final static class Slotted<T> {
+		final T 	item;
+		final int	slot;
+
+		Slotted(T item, int slot){
+			this.item = item;
+			this.slot = slot;
+		}
+	}
+
+}
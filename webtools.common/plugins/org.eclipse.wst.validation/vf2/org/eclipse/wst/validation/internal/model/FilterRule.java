@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -338,6 +338,11 @@ public abstract class FilterRule implements IAdaptable {
 			return new File(pattern, caseSensitive, myType);
 		}
 		
+		/** Answer one of the FileTypeXX constants. */
+		int getFileType(){
+			return _type;
+		}
+		
 		private  File(String pattern, boolean caseSensitive, int type){			
 			super(pattern, caseSensitive);
 			_type = type;
@@ -495,6 +500,15 @@ public abstract class FilterRule implements IAdaptable {
 			return ExtensionConstants.Rule.contentType;
 		}
 		
+		/** Answer the content type, or null if the content type is not known. */
+		IContentType getContentType(){
+			return _type;
+		}
+		
+		boolean isExactMatch(){
+			return _exactMatch;
+		}
+		
 		@Override
 		public int hashCodeForConfig() {
 			int h =  super.hashCodeForConfig();
@@ -613,6 +627,10 @@ public abstract class FilterRule implements IAdaptable {
 			Pattern compiledPattern = Pattern.compile(pattern, flags);				
 			_compiledPattern = compiledPattern;
 		}
+		
+		Pattern getCompiledPattern(){
+			return _compiledPattern;
+		}
 
 		@Override
 		public String getDisplayableType() {
@@ -28,6 +28,12 @@ public final class GlobalPreferences {
 	/** false - Default setting for letting projects override the global settings. */
 	public static final boolean DefaultOverride = true;
 	
+	/** false - Default setting for running independent validators concurrently. */
+	public static final boolean DefaultParallel = false;
+	
+	/** false - Default setting for reusing the results of earlier validations of unchanged files. */
+	public static final boolean DefaultCacheResults = false;
+	
 	/** 2 - The version of the framework meta data, if an explicit version isn't found. */
 	public static final int DefaultFrameworkVersion = 2;
 	
@@ -38,6 +44,8 @@ public final class GlobalPreferences {
 	public final static int SaveAutomaticallyMask = 8;
 	public final static int StateTimeStampMask = 16;
 	public final static int VersionMask = 32;
+	public final static int ParallelMask = 64;
+	public final static int CacheResultsMask = 128;
 	
 	/**
 	 * The changes that could affect what gets validated.
@@ -49,6 +57,8 @@ public final class GlobalPreferences {
 	private final boolean _disableAllValidation;
 	private final boolean _override;
 	private final boolean _saveAutomatically;
+	private final boolean _parallel;
+	private final boolean _cacheResults;
 	
 	/** The plug-in state time stamp. */
 	private final long	_stateTimeStamp;
@@ -66,6 +76,8 @@ public final class GlobalPreferences {
 		_disableAllValidation = gp.disableAllValidation;
 		_override = gp.override;
 		_saveAutomatically = gp.saveAutomatically;
+		_parallel = gp.parallel;
+		_cacheResults = gp.cacheResults;
 		_stateTimeStamp = gp.stateTimeStamp;
 		_version = gp.version;
 	}
@@ -80,6 +92,8 @@ public final class GlobalPreferences {
 		gp.disableAllValidation = _disableAllValidation;
 		gp.override = _override;
 		gp.saveAutomatically = _saveAutomatically;
+		gp.parallel = _parallel;
+		gp.cacheResults = _cacheResults;
 		gp.stateTimeStamp = _stateTimeStamp;
 		gp.version = _version;
 		return gp;
@@ -97,6 +111,22 @@ public final class GlobalPreferences {
 		return _disableAllValidation;
 	}
 
+	/**
+	 * Answer if independent validators (and independent resources during a build) may be run
+	 * concurrently on the validation worker threads.
+	 */
+	public boolean getParallel() {
+		return _parallel;
+	}
+
+	/**
+	 * Answer if the results of validating a file may be remembered across sessions, so that files that have
+	 * not changed do not need to be validated again.
+	 */
+	public boolean getCacheResults() {
+		return _cacheResults;
+	}
+
 	public boolean getConfirmDialog() {
 		return _confirmDialog;
 	}
@@ -127,6 +157,8 @@ public final class GlobalPreferences {
 		if (_saveAutomatically != gp.getSaveAutomatically())changes |= SaveAutomaticallyMask;
 		if (_stateTimeStamp != gp.getStateTimeStamp())changes |= StateTimeStampMask;
 		if (_version != gp.getVersion())changes |= VersionMask;
+		if (_parallel != gp.getParallel())changes |= ParallelMask;
+		if (_cacheResults != gp.getCacheResults())changes |= CacheResultsMask;
 		return changes;
 	}
 
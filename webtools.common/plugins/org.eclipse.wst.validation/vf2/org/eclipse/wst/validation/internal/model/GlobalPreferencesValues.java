@@ -21,6 +21,8 @@ public class GlobalPreferencesValues {
 	public boolean saveAutomatically = GlobalPreferences.DefaultAutoSave;
 	public boolean confirmDialog = GlobalPreferences.DefaultConfirm;
 	public boolean override = GlobalPreferences.DefaultOverride;
+	public boolean parallel = GlobalPreferences.DefaultParallel;
+	public boolean cacheResults = GlobalPreferences.DefaultCacheResults;
 	
 	/** The plug-in state time stamp. */
 	public long	stateTimeStamp;